@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.benchmarks;
+
+import com.log4rich.core.LogLevel;
+import com.log4rich.layouts.Layout;
+import com.log4rich.util.LocationInfo;
+import com.log4rich.util.LoggingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@code StandardLayout} and {@code JsonLayout} on the same event,
+ * both formatting to a {@code String} and encoding to bytes.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutBenchmark {
+
+    @Param({"standard", "json"})
+    public String layoutName;
+
+    private Layout layout;
+    private LoggingEvent event;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        layout = LoggerBenchmark.createLayout(layoutName);
+        LocationInfo location = new LocationInfo(
+                "com.example.service.AccountService", "openSession", "AccountService.java", 128);
+        event = new LoggingEvent(LogLevel.INFO, "User session started for account {} from {}",
+                new Object[]{12345, "10.0.0.1"}, "com.example.service.AccountService",
+                location, null, null, null);
+        buffer = ByteBuffer.allocate(1024);
+    }
+
+    @Benchmark
+    public String format() {
+        return layout.format(event);
+    }
+
+    @Benchmark
+    public int encode() {
+        buffer.clear();
+        buffer = layout.encode(event, buffer);
+        return buffer.position();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.benchmarks;
+
+import com.log4rich.appenders.Appender;
+import com.log4rich.core.LogLevel;
+import com.log4rich.core.Logger;
+import com.log4rich.layouts.JsonLayout;
+import com.log4rich.layouts.Layout;
+import com.log4rich.layouts.StandardLayout;
+import com.log4rich.util.LoggingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the synchronous logging pipeline from {@link Logger} through
+ * layout and UTF-8 encoding, stopping short of any I/O. The appender encodes
+ * each event into a reused buffer and discards the bytes.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+
+    @Param({"standard", "json"})
+    public String layout;
+
+    @Param({"false", "true"})
+    public boolean locationCapture;
+
+    private Logger logger;
+    private EncodingAppender appender;
+
+    @Setup
+    public void setUp() {
+        appender = new EncodingAppender(createLayout(layout));
+        logger = new Logger("com.log4rich.benchmarks.LoggerBenchmark");
+        logger.setLevel(LogLevel.INFO);
+        logger.setLocationCapture(locationCapture);
+        logger.addAppender(appender);
+    }
+
+    @Benchmark
+    public int plainMessage() {
+        logger.info("User session started for account 12345 from 10.0.0.1");
+        return appender.bytes;
+    }
+
+    @Benchmark
+    public int parameterizedMessage() {
+        logger.info("User session started for account {} from {}", 12345, "10.0.0.1");
+        return appender.bytes;
+    }
+
+    @Benchmark
+    public int disabledLevel() {
+        logger.debug("User session started for account {} from {}", 12345, "10.0.0.1");
+        return appender.bytes;
+    }
+
+    static Layout createLayout(String name) {
+        switch (name) {
+            case "standard":
+                return new StandardLayout();
+            case "json":
+                return new JsonLayout();
+            default:
+                throw new IllegalArgumentException("Unknown layout: " + name);
+        }
+    }
+
+    /**
+     * Appender that encodes events with its layout and drops the result.
+     */
+    static final class EncodingAppender implements Appender {
+        private final Layout layout;
+        private ByteBuffer buffer = ByteBuffer.allocate(1024);
+        private String name = "encoding";
+        private LogLevel level = LogLevel.TRACE;
+        private boolean closed = false;
+        int bytes;
+
+        EncodingAppender(Layout layout) {
+            this.layout = layout;
+        }
+
+        @Override
+        public void append(LoggingEvent event) {
+            buffer.clear();
+            buffer = layout.encode(event, buffer);
+            bytes = buffer.position();
+        }
+
+        @Override public String getName() { return name; }
+        @Override public void setName(String name) { this.name = name; }
+        @Override public boolean isClosed() { return closed; }
+        @Override public void close() { closed = true; }
+        @Override public void setLayout(Layout layout) { throw new UnsupportedOperationException(); }
+        @Override public Layout getLayout() { return layout; }
+        @Override public void setLevel(LogLevel level) { this.level = level; }
+        @Override public LogLevel getLevel() { return level; }
+        @Override public boolean isLevelEnabled(LogLevel level) { return level.isGreaterOrEqual(this.level); }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.benchmarks;
+
+import com.log4rich.util.MessageFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link MessageFormatter} placeholder substitution. Arguments are
+ * read from fields so the JIT cannot fold them into constants.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageFormatterBenchmark {
+
+    public String user = "alice";
+    public int count = 42;
+    public long elapsed = 1234567L;
+    public Object[] arguments = {"alice", 42, 1234567L};
+
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    @Benchmark
+    public String noArguments() {
+        return MessageFormatter.format("Request completed without placeholders");
+    }
+
+    @Benchmark
+    public String oneArgument() {
+        return MessageFormatter.format("Request completed for {}", user);
+    }
+
+    @Benchmark
+    public String threeArguments() {
+        return MessageFormatter.format("Request for {} returned {} rows in {} ns", user, count, elapsed);
+    }
+
+    @Benchmark
+    public int threeArgumentsIntoBuffer() {
+        buffer.setLength(0);
+        MessageFormatter.formatTo(buffer, "Request for {} returned {} rows in {} ns", arguments);
+        return buffer.length();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.benchmarks;
+
+import com.log4rich.util.RingBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures publish throughput of {@link RingBuffer} with 1, 4 and 16 producer
+ * threads against a single consumer draining in the background, in both
+ * reference-passing and pre-allocated mode. When the buffer is full a
+ * producer parks briefly and retries, as {@link RingBuffer#publish(Object, long)}
+ * does, so the score reflects the sustained end-to-end rate rather than how
+ * quickly the buffer fills.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingBufferBenchmark {
+
+    private static final Object[] ITEM = {new Object()};
+
+    @Param({"reference", "preallocated"})
+    public String mode;
+
+    private RingBuffer<Object[]> buffer;
+    private boolean preallocated;
+    private volatile boolean running;
+    private Thread consumer;
+    private long consumed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        preallocated = "preallocated".equals(mode);
+        buffer = preallocated ? new RingBuffer<>(8192, () -> new Object[1]) : new RingBuffer<>(8192);
+        running = true;
+        consumer = new Thread(this::consume, "ring-buffer-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        consumer.join(5000);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void producers1() throws InterruptedException {
+        publish();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void producers4() throws InterruptedException {
+        publish();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void producers16() throws InterruptedException {
+        publish();
+    }
+
+    private void publish() throws InterruptedException {
+        if (preallocated) {
+            long sequence;
+            while ((sequence = buffer.tryClaim()) < 0) {
+                LockSupport.parkNanos(1000);
+            }
+            buffer.get(sequence)[0] = ITEM[0];
+            buffer.publish(sequence);
+        } else {
+            buffer.publish(ITEM, 0);
+        }
+    }
+
+    private void consume() {
+        while (running) {
+            if (buffer.drainTo(item -> consumed++, 256) == 0) {
+                Thread.yield();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.benchmarks;
+
+import com.log4rich.appenders.BatchingFileAppender;
+import com.log4rich.core.LogLevel;
+import com.log4rich.util.LoggingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks many threads appending to one batching file appender, which
+ * measures how well event staging scales with the number of producers.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class SharedBatchingFileBenchmark {
+
+    private Path directory;
+    private BatchingFileAppender appender;
+    private LoggingEvent event;
+
+    @Setup(Level.Trial)
+    public void setUpEvent() {
+        event = new LoggingEvent(LogLevel.INFO, "User session started for account {} from {}",
+                new Object[]{12345, "10.0.0.1"}, "com.example.service.AccountService",
+                null, null, null, null);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("log4rich-jmh");
+        appender = new BatchingFileAppender("benchmark", directory.resolve("benchmark.log").toString());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        appender.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.map(Path::toFile)
+                 .sorted((a, b) -> b.getPath().length() - a.getPath().length())
+                 .forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public void append() {
+        appender.append(event);
+    }
+}
@@ -33,6 +33,14 @@ public interface Appender {
      */
     void append(LoggingEvent event);
     
+    /**
+     * Signal that a batch of events has been appended, such as a batch the
+     * asynchronous logger drained from its buffer. Appenders that sync to
+     * storage once per batch do so here. Does nothing by default.
+     */
+    default void endOfBatch() {
+    }
+    
     /**
      * Set the layout for this appender.
      * @param layout The layout to use
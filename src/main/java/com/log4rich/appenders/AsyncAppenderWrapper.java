@@ -16,11 +16,13 @@
  */
 package com.log4rich.appenders;
 
+import com.log4rich.config.Configuration;
 import com.log4rich.core.AsyncLogger;
 import com.log4rich.core.LogLevel;
 import com.log4rich.layouts.Layout;
 import com.log4rich.util.LoggingEvent;
 import com.log4rich.util.OverflowStrategy;
+import com.log4rich.util.WaitStrategy;
 
 /**
  * Wrapper that makes any appender asynchronous by using an AsyncLogger internally.
@@ -71,30 +73,82 @@ public class AsyncAppenderWrapper implements Appender {
      * @param overflowStrategy how to handle buffer overflow
      */
     public AsyncAppenderWrapper(Appender targetAppender, int bufferSize, OverflowStrategy overflowStrategy) {
-        if (targetAppender == null) {
-            throw new IllegalArgumentException("Target appender cannot be null");
-        }
-        
+        this(targetAppender, bufferSize, overflowStrategy, false);
+    }
+    
+    /**
+     * Creates an async wrapper with full configuration, optionally garbage-free.
+     * 
+     * @param targetAppender the appender to wrap
+     * @param bufferSize the ring buffer size (must be power of 2)
+     * @param overflowStrategy how to handle buffer overflow
+     * @param garbageFree true to copy events into pre-allocated, reusable slots
+     */
+    public AsyncAppenderWrapper(Appender targetAppender, int bufferSize, OverflowStrategy overflowStrategy,
+                                boolean garbageFree) {
+        this(targetAppender, bufferSize, overflowStrategy, garbageFree, null);
+    }
+    
+    /**
+     * Creates an async wrapper with full configuration, including the wait
+     * strategy used by the processing thread while the buffer is empty.
+     * 
+     * @param targetAppender the appender to wrap
+     * @param bufferSize the ring buffer size (must be power of 2)
+     * @param overflowStrategy how to handle buffer overflow
+     * @param garbageFree true to copy events into pre-allocated, reusable slots
+     * @param waitStrategy the idle wait strategy, or null for the default
+     */
+    public AsyncAppenderWrapper(Appender targetAppender, int bufferSize, OverflowStrategy overflowStrategy,
+                                boolean garbageFree, WaitStrategy waitStrategy) {
+        this(targetAppender, new AsyncLogger("Async-" + requireTarget(targetAppender).getName(),
+                                             bufferSize, overflowStrategy, 5000, garbageFree, waitStrategy));
+    }
+    
+    /**
+     * Creates an async wrapper from the {@code log4rich.async.*} settings of
+     * a configuration: buffer size, overflow strategy, shutdown timeout,
+     * thread priority, mutable-argument policy, garbage-free mode from
+     * {@code log4rich.performance.zeroAllocation}, and the wait strategy,
+     * which {@code log4rich.async.waitStrategy.<appenderName>} overrides
+     * for this appender.
+     * 
+     * @param targetAppender the appender to wrap
+     * @param config the configuration to read
+     * @see AsyncLogger#fromConfiguration(String, Configuration)
+     */
+    public AsyncAppenderWrapper(Appender targetAppender, Configuration config) {
+        this(targetAppender, AsyncLogger.fromConfiguration(requireTarget(targetAppender).getName(), config));
+    }
+    
+    private AsyncAppenderWrapper(Appender targetAppender, AsyncLogger asyncLogger) {
         this.targetAppender = targetAppender;
         this.name = "Async-" + targetAppender.getName();
         
-        // Create async logger with the target appender
-        this.asyncLogger = new AsyncLogger(this.name, bufferSize, overflowStrategy, 5000);
+        // The async logger writes to the target appender
+        this.asyncLogger = asyncLogger;
         this.asyncLogger.addAppender(targetAppender);
         
         System.out.println("AsyncAppenderWrapper created: " + this.name + 
                           " wrapping " + targetAppender.getName());
     }
     
+    private static Appender requireTarget(Appender targetAppender) {
+        if (targetAppender == null) {
+            throw new IllegalArgumentException("Target appender cannot be null");
+        }
+        return targetAppender;
+    }
+    
     @Override
     public void append(LoggingEvent event) {
         if (event == null || asyncLogger == null) {
             return;
         }
         
-        // Delegate to async logger - this is the non-blocking call
-        asyncLogger.doLog(event.getLevel(), event.getMessage(), 
-                         event.getThrowable(), event.getLocationInfo());
+        // Delegate to async logger - this is the non-blocking call. The event
+        // keeps its original timestamp, thread name and context.
+        asyncLogger.publish(event);
     }
     
     @Override
@@ -220,24 +274,40 @@ public class AsyncAppenderWrapper implements Appender {
         
         /**
          * Creates a high-throughput async wrapper optimized for maximum performance.
-         * Uses large buffer and drop-oldest strategy.
+         * Uses large buffer, drop-oldest strategy and backoff waiting.
          * 
          * @param appender the appender to wrap
          * @return configured async wrapper
          */
         public static AsyncAppenderWrapper createHighThroughput(Appender appender) {
-            return new AsyncAppenderWrapper(appender, 262144, OverflowStrategy.DROP_OLDEST); // 256K buffer
+            return new AsyncAppenderWrapper(appender, 262144, OverflowStrategy.DROP_OLDEST, // 256K buffer
+                                            false, new WaitStrategy.Backoff());
         }
         
         /**
          * Creates a low-latency async wrapper optimized for minimal delay.
-         * Uses smaller buffer and blocking strategy.
+         * Uses smaller buffer, blocking overflow strategy and a yielding
+         * processing thread, which picks up new events without parking.
          * 
          * @param appender the appender to wrap
          * @return configured async wrapper
          */
         public static AsyncAppenderWrapper createLowLatency(Appender appender) {
-            return new AsyncAppenderWrapper(appender, 16384, OverflowStrategy.BLOCK); // 16K buffer
+            return new AsyncAppenderWrapper(appender, 16384, OverflowStrategy.BLOCK, // 16K buffer
+                                            false, new WaitStrategy.Yielding());
+        }
+        
+        /**
+         * Creates an async wrapper whose processing thread busy-spins while idle.
+         * This gives the lowest hand-off latency but keeps one core fully busy,
+         * so only use it when a core can be dedicated to logging.
+         * 
+         * @param appender the appender to wrap
+         * @return configured async wrapper
+         */
+        public static AsyncAppenderWrapper createBusySpin(Appender appender) {
+            return new AsyncAppenderWrapper(appender, 16384, OverflowStrategy.BLOCK, // 16K buffer
+                                            false, new WaitStrategy.BusySpin());
         }
         
         /**
@@ -248,18 +318,21 @@ public class AsyncAppenderWrapper implements Appender {
          * @return configured async wrapper
          */
         public static AsyncAppenderWrapper createReliable(Appender appender) {
-            return new AsyncAppenderWrapper(appender, 65536, OverflowStrategy.SYNCHRONOUS_WRITE);
+            return new AsyncAppenderWrapper(appender, 65536, OverflowStrategy.SYNCHRONOUS_WRITE,
+                                            false, new WaitStrategy.Backoff());
         }
         
         /**
          * Creates a fire-and-forget async wrapper optimized for minimal impact.
-         * Uses discard strategy for absolute non-blocking behavior.
+         * Uses discard strategy for absolute non-blocking behavior and a
+         * blocking wait, so the processing thread uses no CPU while idle.
          * 
          * @param appender the appender to wrap
          * @return configured async wrapper
          */
         public static AsyncAppenderWrapper createFireAndForget(Appender appender) {
-            return new AsyncAppenderWrapper(appender, 32768, OverflowStrategy.DISCARD); // 32K buffer
+            return new AsyncAppenderWrapper(appender, 32768, OverflowStrategy.DISCARD, // 32K buffer
+                                            false, new WaitStrategy.Blocking());
         }
     }
 }
\ No newline at end of file
@@ -20,9 +20,12 @@ import com.log4rich.core.LogLevel;
 import com.log4rich.layouts.Layout;
 import com.log4rich.layouts.StandardLayout;
 import com.log4rich.util.BatchBuffer;
+import com.log4rich.util.DurabilityMode;
+import com.log4rich.util.GroupCommit;
 import com.log4rich.util.LoggingEvent;
 import com.log4rich.util.ObjectPools;
 import com.log4rich.util.ThreadSafeWriter;
+import com.log4rich.util.Utf8Encoder;
 
 import java.io.File;
 import java.io.IOException;
@@ -30,9 +33,11 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -44,11 +49,18 @@ import java.util.concurrent.locks.ReentrantLock;
  * RollingFileAppender to provide file rolling capabilities while maintaining
  * batch processing efficiency.
  * 
+ * Logging threads only stage events; formatting and writing happen on the
+ * appender's flush thread, which a logging thread wakes when a batch is
+ * full. If the flush thread falls several batches behind, logging threads
+ * flush themselves, which bounds the memory held by staged events.
+ * 
  * Key features:
  * - Configurable batch size and time limits
  * - Automatic periodic flushing
- * - Thread-safe batch processing  
+ * - Lock-free staging from any number of logging threads
  * - Graceful shutdown with remaining event flushing
+ * - Optional fsync per batch, per event or per interval, shared by
+ *   concurrent flushes; per event, appends wait for their own fsync
  * - Performance monitoring and statistics
  * 
  * @author log4Rich Contributors
@@ -61,12 +73,15 @@ public class BatchingFileAppender implements Appender {
     private static final long DEFAULT_BATCH_TIME_MS = 100;
     private static final long DEFAULT_FLUSH_INTERVAL_MS = 50;
     private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final long DEFAULT_SYNC_INTERVAL_MS = 1000;
+    private static final int MAX_BACKLOG_BATCHES = 4;
     
     private final BatchBuffer batchBuffer;
     private final ScheduledExecutorService scheduler;
     private final int batchSize;
     private final long batchTimeMs;
     private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
     
     // Appender fields
     private String name;
@@ -76,8 +91,10 @@ public class BatchingFileAppender implements Appender {
     private Charset encoding;
     private boolean immediateFlush;
     private int bufferSize;
+    private volatile int flushWatermark;  // 0 writes through a buffered stream
     private boolean closed;
-    private ThreadSafeWriter writer;
+    private volatile ThreadSafeWriter writer;  // replaced under lock; read by syncs without it
+    private final GroupCommit groupCommit;
     
     // Performance monitoring
     private final AtomicLong batchesWritten;
@@ -118,6 +135,7 @@ public class BatchingFileAppender implements Appender {
         this.batchesWritten = new AtomicLong(0);
         this.totalEventsWritten = new AtomicLong(0);
         this.lastFlushTime = System.currentTimeMillis();
+        this.groupCommit = new GroupCommit(this::syncWriter, DurabilityMode.NEVER, DEFAULT_SYNC_INTERVAL_MS);
         
         // Create scheduler for periodic flushing with daemon threads
         this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
@@ -152,8 +170,34 @@ public class BatchingFileAppender implements Appender {
         // Add event to batch buffer
         boolean shouldFlush = batchBuffer.add(event);
         
-        if (shouldFlush) {
+        if (groupCommit.getMode() == DurabilityMode.EVENT) {
+            // The event is durable only once it is written and synced
+            flushBatch(true);
+        } else if (shouldFlush) {
+            requestFlush();
+        }
+    }
+    
+    /**
+     * Hands a full batch to the flush thread, or flushes on the calling
+     * thread when the flush thread has fallen too far behind.
+     */
+    private void requestFlush() {
+        if (batchBuffer.size() >= batchSize * MAX_BACKLOG_BATCHES) {
             flushBatch();
+            return;
+        }
+        if (flushRequested.get() || !flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(() -> {
+                flushRequested.set(false);
+                flushBatch();
+            });
+        } catch (RejectedExecutionException e) {
+            // Closing; the close flushes what is left
+            flushRequested.set(false);
         }
     }
     
@@ -170,56 +214,97 @@ public class BatchingFileAppender implements Appender {
     /**
      * Flushes the current batch to the file.
      * This method handles the actual I/O operation with all batched events.
+     * Flushes are serialized by the lock, so batches reach the file in the
+     * order they were drained.
      */
     private void flushBatch() {
-        List<LoggingEvent> events = batchBuffer.getAndClear();
-        
-        if (events.isEmpty()) {
-            return;
-        }
-        
+        flushBatch(false);
+    }
+    
+    /**
+     * Flushes the current batch to the file.
+     * 
+     * @param always whether to take a group-commit ticket even when there is
+     *               nothing left to write, because another thread drained the
+     *               caller's event; holding the lock means that thread has
+     *               already written it
+     */
+    private void flushBatch(boolean always) {
+        lock.lock();
         try {
-            writeBatch(events);
-            batchesWritten.incrementAndGet();
-            totalEventsWritten.addAndGet(events.size());
-            lastFlushTime = System.currentTimeMillis();
+            List<LoggingEvent> events = batchBuffer.getAndClear();
+            
+            if (events.isEmpty()) {
+                if (!always) {
+                    return;
+                }
+            } else {
+                writeBatch(events);
+                batchesWritten.incrementAndGet();
+                totalEventsWritten.addAndGet(events.size());
+                lastFlushTime = System.currentTimeMillis();
+            }
             
         } catch (IOException e) {
             System.err.println("Failed to write batch: " + e.getMessage());
             // Note: In a production system, you might want to implement
             // retry logic or write to an error log here
+            return;
+        } finally {
+            lock.unlock();
+        }
+        
+        // Outside the lock, so that flushes arriving during a sync queue up for the next one
+        try {
+            groupCommit.written();
+            groupCommit.endOfBatch();
+        } catch (IOException e) {
+            System.err.println("Failed to sync batch: " + e.getMessage());
         }
     }
     
     /**
      * Writes a batch of events to the file in a single I/O operation.
+     * Must be called with the lock held.
      * 
      * @param events the events to write
      * @throws IOException if writing fails
      */
     private void writeBatch(List<LoggingEvent> events) throws IOException {
+        if (writer == null && flushWatermark > 0) {
+            // Flushed per batch below, not per event
+            writer = new ThreadSafeWriter(file, encoding, false, bufferSize, flushWatermark);
+        }
+        if (writer != null && writer.getFlushWatermark() > 0) {
+            // Each event is formatted into a reused builder and encoded straight
+            // into the writer's direct buffers, which reach the file in gathering writes
+            for (LoggingEvent event : events) {
+                StringBuilder sb = Utf8Encoder.getFormatBuffer();
+                layout.format(event, sb);
+                writer.write(sb);
+            }
+            if (immediateFlush) {
+                writer.flush();
+            }
+            return;
+        }
+        
         StringBuilder batchContent = ObjectPools.getStringBuilder();
         
         try {
             // Format all events in the batch into a single string
             for (LoggingEvent event : events) {
-                String formattedMessage = layout.format(event);
-                batchContent.append(formattedMessage);
+                layout.format(event, batchContent);
             }
             
             // Write entire batch in one I/O operation
             String content = batchContent.toString();
             if (!content.isEmpty()) {
-                lock.lock();
-                try {
-                    // Initialize writer if needed
-                    if (writer == null) {
-                        writer = new ThreadSafeWriter(file, encoding, immediateFlush, bufferSize);
-                    }
-                    writer.write(content);
-                } finally {
-                    lock.unlock();
+                // Initialize writer if needed
+                if (writer == null) {
+                    writer = new ThreadSafeWriter(file, encoding, immediateFlush, bufferSize);
                 }
+                writer.write(content);
             }
             
         } finally {
@@ -240,24 +325,32 @@ public class BatchingFileAppender implements Appender {
             
             // Shutdown the batch buffer to prevent new events
             batchBuffer.shutdown();
-            
-            // Flush any remaining events
-            flushRemainingEvents();
-            
-            // Shutdown the scheduler
-            scheduler.shutdown();
-            try {
-                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                    scheduler.shutdownNow();
-                }
-            } catch (InterruptedException e) {
+        } finally {
+            lock.unlock();
+        }
+        
+        // Shutdown the scheduler first; its flushes take the lock
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
                 scheduler.shutdownNow();
-                Thread.currentThread().interrupt();
             }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        
+        lock.lock();
+        try {
+            // Flush any remaining events
+            flushRemainingEvents();
             
             // Close the writer
             if (writer != null) {
                 try {
+                    if (groupCommit.getMode() != DurabilityMode.NEVER) {
+                        writer.sync();
+                    }
                     writer.close();
                 } catch (IOException e) {
                     System.err.println("Error closing writer: " + e.getMessage());
@@ -293,6 +386,102 @@ public class BatchingFileAppender implements Appender {
         }
     }
     
+    /**
+     * Syncs the file for the group commit.
+     * 
+     * @throws IOException if the sync fails
+     */
+    private void syncWriter() throws IOException {
+        ThreadSafeWriter current = writer;
+        if (current != null) {
+            current.sync();
+        }
+    }
+    
+    /**
+     * Sets when written batches are forced to storage with an fsync. In
+     * BATCH mode a flush returns once its batch is on storage; flushes that
+     * arrive while a sync runs share the next one. In EVENT mode each
+     * append writes whatever is staged on the calling thread and returns
+     * once its event is on storage, so batching only groups the events of
+     * concurrent callers. The file is also synced before it is closed
+     * unless the mode is NEVER.
+     * 
+     * @param durability the durability mode; null selects NEVER
+     */
+    public void setDurability(DurabilityMode durability) {
+        groupCommit.setMode(durability);
+    }
+    
+    /**
+     * Sets the durability mode by name.
+     * 
+     * @param durability NEVER, INTERVAL, BATCH or EVENT (case-insensitive)
+     * @throws IllegalArgumentException if the name is not recognized
+     */
+    public void setDurability(String durability) {
+        groupCommit.setMode(DurabilityMode.fromString(durability));
+    }
+    
+    /**
+     * Gets the durability mode.
+     * 
+     * @return the durability mode
+     */
+    public DurabilityMode getDurability() {
+        return groupCommit.getMode();
+    }
+    
+    /**
+     * Sets the longest time between syncs in INTERVAL durability mode.
+     * 
+     * @param syncIntervalMillis the interval in milliseconds
+     */
+    public void setSyncInterval(long syncIntervalMillis) {
+        groupCommit.setSyncInterval(syncIntervalMillis);
+    }
+    
+    /**
+     * Gets the longest time between syncs in INTERVAL durability mode.
+     * 
+     * @return the interval in milliseconds
+     */
+    public long getSyncInterval() {
+        return groupCommit.getSyncInterval();
+    }
+    
+    /**
+     * Gets the number of syncs to storage made for durability.
+     * 
+     * @return the sync count
+     */
+    public long getSyncCount() {
+        return groupCommit.getSyncCount();
+    }
+    
+    /**
+     * Sets the number of buffered bytes at which batches are written to the
+     * file through its channel. A positive value switches the appender to
+     * channel writes: events are encoded straight into pooled direct
+     * buffers and written with gathering writes once the watermark is
+     * reached, and at the end of every batch. Zero, the default, keeps the
+     * buffered stream. Must be set before the first batch is written.
+     * 
+     * @param flushWatermark the watermark in bytes, or 0 for stream writes
+     */
+    public void setFlushWatermark(int flushWatermark) {
+        this.flushWatermark = Math.max(0, flushWatermark);
+    }
+    
+    /**
+     * Gets the number of buffered bytes at which batches are written.
+     * 
+     * @return the flush watermark in bytes, or 0 for stream writes
+     */
+    public int getFlushWatermark() {
+        return flushWatermark;
+    }
+    
     /**
      * Forces immediate flush of all buffered events.
      * This method can be called externally when immediate flushing is required.
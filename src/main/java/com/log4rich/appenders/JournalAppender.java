@@ -0,0 +1,639 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.appenders;
+
+import com.log4rich.core.LogLevel;
+import com.log4rich.layouts.Layout;
+import com.log4rich.layouts.StandardLayout;
+import com.log4rich.util.DirectBufferPool;
+import com.log4rich.util.DurabilityMode;
+import com.log4rich.util.GroupCommit;
+import com.log4rich.util.JournalReader;
+import com.log4rich.util.JournalRecord;
+import com.log4rich.util.LoggingEvent;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appender that writes events to a crash-safe binary journal instead of a
+ * text file.
+ * 
+ * Every event becomes one length-prefixed record with a CRC-32C checksum
+ * (see {@link JournalRecord}), so after a crash of the JVM or the machine
+ * the last complete record can be told apart from a torn one. Records are
+ * written to segment files named after the journal file with a sequence
+ * number, such as {@code audit.journal.0000000001}. Each segment is
+ * preallocated to the segment size, so writes do not change the file
+ * length, and is truncated to its content when it is sealed.
+ * 
+ * At startup the newest segment is scanned once, which takes time
+ * proportional to the segment. It is truncated just past its last
+ * complete record and writing continues in a new segment, so bytes of a
+ * torn record are never followed by new records.
+ * 
+ * No text is formatted when logging; the layout is not used. Events keep
+ * their message pattern and arguments, and {@link #main(String[])} converts
+ * a journal to text offline. Written records can be synced to storage per
+ * event, per batch or per interval, see {@link #setDurability(DurabilityMode)}.
+ * 
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public class JournalAppender implements Appender {
+    
+    private static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024; // 64MB
+    private static final long MIN_SEGMENT_SIZE = 4096;
+    private static final int DEFAULT_BUFFER_SIZE = 65536;
+    private static final int MAX_REUSABLE_ENCODE_BUFFER_SIZE = 65536;
+    private static final long DEFAULT_SYNC_INTERVAL_MS = 1000;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final File journal;
+    private final GroupCommit groupCommit;
+    private final ThreadLocal<ByteBuffer> encodeBuffers =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocate(1024));
+    
+    private String name;
+    private Layout layout;
+    private LogLevel level;
+    private long segmentSize;
+    private boolean immediateFlush;
+    private int bufferSize;
+    private volatile boolean closed;
+    
+    private volatile FileChannel channel;  // replaced under lock; read by syncs without it
+    private File segmentFile;             // guarded by lock
+    private long sequence;                // guarded by lock
+    private long position;                // guarded by lock; segment offset past the last record
+    private ByteBuffer writeBuffer;       // guarded by lock; records not yet written
+    private long recoveredLength = -1;
+    
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private final AtomicLong recordsDropped = new AtomicLong();
+    
+    /**
+     * Creates a journal appender.
+     * 
+     * @param name the appender name
+     * @param journalPath the file name the segments are named after
+     */
+    public JournalAppender(String name, String journalPath) {
+        this.name = name;
+        this.journal = new File(journalPath);
+        this.layout = new StandardLayout();
+        this.level = LogLevel.TRACE;
+        this.segmentSize = DEFAULT_SEGMENT_SIZE;
+        this.immediateFlush = true;
+        this.bufferSize = DEFAULT_BUFFER_SIZE;
+        this.groupCommit = new GroupCommit(this::syncChannel, DurabilityMode.NEVER, DEFAULT_SYNC_INTERVAL_MS);
+    }
+    
+    @Override
+    public void append(LoggingEvent event) {
+        if (closed || !isLevelEnabled(event.getLevel())) {
+            return;
+        }
+        
+        // Encoded outside the lock into a buffer of the calling thread
+        ByteBuffer record = encodeBuffers.get();
+        record.clear();
+        record = JournalRecord.encode(event, record);
+        record.flip();
+        encodeBuffers.set(record.capacity() > MAX_REUSABLE_ENCODE_BUFFER_SIZE
+                ? ByteBuffer.allocate(1024) : record);
+        
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            
+            if (channel == null) {
+                open();
+            }
+            
+            if (JournalRecord.SEGMENT_HEADER_SIZE + record.remaining() > segmentSize) {
+                recordsDropped.incrementAndGet();
+                System.err.println("Journal appender " + name + " dropped a record of " + record.remaining() +
+                                   " bytes, larger than a segment");
+                return;
+            }
+            if (position + record.remaining() > segmentSize) {
+                rollover();
+            }
+            
+            writeRecord(record);
+            recordsWritten.incrementAndGet();
+            
+        } catch (IOException e) {
+            System.err.println("Error writing to journal appender " + name + ": " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+        
+        // Outside the lock, so that writers arriving during a sync queue up for the next one
+        try {
+            groupCommit.written();
+        } catch (IOException e) {
+            System.err.println("Error syncing journal appender " + name + ": " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public void endOfBatch() {
+        try {
+            groupCommit.endOfBatch();
+        } catch (IOException e) {
+            System.err.println("Error syncing journal appender " + name + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Recovers the newest segment and starts a new one. Must be called with
+     * the lock held.
+     * 
+     * @throws IOException if the journal cannot be opened
+     */
+    private void open() throws IOException {
+        File parentDir = journal.getAbsoluteFile().getParentFile();
+        if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs()) {
+            throw new IOException("Failed to create parent directories: " + parentDir);
+        }
+        
+        long next = 1;
+        List<File> segments = JournalReader.listSegments(journal);
+        if (!segments.isEmpty()) {
+            File newest = segments.get(segments.size() - 1);
+            next = JournalRecord.sequenceOf(journal, newest) + 1;
+            recoveredLength = JournalReader.findValidEnd(newest);
+            if (recoveredLength >= 0) {
+                // Drops a torn record and the preallocated space after the last good one
+                try (RandomAccessFile file = new RandomAccessFile(newest, "rw")) {
+                    if (file.length() > recoveredLength) {
+                        file.setLength(recoveredLength);
+                    }
+                }
+            } else {
+                System.err.println("Warning: Journal segment " + newest.getName() + " has no valid header; left as it is");
+            }
+        }
+        
+        writeBuffer = DirectBufferPool.acquire(bufferSize);
+        startSegment(next);
+    }
+    
+    /**
+     * Creates and preallocates a segment and writes its header. Must be
+     * called with the lock held.
+     * 
+     * @param newSequence the sequence number of the segment
+     * @throws IOException if the segment cannot be created
+     */
+    private void startSegment(long newSequence) throws IOException {
+        File newFile = JournalRecord.segmentFile(journal, newSequence);
+        RandomAccessFile file = new RandomAccessFile(newFile, "rw");
+        try {
+            file.setLength(segmentSize);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+        
+        channel = file.getChannel();
+        segmentFile = newFile;
+        sequence = newSequence;
+        position = 0;
+        writeBuffer.clear();
+        JournalRecord.writeSegmentHeader(writeBuffer, newSequence);
+        position = JournalRecord.SEGMENT_HEADER_SIZE;
+        if (immediateFlush) {
+            flushBuffer();
+        }
+    }
+    
+    /**
+     * Seals the current segment and starts the next. Must be called with
+     * the lock held.
+     * 
+     * @throws IOException if the segment cannot be sealed or the next one created
+     */
+    private void rollover() throws IOException {
+        sealSegment();
+        startSegment(sequence + 1);
+    }
+    
+    /**
+     * Writes out pending records, syncs them unless durability is off,
+     * truncates the preallocated space and closes the segment. Must be
+     * called with the lock held.
+     * 
+     * @throws IOException if the segment cannot be sealed
+     */
+    private void sealSegment() throws IOException {
+        FileChannel current = channel;
+        try {
+            flushBuffer();
+            if (groupCommit.getMode() != DurabilityMode.NEVER) {
+                current.force(false);
+            }
+            current.truncate(position);
+        } finally {
+            channel = null;
+            current.close();
+        }
+    }
+    
+    /**
+     * Adds a record to the write buffer, writing the buffer out when the
+     * record doesn't fit. Must be called with the lock held.
+     */
+    private void writeRecord(ByteBuffer record) throws IOException {
+        if (record.remaining() > writeBuffer.remaining()) {
+            flushBuffer();
+        }
+        if (record.remaining() > writeBuffer.remaining()) {
+            // Larger than the whole buffer: written directly
+            long offset = position;
+            while (record.hasRemaining()) {
+                offset += channel.write(record, offset);
+            }
+        } else {
+            writeBuffer.put(record);
+        }
+        position += record.limit();
+        if (immediateFlush) {
+            flushBuffer();
+        }
+    }
+    
+    /**
+     * Writes the buffered bytes to the segment, ending at the current
+     * position. Must be called with the lock held.
+     */
+    private void flushBuffer() throws IOException {
+        if (writeBuffer == null || writeBuffer.position() == 0) {
+            return;
+        }
+        writeBuffer.flip();
+        long offset = position - writeBuffer.remaining();
+        try {
+            while (writeBuffer.hasRemaining()) {
+                offset += channel.write(writeBuffer, offset);
+            }
+        } finally {
+            writeBuffer.clear();
+        }
+    }
+    
+    /**
+     * Writes out buffered records and forces the current segment to storage
+     * for the group commit. A segment sealed in the meantime was synced when
+     * it was sealed.
+     * 
+     * @throws IOException if the sync fails
+     */
+    private void syncChannel() throws IOException {
+        FileChannel target;
+        lock.lock();
+        try {
+            target = channel;
+            if (target == null) {
+                return;
+            }
+            flushBuffer();
+        } finally {
+            lock.unlock();
+        }
+        
+        try {
+            target.force(false);
+        } catch (ClosedChannelException e) {
+            // Sealed meanwhile
+        }
+    }
+    
+    /**
+     * Writes out any buffered records without syncing them.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            if (channel != null) {
+                flushBuffer();
+            }
+        } catch (IOException e) {
+            System.err.println("Error flushing journal appender " + name + ": " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (channel != null) {
+                sealSegment();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing journal appender " + name + ": " + e.getMessage());
+        } finally {
+            DirectBufferPool.release(writeBuffer);
+            writeBuffer = null;
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Sets when written records are forced to storage with an fsync. With a
+     * mode other than NEVER a segment is also synced before it is sealed.
+     * Concurrent writers share syncs: one sync covers every record written
+     * before it started.
+     * 
+     * @param durability the durability mode; null selects NEVER
+     */
+    public void setDurability(DurabilityMode durability) {
+        groupCommit.setMode(durability);
+    }
+    
+    /**
+     * Sets the durability mode by name.
+     * 
+     * @param durability NEVER, INTERVAL, BATCH or EVENT (case-insensitive)
+     * @throws IllegalArgumentException if the name is not recognized
+     */
+    public void setDurability(String durability) {
+        groupCommit.setMode(DurabilityMode.fromString(durability));
+    }
+    
+    /**
+     * Gets the durability mode.
+     * 
+     * @return the durability mode
+     */
+    public DurabilityMode getDurability() {
+        return groupCommit.getMode();
+    }
+    
+    /**
+     * Sets the longest time between syncs in the INTERVAL and BATCH
+     * durability modes.
+     * 
+     * @param syncIntervalMillis the interval in milliseconds
+     */
+    public void setSyncInterval(long syncIntervalMillis) {
+        groupCommit.setSyncInterval(syncIntervalMillis);
+    }
+    
+    /**
+     * Gets the longest time between syncs in the INTERVAL and BATCH
+     * durability modes.
+     * 
+     * @return the interval in milliseconds
+     */
+    public long getSyncInterval() {
+        return groupCommit.getSyncInterval();
+    }
+    
+    /**
+     * Gets the number of syncs to storage made for durability.
+     * 
+     * @return the sync count
+     */
+    public long getSyncCount() {
+        return groupCommit.getSyncCount();
+    }
+    
+    /**
+     * Sets the size segments are preallocated to. Takes effect with the next
+     * segment. A record that does not fit in an empty segment is dropped.
+     * 
+     * @param segmentSize the segment size in bytes, at least 4KB and at most 2GB
+     */
+    public void setSegmentSize(long segmentSize) {
+        lock.lock();
+        try {
+            this.segmentSize = Math.max(MIN_SEGMENT_SIZE, Math.min(Integer.MAX_VALUE, segmentSize));
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the size segments are preallocated to.
+     * 
+     * @return the segment size in bytes
+     */
+    public long getSegmentSize() {
+        return segmentSize;
+    }
+    
+    /**
+     * Sets whether every record is written to the segment right away. When
+     * disabled, records collect in a direct buffer and are written when it
+     * is full, on {@link #flush()}, on a sync and when a segment is sealed;
+     * records still in the buffer are lost if the JVM crashes.
+     * 
+     * @param immediateFlush true to write every record right away
+     */
+    public void setImmediateFlush(boolean immediateFlush) {
+        this.immediateFlush = immediateFlush;
+    }
+    
+    /**
+     * Sets the size of the write buffer. Takes effect when the journal is
+     * opened.
+     * 
+     * @param bufferSize the buffer size in bytes
+     */
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize > 0 ? bufferSize : DEFAULT_BUFFER_SIZE;
+    }
+    
+    /**
+     * Gets the file name the segments are named after.
+     * 
+     * @return the journal file
+     */
+    public File getJournal() {
+        return journal;
+    }
+    
+    /**
+     * Gets the segment being written.
+     * 
+     * @return the current segment file, or null before the first event and after close
+     */
+    public File getCurrentSegment() {
+        lock.lock();
+        try {
+            return channel != null ? segmentFile : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the length the newest existing segment was recovered to when the
+     * journal was opened.
+     * 
+     * @return the offset past its last complete record, or -1 if no
+     *         segment was recovered
+     */
+    public long getRecoveredLength() {
+        lock.lock();
+        try {
+            return recoveredLength;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the number of records written.
+     * 
+     * @return the record count
+     */
+    public long getRecordsWritten() {
+        return recordsWritten.get();
+    }
+    
+    /**
+     * Gets the number of records dropped because they were larger than a
+     * segment.
+     * 
+     * @return the dropped record count
+     */
+    public long getRecordsDropped() {
+        return recordsDropped.get();
+    }
+    
+    /**
+     * Sets the layout. Journals store events rather than text, so the
+     * layout is only kept for the {@link Appender} contract.
+     * 
+     * @param layout the layout
+     */
+    @Override
+    public void setLayout(Layout layout) {
+        this.layout = layout != null ? layout : new StandardLayout();
+    }
+    
+    @Override
+    public Layout getLayout() {
+        return layout;
+    }
+    
+    @Override
+    public void setLevel(LogLevel level) {
+        this.level = level != null ? level : LogLevel.TRACE;
+    }
+    
+    @Override
+    public LogLevel getLevel() {
+        return level;
+    }
+    
+    @Override
+    public boolean isLevelEnabled(LogLevel level) {
+        return level != null && level.isGreaterOrEqual(this.level);
+    }
+    
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    @Override
+    public void setName(String name) {
+        this.name = name != null ? name : "Journal";
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Converts a journal to text on standard output.
+     * 
+     * Usage: {@code JournalAppender <journal> [pattern]}, where journal is the
+     * file name the segments are named after and pattern a
+     * {@link StandardLayout} pattern. Segments are read oldest first; torn or
+     * corrupt records are reported on standard error.
+     * 
+     * @param args the journal and an optional pattern
+     * @throws IOException if a segment cannot be read or the output written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: JournalAppender <journal> [pattern]");
+            System.exit(2);
+        }
+        Layout layout = args.length > 1 ? new StandardLayout(args[1]) : new StandardLayout();
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        convert(new File(args[0]), layout, out);
+        out.flush();
+    }
+    
+    /**
+     * Converts a journal to text.
+     * 
+     * @param journal the file name the segments are named after
+     * @param layout the layout that formats each event
+     * @param out where the text is written
+     * @return the number of events converted
+     * @throws IOException if a segment cannot be read or the output written
+     */
+    public static long convert(File journal, Layout layout, Writer out) throws IOException {
+        long count = 0;
+        for (File segment : JournalReader.listSegments(journal)) {
+            try (JournalReader reader = new JournalReader(segment)) {
+                if (!reader.hasValidHeader()) {
+                    System.err.println("Warning: Skipping " + segment.getName() + ": not a journal segment");
+                    continue;
+                }
+                LoggingEvent event;
+                while ((event = reader.next()) != null) {
+                    out.write(layout.format(event));
+                    count++;
+                }
+                if (reader.hasTrailingData()) {
+                    System.err.println("Warning: " + segment.getName() + " has an incomplete or corrupt record at offset " +
+                                       reader.getValidLength());
+                }
+            }
+        }
+        return count;
+    }
+}
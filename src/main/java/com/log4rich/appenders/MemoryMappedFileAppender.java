@@ -19,7 +19,11 @@ package com.log4rich.appenders;
 import com.log4rich.core.LogLevel;
 import com.log4rich.layouts.Layout;
 import com.log4rich.layouts.StandardLayout;
+import com.log4rich.util.BufferCleaner;
+import com.log4rich.util.DurabilityMode;
+import com.log4rich.util.GroupCommit;
 import com.log4rich.util.LoggingEvent;
+import com.log4rich.util.RolloverWorker;
 
 import java.io.File;
 import java.io.IOException;
@@ -27,7 +31,17 @@ import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
-import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.regex.Pattern;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -40,8 +54,13 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * Key performance features:
  * - Memory-mapped I/O eliminates buffer copying
  * - Strategic mapping region sizing reduces remapping overhead  
- * - Configurable force() intervals for durability vs performance trade-offs
- * - Automatic region expansion when capacity is exceeded
+ * - Forces per event, per batch or per interval for durability vs performance
+ *   trade-offs, with concurrent writers sharing each force
+ * - A sliding window of fixed-size regions; regions behind the writers are
+ *   unmapped right away, so long-running processes don't accumulate mappings
+ * - Optional size-based rollover, with the next file pre-mapped in the background
+ * - Optional concurrent writes, where threads claim file ranges with a
+ *   fetch-and-add and copy into the mapping in parallel
  * 
  * @author log4Rich Contributors
  * @since 1.1.0
@@ -57,6 +76,23 @@ public class MemoryMappedFileAppender implements Appender {
     // Maximum mapping size to avoid excessive virtual memory usage
     private static final long MAX_MAPPED_SIZE = 512L * 1024 * 1024; // 512MB
     
+    // Encode buffers that grew beyond this are not kept for reuse
+    private static final int MAX_REUSABLE_ENCODE_BUFFER_SIZE = 65536;
+    
+    // Pages of a standby mapping are touched at this stride to fault them in
+    private static final int PAGE_SIZE = 4096;
+    
+    private static final int DEFAULT_MAX_BACKUPS = 10;
+    private static final long ROLLOVER_SHUTDOWN_TIMEOUT_MS = 30000;
+    private static final String STANDBY_SUFFIX = ".standby";
+    private static final String COMMIT_SUFFIX = ".commit";
+    
+    // Concurrent writes: sealing a segment pushes its claim counter past this
+    private static final long SEALED = 1L << 62;
+    
+    // Concurrent writes: default number of regions kept mapped
+    private static final int DEFAULT_MAPPED_REGIONS = 4;
+    
     // Appender fields
     private final ReentrantLock lock = new ReentrantLock();
     private String name;
@@ -67,26 +103,44 @@ public class MemoryMappedFileAppender implements Appender {
     
     private RandomAccessFile randomAccessFile;
     private FileChannel fileChannel;
-    private MappedByteBuffer mappedBuffer;
+    private RegionWindow window;  // guarded by lock; replaced under the mapping write lock
+    private ByteBuffer encodeBuffer = ByteBuffer.allocate(1024);  // guarded by lock
     
     // Current mapping parameters
-    private long mappedRegionStart;
     private long mappedRegionSize;
     private long currentFilePosition;
     
     // Configuration
     private long initialMappedSize;
-    private boolean forceOnWrite;
-    private long forceInterval; // milliseconds
-    private long lastForceTime;
+    private final GroupCommit groupCommit;
+    
+    // Rollover; a maximum file size of 0 disables it
+    private long maxFileSize;
+    private int maxBackups = DEFAULT_MAX_BACKUPS;
+    private boolean standbySegment;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss");
+    private volatile RolloverWorker rolloverWorker;  // started on first use, under lock
+    private StandbySegment standby;  // guarded by lock
+    private boolean standbyPending;  // guarded by lock
+    
+    // Concurrent writes; the active segment is replaced under lock
+    private volatile boolean concurrentWrites;
+    private volatile ConcurrentSegment activeSegment;
+    private final Condition segmentChanged = lock.newCondition();
+    private final ThreadLocal<WriteCursor> writeCursors = ThreadLocal.withInitial(WriteCursor::new);
+    private CommitMarker commitMarker;  // guarded by lock
+    private volatile int maxMappedRegions = DEFAULT_MAPPED_REGIONS;
     
     // Thread safety for mapping operations
     private final ReentrantReadWriteLock mappingLock = new ReentrantReadWriteLock();
     
     // Performance monitoring
-    private long totalBytesWritten;
+    private final LongAdder totalBytesWritten = new LongAdder();
     private long mappingCount;
-    private long forceCount;
+    private long unmapCount;
+    private final LongAdder forceCount = new LongAdder();
+    private long rolloverCount;
+    private long standbySwapCount;
     
     /**
      * Creates a memory-mapped file appender with default settings.
@@ -115,9 +169,10 @@ public class MemoryMappedFileAppender implements Appender {
         this.level = LogLevel.TRACE;
         this.closed = false;
         this.initialMappedSize = Math.max(MIN_MAPPED_SIZE, Math.min(MAX_MAPPED_SIZE, mappedSize));
-        this.forceOnWrite = forceOnWrite;
-        this.forceInterval = forceInterval;
-        this.lastForceTime = System.currentTimeMillis();
+        this.groupCommit = new GroupCommit(this::force,
+                forceOnWrite ? DurabilityMode.EVENT
+                        : forceInterval > 0 ? DurabilityMode.INTERVAL : DurabilityMode.NEVER,
+                forceInterval);
     }
     
     @Override
@@ -125,6 +180,10 @@ public class MemoryMappedFileAppender implements Appender {
         if (closed || !isLevelEnabled(event.getLevel())) {
             return;
         }
+        if (concurrentWrites) {
+            appendConcurrent(event);
+            return;
+        }
         
         lock.lock();
         try {
@@ -135,17 +194,42 @@ public class MemoryMappedFileAppender implements Appender {
             // Initialize file if needed
             if (randomAccessFile == null) {
                 initializeFile();
+                requestStandby();
+            }
+            
+            if (maxFileSize > 0 && currentFilePosition >= maxFileSize) {
+                rollover();
             }
             
-            // Format and write the event
-            String formattedMessage = layout.format(event);
-            writeToFile(formattedMessage);
+            // Encode the event straight to bytes and copy them into the mapping
+            encodeBuffer.clear();
+            ByteBuffer encoded = layout.encode(event, encodeBuffer);
+            encoded.flip();
+            writeToFile(encoded);
+            encodeBuffer = encoded.capacity() > MAX_REUSABLE_ENCODE_BUFFER_SIZE
+                    ? ByteBuffer.allocate(1024) : encoded;
             
         } catch (IOException e) {
             System.err.println("Error writing to memory-mapped file appender " + name + ": " + e.getMessage());
         } finally {
             lock.unlock();
         }
+        
+        // Outside the lock, so that writers arriving during a force queue up for the next one
+        try {
+            groupCommit.written();
+        } catch (IOException e) {
+            System.err.println("Error forcing memory-mapped file appender " + name + ": " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public void endOfBatch() {
+        try {
+            groupCommit.endOfBatch();
+        } catch (IOException e) {
+            System.err.println("Error forcing memory-mapped file appender " + name + ": " + e.getMessage());
+        }
     }
     
     private void initializeFile() throws IOException {
@@ -161,8 +245,15 @@ public class MemoryMappedFileAppender implements Appender {
         // Get current file size and position
         currentFilePosition = fileChannel.size();
         
-        // Create initial memory mapping
-        createMapping(currentFilePosition, initialMappedSize);
+        // Map the region holding the write position; a single writer needs no other
+        mappingLock.writeLock().lock();
+        try {
+            window = new RegionWindow(fileChannel, regionSize(), 1, null);
+            window.region(currentFilePosition / window.regionSize, Long.MAX_VALUE);
+            mappedRegionSize = window.regionSize;
+        } finally {
+            mappingLock.writeLock().unlock();
+        }
         
         System.out.println("MemoryMappedFileAppender initialized: " + 
                           "file=" + file.getPath() + 
@@ -171,128 +262,456 @@ public class MemoryMappedFileAppender implements Appender {
     }
     
     /**
-     * Creates a new memory mapping for the specified file region.
+     * Rolls the current file over: trims it to the bytes written, renames it
+     * with a timestamp and continues in a new file. When a standby segment is
+     * ready it becomes the new file, so nothing is created or mapped here.
+     * Must be called with the lock held.
      * 
-     * @param startPosition starting position in file
-     * @param size size of region to map
-     * @throws IOException if mapping fails
+     * @throws IOException if the current file cannot be rotated
      */
-    private void createMapping(long startPosition, long size) throws IOException {
+    private void rollover() throws IOException {
         mappingLock.writeLock().lock();
         try {
-            // Unmap previous buffer if it exists
-            if (mappedBuffer != null) {
-                // Force any pending writes before unmapping
-                mappedBuffer.force();
-                // Note: Direct buffer cleanup is JVM implementation dependent
-                // In practice, the GC will eventually clean this up
-            }
+            releaseFile();
             
-            // Ensure file is large enough for mapping
-            long requiredFileSize = startPosition + size;
-            if (fileChannel.size() < requiredFileSize) {
-                fileChannel.truncate(requiredFileSize);
+            File backupFile = nextBackupFile();
+            if (!file.renameTo(backupFile)) {
+                throw new IOException("Failed to rename " + file.getName() + " to " + backupFile.getName());
             }
+            rolloverCount++;
             
-            // Create new mapping
-            mappedBuffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, startPosition, size);
-            
-            // Position buffer at current write position within the mapping
-            long bufferPosition = currentFilePosition - startPosition;
-            mappedBuffer.position((int) bufferPosition);
-            
-            // Update mapping metadata
-            mappedRegionStart = startPosition;
-            mappedRegionSize = size;
-            mappingCount++;
-            
+            StandbySegment segment = standby;
+            standby = null;
+            if (segment != null && !file.exists() && segment.file.renameTo(file)) {
+                randomAccessFile = segment.randomAccessFile;
+                fileChannel = segment.fileChannel;
+                window = new RegionWindow(fileChannel, segment.buffer.capacity(), 1, segment.buffer);
+                mappedRegionSize = window.regionSize;
+                currentFilePosition = 0;
+                standbySwapCount++;
+            } else {
+                if (segment != null) {
+                    segment.discard();
+                }
+                initializeFile();
+            }
         } finally {
             mappingLock.writeLock().unlock();
         }
+        
+        requestStandby();
+        getRolloverWorker().submit(this::cleanupOldBackups);
+    }
+    
+    /**
+     * Forces and unmaps the current mapping, cuts the file back to the bytes
+     * actually written and closes it. Must be called with the mapping write
+     * lock held.
+     */
+    private void releaseFile() {
+        if (window != null) {
+            window.release();
+            window = null;
+        }
+        
+        if (fileChannel != null) {
+            try {
+                // Drop the unused, zero-filled tail of the mapped region
+                fileChannel.truncate(currentFilePosition);
+            } catch (IOException e) {
+                System.err.println("Error truncating memory-mapped file: " + e.getMessage());
+            }
+            try {
+                fileChannel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing file channel: " + e.getMessage());
+            }
+            fileChannel = null;
+        }
+        
+        if (randomAccessFile != null) {
+            try {
+                randomAccessFile.close();
+            } catch (IOException e) {
+                System.err.println("Error closing random access file: " + e.getMessage());
+            }
+            randomAccessFile = null;
+        }
+    }
+    
+    /**
+     * Picks an unused backup name: the file name, a timestamp and, if that is
+     * taken by an earlier rollover in the same second, a counter.
+     */
+    private File nextBackupFile() {
+        String backupName = file.getName() + "." + dateFormat.format(new Date());
+        File backupFile = new File(file.getParentFile(), backupName);
+        for (int i = 1; backupFile.exists(); i++) {
+            backupFile = new File(file.getParentFile(), backupName + "." + i);
+        }
+        return backupFile;
     }
     
-    private void writeToFile(String content) throws IOException {
-        if (content == null || content.isEmpty()) {
+    /**
+     * Deletes the oldest backups beyond the configured maximum. Runs on the
+     * rollover worker.
+     */
+    private void cleanupOldBackups() {
+        File parentDir = file.getAbsoluteFile().getParentFile();
+        if (parentDir == null) {
+            return;
+        }
+        Pattern backupPattern = Pattern.compile(Pattern.quote(file.getName())
+                + "\\.\\d{4}-\\d{2}-\\d{2}-\\d{2}-\\d{2}-\\d{2}(\\.\\d+)?");
+        File[] backups = parentDir.listFiles((dir, fileName) -> backupPattern.matcher(fileName).matches());
+        if (backups == null || backups.length <= maxBackups) {
             return;
         }
         
-        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        // Oldest first; names sort by timestamp within the same modification time
+        Arrays.sort(backups, (a, b) -> {
+            int byTime = Long.compare(a.lastModified(), b.lastModified());
+            return byTime != 0 ? byTime : a.getName().compareTo(b.getName());
+        });
+        for (int i = 0; i < backups.length - maxBackups; i++) {
+            if (!backups[i].delete()) {
+                System.err.println("Warning: Failed to delete old backup file: " + backups[i].getName());
+            }
+        }
+    }
+    
+    /**
+     * Asks the rollover worker to prepare the next standby segment, unless
+     * one is ready or already being prepared. Must be called with the lock
+     * held.
+     */
+    private void requestStandby() {
+        if (!standbySegment || maxFileSize <= 0 || closed || standby != null || standbyPending) {
+            return;
+        }
+        standbyPending = true;
+        final File mainFile = file;
+        final long size = regionSize();
+        getRolloverWorker().submit(() -> prepareStandby(mainFile, size));
+    }
+    
+    /**
+     * Creates, sizes, maps and pre-faults a standby segment for the given
+     * file and hands it to the appender. Runs on the rollover worker.
+     * 
+     * @param mainFile the file the segment will replace on rollover
+     * @param size the size of the mapping
+     */
+    private void prepareStandby(File mainFile, long size) {
+        StandbySegment segment = null;
+        try {
+            segment = StandbySegment.create(
+                    new File(mainFile.getParentFile(), mainFile.getName() + STANDBY_SUFFIX), size);
+        } catch (IOException e) {
+            System.err.println("Failed to prepare standby file for appender " + name + ": " + e.getMessage());
+        }
         
-        mappingLock.readLock().lock();
+        lock.lock();
         try {
-            // Check if we need to expand the mapping
-            if (mappedBuffer.remaining() < bytes.length) {
-                // Release read lock and acquire write lock for remapping
-                mappingLock.readLock().unlock();
-                expandMapping(bytes.length);
-                mappingLock.readLock().lock();
+            standbyPending = false;
+            if (segment == null) {
+                return;
             }
-            
-            // Write to memory-mapped buffer
-            mappedBuffer.put(bytes);
-            currentFilePosition += bytes.length;
-            totalBytesWritten += bytes.length;
-            
-            // Handle forcing to disk
-            if (forceOnWrite) {
-                mappedBuffer.force();
-                forceCount++;
-            } else if (shouldPeriodicForce()) {
-                mappedBuffer.force();
-                forceCount++;
-                lastForceTime = System.currentTimeMillis();
+            if (closed || !mainFile.equals(file) || standby != null) {
+                segment.discard();
+                return;
             }
-            
+            standby = segment;
         } finally {
-            mappingLock.readLock().unlock();
+            lock.unlock();
         }
     }
     
     /**
-     * Expands the memory mapping to accommodate additional data.
+     * Gets the rollover worker, starting it on first use. Must be called with
+     * the lock held.
+     */
+    private RolloverWorker getRolloverWorker() {
+        if (rolloverWorker == null) {
+            rolloverWorker = new RolloverWorker(name);
+        }
+        return rolloverWorker;
+    }
+    
+    /**
+     * Appends an event in concurrent mode: encodes it on the calling thread,
+     * claims a file range for it and copies it into the mapping without
+     * holding a lock. A claim that lands on a sealed segment waits for the
+     * rollover or close that sealed it and, after a rollover, claims again
+     * in the new file.
      * 
-     * @param additionalBytes minimum additional bytes needed
-     * @throws IOException if remapping fails
+     * @param event the event to write
      */
-    private void expandMapping(int additionalBytes) throws IOException {
-        mappingLock.writeLock().lock();
+    private void appendConcurrent(LoggingEvent event) {
+        WriteCursor cursor = writeCursors.get();
+        cursor.encodeBuffer.clear();
+        ByteBuffer encoded = layout.encode(event, cursor.encodeBuffer);
+        encoded.flip();
+        cursor.encodeBuffer = encoded.capacity() > MAX_REUSABLE_ENCODE_BUFFER_SIZE
+                ? ByteBuffer.allocate(1024) : encoded;
+        int length = encoded.remaining();
+        if (length == 0) {
+            return;
+        }
+        
         try {
-            // Calculate new mapping size - grow by at least 50% to reduce remapping frequency
-            long currentUsed = currentFilePosition - mappedRegionStart;
-            long newSize = Math.max(
-                mappedRegionSize * 3 / 2,  // 50% growth
-                currentUsed + additionalBytes + 1024  // Minimum needed plus buffer
-            );
-            
-            // Cap at maximum size
-            newSize = Math.min(newSize, MAX_MAPPED_SIZE);
+            ConcurrentSegment segment = activeSegment;
+            while (!closed) {
+                if (segment == null) {
+                    segment = openActiveSegment();
+                    continue;
+                }
+                
+                long offset = segment.claim.getAndAdd(length);
+                if (offset >= SEALED) {
+                    segment = awaitNextSegment(segment);
+                    continue;
+                }
+                
+                try {
+                    segment.write(offset, encoded, cursor);
+                } finally {
+                    // Commit even a failed copy, or rollover and close would wait for it forever
+                    segment.commit(offset, offset + length);
+                }
+                totalBytesWritten.add(length);
+                
+                // A rollover forces the old file, so the sync only has to cover the current one
+                long limit = maxFileSize;
+                if (limit > 0 && offset + length >= limit) {
+                    rolloverConcurrent(segment);
+                }
+                groupCommit.written();
+                return;
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing to memory-mapped file appender " + name + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Opens the file for concurrent writes unless another thread already
+     * did.
+     * 
+     * @return the active segment, or null if the appender is closed
+     * @throws IOException if the file cannot be opened
+     */
+    private ConcurrentSegment openActiveSegment() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return null;
+            }
+            if (activeSegment == null) {
+                activeSegment = openConcurrentSegment();
+                requestStandby();
+            }
+            return activeSegment;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Waits until a sealed segment has been replaced by a rollover or the
+     * appender has been closed.
+     * 
+     * @param sealed the segment that rejected a claim
+     * @return the new active segment, or null if it still has to be opened
+     */
+    private ConcurrentSegment awaitNextSegment(ConcurrentSegment sealed) {
+        lock.lock();
+        try {
+            while (!closed && activeSegment == sealed) {
+                segmentChanged.awaitUninterruptibly();
+            }
+            return activeSegment;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Opens the main file for concurrent writes, continuing after its
+     * committed prefix. On the first open the commit marker left by an
+     * earlier run is used to cut off records that were never completed.
+     * Must be called with the lock held.
+     * 
+     * @return the new segment
+     * @throws IOException if the file cannot be opened
+     */
+    private ConcurrentSegment openConcurrentSegment() throws IOException {
+        File parentDir = file.getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            parentDir.mkdirs();
+        }
+        if (commitMarker == null) {
+            commitMarker = CommitMarker.open(new File(file.getParentFile(), file.getName() + COMMIT_SUFFIX));
+        }
+        
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = raf.getChannel();
+            long position = channel.size();
+            long committed = commitMarker.get();
+            if (committed >= 0 && committed < position) {
+                // The last run ended without closing; keep only its complete records
+                channel.truncate(committed);
+                position = committed;
+            }
+            commitMarker.set(position);
+            mappedRegionSize = regionSize();
             
-            System.out.println("Expanding memory mapping: oldSize=" + mappedRegionSize + 
-                              ", newSize=" + newSize + 
-                              ", position=" + currentFilePosition);
+            System.out.println("MemoryMappedFileAppender initialized: " + 
+                              "file=" + file.getPath() + 
+                              ", regionSize=" + mappedRegionSize + 
+                              ", position=" + position + 
+                              ", concurrent=true");
+            return new ConcurrentSegment(raf, channel, position, null);
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Rolls a segment over in concurrent mode. The first writer to get here
+     * after the segment passed the maximum size seals it, waits for the
+     * writers still copying into it, trims and renames the file and
+     * publishes the next segment; later callers find the segment replaced
+     * and return.
+     * 
+     * The commit marker is set to -1 while the trimmed file is renamed and
+     * to 0 before the next file takes the main name, so a crash at any
+     * point leaves a marker that matches the file under the main name.
+     * 
+     * @param segment the segment that reached the maximum size
+     */
+    private void rolloverConcurrent(ConcurrentSegment segment) {
+        lock.lock();
+        try {
+            if (closed || activeSegment != segment) {
+                return;
+            }
             
-            createMapping(mappedRegionStart, newSize);
+            long end = segment.seal();
+            try {
+                segment.release(end);
+                commitMarker.set(-1);
+                File backupFile = nextBackupFile();
+                if (!file.renameTo(backupFile)) {
+                    throw new IOException("Failed to rename " + file.getName() + " to " + backupFile.getName());
+                }
+                rolloverCount++;
+                commitMarker.set(0);
+                
+                StandbySegment next = standby;
+                standby = null;
+                if (next != null && !file.exists() && next.file.renameTo(file)) {
+                    activeSegment = new ConcurrentSegment(next.randomAccessFile, next.fileChannel, 0, next.buffer);
+                    standbySwapCount++;
+                } else {
+                    if (next != null) {
+                        next.discard();
+                    }
+                    activeSegment = openConcurrentSegment();
+                }
+            } catch (IOException e) {
+                System.err.println("Error rolling over memory-mapped file appender " + name + ": " + e.getMessage());
+                // The next writer opens the main file again
+                activeSegment = null;
+            }
+            segmentChanged.signalAll();
             
+            requestStandby();
+            getRolloverWorker().submit(this::cleanupOldBackups);
         } finally {
-            mappingLock.writeLock().unlock();
+            lock.unlock();
         }
     }
     
     /**
-     * Determines if a periodic force operation should be performed.
+     * Seals the active segment, waits for writers still copying into it and
+     * trims the file to the committed bytes. The commit marker is removed,
+     * since the file now ends exactly at the last record. Must be called
+     * with the lock held.
      */
-    private boolean shouldPeriodicForce() {
-        return forceInterval > 0 && 
-               (System.currentTimeMillis() - lastForceTime) >= forceInterval;
+    private void closeConcurrent() {
+        ConcurrentSegment segment = activeSegment;
+        if (segment != null) {
+            segment.release(segment.seal());
+            activeSegment = null;
+        }
+        if (commitMarker != null) {
+            // A force that read the segment before the close may still be using the marker
+            mappingLock.writeLock().lock();
+            try {
+                commitMarker.delete();
+            } finally {
+                mappingLock.writeLock().unlock();
+            }
+            commitMarker = null;
+        }
+        segmentChanged.signalAll();
+    }
+    
+    /**
+     * Gets the size of the regions the next file is mapped in: the
+     * configured mapping size or, with rollover, just enough pages for a
+     * file of the maximum size and a record past it, whichever is smaller.
+     */
+    private long regionSize() {
+        long size = initialMappedSize;
+        long limit = maxFileSize;
+        if (limit > 0) {
+            size = Math.min(size, (limit / PAGE_SIZE + 2) * PAGE_SIZE);
+        }
+        return size;
+    }
+    
+    private void writeToFile(ByteBuffer bytes) throws IOException {
+        int length = bytes.remaining();
+        if (length == 0) {
+            return;
+        }
+        
+        // A single writer is done with a region once it moves on, so it is unmapped right away
+        window.write(currentFilePosition, bytes, null, Long.MAX_VALUE);
+        currentFilePosition += length;
+        totalBytesWritten.add(length);
     }
     
     public long getCurrentFileSize() {
+        if (concurrentWrites) {
+            return getCommittedPosition();
+        }
         return currentFilePosition;
     }
     
+    /**
+     * Gets the end of the readable prefix of the file: every byte before it
+     * belongs to a completely written record. Without concurrent writes
+     * records are written one at a time, so this is the current file size.
+     * 
+     * @return the committed position in bytes
+     */
+    public long getCommittedPosition() {
+        if (!concurrentWrites) {
+            return currentFilePosition;
+        }
+        ConcurrentSegment segment = activeSegment;
+        return segment != null ? segment.committed.get() : 0;
+    }
+    
     @Override
     public void close() {
-        mappingLock.writeLock().lock();
+        RolloverWorker worker;
+        lock.lock();
         try {
             if (closed) {
                 return;
@@ -300,37 +719,37 @@ public class MemoryMappedFileAppender implements Appender {
             
             closed = true;
             
-            if (mappedBuffer != null) {
-                // Force any remaining data to disk
-                mappedBuffer.force();
-                
-                // Clear the buffer reference
-                mappedBuffer = null;
-            }
-            
-            if (fileChannel != null) {
+            // Force any remaining data to disk and trim the file to what was written
+            if (concurrentWrites) {
+                closeConcurrent();
+            } else {
+                mappingLock.writeLock().lock();
                 try {
-                    fileChannel.close();
-                } catch (IOException e) {
-                    System.err.println("Error closing file channel: " + e.getMessage());
+                    releaseFile();
+                } finally {
+                    mappingLock.writeLock().unlock();
                 }
             }
             
-            if (randomAccessFile != null) {
-                try {
-                    randomAccessFile.close();
-                } catch (IOException e) {
-                    System.err.println("Error closing random access file: " + e.getMessage());
-                }
+            if (standby != null) {
+                standby.discard();
+                standby = null;
             }
+            worker = rolloverWorker;
             
             System.out.println("MemoryMappedFileAppender closed: " + 
-                              "totalBytes=" + totalBytesWritten + 
+                              "totalBytes=" + totalBytesWritten.sum() + 
                               ", mappings=" + mappingCount + 
-                              ", forces=" + forceCount);
+                              ", forces=" + forceCount.sum() +
+                              ", rollovers=" + rolloverCount);
             
         } finally {
-            mappingLock.writeLock().unlock();
+            lock.unlock();
+        }
+        
+        // Pending standby preparation needs the lock, so wait outside it
+        if (worker != null) {
+            worker.shutdown(ROLLOVER_SHUTDOWN_TIMEOUT_MS);
         }
     }
     
@@ -339,11 +758,18 @@ public class MemoryMappedFileAppender implements Appender {
      * This is useful for ensuring durability at specific points.
      */
     public void force() {
+        if (concurrentWrites) {
+            ConcurrentSegment segment = activeSegment;
+            if (segment != null) {
+                segment.force();
+            }
+            return;
+        }
         mappingLock.readLock().lock();
         try {
-            if (mappedBuffer != null) {
-                mappedBuffer.force();
-                forceCount++;
+            if (window != null) {
+                window.force();
+                forceCount.increment();
             }
         } finally {
             mappingLock.readLock().unlock();
@@ -353,7 +779,7 @@ public class MemoryMappedFileAppender implements Appender {
     // Getters for monitoring and configuration
     
     public long getTotalBytesWritten() {
-        return totalBytesWritten;
+        return totalBytesWritten.sum();
     }
     
     public long getMappingCount() {
@@ -361,7 +787,18 @@ public class MemoryMappedFileAppender implements Appender {
     }
     
     public long getForceCount() {
-        return forceCount;
+        return forceCount.sum();
+    }
+    
+    /**
+     * Gets the number of regions unmapped when they were no longer needed.
+     * Stays at zero on a JVM where mappings can only be released by the
+     * garbage collector.
+     * 
+     * @return the number of unmapped regions
+     */
+    public long getUnmapCount() {
+        return unmapCount;
     }
     
     public long getMappedRegionSize() {
@@ -369,19 +806,207 @@ public class MemoryMappedFileAppender implements Appender {
     }
     
     public boolean isForceOnWrite() {
-        return forceOnWrite;
+        return groupCommit.getMode() == DurabilityMode.EVENT;
     }
     
+    /**
+     * Sets whether every write is forced to storage before it returns. This
+     * is the EVENT durability mode; turning it off returns to forcing at the
+     * force interval, or not at all if the interval is 0.
+     * 
+     * @param forceOnWrite true to force every write
+     */
     public void setForceOnWrite(boolean forceOnWrite) {
-        this.forceOnWrite = forceOnWrite;
+        if (forceOnWrite) {
+            groupCommit.setMode(DurabilityMode.EVENT);
+        } else if (groupCommit.getMode() == DurabilityMode.EVENT) {
+            groupCommit.setMode(groupCommit.getSyncInterval() > 0 ? DurabilityMode.INTERVAL : DurabilityMode.NEVER);
+        }
     }
     
     public long getForceInterval() {
-        return forceInterval;
+        return groupCommit.getSyncInterval();
     }
     
+    /**
+     * Sets the longest time between forces in the INTERVAL and BATCH
+     * durability modes. Unless every write or batch is forced, this also
+     * selects INTERVAL mode, or turns forcing off for an interval of 0.
+     * 
+     * @param forceInterval the interval in milliseconds
+     */
     public void setForceInterval(long forceInterval) {
-        this.forceInterval = forceInterval;
+        groupCommit.setSyncInterval(forceInterval);
+        DurabilityMode mode = groupCommit.getMode();
+        if (mode == DurabilityMode.NEVER || mode == DurabilityMode.INTERVAL) {
+            groupCommit.setMode(forceInterval > 0 ? DurabilityMode.INTERVAL : DurabilityMode.NEVER);
+        }
+    }
+    
+    public DurabilityMode getDurability() {
+        return groupCommit.getMode();
+    }
+    
+    /**
+     * Sets when written events are forced to storage. Concurrent writers
+     * share forces: one force covers every event written before it started.
+     * Rollover and close always force the file they release.
+     * 
+     * @param durability the durability mode; null selects NEVER
+     */
+    public void setDurability(DurabilityMode durability) {
+        groupCommit.setMode(durability);
+    }
+    
+    /**
+     * Sets the durability mode by name.
+     * 
+     * @param durability NEVER, INTERVAL, BATCH or EVENT (case-insensitive)
+     * @throws IllegalArgumentException if the name is not recognized
+     */
+    public void setDurability(String durability) {
+        groupCommit.setMode(DurabilityMode.fromString(durability));
+    }
+    
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+    
+    /**
+     * Sets the size at which the file is rolled over. The current file is
+     * renamed with a timestamp suffix and writing continues in a new file.
+     * 
+     * @param maxFileSize the maximum file size in bytes, or 0 to never roll over
+     */
+    public void setMaxFileSize(long maxFileSize) {
+        this.maxFileSize = Math.max(0, maxFileSize);
+    }
+    
+    public int getMaxBackups() {
+        return maxBackups;
+    }
+    
+    /**
+     * Sets how many rolled-over files are kept; older ones are deleted in
+     * the background.
+     * 
+     * @param maxBackups the maximum number of backup files
+     */
+    public void setMaxBackups(int maxBackups) {
+        this.maxBackups = maxBackups > 0 ? maxBackups : DEFAULT_MAX_BACKUPS;
+    }
+    
+    public boolean isStandbySegment() {
+        return standbySegment;
+    }
+    
+    /**
+     * Sets whether the next file is prepared ahead of a rollover. A
+     * background worker creates it with a {@code .standby} suffix, sizes
+     * it, maps it and touches every page so that the first writes don't
+     * fault. A rollover then swaps to the prepared mapping and renames the
+     * file, without creating or mapping anything on the logging thread.
+     * Only has an effect with a maximum file size set.
+     * 
+     * @param standbySegment true to keep a standby segment ready
+     */
+    public void setStandbySegment(boolean standbySegment) {
+        lock.lock();
+        try {
+            this.standbySegment = standbySegment;
+            if (!standbySegment && standby != null) {
+                standby.discard();
+                standby = null;
+            } else if (standbySegment && (randomAccessFile != null || activeSegment != null)) {
+                requestStandby();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getMaxMappedRegions() {
+        return maxMappedRegions;
+    }
+    
+    /**
+     * Sets how many regions of a file written concurrently stay mapped. The
+     * window needs room for the region being written and the one mapped
+     * ahead; more regions let writers that fall behind find theirs still
+     * mapped. Regions leaving the window are unmapped once every write into
+     * them has completed. Without concurrent writes only the region being
+     * written is mapped. Takes effect with the next file.
+     * 
+     * @param maxMappedRegions the number of regions, at least 2
+     */
+    public void setMaxMappedRegions(int maxMappedRegions) {
+        this.maxMappedRegions = Math.max(2, maxMappedRegions);
+    }
+    
+    public boolean isConcurrentWrites() {
+        return concurrentWrites;
+    }
+    
+    /**
+     * Sets whether threads write into the mapping concurrently. Each writer
+     * encodes its event, claims a range of the file with a single atomic
+     * add on the write position and copies its bytes into the mapping
+     * without taking a lock. The file is mapped in fixed regions of the
+     * configured mapping size (less with a small maximum file size), at
+     * most {@link #setMaxMappedRegions(int)} at a time; the next region is
+     * mapped once writes pass the middle of the current one, so writers
+     * crossing a boundary find it ready. Rollover and close are the only
+     * points where writers wait.
+     * 
+     * Records can finish out of order, so the appender tracks a committed
+     * position, the end of the prefix in which every record is complete,
+     * and mirrors it into a small {@code .commit} file next to the log file.
+     * If the process dies without closing the appender, the next start
+     * truncates the log file to that prefix, dropping partial records and
+     * the zero-filled tail of the mapping. Forced writes cover the data
+     * before the marker; after a power failure the recovered prefix is only
+     * as durable as the last force.
+     * 
+     * Must be set before the first event is appended.
+     * 
+     * @param concurrentWrites true to let threads write concurrently
+     * @throws IllegalStateException if the file has already been opened
+     */
+    public void setConcurrentWrites(boolean concurrentWrites) {
+        lock.lock();
+        try {
+            if (randomAccessFile != null || activeSegment != null) {
+                throw new IllegalStateException("Concurrent writes must be set before the first event is appended");
+            }
+            this.concurrentWrites = concurrentWrites;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long getRolloverCount() {
+        return rolloverCount;
+    }
+    
+    /**
+     * Gets the number of rollovers that switched to a standby segment.
+     * 
+     * @return the number of standby swaps
+     */
+    public long getStandbySwapCount() {
+        return standbySwapCount;
+    }
+    
+    /**
+     * Waits until background rollover work (standby preparation and backup
+     * pruning) has finished.
+     * 
+     * @param timeoutMs maximum time to wait in milliseconds
+     * @return true if no rollover work is pending
+     */
+    public boolean awaitRollovers(long timeoutMs) {
+        RolloverWorker worker = rolloverWorker;
+        return worker == null || worker.awaitIdle(timeoutMs);
     }
     
     // Appender interface implementation
@@ -424,4 +1049,493 @@ public class MemoryMappedFileAppender implements Appender {
     public String getName() {
         return name;
     }
-}
\ No newline at end of file
+    
+    /**
+     * A file created, sized and mapped ahead of a rollover.
+     */
+    private static final class StandbySegment {
+        final File file;
+        final RandomAccessFile randomAccessFile;
+        final FileChannel fileChannel;
+        final MappedByteBuffer buffer;
+        
+        private StandbySegment(File file, RandomAccessFile randomAccessFile,
+                               FileChannel fileChannel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.randomAccessFile = randomAccessFile;
+            this.fileChannel = fileChannel;
+            this.buffer = buffer;
+        }
+        
+        /**
+         * Creates the segment file and maps it. Writing a zero to every page
+         * faults the pages in and makes the filesystem allocate them, so that
+         * writes after the swap touch only resident memory.
+         */
+        static StandbySegment create(File file, long size) throws IOException {
+            File parentDir = file.getParentFile();
+            if (parentDir != null && !parentDir.exists()) {
+                parentDir.mkdirs();
+            }
+            // Anything left from an earlier run would end up in the new segment
+            if (file.exists() && !file.delete()) {
+                throw new IOException("Failed to delete stale standby file " + file.getName());
+            }
+            
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.setLength(size);
+                FileChannel channel = raf.getChannel();
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                for (int i = 0; i < size; i += PAGE_SIZE) {
+                    buffer.put(i, (byte) 0);
+                }
+                return new StandbySegment(file, raf, channel, buffer);
+            } catch (IOException e) {
+                raf.close();
+                file.delete();
+                throw e;
+            }
+        }
+        
+        /**
+         * Unmaps, closes and deletes a segment that will not be used.
+         */
+        void discard() {
+            BufferCleaner.clean(buffer);
+            try {
+                randomAccessFile.close();
+            } catch (IOException e) {
+                System.err.println("Error closing standby file: " + e.getMessage());
+            }
+            if (file.exists() && !file.delete()) {
+                System.err.println("Warning: Failed to delete standby file: " + file.getName());
+            }
+        }
+    }
+    
+    /**
+     * One fixed-size mapped region of a file.
+     */
+    private static final class Region {
+        final long index;
+        final long start;
+        final long end;
+        final MappedByteBuffer buffer;
+        
+        Region(long index, long start, MappedByteBuffer buffer) {
+            this.index = index;
+            this.start = start;
+            this.end = start + buffer.capacity();
+            this.buffer = buffer;
+        }
+    }
+    
+    /**
+     * Per-thread state for concurrent writes: the encode buffer and a view
+     * of the last region written, so that consecutive writes into the same
+     * region don't allocate.
+     */
+    private static final class WriteCursor {
+        ByteBuffer encodeBuffer = ByteBuffer.allocate(1024);
+        private Region region;
+        private ByteBuffer view;
+        
+        ByteBuffer viewOf(Region region) {
+            if (this.region != region) {
+                this.region = region;
+                this.view = region.buffer.duplicate();
+            }
+            return view;
+        }
+    }
+    
+    /**
+     * The committed length of the main file, kept in a small mapped file
+     * next to it. A value of -1 means the file length itself is exact.
+     */
+    private static final class CommitMarker {
+        final File file;
+        final RandomAccessFile randomAccessFile;
+        final MappedByteBuffer buffer;
+        boolean deleted;  // set under the mapping write lock, read under the read lock
+        
+        private CommitMarker(File file, RandomAccessFile randomAccessFile, MappedByteBuffer buffer) {
+            this.file = file;
+            this.randomAccessFile = randomAccessFile;
+            this.buffer = buffer;
+        }
+        
+        /**
+         * Opens the marker file, creating it with no committed length if
+         * there is none from an earlier run.
+         */
+        static CommitMarker open(File file) throws IOException {
+            boolean existed = file.exists() && file.length() >= 8;
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, 8);
+                if (!existed) {
+                    buffer.putLong(0, -1);
+                }
+                return new CommitMarker(file, raf, buffer);
+            } catch (IOException e) {
+                raf.close();
+                throw e;
+            }
+        }
+        
+        long get() {
+            return buffer.getLong(0);
+        }
+        
+        void set(long committed) {
+            buffer.putLong(0, committed);
+        }
+        
+        void force() {
+            buffer.force();
+        }
+        
+        /**
+         * Unmaps, closes and deletes the marker after a clean close. Must be
+         * called with the mapping write lock held.
+         */
+        void delete() {
+            deleted = true;
+            BufferCleaner.clean(buffer);
+            try {
+                randomAccessFile.close();
+            } catch (IOException e) {
+                System.err.println("Error closing commit marker: " + e.getMessage());
+            }
+            if (file.exists() && !file.delete()) {
+                System.err.println("Warning: Failed to delete commit marker: " + file.getName());
+            }
+        }
+    }
+    
+    /**
+     * The mapped regions of one open file, at most a fixed number of them.
+     * 
+     * Regions have a fixed size and are found by index in a ring of slots;
+     * mapping a region into an occupied slot retires the older region there.
+     * Retired regions are unmapped through {@link BufferCleaner} instead of
+     * being left to the garbage collector, which may take arbitrarily long
+     * to release a mapping. A region is unmapped once every write into it
+     * has completed; callers vouch for that by passing a position before
+     * which all writes are done, and regions still in use wait in a queue
+     * until a later call passes their end.
+     * 
+     * Mapping and unmapping hold the mapping write lock and forcing holds
+     * the read lock, so no region is forced after it has been unmapped.
+     */
+    private final class RegionWindow {
+        final FileChannel fileChannel;
+        final long regionSize;
+        final AtomicReferenceArray<Region> regions;
+        final ConcurrentLinkedQueue<Region> retired = new ConcurrentLinkedQueue<>();
+        
+        RegionWindow(FileChannel fileChannel, long regionSize, int capacity, MappedByteBuffer firstRegion) {
+            this.fileChannel = fileChannel;
+            this.regionSize = regionSize;
+            this.regions = new AtomicReferenceArray<>(capacity);
+            if (firstRegion != null) {
+                regions.set(0, new Region(0, 0, firstRegion));
+                mappingCount++;
+            }
+        }
+        
+        /**
+         * Copies bytes into the file at a position, across as many regions
+         * as they span.
+         * 
+         * @param position the file position of the first byte
+         * @param bytes the bytes to copy
+         * @param cursor the writer's cached region views, or null to write
+         *               through the regions themselves, which only a single
+         *               writer may do
+         * @param donePosition a position before which all writes are done
+         * @return the file position after the bytes
+         */
+        long write(long position, ByteBuffer bytes, WriteCursor cursor, long donePosition) throws IOException {
+            int limit = bytes.limit();
+            try {
+                while (bytes.hasRemaining()) {
+                    Region region = region(position / regionSize, donePosition);
+                    int index = (int) (position - region.start);
+                    int count = (int) Math.min(bytes.remaining(), regionSize - index);
+                    ByteBuffer target = cursor != null ? cursor.viewOf(region) : region.buffer;
+                    target.limit(index + count);
+                    target.position(index);
+                    bytes.limit(bytes.position() + count);
+                    target.put(bytes);
+                    bytes.limit(limit);
+                    position += count;
+                }
+            } finally {
+                bytes.limit(limit);
+            }
+            return position;
+        }
+        
+        /**
+         * Gets a mapped region, mapping it if it is not in the window. A
+         * writer that fell far behind maps its region again rather than
+         * evicting a newer one; that mapping is retired straight away.
+         * 
+         * @param index the region index
+         * @param donePosition a position before which all writes are done
+         */
+        Region region(long index, long donePosition) throws IOException {
+            int slot = (int) (index % regions.length());
+            Region region = regions.get(slot);
+            if (region != null && region.index == index) {
+                return region;
+            }
+            
+            mappingLock.writeLock().lock();
+            try {
+                Region current = regions.get(slot);
+                if (current != null && current.index == index) {
+                    return current;
+                }
+                long start = index * regionSize;
+                region = new Region(index, start,
+                        fileChannel.map(FileChannel.MapMode.READ_WRITE, start, regionSize));
+                mappingCount++;
+                if (current == null || current.index < index) {
+                    regions.set(slot, region);
+                    if (current != null) {
+                        retire(current, donePosition);
+                    }
+                } else {
+                    retired.add(region);
+                }
+                return region;
+            } finally {
+                mappingLock.writeLock().unlock();
+            }
+        }
+        
+        /**
+         * Unmaps a region taken out of its slot, or queues it if writes into
+         * it may still be running. Must be called with the mapping write
+         * lock held.
+         */
+        private void retire(Region region, long donePosition) {
+            if (region.end <= donePosition) {
+                unmap(region);
+            } else {
+                retired.add(region);
+            }
+        }
+        
+        /**
+         * Unmaps the queued regions that writes have moved past. Skips the
+         * work if another thread is mapping, since a later call will do it.
+         * 
+         * @param donePosition a position before which all writes are done
+         */
+        void releaseRetired(long donePosition) {
+            if (retired.isEmpty() || !mappingLock.writeLock().tryLock()) {
+                return;
+            }
+            try {
+                for (Iterator<Region> it = retired.iterator(); it.hasNext();) {
+                    Region region = it.next();
+                    if (region.end <= donePosition) {
+                        it.remove();
+                        unmap(region);
+                    }
+                }
+            } finally {
+                mappingLock.writeLock().unlock();
+            }
+        }
+        
+        /**
+         * Forces every mapped region to storage.
+         */
+        void force() {
+            mappingLock.readLock().lock();
+            try {
+                for (int i = 0; i < regions.length(); i++) {
+                    Region region = regions.get(i);
+                    if (region != null) {
+                        region.buffer.force();
+                    }
+                }
+                for (Region region : retired) {
+                    region.buffer.force();
+                }
+            } finally {
+                mappingLock.readLock().unlock();
+            }
+        }
+        
+        /**
+         * Forces and unmaps every region. No write may be running or start
+         * afterwards.
+         */
+        void release() {
+            mappingLock.writeLock().lock();
+            try {
+                for (int i = 0; i < regions.length(); i++) {
+                    Region region = regions.getAndSet(i, null);
+                    if (region != null) {
+                        unmap(region);
+                    }
+                }
+                for (Region region = retired.poll(); region != null; region = retired.poll()) {
+                    unmap(region);
+                }
+            } finally {
+                mappingLock.writeLock().unlock();
+            }
+        }
+        
+        private void unmap(Region region) {
+            // Dirty pages outlive the mapping, but a later force() would no longer reach them
+            region.buffer.force();
+            if (BufferCleaner.clean(region.buffer)) {
+                unmapCount++;
+            }
+        }
+    }
+    
+    /**
+     * A file being written concurrently.
+     * 
+     * Writers claim ranges from {@link #claim} and copy into the regions
+     * covering them. When a writer finishes it advances {@link #committed}
+     * if its range starts there; otherwise it leaves its range in
+     * {@link #pendingCommits} for whichever writer reaches that point, so
+     * the committed position only ever covers complete records and nobody
+     * waits for a slower writer. Only the thread moving the committed
+     * position writes the commit marker, and it does so before the move,
+     * so marker writes are ordered and none is left in flight once
+     * {@link #seal()} returns. The committed position also tells the region
+     * window which retired regions no writer can still be using.
+     */
+    private final class ConcurrentSegment {
+        final RandomAccessFile randomAccessFile;
+        final FileChannel fileChannel;
+        final RegionWindow window;
+        final AtomicLong claim;
+        final AtomicLong committed;
+        final ConcurrentHashMap<Long, Long> pendingCommits = new ConcurrentHashMap<>();
+        final AtomicLong mappedAhead;  // highest region index mapped ahead of the writers
+        final CommitMarker marker;
+        
+        ConcurrentSegment(RandomAccessFile randomAccessFile, FileChannel fileChannel,
+                          long position, MappedByteBuffer firstRegion) {
+            this.randomAccessFile = randomAccessFile;
+            this.fileChannel = fileChannel;
+            this.marker = commitMarker;
+            this.window = new RegionWindow(fileChannel,
+                    firstRegion != null ? firstRegion.capacity() : regionSize(), maxMappedRegions, firstRegion);
+            this.claim = new AtomicLong(position);
+            this.committed = new AtomicLong(position);
+            this.mappedAhead = new AtomicLong(position / window.regionSize);
+        }
+        
+        /**
+         * Copies a claimed record into the regions covering its range, then
+         * maps the next region if the record ended in the second half of
+         * its region.
+         */
+        void write(long offset, ByteBuffer bytes, WriteCursor cursor) throws IOException {
+            long position = window.write(offset, bytes, cursor, committed.get());
+            
+            long regionSize = window.regionSize;
+            long nextRegion = position / regionSize + 1;
+            long ahead = mappedAhead.get();
+            if (ahead < nextRegion
+                    && position % regionSize >= regionSize / 2
+                    && (maxFileSize <= 0 || nextRegion * regionSize < maxFileSize)
+                    && mappedAhead.compareAndSet(ahead, nextRegion)) {
+                window.region(nextRegion, committed.get());
+            }
+        }
+        
+        /**
+         * Marks {@code [offset, end)} as written and advances the committed
+         * position over every range that is now contiguous with it.
+         */
+        void commit(long offset, long end) {
+            if (committed.get() == offset) {
+                // Nobody else can move the position from our offset: we never left an entry for it
+                advance(end);
+            } else {
+                pendingCommits.put(offset, end);
+            }
+            // Whoever removes the entry at the committed position owns the next move
+            for (;;) {
+                Long next = pendingCommits.remove(committed.get());
+                if (next == null) {
+                    break;
+                }
+                advance(next);
+            }
+            window.releaseRetired(committed.get());
+        }
+        
+        private void advance(long end) {
+            marker.set(end);
+            committed.set(end);
+        }
+        
+        /**
+         * Rejects all further claims and waits until every accepted claim
+         * has been committed.
+         * 
+         * @return the end of the last accepted claim
+         */
+        long seal() {
+            long end = claim.getAndAdd(SEALED);
+            while (committed.get() != end) {
+                Thread.yield();
+            }
+            return end;
+        }
+        
+        /**
+         * Forces the mapped regions and then the commit marker. The read
+         * lock keeps a close from unmapping the marker meanwhile. A writer
+         * that took the segment before a close may get here after it, and
+         * then finds the marker deleted and everything already forced.
+         */
+        void force() {
+            mappingLock.readLock().lock();
+            try {
+                if (marker.deleted) {
+                    return;
+                }
+                window.force();
+                marker.force();
+            } finally {
+                mappingLock.readLock().unlock();
+            }
+            forceCount.increment();
+        }
+        
+        /**
+         * Forces and unmaps the regions, trims the file to the committed
+         * bytes and closes it. Must be called after {@link #seal()}.
+         */
+        void release(long end) {
+            window.release();
+            try {
+                fileChannel.truncate(end);
+            } catch (IOException e) {
+                System.err.println("Error truncating memory-mapped file: " + e.getMessage());
+            }
+            try {
+                randomAccessFile.close();
+            } catch (IOException e) {
+                System.err.println("Error closing random access file: " + e.getMessage());
+            }
+        }
+    }
+}
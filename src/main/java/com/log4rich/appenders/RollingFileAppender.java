@@ -21,29 +21,70 @@ import com.log4rich.core.LogLevel;
 import com.log4rich.layouts.Layout;
 import com.log4rich.layouts.StandardLayout;
 import com.log4rich.util.AsyncCompressionManager;
+import com.log4rich.util.BackupCatalogue;
 import com.log4rich.util.CompressionManager;
+import com.log4rich.util.DurabilityMode;
+import com.log4rich.util.GroupCommit;
+import com.log4rich.util.GzipCompressor;
 import com.log4rich.util.LoggingEvent;
+import com.log4rich.util.RolloverWorker;
 import com.log4rich.util.ThreadSafeWriter;
+import com.log4rich.util.TriggeringPolicy;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * File appender that rolls over based on file size.
- * Supports compression of rolled files using external programs.
+ * File appender that rolls over based on file size, time, or both.
+ * Supports compression of rolled files, with gzip in-process or other
+ * programs as external processes.
  * This appender is thread-safe and handles automatic file rolling when the current
- * log file reaches the configured maximum size.
+ * log file reaches the configured maximum size or, with a time-based
+ * {@link TriggeringPolicy}, when an hourly or daily boundary passes.
+ * 
+ * Rotated files are tracked in a {@link BackupCatalogue} built once from the
+ * directory and updated on every rollover. Old backups are pruned by count
+ * and, optionally, by total size and age.
+ * 
+ * By default a rollover only renames the file and opens a new one on the
+ * logging thread; compression and backup pruning run on a background
+ * {@link RolloverWorker}. See {@link #setAsyncRollover(boolean)}.
+ * 
+ * With standby segments enabled the next file is opened ahead of time on the
+ * worker, so a rollover only renames the current file and moves the standby
+ * file into its place. See {@link #setStandbySegment(boolean)}.
+ * 
+ * Written events can additionally be synced to storage per event, per batch
+ * or per interval, with concurrent writers sharing each sync. See
+ * {@link #setDurability(DurabilityMode)}.
+ * 
+ * With compress-on-write the file is written as a gzip stream named after
+ * the log file plus {@code .gz}, and a rollover renames it to a {@code .gz}
+ * backup with nothing left to compress. See {@link #setCompressOnWrite(boolean)}.
+ * With an index block size the file is also indexed by time and level,
+ * so a time window can be read without decompressing the whole file. See
+ * {@link #setIndexBlockSize(int)}.
  */
 public class RollingFileAppender implements Appender {
     
     private static final long DEFAULT_MAX_SIZE = 10 * 1024 * 1024; // 10MB
     private static final int DEFAULT_MAX_BACKUPS = 10;
     private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int MAX_REUSABLE_ENCODE_BUFFER_SIZE = 65536;
+    private static final long ROLLOVER_SHUTDOWN_TIMEOUT_MS = 30000;
+    private static final String STANDBY_SUFFIX = ".standby";
+    private static final long DEFAULT_SYNC_INTERVAL_MS = 1000;
+    private static final long DEFAULT_COMPRESS_FLUSH_INTERVAL_MS = 1000;
+    private static final String GZIP_SUFFIX = ".gz";
     
     private final ReentrantLock lock = new ReentrantLock();
     
@@ -51,20 +92,40 @@ public class RollingFileAppender implements Appender {
     private File file;
     private Layout layout;
     private LogLevel level;
-    private long maxFileSize;
+    private final TriggeringPolicy.SizeBased sizePolicy;
+    private TriggeringPolicy triggeringPolicy;  // guarded by lock
+    private TriggeringPolicy.Interval rolloverInterval;
     private int maxBackups;
+    private long maxTotalSize;
+    private long maxAgeMillis;
     private boolean compression;
     private CompressionManager compressionManager;
     private AsyncCompressionManager asyncCompressionManager;
     private boolean useAsyncCompression;
+    private boolean asyncRollover;
+    private boolean standbySegment;
     private Charset encoding;
     private boolean immediateFlush;
     private int bufferSize;
+    private int flushWatermark;  // 0 writes through a buffered stream
+    private boolean compressOnWrite;
+    private long compressFlushInterval;
+    private int indexBlockSize;  // 0 writes one unindexed gzip stream
     private String datePattern;
     private boolean closed;
     
-    private ThreadSafeWriter writer;
-    private final SimpleDateFormat dateFormat;
+    private volatile ThreadSafeWriter writer;  // replaced under lock; read by syncs without it
+    private final GroupCommit groupCommit;
+    private volatile RolloverWorker rolloverWorker;  // started on first rollover, under lock
+    private ScheduledExecutorService compressFlushTimer;  // started with the first compressed file, under lock
+    private boolean compressFlushScheduled;  // guarded by lock
+    private ThreadSafeWriter standbyWriter;  // guarded by lock
+    private boolean standbyPending;  // guarded by lock
+    private volatile long standbySwapCount;
+    private volatile BackupCatalogue catalogue;  // built and updated by rollover processing
+    private long fileStartTime;  // guarded by lock
+    private ByteBuffer encodeBuffer = ByteBuffer.allocate(1024);  // guarded by lock
+    private SimpleDateFormat dateFormat;  // guarded by lock
     
     /**
      * Creates a new RollingFileAppender with default settings.
@@ -95,18 +156,23 @@ public class RollingFileAppender implements Appender {
         this.name = "RollingFile";
         this.layout = new StandardLayout();
         this.level = LogLevel.TRACE;
-        this.maxFileSize = DEFAULT_MAX_SIZE;
+        this.sizePolicy = new TriggeringPolicy.SizeBased(DEFAULT_MAX_SIZE);
+        this.triggeringPolicy = sizePolicy;
+        this.rolloverInterval = TriggeringPolicy.Interval.DAILY;
         this.maxBackups = DEFAULT_MAX_BACKUPS;
         this.compression = true;
         this.compressionManager = new CompressionManager();
         this.asyncCompressionManager = new AsyncCompressionManager();
         this.useAsyncCompression = true; // Default to async compression
+        this.asyncRollover = true;
         this.encoding = StandardCharsets.UTF_8;
         this.immediateFlush = true;
         this.bufferSize = DEFAULT_BUFFER_SIZE;
+        this.compressFlushInterval = DEFAULT_COMPRESS_FLUSH_INTERVAL_MS;
         this.datePattern = "yyyy-MM-dd-HH-mm-ss";
         this.closed = false;
         this.dateFormat = new SimpleDateFormat(datePattern);
+        this.groupCommit = new GroupCommit(this::syncWriter, DurabilityMode.NEVER, DEFAULT_SYNC_INTERVAL_MS);
     }
     
     /**
@@ -130,163 +196,571 @@ public class RollingFileAppender implements Appender {
             
             // Initialize writer if needed
             if (writer == null) {
-                writer = new ThreadSafeWriter(file, encoding, immediateFlush, bufferSize);
+                if (compressOnWrite) {
+                    rotateLeftoverFile(event.getTimestamp());
+                }
+                writer = openWriter();
+                startFile(writer.getFileSize() > 0 ? getActiveFile().lastModified() : event.getTimestamp());
+                requestStandby();
+                requestCompressFlush();
+                requestCatalogue();
             }
             
             // Check if rollover is needed
-            if (needsRollover()) {
-                performRollover();
+            if (needsRollover(event.getTimestamp())) {
+                if (writer.getFileSize() > 0) {
+                    performRollover(event.getTimestamp());
+                } else {
+                    // Nothing to rotate; only move the policy on to the current period
+                    startFile(event.getTimestamp());
+                }
             }
             
-            // Write the event
-            String formattedMessage = layout.format(event);
-            writer.write(formattedMessage);
+            // Write the event, encoding straight to bytes when the charset allows it
+            writer.markEvent(event.getTimestamp(), event.getLevel());
+            if (writer.isUtf8()) {
+                writeEncoded(event);
+            } else {
+                writer.write(layout.format(event));
+            }
             
         } catch (IOException e) {
             System.err.println("Error writing to file appender " + name + ": " + e.getMessage());
         } finally {
             lock.unlock();
         }
+        
+        // Outside the lock, so that writers arriving during a sync queue up for the next one
+        try {
+            groupCommit.written();
+        } catch (IOException e) {
+            System.err.println("Error syncing file appender " + name + ": " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public void endOfBatch() {
+        try {
+            groupCommit.endOfBatch();
+        } catch (IOException e) {
+            System.err.println("Error syncing file appender " + name + ": " + e.getMessage());
+        }
     }
     
     /**
-     * Checks if a rollover is needed based on file size.
+     * Syncs the current file for the group commit. A file that was rolled
+     * over in the meantime was synced by the rollover.
      * 
+     * @throws IOException if the sync fails
+     */
+    private void syncWriter() throws IOException {
+        ThreadSafeWriter current = writer;
+        if (current != null) {
+            current.sync();
+        }
+    }
+    
+    /**
+     * Syncs the writer before it is closed, unless durability is off. Must
+     * be called with the lock held.
+     * 
+     * @throws IOException if the sync fails
+     */
+    private void syncBeforeClose() throws IOException {
+        if (groupCommit.getMode() != DurabilityMode.NEVER) {
+            writer.sync();
+        }
+    }
+    
+    /**
+     * Encodes an event into the reusable buffer and writes the bytes.
+     * Must be called with the lock held.
+     * 
+     * @param event the event to write
+     * @throws IOException if writing fails
+     */
+    private void writeEncoded(LoggingEvent event) throws IOException {
+        encodeBuffer.clear();
+        ByteBuffer buffer = layout.encode(event, encodeBuffer);
+        buffer.flip();
+        writer.write(buffer);
+        encodeBuffer = buffer.capacity() > MAX_REUSABLE_ENCODE_BUFFER_SIZE
+                ? ByteBuffer.allocate(1024) : buffer;
+    }
+    
+    /**
+     * Opens a writer for the main file. The writer is initialized right away
+     * so that it starts counting bytes from the file's current length.
+     * 
+     * @return the opened writer
+     * @throws IOException if the file cannot be opened
+     */
+    private ThreadSafeWriter openWriter() throws IOException {
+        ThreadSafeWriter newWriter = newWriter(getActiveFile());
+        newWriter.initialize();
+        return newWriter;
+    }
+    
+    private ThreadSafeWriter newWriter(File target) {
+        if (compressOnWrite) {
+            GzipCompressor compressor = compressionManager != null ? compressionManager.getGzipCompressor() : null;
+            int level = compressor != null ? compressor.getLevel() : GzipCompressor.DEFAULT_LEVEL;
+            return new ThreadSafeWriter(target, encoding, bufferSize, level, compressFlushInterval,
+                                        indexBlockSize);
+        }
+        return new ThreadSafeWriter(target, encoding, immediateFlush, bufferSize, flushWatermark);
+    }
+    
+    /**
+     * Gets the file the writer writes to: the log file, or with
+     * compress-on-write the log file name plus {@code .gz}.
+     * 
+     * @return the active file
+     */
+    private File getActiveFile() {
+        return compressOnWrite ? new File(file.getParentFile(), file.getName() + GZIP_SUFFIX) : file;
+    }
+    
+    /**
+     * Rotates a compressed file left by an earlier run before the first
+     * write. A crash may have cut its last gzip member short, and members
+     * appended after it would not be readable. Must be called with the lock
+     * held.
+     * 
+     * @param timestamp the time of the first event in milliseconds
+     * @throws IOException if the file cannot be renamed
+     */
+    private void rotateLeftoverFile(long timestamp) throws IOException {
+        File activeFile = getActiveFile();
+        if (activeFile.length() == 0) {
+            return;
+        }
+        File backupFile = nextBackupFile(activeFile.lastModified());
+        if (!activeFile.renameTo(backupFile)) {
+            throw new IOException("Failed to rename " + activeFile.getName() + " to " + backupFile.getName());
+        }
+        final File mainFile = file;
+        if (asyncRollover) {
+            getRolloverWorker().submit(() -> processRolledFile(mainFile, backupFile, timestamp));
+        } else {
+            processRolledFile(mainFile, backupFile, timestamp);
+        }
+    }
+    
+    /**
+     * Checks if a rollover is needed according to the triggering policy. The
+     * size passed to the policy is the writer's byte count, including
+     * unflushed bytes, so no filesystem call is made per event.
+     * 
+     * @param timestamp the timestamp of the event about to be written
      * @return true if rollover is needed, false otherwise
      */
-    private boolean needsRollover() {
-        return writer != null && writer.getFileSize() >= maxFileSize;
+    private boolean needsRollover(long timestamp) {
+        return writer != null && triggeringPolicy.isTriggeringEvent(timestamp, writer.getFileSize());
+    }
+    
+    /**
+     * Records the start of a new file and tells the triggering policy, which
+     * works out its next time boundary here rather than per event. Must be
+     * called with the lock held.
+     * 
+     * @param startTime the time the file's content starts, in milliseconds
+     */
+    private void startFile(long startTime) {
+        fileStartTime = startTime;
+        triggeringPolicy.fileStarted(startTime);
     }
     
     /**
-     * Performs the rollover operation by closing the current file,
-     * renaming it with a timestamp, optionally compressing it,
-     * and creating a new file for writing.
+     * Performs the rollover operation by closing the current file, renaming
+     * it with a timestamp and opening a new file for writing. Compressing the
+     * renamed file and pruning old backups is handed to the rollover worker
+     * when asynchronous rollover is enabled, so the lock is held only for the
+     * rename and the reopen. With a standby segment ready the reopen is
+     * replaced by renaming the standby file to the main file.
      * 
+     * @param timestamp the timestamp of the event that triggered the rollover
      * @throws IOException if rollover fails
      */
-    private void performRollover() throws IOException {
+    private void performRollover(long timestamp) throws IOException {
         // Close current writer
         if (writer != null) {
+            syncBeforeClose();
             writer.close();
             writer = null;
         }
         
-        // Generate backup filename with timestamp
-        String timestamp = dateFormat.format(new Date());
-        String baseName = file.getName();
-        String backupName = baseName + "." + timestamp;
-        File backupFile = new File(file.getParentFile(), backupName);
-        
         // Rename current file to backup
-        if (file.exists()) {
-            if (!file.renameTo(backupFile)) {
-                throw new IOException("Failed to rename " + file.getName() + " to " + backupFile.getName());
-            }
-            
-            // Compress the backup file if enabled
-            if (compression) {
-                if (useAsyncCompression && asyncCompressionManager != null) {
-                    // Use adaptive async compression
-                    AsyncCompressionManager.AdaptiveCompressionResult result = 
-                        asyncCompressionManager.compressWithAdaptiveManagement(
-                            backupFile, maxFileSize, getName());
-                    
-                    // Handle adaptive file size increase if needed
-                    if (result.wasSizeIncreased()) {
-                        long oldSize = maxFileSize;
-                        maxFileSize = result.getNewMaxSize();
-                        
-                        // Log the adaptive change to the log file itself
-                        String adaptiveMsg = String.format(
-                            "\n*** ADAPTIVE FILE SIZE INCREASE ***\n" +
-                            "APPENDER: %s\n" +
-                            "OLD MAX SIZE: %s\n" +
-                            "NEW MAX SIZE: %s (DOUBLED DUE TO COMPRESSION OVERLOAD)\n" +
-                            "TIMESTAMP: %s\n" +
-                            "*** END ADAPTIVE CHANGE ***\n",
-                            getName(),
-                            formatFileSize(oldSize),
-                            formatFileSize(maxFileSize),
-                            new Date()
-                        );
-                        
-                        try {
-                            // Write adaptive message to new log file
-                            if (writer == null) {
-                                writer = new ThreadSafeWriter(file, encoding, immediateFlush, bufferSize);
-                            }
-                            writer.write(adaptiveMsg);
-                        } catch (IOException e) {
-                            System.err.println("Failed to write adaptive message to log: " + e.getMessage());
-                        }
-                    }
-                    
-                    // Clean up uncompressed file if compression succeeded
-                    File compressedFile = result.getCompressedFile();
-                    if (compressedFile != backupFile && compressedFile.exists()) {
-                        if (!backupFile.delete()) {
-                            System.err.println("Warning: Failed to delete uncompressed backup file: " + 
-                                             backupFile.getName());
-                        }
-                    }
-                } else if (compressionManager != null) {
-                    // Use traditional blocking compression
-                    try {
-                        File compressedFile = compressionManager.compressFile(backupFile);
-                        // If compression succeeded and created a new file, delete the original
-                        if (compressedFile != backupFile && compressedFile.exists()) {
-                            if (!backupFile.delete()) {
-                                System.err.println("Warning: Failed to delete uncompressed backup file: " + 
-                                                 backupFile.getName());
-                            }
-                        }
-                    } catch (Exception e) {
-                        System.err.println("Warning: Compression failed for " + backupFile.getName() + 
-                                         ": " + e.getMessage());
-                    }
-                }
+        File rotatedFile = null;
+        File activeFile = getActiveFile();
+        if (activeFile.exists()) {
+            File backupFile = nextBackupFile(timestamp);
+            if (!activeFile.renameTo(backupFile)) {
+                throw new IOException("Failed to rename " + activeFile.getName() + " to " + backupFile.getName());
             }
+            rotatedFile = backupFile;
         }
         
-        // Clean up old backup files
-        cleanupOldBackups();
+        // Switch to the standby file, or create a new writer for the main file
+        writer = takeStandby();
+        if (writer == null) {
+            writer = openWriter();
+        }
+        startFile(timestamp);
+        requestStandby();
+        requestCompressFlush();
         
-        // Create new writer for the main file
-        writer = new ThreadSafeWriter(file, encoding, immediateFlush, bufferSize);
+        final File mainFile = file;
+        final File rolledFile = rotatedFile;
+        if (asyncRollover) {
+            getRolloverWorker().submit(() -> processRolledFile(mainFile, rolledFile, timestamp));
+        } else {
+            processRolledFile(mainFile, rolledFile, timestamp);
+        }
+    }
+    
+    /**
+     * Picks an unused backup name: the file name, a timestamp and, if that
+     * is taken because several rollovers happened within the same second, a
+     * counter, followed by {@code .gz} with compress-on-write. Must be called
+     * with the lock held.
+     * 
+     * @param timestamp the rollover time in milliseconds
+     * @return the backup file
+     */
+    private File nextBackupFile(long timestamp) {
+        String backupName = file.getName() + "." + dateFormat.format(new Date(timestamp));
+        String suffix = compressOnWrite ? GZIP_SUFFIX : "";
+        File backupFile = new File(file.getParentFile(), backupName + suffix);
+        for (int i = 1; backupFile.exists(); i++) {
+            backupFile = new File(file.getParentFile(), backupName + "." + i + suffix);
+        }
+        return backupFile;
+    }
+    
+    /**
+     * Takes the standby writer and renames its file to the main file. Must be
+     * called with the lock held, after the current file has been renamed.
+     * 
+     * @return the standby writer now writing to the main file, or null if no
+     *         standby segment was ready
+     */
+    private ThreadSafeWriter takeStandby() {
+        ThreadSafeWriter standby = standbyWriter;
+        if (standby == null) {
+            return null;
+        }
+        standbyWriter = null;
+        File activeFile = getActiveFile();
+        if (activeFile.exists() || !standby.renameTo(activeFile)) {
+            // Something else holds the main file name; fall back to a plain open
+            discardStandby(standby);
+            return null;
+        }
+        standbySwapCount++;
+        return standby;
     }
     
     /**
-     * Cleans up old backup files, keeping only the most recent maxBackups files.
-     * Files are sorted by last modified time and the oldest ones are deleted.
+     * Asks the rollover worker to open the next standby segment, unless one
+     * is ready or already being prepared. Must be called with the lock held.
      */
-    private void cleanupOldBackups() {
-        File parentDir = file.getParentFile();
-        if (parentDir == null || !parentDir.exists()) {
+    private void requestStandby() {
+        if (!standbySegment || closed || standbyWriter != null || standbyPending) {
             return;
         }
+        standbyPending = true;
+        final File mainFile = file;
+        getRolloverWorker().submit(() -> prepareStandby(mainFile));
+    }
+    
+    /**
+     * Opens a standby writer next to the given main file and hands it to the
+     * appender. The file is created and the writer initialized here, off the
+     * logging threads. A standby prepared for a file the appender no longer
+     * writes to is discarded.
+     * 
+     * @param mainFile the main file the standby segment is for
+     */
+    private void prepareStandby(File mainFile) {
+        File standbyFile = getStandbyFile(mainFile);
+        ThreadSafeWriter standby = null;
+        try {
+            // Anything left from an earlier run would end up in the new segment
+            if (standbyFile.exists() && !standbyFile.delete()) {
+                throw new IOException("Failed to delete stale standby file " + standbyFile.getName());
+            }
+            standby = newWriter(standbyFile);
+            standby.initialize();
+        } catch (IOException e) {
+            System.err.println("Failed to prepare standby file for appender " + name + ": " + e.getMessage());
+            if (standby != null) {
+                discardStandby(standby);
+                standby = null;
+            }
+        }
         
-        String baseName = file.getName();
-        File[] backupFiles = parentDir.listFiles((dir, name) -> {
-            return name.startsWith(baseName + ".") && 
-                   (name.endsWith(".gz") || name.endsWith(".bz2") || name.endsWith(".xz") || 
-                    name.endsWith(".zip") || name.endsWith(".7z") || name.endsWith(".compressed") ||
-                    name.matches(baseName + "\\.\\d{4}-\\d{2}-\\d{2}-\\d{2}-\\d{2}-\\d{2}"));
-        });
+        lock.lock();
+        try {
+            standbyPending = false;
+            if (standby == null) {
+                return;
+            }
+            if (closed || !mainFile.equals(file) || standbyWriter != null) {
+                discardStandby(standby);
+                // The main file changed while this one was prepared
+                if (writer != null) {
+                    requestStandby();
+                }
+                return;
+            }
+            standbyWriter = standby;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Closes a standby writer that will not be used and deletes its file.
+     * 
+     * @param standby the standby writer
+     */
+    private void discardStandby(ThreadSafeWriter standby) {
+        try {
+            standby.close();
+        } catch (IOException e) {
+            System.err.println("Error closing standby file: " + e.getMessage());
+        }
+        File standbyFile = standby.getFile();
+        if (standbyFile.exists() && !standbyFile.delete()) {
+            System.err.println("Warning: Failed to delete standby file: " + standbyFile.getName());
+        }
+    }
+    
+    /**
+     * Gets the standby file used for a main file.
+     * 
+     * @param mainFile the main log file
+     * @return the standby file in the same directory
+     */
+    private static File getStandbyFile(File mainFile) {
+        return new File(mainFile.getParentFile(), mainFile.getName() + STANDBY_SUFFIX);
+    }
+    
+    /**
+     * Asks the rollover worker to build the backup catalogue for the current
+     * file, so the directory is listed once at startup and not on the
+     * logging thread. Without asynchronous rollover the catalogue is built
+     * on the first rollover instead. Must be called with the lock held.
+     */
+    private void requestCatalogue() {
+        if (!asyncRollover || closed) {
+            return;
+        }
+        BackupCatalogue current = catalogue;
+        if (current != null && current.getMainFile().equals(file)) {
+            return;
+        }
+        final File mainFile = file;
+        getRolloverWorker().submit(() -> getCatalogue(mainFile));
+    }
+    
+    /**
+     * Gets the backup catalogue for a main file, scanning its directory if
+     * the catalogue has not been built yet or was built for another file.
+     * Runs on the rollover worker, or on the logging thread when asynchronous
+     * rollover is disabled.
+     * 
+     * @param mainFile the main log file
+     * @return the backup catalogue
+     */
+    private BackupCatalogue getCatalogue(File mainFile) {
+        BackupCatalogue current = catalogue;
+        if (current == null || !current.getMainFile().equals(mainFile)) {
+            current = BackupCatalogue.scan(mainFile, datePattern);
+            catalogue = current;
+        }
+        return current;
+    }
+    
+    /**
+     * Schedules a sync flush of the compressed file, unless one is scheduled
+     * or every write sync-flushes anyway. Writes only sync-flush when the
+     * interval has passed, so without this the tail written before logging
+     * goes quiet would stay in the compressor. Must be called with the lock
+     * held.
+     */
+    private void requestCompressFlush() {
+        if (!writer.isGzip() || compressFlushInterval == 0 || closed || compressFlushScheduled) {
+            return;
+        }
+        if (compressFlushTimer == null) {
+            final String threadName = "log4Rich-compress-flush-" + name;
+            compressFlushTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, threadName);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        compressFlushScheduled = true;
+        compressFlushTimer.schedule(this::flushCompressedTail, compressFlushInterval, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Sync-flushes the compressed file if it is due, then schedules the
+     * next check. Runs on the compress flush timer; stops when the writer
+     * goes away, and the next compressed file opened starts it again.
+     */
+    private void flushCompressedTail() {
+        lock.lock();
+        try {
+            compressFlushScheduled = false;
+            if (closed || writer == null) {
+                return;
+            }
+            long delay;
+            try {
+                delay = writer.syncFlushIfDue();
+            } catch (IOException e) {
+                System.err.println("Error flushing file appender " + name + ": " + e.getMessage());
+                delay = compressFlushInterval;
+            }
+            if (delay > 0) {
+                compressFlushScheduled = true;
+                compressFlushTimer.schedule(this::flushCompressedTail, delay, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the rollover worker, starting it on first use. Must be called with
+     * the lock held.
+     * 
+     * @return the rollover worker
+     */
+    private RolloverWorker getRolloverWorker() {
+        if (rolloverWorker == null) {
+            rolloverWorker = new RolloverWorker(name);
+        }
+        return rolloverWorker;
+    }
+    
+    /**
+     * Finishes a rotation: records the rotated file in the backup catalogue,
+     * compresses it if enabled and prunes old backups. Runs on the rollover
+     * worker, or on the logging thread when asynchronous rollover is disabled.
+     * 
+     * @param mainFile the main log file that was rotated
+     * @param backupFile the rotated file, or null if there was nothing to rotate
+     * @param rolledAt the rollover time in milliseconds
+     */
+    private void processRolledFile(File mainFile, File backupFile, long rolledAt) {
+        BackupCatalogue backups = getCatalogue(mainFile);
+        // Gone if the catalogue was scanned after the rotation and pruned it
+        if (backupFile != null && backupFile.exists()) {
+            backups.add(backupFile, rolledAt);
+            // A file written compressed is already in its final form
+            if (compression && !backupFile.getName().endsWith(GZIP_SUFFIX)) {
+                File compressedFile = compressBackup(backupFile);
+                if (compressedFile != backupFile) {
+                    backups.replace(backupFile, compressedFile);
+                }
+            }
+        }
         
-        if (backupFiles != null && backupFiles.length > maxBackups) {
-            // Sort by last modified time (oldest first)
-            java.util.Arrays.sort(backupFiles, (a, b) -> 
-                Long.compare(a.lastModified(), b.lastModified()));
+        // Clean up old backup files
+        backups.prune(maxBackups, maxTotalSize, maxAgeMillis, System.currentTimeMillis());
+    }
+    
+    /**
+     * Compresses a rotated file with the configured compression manager.
+     * 
+     * @param backupFile the rotated file
+     * @return the compressed file, or the rotated file if it was not compressed
+     */
+    private File compressBackup(File backupFile) {
+        if (useAsyncCompression && asyncCompressionManager != null) {
+            // Use adaptive async compression
+            AsyncCompressionManager.AdaptiveCompressionResult result = 
+                asyncCompressionManager.compressWithAdaptiveManagement(
+                    backupFile, getMaxFileSize(), getName());
+            
+            // Handle adaptive file size increase if needed
+            if (result.wasSizeIncreased()) {
+                applyAdaptiveSizeIncrease(result.getNewMaxSize());
+            }
+            
+            // Clean up uncompressed file if compression succeeded
+            File compressedFile = result.getCompressedFile();
+            if (compressedFile != backupFile && compressedFile.exists()) {
+                if (backupFile.exists() && !backupFile.delete()) {
+                    System.err.println("Warning: Failed to delete uncompressed backup file: " + 
+                                     backupFile.getName());
+                }
+                return compressedFile;
+            }
+        } else if (compressionManager != null) {
+            // Use traditional blocking compression
+            try {
+                File compressedFile = compressionManager.compressFile(backupFile);
+                // If compression succeeded and created a new file, delete the original
+                if (compressedFile != backupFile && compressedFile.exists()) {
+                    if (backupFile.exists() && !backupFile.delete()) {
+                        System.err.println("Warning: Failed to delete uncompressed backup file: " + 
+                                         backupFile.getName());
+                    }
+                    return compressedFile;
+                }
+            } catch (Exception e) {
+                System.err.println("Warning: Compression failed for " + backupFile.getName() + 
+                                 ": " + e.getMessage());
+            }
+        }
+        return backupFile;
+    }
+    
+    /**
+     * Raises the maximum file size after compression fell behind, and notes
+     * the change in the log file itself.
+     * 
+     * @param newMaxSize the new maximum file size
+     */
+    private void applyAdaptiveSizeIncrease(long newMaxSize) {
+        lock.lock();
+        try {
+            long oldSize = sizePolicy.getMaxFileSize();
+            sizePolicy.setMaxFileSize(newMaxSize);
+            if (closed) {
+                return;
+            }
             
-            // Delete oldest files
-            int filesToDelete = backupFiles.length - maxBackups;
-            for (int i = 0; i < filesToDelete; i++) {
-                if (!backupFiles[i].delete()) {
-                    System.err.println("Warning: Failed to delete old backup file: " + 
-                                     backupFiles[i].getName());
+            // Log the adaptive change to the log file itself
+            String adaptiveMsg = String.format(
+                "\n*** ADAPTIVE FILE SIZE INCREASE ***\n" +
+                "APPENDER: %s\n" +
+                "OLD MAX SIZE: %s\n" +
+                "NEW MAX SIZE: %s (DOUBLED DUE TO COMPRESSION OVERLOAD)\n" +
+                "TIMESTAMP: %s\n" +
+                "*** END ADAPTIVE CHANGE ***\n",
+                getName(),
+                formatFileSize(oldSize),
+                formatFileSize(newMaxSize),
+                new Date()
+            );
+            
+            try {
+                // Write adaptive message to the current log file
+                if (writer == null) {
+                    writer = openWriter();
                 }
+                writer.write(adaptiveMsg);
+            } catch (IOException e) {
+                System.err.println("Failed to write adaptive message to log: " + e.getMessage());
             }
+        } finally {
+            lock.unlock();
         }
     }
     
@@ -296,6 +770,7 @@ public class RollingFileAppender implements Appender {
      */
     @Override
     public void close() {
+        RolloverWorker worker;
         lock.lock();
         try {
             if (closed) {
@@ -306,6 +781,7 @@ public class RollingFileAppender implements Appender {
             
             if (writer != null) {
                 try {
+                    syncBeforeClose();
                     writer.close();
                 } catch (IOException e) {
                     System.err.println("Error closing file appender " + name + ": " + e.getMessage());
@@ -313,13 +789,28 @@ public class RollingFileAppender implements Appender {
                 writer = null;
             }
             
-            // Shutdown async compression manager if used
-            if (asyncCompressionManager != null) {
-                asyncCompressionManager.shutdown();
+            if (standbyWriter != null) {
+                discardStandby(standbyWriter);
+                standbyWriter = null;
+            }
+            
+            worker = rolloverWorker;
+            if (compressFlushTimer != null) {
+                compressFlushTimer.shutdownNow();
             }
         } finally {
             lock.unlock();
         }
+        
+        // Finish pending rotations outside the lock; they may need it
+        if (worker != null) {
+            worker.shutdown(ROLLOVER_SHUTDOWN_TIMEOUT_MS);
+        }
+        
+        // Shutdown async compression manager if used
+        if (asyncCompressionManager != null) {
+            asyncCompressionManager.shutdown();
+        }
     }
     
     // Configuration methods
@@ -345,12 +836,17 @@ public class RollingFileAppender implements Appender {
             // Close existing writer to force re-initialization
             if (writer != null) {
                 try {
+                    syncBeforeClose();
                     writer.close();
                 } catch (IOException e) {
                     System.err.println("Error closing existing writer: " + e.getMessage());
                 }
                 writer = null;
             }
+            if (standbyWriter != null) {
+                discardStandby(standbyWriter);
+                standbyWriter = null;
+            }
         } finally {
             lock.unlock();
         }
@@ -362,7 +858,7 @@ public class RollingFileAppender implements Appender {
      * @param maxFileSize the maximum file size in bytes
      */
     public void setMaxFileSize(long maxFileSize) {
-        this.maxFileSize = maxFileSize > 0 ? maxFileSize : DEFAULT_MAX_SIZE;
+        sizePolicy.setMaxFileSize(maxFileSize > 0 ? maxFileSize : DEFAULT_MAX_SIZE);
     }
     
     /**
@@ -371,7 +867,7 @@ public class RollingFileAppender implements Appender {
      * @param maxFileSize the maximum file size as a string
      */
     public void setMaxFileSize(String maxFileSize) {
-        this.maxFileSize = parseSize(maxFileSize);
+        sizePolicy.setMaxFileSize(parseSize(maxFileSize));
     }
     
     /**
@@ -383,6 +879,92 @@ public class RollingFileAppender implements Appender {
         this.maxBackups = maxBackups > 0 ? maxBackups : DEFAULT_MAX_BACKUPS;
     }
     
+    /**
+     * Sets the maximum total size of all backup files. The oldest backups
+     * are deleted on rollover until the total fits.
+     * 
+     * @param maxTotalSize the maximum total size in bytes, or 0 for no limit
+     */
+    public void setMaxTotalSize(long maxTotalSize) {
+        this.maxTotalSize = Math.max(0, maxTotalSize);
+    }
+    
+    /**
+     * Sets the maximum total size of all backup files using a string format
+     * (e.g., "500M", "10G"). A null or empty value removes the limit.
+     * 
+     * @param maxTotalSize the maximum total size as a string
+     */
+    public void setMaxTotalSize(String maxTotalSize) {
+        if (maxTotalSize == null || maxTotalSize.trim().isEmpty() || maxTotalSize.trim().equals("0")) {
+            this.maxTotalSize = 0;
+        } else {
+            this.maxTotalSize = parseSize(maxTotalSize);
+        }
+    }
+    
+    /**
+     * Sets the maximum age of backup files. Backups rotated longer ago are
+     * deleted on the next rollover.
+     * 
+     * @param maxAgeMillis the maximum age in milliseconds, or 0 for no limit
+     */
+    public void setMaxAge(long maxAgeMillis) {
+        this.maxAgeMillis = Math.max(0, maxAgeMillis);
+    }
+    
+    /**
+     * Sets the triggering policy that decides when the file is rolled.
+     * The default is a size-based policy using {@link #setMaxFileSize(long)}.
+     * 
+     * @param triggeringPolicy the policy, or null for the size-based default
+     */
+    public void setTriggeringPolicy(TriggeringPolicy triggeringPolicy) {
+        lock.lock();
+        try {
+            this.triggeringPolicy = triggeringPolicy != null ? triggeringPolicy : sizePolicy;
+            if (writer != null) {
+                this.triggeringPolicy.fileStarted(fileStartTime);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Selects a built-in triggering policy by name: SIZE (the default), TIME
+     * or SIZE_AND_TIME. The time-based policies roll at the boundaries set
+     * by {@link #setRolloverInterval(String)}; the size limit is the one set
+     * by {@link #setMaxFileSize(long)}.
+     * 
+     * @param policyName the policy name (case-insensitive)
+     * @throws IllegalArgumentException if the name is not recognized
+     */
+    public void setRolloverPolicy(String policyName) {
+        setTriggeringPolicy(TriggeringPolicy.fromString(policyName, rolloverInterval.name(), sizePolicy));
+    }
+    
+    /**
+     * Sets the interval used by the time-based policies selected with
+     * {@link #setRolloverPolicy(String)}: HOURLY or DAILY. A time-based
+     * policy already in use is replaced with one using the new interval.
+     * 
+     * @param interval the interval name (case-insensitive)
+     * @throws IllegalArgumentException if the name is not recognized
+     */
+    public void setRolloverInterval(String interval) {
+        lock.lock();
+        try {
+            this.rolloverInterval = TriggeringPolicy.Interval.fromString(interval);
+            String policyName = triggeringPolicy.getName();
+            if (policyName.equals("TIME") || policyName.equals("SIZE_AND_TIME")) {
+                setRolloverPolicy(policyName);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
     /**
      * Sets whether backup files should be compressed.
      * 
@@ -394,11 +976,15 @@ public class RollingFileAppender implements Appender {
     
     /**
      * Sets the compression manager to use for compressing backup files.
+     * The async compression manager's pool uses it as well.
      * 
      * @param compressionManager the compression manager to use
      */
     public void setCompressionManager(CompressionManager compressionManager) {
         this.compressionManager = compressionManager;
+        if (asyncCompressionManager != null) {
+            asyncCompressionManager.setCompressionManager(compressionManager);
+        }
     }
     
     /**
@@ -419,6 +1005,39 @@ public class RollingFileAppender implements Appender {
         this.immediateFlush = immediateFlush;
     }
     
+    /**
+     * Sets when written events are forced to storage with an fsync. Flushing
+     * alone protects against a crash of the JVM but not of the machine. With
+     * a mode other than NEVER the file is also synced before it is rolled
+     * over or closed. Concurrent writers share syncs: one sync covers every
+     * event written before it started.
+     * 
+     * @param durability the durability mode; null selects NEVER
+     */
+    public void setDurability(DurabilityMode durability) {
+        groupCommit.setMode(durability);
+    }
+    
+    /**
+     * Sets the durability mode by name.
+     * 
+     * @param durability NEVER, INTERVAL, BATCH or EVENT (case-insensitive)
+     * @throws IllegalArgumentException if the name is not recognized
+     */
+    public void setDurability(String durability) {
+        groupCommit.setMode(DurabilityMode.fromString(durability));
+    }
+    
+    /**
+     * Sets the longest time between syncs in the INTERVAL and BATCH
+     * durability modes.
+     * 
+     * @param syncIntervalMillis the interval in milliseconds
+     */
+    public void setSyncInterval(long syncIntervalMillis) {
+        groupCommit.setSyncInterval(syncIntervalMillis);
+    }
+    
     /**
      * Sets the buffer size for the file writer.
      * 
@@ -428,13 +1047,133 @@ public class RollingFileAppender implements Appender {
         this.bufferSize = bufferSize > 0 ? bufferSize : DEFAULT_BUFFER_SIZE;
     }
     
+    /**
+     * Sets the number of buffered bytes at which the writer writes them to
+     * the file. A positive value switches to writing through the file
+     * channel from pooled direct buffers of the buffer size, with one
+     * gathering write per watermark; without immediate flush this cuts the
+     * copies and system calls per megabyte written. Zero, the default, keeps
+     * the buffered stream. Takes effect with the next file opened.
+     * 
+     * @param flushWatermark the watermark in bytes, or 0 for stream writes
+     */
+    public void setFlushWatermark(int flushWatermark) {
+        this.flushWatermark = Math.max(0, flushWatermark);
+    }
+    
+    /**
+     * Gets the number of buffered bytes at which the writer writes them.
+     * 
+     * @return the flush watermark in bytes, or 0 for stream writes
+     */
+    public int getFlushWatermark() {
+        return flushWatermark;
+    }
+    
+    /**
+     * Sets whether files are gzip-compressed as they are written. The file
+     * is then named after the log file plus {@code .gz}, rollovers rename it
+     * to a {@code .gz} backup, and no compression runs after a rollover, so
+     * every byte is written to disk once, compressed. The maximum file size
+     * applies to the compressed size. Immediate flush and the flush
+     * watermark do not apply; instead the compressor is sync-flushed at the
+     * compress flush interval, by a timer when logging goes quiet, and on
+     * every sync, keeping the file readable with {@code zcat} while it
+     * grows. The level is taken from the
+     * compression manager's gzip settings. A compressed file left by an
+     * earlier run is rotated before the first write rather than appended
+     * to. Takes effect with the next file opened; set it before the first
+     * event.
+     * 
+     * @param compressOnWrite true to compress files as they are written
+     */
+    public void setCompressOnWrite(boolean compressOnWrite) {
+        lock.lock();
+        try {
+            this.compressOnWrite = compressOnWrite;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Checks whether files are gzip-compressed as they are written.
+     * 
+     * @return true with compress-on-write
+     */
+    public boolean isCompressOnWrite() {
+        return compressOnWrite;
+    }
+    
+    /**
+     * Sets the longest time between sync flushes of the compressor with
+     * compress-on-write. Each sync flush makes everything written so far
+     * readable from the file and costs a few bytes and some compression.
+     * Events written before a quiet spell become readable within about
+     * this interval.
+     * 
+     * @param compressFlushIntervalMillis the interval in milliseconds; 0 sync-flushes after every event
+     */
+    public void setCompressFlushInterval(long compressFlushIntervalMillis) {
+        this.compressFlushInterval = Math.max(0, compressFlushIntervalMillis);
+    }
+    
+    /**
+     * Gets the longest time between sync flushes of the compressor with
+     * compress-on-write.
+     * 
+     * @return the interval in milliseconds
+     */
+    public long getCompressFlushInterval() {
+        return compressFlushInterval;
+    }
+    
+    /**
+     * Sets the block size of the seekable compressed format. With
+     * compress-on-write and a positive block size, each file is written as
+     * independently compressed blocks of whole events, closed at the first
+     * event after a block holds this many uncompressed bytes, followed by
+     * an index of each block's time range and level counts. The file stays
+     * a valid gzip file; {@link com.log4rich.util.IndexedGzipReader} uses
+     * the index to decompress only the blocks of a time window. Smaller
+     * blocks make seeks finer and compress slightly worse. The index is
+     * written when the file is closed or rolled. Takes effect with the
+     * next file opened.
+     * 
+     * @param indexBlockSize the uncompressed bytes per block; 0 writes
+     *                          one unindexed gzip stream
+     */
+    public void setIndexBlockSize(int indexBlockSize) {
+        lock.lock();
+        try {
+            this.indexBlockSize = Math.max(0, indexBlockSize);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the block size of the seekable compressed format.
+     * 
+     * @return the uncompressed bytes per block, or 0 for unindexed files
+     */
+    public int getIndexBlockSize() {
+        return indexBlockSize;
+    }
+    
     /**
      * Sets the date pattern used for backup file naming.
      * 
      * @param datePattern the date pattern string (e.g., "yyyy-MM-dd-HH-mm-ss")
      */
     public void setDatePattern(String datePattern) {
-        this.datePattern = datePattern != null ? datePattern : "yyyy-MM-dd-HH-mm-ss";
+        lock.lock();
+        try {
+            this.datePattern = datePattern != null ? datePattern : "yyyy-MM-dd-HH-mm-ss";
+            this.dateFormat = new SimpleDateFormat(this.datePattern);
+        } finally {
+            lock.unlock();
+        }
     }
     
     /**
@@ -568,7 +1307,7 @@ public class RollingFileAppender implements Appender {
      * @return the maximum file size in bytes
      */
     public long getMaxFileSize() {
-        return maxFileSize;
+        return sizePolicy.getMaxFileSize();
     }
     
     /**
@@ -580,6 +1319,47 @@ public class RollingFileAppender implements Appender {
         return maxBackups;
     }
     
+    /**
+     * Gets the maximum total size of all backup files.
+     * 
+     * @return the maximum total size in bytes, or 0 if there is no limit
+     */
+    public long getMaxTotalSize() {
+        return maxTotalSize;
+    }
+    
+    /**
+     * Gets the maximum age of backup files.
+     * 
+     * @return the maximum age in milliseconds, or 0 if there is no limit
+     */
+    public long getMaxAge() {
+        return maxAgeMillis;
+    }
+    
+    /**
+     * Gets the triggering policy that decides when the file is rolled.
+     * 
+     * @return the triggering policy
+     */
+    public TriggeringPolicy getTriggeringPolicy() {
+        lock.lock();
+        try {
+            return triggeringPolicy;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the catalogue of backup files.
+     * 
+     * @return the backup catalogue, or null if it has not been built yet
+     */
+    public BackupCatalogue getBackupCatalogue() {
+        return catalogue;
+    }
+    
     /**
      * Checks if compression is enabled for backup files.
      * 
@@ -643,6 +1423,181 @@ public class RollingFileAppender implements Appender {
         return asyncCompressionManager != null ? asyncCompressionManager.getStatistics() : null;
     }
     
+    /**
+     * Sets the rate limit for async compression of rotated files, which
+     * spreads a burst of rotations out instead of competing with the
+     * application for the disk.
+     * 
+     * @param maxBytesPerSecond the bytes read per second, or 0 for no limit
+     */
+    public void setCompressionRateLimit(long maxBytesPerSecond) {
+        if (asyncCompressionManager != null) {
+            asyncCompressionManager.setMaxBytesPerSecond(maxBytesPerSecond);
+        }
+    }
+    
+    /**
+     * Sets the share of its time that each async compression thread may be
+     * busy, leaving CPU to the application.
+     * 
+     * @param cpuPercent the share from 1 to 100; 100 does not limit
+     */
+    public void setCompressionCpuPercent(int cpuPercent) {
+        if (asyncCompressionManager != null) {
+            asyncCompressionManager.setCpuPercent(cpuPercent);
+        }
+    }
+    
+    /**
+     * Pauses async compression of rotated files, for example while the
+     * application is under load. Rotated files keep being queued and are
+     * compressed oldest first after {@link #resumeCompression()}.
+     */
+    public void pauseCompression() {
+        if (asyncCompressionManager != null) {
+            asyncCompressionManager.pauseCompression();
+        }
+    }
+    
+    /**
+     * Resumes paused async compression.
+     */
+    public void resumeCompression() {
+        if (asyncCompressionManager != null) {
+            asyncCompressionManager.resumeCompression();
+        }
+    }
+    
+    /**
+     * Checks whether async compression is paused.
+     * 
+     * @return true while paused
+     */
+    public boolean isCompressionPaused() {
+        return asyncCompressionManager != null && asyncCompressionManager.isCompressionPaused();
+    }
+    
+    /**
+     * Checks whether compression and pruning of rotated files run on a
+     * background worker.
+     * 
+     * @return true if rollover work is done asynchronously
+     */
+    public boolean isAsyncRollover() {
+        return asyncRollover;
+    }
+    
+    /**
+     * Sets whether compression and pruning of rotated files run on a
+     * background worker. When disabled they run on the logging thread that
+     * triggered the rollover, while the appender lock is held.
+     * 
+     * @param asyncRollover true to process rotated files in the background
+     */
+    public void setAsyncRollover(boolean asyncRollover) {
+        this.asyncRollover = asyncRollover;
+    }
+    
+    /**
+     * Checks whether the next log file is opened ahead of time.
+     * 
+     * @return true if standby segments are enabled
+     */
+    public boolean isStandbySegment() {
+        return standbySegment;
+    }
+    
+    /**
+     * Sets whether the next log file is opened ahead of time. When enabled,
+     * the rollover worker keeps an open, empty file named after the log file
+     * with a {@code .standby} suffix. A rollover renames the current file,
+     * renames the standby file to the log file name and continues writing to
+     * it, so no file is created or opened on the logging thread. The next
+     * standby file is then prepared in the background. If no standby file is
+     * ready, for example after two quick rollovers, the file is opened as
+     * usual.
+     * 
+     * Standby files are only renamed while open, so this needs a platform
+     * that allows renaming open files; elsewhere rollover falls back to
+     * opening the file.
+     * 
+     * @param standbySegment true to keep a standby file ready
+     */
+    public void setStandbySegment(boolean standbySegment) {
+        lock.lock();
+        try {
+            this.standbySegment = standbySegment;
+            if (!standbySegment && standbyWriter != null) {
+                discardStandby(standbyWriter);
+                standbyWriter = null;
+            } else if (standbySegment && writer != null) {
+                requestStandby();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gets the number of rollovers that switched to a standby file instead
+     * of opening a new one.
+     * 
+     * @return the number of standby swaps
+     */
+    public long getStandbySwapCount() {
+        return standbySwapCount;
+    }
+    
+    /**
+     * Gets the durability mode.
+     * 
+     * @return the durability mode
+     */
+    public DurabilityMode getDurability() {
+        return groupCommit.getMode();
+    }
+    
+    /**
+     * Gets the longest time between syncs in the INTERVAL and BATCH
+     * durability modes.
+     * 
+     * @return the interval in milliseconds
+     */
+    public long getSyncInterval() {
+        return groupCommit.getSyncInterval();
+    }
+    
+    /**
+     * Gets the number of syncs to storage made for durability.
+     * 
+     * @return the sync count
+     */
+    public long getSyncCount() {
+        return groupCommit.getSyncCount();
+    }
+    
+    /**
+     * Gets rollover worker statistics, including rotation lag.
+     * 
+     * @return rollover statistics, or null if no asynchronous rollover has happened yet
+     */
+    public RolloverWorker.RolloverStatistics getRolloverStatistics() {
+        RolloverWorker worker = rolloverWorker;
+        return worker != null ? worker.getStatistics() : null;
+    }
+    
+    /**
+     * Waits until all rotations handed to the background worker have been
+     * processed.
+     * 
+     * @param timeoutMs maximum time to wait in milliseconds
+     * @return true if no rotation work is pending
+     */
+    public boolean awaitRollovers(long timeoutMs) {
+        RolloverWorker worker = rolloverWorker;
+        return worker == null || worker.awaitIdle(timeoutMs);
+    }
+    
     /**
      * Formats file size for human readable output.
      * 
@@ -203,7 +203,7 @@ public class JDBCAppender implements Appender {
                 }
             }
 
-            batchBuffer.add(event);
+            batchBuffer.add(event.toImmutable());
 
             // Flush if batch is full or interval has elapsed
             if (batchBuffer.size() >= batchSize ||
@@ -24,6 +24,8 @@ import com.log4rich.layouts.StandardLayout;
 import com.log4rich.util.LoggingEvent;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -33,11 +35,19 @@ import java.util.concurrent.atomic.AtomicLong;
  * <p>Provides common functionality for TCP, UDP, and Syslog appenders including
  * connection management, retry logic, and error handling.</p>
  *
+ * <p>Subclasses that send UTF-8 can return true from {@link #sendsEncodedMessages()}
+ * and override {@link #sendMessage(ByteBuffer)}; events are then encoded by the
+ * layout straight into a reused per-thread byte buffer instead of being
+ * formatted to a String and converted with {@code getBytes}.</p>
+ *
  * @author log4Rich Contributors
  * @since 1.0.5
  */
 public abstract class NetworkAppender implements Appender {
 
+    // Encode buffers that grew beyond this are not kept for reuse
+    private static final int MAX_REUSABLE_ENCODE_BUFFER_SIZE = 65536;
+
     protected final String host;
     protected final int port;
     protected int connectionTimeout = 5000;  // 5 seconds
@@ -53,6 +63,9 @@ public abstract class NetworkAppender implements Appender {
     protected final AtomicLong messagesSent = new AtomicLong(0);
     protected final AtomicLong messagesFailed = new AtomicLong(0);
 
+    private final ThreadLocal<ByteBuffer> encodeBuffers =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(1024));
+
     /**
      * Creates a new network appender.
      *
@@ -85,13 +98,49 @@ public abstract class NetworkAppender implements Appender {
      */
     protected abstract void sendMessage(String message) throws IOException;
 
+    /**
+     * Sends a message that is already encoded as UTF-8, from the buffer's
+     * position to its limit. Only called when {@link #sendsEncodedMessages()}
+     * returns true. The default implementation decodes the bytes and calls
+     * {@link #sendMessage(String)}.
+     *
+     * @param message the encoded message
+     * @throws IOException if sending fails
+     */
+    protected void sendMessage(ByteBuffer message) throws IOException {
+        sendMessage(StandardCharsets.UTF_8.decode(message).toString());
+    }
+
+    /**
+     * Checks whether events should be encoded to bytes by the layout and sent
+     * with {@link #sendMessage(ByteBuffer)}. Subclasses return true when they
+     * send UTF-8 and override that method.
+     *
+     * @return true to send encoded messages, false to send Strings
+     */
+    protected boolean sendsEncodedMessages() {
+        return false;
+    }
+
     @Override
     public void append(LoggingEvent event) {
         if (closed) {
             return;
         }
 
-        String message = layout.format(event);
+        String message = null;
+        ByteBuffer encoded = null;
+        if (sendsEncodedMessages()) {
+            ByteBuffer buffer = encodeBuffers.get();
+            buffer.clear();
+            encoded = layout.encode(event, buffer);
+            encoded.flip();
+            if (encoded != buffer && encoded.capacity() <= MAX_REUSABLE_ENCODE_BUFFER_SIZE) {
+                encodeBuffers.set(encoded);
+            }
+        } else {
+            message = layout.format(event);
+        }
 
         int retries = 0;
         while (retries <= maxRetries) {
@@ -101,7 +150,13 @@ public abstract class NetworkAppender implements Appender {
                     connected.set(true);
                 }
 
-                sendMessage(message);
+                if (encoded != null) {
+                    // Start from the beginning again on a retry
+                    encoded.rewind();
+                    sendMessage(encoded);
+                } else {
+                    sendMessage(message);
+                }
                 messagesSent.incrementAndGet();
                 return;
 
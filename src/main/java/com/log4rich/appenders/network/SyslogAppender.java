@@ -18,6 +18,7 @@
 package com.log4rich.appenders.network;
 
 import com.log4rich.core.LogLevel;
+import com.log4rich.util.CachedDateFormatter;
 import com.log4rich.util.LoggingEvent;
 
 import java.io.IOException;
@@ -26,8 +27,6 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.Locale;
 
 /**
@@ -132,8 +131,8 @@ public class SyslogAppender extends NetworkAppender {
     private String appName = "log4Rich";
     private String hostname;
 
-    private final SimpleDateFormat dateFormat =
-            new SimpleDateFormat("MMM dd HH:mm:ss", Locale.ENGLISH);
+    private final CachedDateFormatter dateFormat =
+            new CachedDateFormatter("MMM dd HH:mm:ss", Locale.ENGLISH);
 
     /**
      * Creates a new Syslog appender with default port 514.
@@ -237,16 +236,11 @@ public class SyslogAppender extends NetworkAppender {
         Severity severity = mapLogLevelToSeverity(event.getLevel());
         int priority = facility.getCode() * 8 + severity.getCode();
 
-        // Format timestamp
-        String timestamp;
-        synchronized (dateFormat) {
-            timestamp = dateFormat.format(new Date(event.getTimestamp()));
-        }
-
         // Build message: <PRI>TIMESTAMP HOSTNAME TAG: MESSAGE
         StringBuilder sb = new StringBuilder();
         sb.append('<').append(priority).append('>');
-        sb.append(timestamp).append(' ');
+        dateFormat.formatTo(event.getTimestamp(), sb);
+        sb.append(' ');
         sb.append(hostname).append(' ');
         sb.append(appName).append(": ");
         sb.append(event.getMessage());
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
@@ -109,6 +110,28 @@ public class TCPAppender extends NetworkAppender {
         outputStream.flush();
     }
 
+    @Override
+    protected synchronized void sendMessage(ByteBuffer message) throws IOException {
+        if (outputStream == null) {
+            throw new IOException("Not connected");
+        }
+
+        if (message.hasArray()) {
+            outputStream.write(message.array(), message.arrayOffset() + message.position(), message.remaining());
+            message.position(message.limit());
+        } else {
+            byte[] bytes = new byte[message.remaining()];
+            message.get(bytes);
+            outputStream.write(bytes);
+        }
+        outputStream.flush();
+    }
+
+    @Override
+    protected boolean sendsEncodedMessages() {
+        return StandardCharsets.UTF_8.equals(charset);
+    }
+
     /**
      * Sets the character encoding for messages.
      *
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
@@ -101,6 +102,32 @@ public class UDPAppender extends NetworkAppender {
         socket.send(packet);
     }
 
+    @Override
+    protected synchronized void sendMessage(ByteBuffer message) throws IOException {
+        if (socket == null || address == null) {
+            throw new IOException("Not initialized");
+        }
+
+        // Truncate if too large for UDP
+        int length = Math.min(message.remaining(), maxPacketSize);
+        DatagramPacket packet;
+        if (message.hasArray()) {
+            packet = new DatagramPacket(message.array(), message.arrayOffset() + message.position(),
+                    length, address, port);
+        } else {
+            byte[] bytes = new byte[length];
+            message.duplicate().get(bytes);
+            packet = new DatagramPacket(bytes, length, address, port);
+        }
+        message.position(message.limit());
+        socket.send(packet);
+    }
+
+    @Override
+    protected boolean sendsEncodedMessages() {
+        return StandardCharsets.UTF_8.equals(charset);
+    }
+
     /**
      * Sets the character encoding for messages.
      *
@@ -346,9 +346,28 @@ public class ConfigLoader {
             case "LOG4RICH_FILE_COMPRESS": return "log4rich.file.compress";
             case "LOG4RICH_FILE_COMPRESS_PROGRAM": return "log4rich.file.compress.program";
             case "LOG4RICH_FILE_COMPRESS_ARGS": return "log4rich.file.compress.args";
+            case "LOG4RICH_FILE_COMPRESS_LEVEL": return "log4rich.file.compress.level";
+            case "LOG4RICH_FILE_COMPRESS_BUFFER_SIZE": return "log4rich.file.compress.bufferSize";
+            case "LOG4RICH_FILE_COMPRESS_STRATEGY": return "log4rich.file.compress.strategy";
+            case "LOG4RICH_FILE_COMPRESS_PARALLELISM": return "log4rich.file.compress.parallelism";
+            case "LOG4RICH_FILE_COMPRESS_BLOCK_SIZE": return "log4rich.file.compress.blockSize";
+            case "LOG4RICH_FILE_COMPRESS_MAX_BYTES_PER_SECOND": return "log4rich.file.compress.maxBytesPerSecond";
+            case "LOG4RICH_FILE_COMPRESS_CPU_PERCENT": return "log4rich.file.compress.cpuPercent";
             case "LOG4RICH_FILE_ENCODING": return "log4rich.file.encoding";
             case "LOG4RICH_FILE_BUFFER_SIZE": return "log4rich.file.bufferSize";
+            case "LOG4RICH_FILE_FLUSH_WATERMARK": return "log4rich.file.flushWatermark";
             case "LOG4RICH_FILE_IMMEDIATE_FLUSH": return "log4rich.file.immediateFlush";
+            case "LOG4RICH_FILE_ASYNC_ROLLOVER": return "log4rich.file.asyncRollover";
+            case "LOG4RICH_FILE_STANDBY_SEGMENT": return "log4rich.file.standbySegment";
+            case "LOG4RICH_FILE_COMPRESS_ON_WRITE": return "log4rich.file.compressOnWrite";
+            case "LOG4RICH_FILE_COMPRESS_FLUSH_INTERVAL": return "log4rich.file.compressFlushInterval";
+            case "LOG4RICH_FILE_INDEX_BLOCK_SIZE": return "log4rich.file.indexBlockSize";
+            case "LOG4RICH_FILE_ROLLOVER_POLICY": return "log4rich.file.rolloverPolicy";
+            case "LOG4RICH_FILE_ROLLOVER_INTERVAL": return "log4rich.file.rolloverInterval";
+            case "LOG4RICH_FILE_MAX_TOTAL_SIZE": return "log4rich.file.maxTotalSize";
+            case "LOG4RICH_FILE_MAX_AGE_DAYS": return "log4rich.file.maxAgeDays";
+            case "LOG4RICH_FILE_DURABILITY": return "log4rich.file.durability";
+            case "LOG4RICH_FILE_SYNC_INTERVAL": return "log4rich.file.syncInterval";
             case "LOG4RICH_LOCATION_CAPTURE": return "log4rich.location.capture";
             case "LOG4RICH_PERFORMANCE_MEMORY_MAPPED": return "log4rich.performance.memoryMapped";
             case "LOG4RICH_PERFORMANCE_MAPPED_SIZE": return "log4rich.performance.mappedSize";
@@ -361,6 +380,8 @@ public class ConfigLoader {
             case "LOG4RICH_ASYNC_OVERFLOW_STRATEGY": return "log4rich.async.overflowStrategy";
             case "LOG4RICH_ASYNC_THREAD_PRIORITY": return "log4rich.async.threadPriority";
             case "LOG4RICH_ASYNC_SHUTDOWN_TIMEOUT": return "log4rich.async.shutdownTimeout";
+            case "LOG4RICH_ASYNC_WAIT_STRATEGY": return "log4rich.async.waitStrategy";
+            case "LOG4RICH_ASYNC_MUTABLE_ARGUMENTS": return "log4rich.async.mutableArguments";
             case "LOG4RICH_JSON_ENABLED": return "log4rich.json.enabled";
             case "LOG4RICH_JSON_PRETTY_PRINT": return "log4rich.json.prettyPrint";
             case "LOG4RICH_JSON_INCLUDE_LOCATION": return "log4rich.json.includeLocation";
@@ -394,9 +415,28 @@ public class ConfigLoader {
             "LOG4RICH_FILE_COMPRESS",
             "LOG4RICH_FILE_COMPRESS_PROGRAM",
             "LOG4RICH_FILE_COMPRESS_ARGS",
+            "LOG4RICH_FILE_COMPRESS_LEVEL",
+            "LOG4RICH_FILE_COMPRESS_BUFFER_SIZE",
+            "LOG4RICH_FILE_COMPRESS_STRATEGY",
+            "LOG4RICH_FILE_COMPRESS_PARALLELISM",
+            "LOG4RICH_FILE_COMPRESS_BLOCK_SIZE",
+            "LOG4RICH_FILE_COMPRESS_MAX_BYTES_PER_SECOND",
+            "LOG4RICH_FILE_COMPRESS_CPU_PERCENT",
             "LOG4RICH_FILE_ENCODING",
             "LOG4RICH_FILE_BUFFER_SIZE",
+            "LOG4RICH_FILE_FLUSH_WATERMARK",
             "LOG4RICH_FILE_IMMEDIATE_FLUSH",
+            "LOG4RICH_FILE_ASYNC_ROLLOVER",
+            "LOG4RICH_FILE_STANDBY_SEGMENT",
+            "LOG4RICH_FILE_COMPRESS_ON_WRITE",
+            "LOG4RICH_FILE_COMPRESS_FLUSH_INTERVAL",
+            "LOG4RICH_FILE_INDEX_BLOCK_SIZE",
+            "LOG4RICH_FILE_ROLLOVER_POLICY",
+            "LOG4RICH_FILE_ROLLOVER_INTERVAL",
+            "LOG4RICH_FILE_MAX_TOTAL_SIZE",
+            "LOG4RICH_FILE_MAX_AGE_DAYS",
+            "LOG4RICH_FILE_DURABILITY",
+            "LOG4RICH_FILE_SYNC_INTERVAL",
             "LOG4RICH_LOCATION_CAPTURE",
             "LOG4RICH_PERFORMANCE_MEMORY_MAPPED",
             "LOG4RICH_PERFORMANCE_MAPPED_SIZE",
@@ -409,6 +449,8 @@ public class ConfigLoader {
             "LOG4RICH_ASYNC_OVERFLOW_STRATEGY",
             "LOG4RICH_ASYNC_THREAD_PRIORITY",
             "LOG4RICH_ASYNC_SHUTDOWN_TIMEOUT",
+            "LOG4RICH_ASYNC_WAIT_STRATEGY",
+            "LOG4RICH_ASYNC_MUTABLE_ARGUMENTS",
             "LOG4RICH_JSON_ENABLED",
             "LOG4RICH_JSON_PRETTY_PRINT",
             "LOG4RICH_JSON_INCLUDE_LOCATION",
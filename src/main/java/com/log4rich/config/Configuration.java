@@ -45,9 +45,27 @@ public class Configuration {
     private static final boolean DEFAULT_COMPRESSION = true;
     private static final String DEFAULT_COMPRESSION_PROGRAM = "gzip";
     private static final String DEFAULT_COMPRESSION_ARGS = "";
+    private static final int DEFAULT_COMPRESSION_LEVEL = -1; // from the arguments, else 6
+    private static final int DEFAULT_COMPRESSION_BUFFER_SIZE = 65536; // 64KB
+    private static final String DEFAULT_COMPRESSION_STRATEGY = "DEFAULT";
+    private static final int DEFAULT_COMPRESSION_PARALLELISM = 1; // on the compression thread
+    private static final int DEFAULT_COMPRESSION_BLOCK_SIZE = 1024 * 1024; // 1MB
+    private static final long DEFAULT_COMPRESSION_MAX_BYTES_PER_SECOND = 0; // unlimited
+    private static final int DEFAULT_COMPRESSION_CPU_PERCENT = 100; // unlimited
+    private static final boolean DEFAULT_COMPRESS_ON_WRITE = false;
+    private static final long DEFAULT_COMPRESS_FLUSH_INTERVAL = 1000; // 1 second
+    private static final int DEFAULT_INDEX_BLOCK_SIZE = 0; // unindexed
     private static final String DEFAULT_ENCODING = "UTF-8";
     private static final int DEFAULT_BUFFER_SIZE = 8192;
     private static final boolean DEFAULT_IMMEDIATE_FLUSH = true;
+    private static final boolean DEFAULT_ASYNC_ROLLOVER = true;
+    private static final boolean DEFAULT_STANDBY_SEGMENT = false;
+    private static final String DEFAULT_ROLLOVER_POLICY = "SIZE";
+    private static final String DEFAULT_ROLLOVER_INTERVAL = "DAILY";
+    private static final int DEFAULT_MAX_AGE_DAYS = 0;
+    private static final String DEFAULT_DURABILITY = "NEVER";
+    private static final long DEFAULT_SYNC_INTERVAL = 1000; // 1 second
+    private static final int DEFAULT_FLUSH_WATERMARK = 0; // buffered stream
     private static final boolean DEFAULT_LOCATION_CAPTURE = true;
     private static final long DEFAULT_LOCK_TIMEOUT = 5000;
     private static final String DEFAULT_DATE_PATTERN = "yyyy-MM-dd-HH-mm-ss";
@@ -72,6 +90,8 @@ public class Configuration {
     private static final String DEFAULT_ASYNC_OVERFLOW_STRATEGY = "DROP_OLDEST";
     private static final int DEFAULT_ASYNC_THREAD_PRIORITY = Thread.NORM_PRIORITY;
     private static final long DEFAULT_ASYNC_SHUTDOWN_TIMEOUT = 5000; // 5 seconds
+    private static final String DEFAULT_ASYNC_WAIT_STRATEGY = "BACKOFF";
+    private static final String DEFAULT_ASYNC_MUTABLE_ARGUMENTS = "FORMAT";
     
     // JSON layout defaults
     private static final boolean DEFAULT_JSON_ENABLED = false;
@@ -142,9 +162,27 @@ public class Configuration {
         properties.setProperty("log4rich.file.compress", String.valueOf(DEFAULT_COMPRESSION));
         properties.setProperty("log4rich.file.compress.program", DEFAULT_COMPRESSION_PROGRAM);
         properties.setProperty("log4rich.file.compress.args", DEFAULT_COMPRESSION_ARGS);
+        properties.setProperty("log4rich.file.compress.level", String.valueOf(DEFAULT_COMPRESSION_LEVEL));
+        properties.setProperty("log4rich.file.compress.bufferSize", String.valueOf(DEFAULT_COMPRESSION_BUFFER_SIZE));
+        properties.setProperty("log4rich.file.compress.strategy", DEFAULT_COMPRESSION_STRATEGY);
+        properties.setProperty("log4rich.file.compress.parallelism", String.valueOf(DEFAULT_COMPRESSION_PARALLELISM));
+        properties.setProperty("log4rich.file.compress.blockSize", String.valueOf(DEFAULT_COMPRESSION_BLOCK_SIZE));
+        properties.setProperty("log4rich.file.compress.maxBytesPerSecond", String.valueOf(DEFAULT_COMPRESSION_MAX_BYTES_PER_SECOND));
+        properties.setProperty("log4rich.file.compress.cpuPercent", String.valueOf(DEFAULT_COMPRESSION_CPU_PERCENT));
+        properties.setProperty("log4rich.file.compressOnWrite", String.valueOf(DEFAULT_COMPRESS_ON_WRITE));
+        properties.setProperty("log4rich.file.compressFlushInterval", String.valueOf(DEFAULT_COMPRESS_FLUSH_INTERVAL));
+        properties.setProperty("log4rich.file.indexBlockSize", String.valueOf(DEFAULT_INDEX_BLOCK_SIZE));
         properties.setProperty("log4rich.file.encoding", DEFAULT_ENCODING);
         properties.setProperty("log4rich.file.bufferSize", String.valueOf(DEFAULT_BUFFER_SIZE));
+        properties.setProperty("log4rich.file.flushWatermark", String.valueOf(DEFAULT_FLUSH_WATERMARK));
         properties.setProperty("log4rich.file.immediateFlush", String.valueOf(DEFAULT_IMMEDIATE_FLUSH));
+        properties.setProperty("log4rich.file.asyncRollover", String.valueOf(DEFAULT_ASYNC_ROLLOVER));
+        properties.setProperty("log4rich.file.standbySegment", String.valueOf(DEFAULT_STANDBY_SEGMENT));
+        properties.setProperty("log4rich.file.rolloverPolicy", DEFAULT_ROLLOVER_POLICY);
+        properties.setProperty("log4rich.file.rolloverInterval", DEFAULT_ROLLOVER_INTERVAL);
+        properties.setProperty("log4rich.file.maxAgeDays", String.valueOf(DEFAULT_MAX_AGE_DAYS));
+        properties.setProperty("log4rich.file.durability", DEFAULT_DURABILITY);
+        properties.setProperty("log4rich.file.syncInterval", String.valueOf(DEFAULT_SYNC_INTERVAL));
         properties.setProperty("log4rich.location.capture", String.valueOf(DEFAULT_LOCATION_CAPTURE));
         properties.setProperty("log4rich.thread.lockTimeout", String.valueOf(DEFAULT_LOCK_TIMEOUT));
         properties.setProperty("log4rich.file.datePattern", DEFAULT_DATE_PATTERN);
@@ -169,6 +207,8 @@ public class Configuration {
         properties.setProperty("log4rich.async.overflowStrategy", DEFAULT_ASYNC_OVERFLOW_STRATEGY);
         properties.setProperty("log4rich.async.threadPriority", String.valueOf(DEFAULT_ASYNC_THREAD_PRIORITY));
         properties.setProperty("log4rich.async.shutdownTimeout", String.valueOf(DEFAULT_ASYNC_SHUTDOWN_TIMEOUT));
+        properties.setProperty("log4rich.async.waitStrategy", DEFAULT_ASYNC_WAIT_STRATEGY);
+        properties.setProperty("log4rich.async.mutableArguments", DEFAULT_ASYNC_MUTABLE_ARGUMENTS);
         
         // JSON layout defaults
         properties.setProperty("log4rich.json.enabled", String.valueOf(DEFAULT_JSON_ENABLED));
@@ -323,6 +363,102 @@ public class Configuration {
         return properties.getProperty("log4rich.file.compress.args");
     }
     
+    /**
+     * Gets the level of the in-process gzip compression.
+     * 
+     * @return the level from 0 to 9, or -1 to take it from the compression arguments
+     */
+    public int getCompressionLevel() {
+        return Integer.parseInt(properties.getProperty("log4rich.file.compress.level"));
+    }
+    
+    /**
+     * Gets the read and write buffer size of the in-process gzip compression.
+     * 
+     * @return the buffer size in bytes
+     */
+    public int getCompressionBufferSize() {
+        return Integer.parseInt(properties.getProperty("log4rich.file.compress.bufferSize"));
+    }
+    
+    /**
+     * Gets the deflate strategy of the in-process gzip compression.
+     * 
+     * @return the strategy name (DEFAULT, FILTERED or HUFFMAN_ONLY)
+     */
+    public String getCompressionStrategy() {
+        return properties.getProperty("log4rich.file.compress.strategy");
+    }
+    
+    /**
+     * Gets the most threads the in-process gzip compression uses for one
+     * file, splitting it into blocks.
+     * 
+     * @return the parallelism; 1 compresses on the compression thread
+     */
+    public int getCompressionParallelism() {
+        return Integer.parseInt(properties.getProperty("log4rich.file.compress.parallelism"));
+    }
+    
+    /**
+     * Gets the size of the blocks the in-process gzip compression compresses
+     * in parallel.
+     * 
+     * @return the block size in bytes
+     */
+    public int getCompressionBlockSize() {
+        return Integer.parseInt(properties.getProperty("log4rich.file.compress.blockSize"));
+    }
+    
+    /**
+     * Gets the rate limit for background compression of rotated files.
+     * 
+     * @return the bytes read per second, or 0 for no limit
+     */
+    public long getCompressionMaxBytesPerSecond() {
+        return Long.parseLong(properties.getProperty("log4rich.file.compress.maxBytesPerSecond"));
+    }
+    
+    /**
+     * Gets the share of its time that each background compression thread
+     * may be busy.
+     * 
+     * @return the share from 1 to 100
+     */
+    public int getCompressionCpuPercent() {
+        return Integer.parseInt(properties.getProperty("log4rich.file.compress.cpuPercent"));
+    }
+    
+    /**
+     * Checks if log files are gzip-compressed as they are written instead
+     * of after rollover.
+     * 
+     * @return true if compress-on-write is enabled
+     */
+    public boolean isCompressOnWrite() {
+        return Boolean.parseBoolean(properties.getProperty("log4rich.file.compressOnWrite"));
+    }
+    
+    /**
+     * Gets the longest time between sync flushes of the compressor with
+     * compress-on-write.
+     * 
+     * @return the interval in milliseconds
+     */
+    public long getCompressFlushInterval() {
+        return Long.parseLong(properties.getProperty("log4rich.file.compressFlushInterval"));
+    }
+    
+    /**
+     * Gets the uncompressed bytes per block of the seekable indexed format
+     * written with compress-on-write.
+     * 
+     * @return the block size in bytes, or 0 for unindexed files
+     */
+    public int getIndexBlockSize() {
+        return Integer.parseInt(properties.getProperty("log4rich.file.indexBlockSize"));
+    }
+    
     /**
      * Gets the file encoding to use for log files.
      * 
@@ -341,6 +477,16 @@ public class Configuration {
         return Integer.parseInt(properties.getProperty("log4rich.file.bufferSize"));
     }
     
+    /**
+     * Gets the number of buffered bytes at which file output is written
+     * through the file channel.
+     * 
+     * @return the flush watermark in bytes, or 0 to write through a buffered stream
+     */
+    public int getFlushWatermark() {
+        return Integer.parseInt(properties.getProperty("log4rich.file.flushWatermark"));
+    }
+    
     /**
      * Checks if immediate flush is enabled for file operations.
      * 
@@ -350,6 +496,81 @@ public class Configuration {
         return Boolean.parseBoolean(properties.getProperty("log4rich.file.immediateFlush"));
     }
     
+    /**
+     * Checks if rotated files are compressed and pruned on a background
+     * worker rather than on the logging thread.
+     * 
+     * @return true if asynchronous rollover is enabled, false otherwise
+     */
+    public boolean isAsyncRollover() {
+        return Boolean.parseBoolean(properties.getProperty("log4rich.file.asyncRollover"));
+    }
+    
+    /**
+     * Checks if the next log file is opened ahead of time, so that a
+     * rollover only has to swap writers and rename.
+     * 
+     * @return true if standby segments are enabled, false otherwise
+     */
+    public boolean isStandbySegment() {
+        return Boolean.parseBoolean(properties.getProperty("log4rich.file.standbySegment"));
+    }
+    
+    /**
+     * Gets the policy that decides when the log file is rolled.
+     * 
+     * @return SIZE, TIME or SIZE_AND_TIME
+     */
+    public String getRolloverPolicy() {
+        return properties.getProperty("log4rich.file.rolloverPolicy");
+    }
+    
+    /**
+     * Gets the boundary used by the time-based rollover policies.
+     * 
+     * @return HOURLY or DAILY
+     */
+    public String getRolloverInterval() {
+        return properties.getProperty("log4rich.file.rolloverInterval");
+    }
+    
+    /**
+     * Gets the maximum total size of all backup files.
+     * 
+     * @return the maximum total size (e.g., "500M"), or null if there is no limit
+     */
+    public String getMaxTotalSize() {
+        return properties.getProperty("log4rich.file.maxTotalSize");
+    }
+    
+    /**
+     * Gets the maximum age of backup files in days.
+     * 
+     * @return the maximum age in days, or 0 if there is no limit
+     */
+    public int getMaxAgeDays() {
+        return Integer.parseInt(properties.getProperty("log4rich.file.maxAgeDays"));
+    }
+    
+    /**
+     * Gets when written events are synced to storage.
+     * 
+     * @return NEVER, INTERVAL, BATCH or EVENT
+     */
+    public String getDurability() {
+        return properties.getProperty("log4rich.file.durability");
+    }
+    
+    /**
+     * Gets the longest time between syncs in the INTERVAL and BATCH
+     * durability modes.
+     * 
+     * @return the sync interval in milliseconds
+     */
+    public long getSyncInterval() {
+        return Long.parseLong(properties.getProperty("log4rich.file.syncInterval"));
+    }
+    
     /**
      * Checks if location capture is enabled (class, method, line number).
      * 
@@ -526,6 +747,8 @@ public class Configuration {
     
     /**
      * Checks if zero-allocation logging is enabled.
+     * Async loggers created from this configuration then reuse
+     * pre-allocated event slots instead of allocating an event per call.
      * 
      * @return true if object pooling should be used
      */
@@ -589,6 +812,37 @@ public class Configuration {
         return Long.parseLong(properties.getProperty("log4rich.async.shutdownTimeout"));
     }
     
+    /**
+     * Gets the default wait strategy for async processing threads.
+     * 
+     * @return the wait strategy name (BUSY_SPIN, YIELD, BACKOFF or BLOCKING)
+     */
+    public String getAsyncWaitStrategy() {
+        return properties.getProperty("log4rich.async.waitStrategy");
+    }
+    
+    /**
+     * Gets the wait strategy for a specific async logger. A property of the form
+     * {@code log4rich.async.waitStrategy.<loggerName>} overrides the default.
+     * 
+     * @param loggerName the logger name
+     * @return the wait strategy name for this logger
+     */
+    public String getAsyncWaitStrategy(String loggerName) {
+        String specific = properties.getProperty("log4rich.async.waitStrategy." + loggerName);
+        return specific != null ? specific : getAsyncWaitStrategy();
+    }
+    
+    /**
+     * Gets how async loggers treat parameterized-message arguments that are
+     * not known to be immutable.
+     * 
+     * @return the policy name (FORMAT, SNAPSHOT or CAPTURE)
+     */
+    public String getAsyncMutableArgumentPolicy() {
+        return properties.getProperty("log4rich.async.mutableArguments");
+    }
+    
     /**
      * Parses a size string (e.g., "10M", "64MB", "1G") to bytes.
      * 
@@ -680,7 +934,7 @@ public class Configuration {
     /**
      * Gets the timestamp format for JSON output.
      * 
-     * @return the SimpleDateFormat pattern for timestamps
+     * @return the DateTimeFormatter pattern for timestamps
      */
     public String getJsonTimestampFormat() {
         return properties.getProperty("log4rich.json.timestampFormat");
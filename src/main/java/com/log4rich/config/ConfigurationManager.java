@@ -18,6 +18,7 @@
 package com.log4rich.config;
 
 import com.log4rich.appenders.Appender;
+import com.log4rich.appenders.AsyncAppenderWrapper;
 import com.log4rich.appenders.ConsoleAppender;
 import com.log4rich.appenders.RollingFileAppender;
 import com.log4rich.core.LogLevel;
@@ -25,12 +26,14 @@ import com.log4rich.core.LogManager;
 import com.log4rich.core.Logger;
 import com.log4rich.layouts.StandardLayout;
 import com.log4rich.util.CompressionManager;
+import com.log4rich.util.GzipCompressor;
 
 import java.io.File;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -482,9 +485,7 @@ public class ConfigurationManager {
         Logger rootLogger = LogManager.getRootLogger();
         
         // Remove existing console appenders
-        rootLogger.getAppenders().stream()
-            .filter(appender -> appender instanceof ConsoleAppender)
-            .forEach(rootLogger::removeAppender);
+        removeAppenders(rootLogger, ConsoleAppender.class);
         
         // Add new console appender if enabled
         if (currentConfig.isConsoleEnabled()) {
@@ -497,9 +498,34 @@ public class ConfigurationManager {
             if (currentConfig.isJsonEnabled()) {
                 consoleAppender.setLayout(buildJsonLayout());
             }
-            rootLogger.addAppender(consoleAppender);
+            rootLogger.addAppender(withAsync(consoleAppender));
         }
     }
+    
+    /**
+     * Removes the appenders of a type from a logger, including those behind
+     * an async wrapper. Async wrappers are closed, which stops their thread.
+     */
+    private static void removeAppenders(Logger logger, Class<? extends Appender> type) {
+        for (Appender appender : logger.getAppenders()) {
+            boolean wrapped = appender instanceof AsyncAppenderWrapper;
+            Appender target = wrapped ? ((AsyncAppenderWrapper) appender).getTargetAppender() : appender;
+            if (type.isInstance(target)) {
+                logger.removeAppender(appender);
+                if (wrapped) {
+                    appender.close();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Wraps an appender in an {@link AsyncAppenderWrapper} built from the
+     * {@code log4rich.async.*} settings when async logging is enabled.
+     */
+    private static Appender withAsync(Appender appender) {
+        return currentConfig.isAsyncEnabled() ? new AsyncAppenderWrapper(appender, currentConfig) : appender;
+    }
 
     /**
      * Builds a {@link com.log4rich.layouts.JsonLayout} from the active configuration's
@@ -528,9 +554,7 @@ public class ConfigurationManager {
         Logger rootLogger = LogManager.getRootLogger();
         
         // Remove existing file appenders
-        rootLogger.getAppenders().stream()
-            .filter(appender -> appender instanceof RollingFileAppender)
-            .forEach(rootLogger::removeAppender);
+        removeAppenders(rootLogger, RollingFileAppender.class);
         
         // Add new file appender if enabled
         if (currentConfig.isFileEnabled()) {
@@ -551,18 +575,37 @@ public class ConfigurationManager {
                 CompressionManager compressionManager = new CompressionManager(
                     currentConfig.getCompressionProgram(),
                     currentConfig.getCompressionArgs(),
-                    currentConfig.getLockTimeout()
+                    currentConfig.getLockTimeout(),
+                    currentConfig.getCompressionLevel(),
+                    currentConfig.getCompressionBufferSize(),
+                    GzipCompressor.Strategy.fromString(currentConfig.getCompressionStrategy()),
+                    currentConfig.getCompressionParallelism(),
+                    currentConfig.getCompressionBlockSize()
                 );
                 fileAppender.setCompressionManager(compressionManager);
+                fileAppender.setCompressionRateLimit(currentConfig.getCompressionMaxBytesPerSecond());
+                fileAppender.setCompressionCpuPercent(currentConfig.getCompressionCpuPercent());
             }
             
             // Configure other settings
             fileAppender.setEncoding(Charset.forName(currentConfig.getFileEncoding()));
             fileAppender.setImmediateFlush(currentConfig.isImmediateFlush());
+            fileAppender.setAsyncRollover(currentConfig.isAsyncRollover());
+            fileAppender.setStandbySegment(currentConfig.isStandbySegment());
+            fileAppender.setCompressOnWrite(currentConfig.isCompressOnWrite());
+            fileAppender.setCompressFlushInterval(currentConfig.getCompressFlushInterval());
+            fileAppender.setIndexBlockSize(currentConfig.getIndexBlockSize());
             fileAppender.setBufferSize(currentConfig.getBufferSize());
+            fileAppender.setFlushWatermark(currentConfig.getFlushWatermark());
             fileAppender.setDatePattern(currentConfig.getDatePattern());
+            fileAppender.setRolloverInterval(currentConfig.getRolloverInterval());
+            fileAppender.setRolloverPolicy(currentConfig.getRolloverPolicy());
+            fileAppender.setMaxTotalSize(currentConfig.getMaxTotalSize());
+            fileAppender.setMaxAge(TimeUnit.DAYS.toMillis(currentConfig.getMaxAgeDays()));
+            fileAppender.setDurability(currentConfig.getDurability());
+            fileAppender.setSyncInterval(currentConfig.getSyncInterval());
             
-            rootLogger.addAppender(fileAppender);
+            rootLogger.addAppender(withAsync(fileAppender));
         }
     }
     
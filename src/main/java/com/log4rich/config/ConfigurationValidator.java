@@ -57,6 +57,9 @@ public final class ConfigurationValidator {
         validateBoolean(properties, "log4rich.file.enabled", errors);
         validateBoolean(properties, "log4rich.file.compress", errors);
         validateBoolean(properties, "log4rich.file.immediateFlush", errors);
+        validateBoolean(properties, "log4rich.file.asyncRollover", errors);
+        validateBoolean(properties, "log4rich.file.standbySegment", errors);
+        validateBoolean(properties, "log4rich.file.compressOnWrite", errors);
         validateBoolean(properties, "log4rich.location.capture", errors);
         validateBoolean(properties, "log4rich.performance.memoryMapped", errors);
         validateBoolean(properties, "log4rich.performance.batchEnabled", errors);
@@ -71,17 +74,29 @@ public final class ConfigurationValidator {
         
         // Validate size properties
         validateSize(properties, "log4rich.file.maxSize", errors);
+        validateSize(properties, "log4rich.file.maxTotalSize", errors);
         validateSize(properties, "log4rich.performance.mappedSize", errors);
         
         // Validate numeric properties
         validateInteger(properties, "log4rich.file.maxBackups", 0, 1000, errors);
+        validateInteger(properties, "log4rich.file.maxAgeDays", 0, 3650, errors);
         validateInteger(properties, "log4rich.file.bufferSize", 1024, 1024 * 1024, errors);
+        validateInteger(properties, "log4rich.file.indexBlockSize", 0, 16 * 1024 * 1024, errors);
+        validateInteger(properties, "log4rich.file.flushWatermark", 0, 64 * 1024 * 1024, errors);
+        validateInteger(properties, "log4rich.file.compress.level", -1, 9, errors);
+        validateInteger(properties, "log4rich.file.compress.bufferSize", 4096, 16 * 1024 * 1024, errors);
+        validateInteger(properties, "log4rich.file.compress.parallelism", 1, 256, errors);
+        validateInteger(properties, "log4rich.file.compress.blockSize", 64 * 1024, 64 * 1024 * 1024, errors);
+        validateInteger(properties, "log4rich.file.compress.cpuPercent", 1, 100, errors);
         validateInteger(properties, "log4rich.performance.batchSize", 1, 100000, errors);
         validateInteger(properties, "log4rich.performance.stringBuilderCapacity", 64, 64 * 1024, errors);
         validateInteger(properties, "log4rich.async.bufferSize", 1024, 1024 * 1024, errors);
         validateInteger(properties, "log4rich.async.threadPriority", Thread.MIN_PRIORITY, Thread.MAX_PRIORITY, errors);
         
         validateLong(properties, "log4rich.thread.lockTimeout", 100L, 60000L, errors);
+        validateLong(properties, "log4rich.file.syncInterval", 1L, 300000L, errors);
+        validateLong(properties, "log4rich.file.compressFlushInterval", 0L, 300000L, errors);
+        validateLong(properties, "log4rich.file.compress.maxBytesPerSecond", 0L, 10L * 1024 * 1024 * 1024, errors);
         validateLong(properties, "log4rich.performance.batchTimeMs", 1L, 10000L, errors);
         validateLong(properties, "log4rich.performance.forceInterval", 100L, 300000L, errors);
         validateLong(properties, "log4rich.async.shutdownTimeout", 1000L, 60000L, errors);
@@ -91,10 +106,21 @@ public final class ConfigurationValidator {
         
         // Validate compression program
         validateCompressionProgram(properties, errors);
+        validateCompressionStrategy(properties, errors);
         
         // Validate overflow strategy
         validateOverflowStrategy(properties, errors);
         
+        // Validate async wait strategies, including per-logger overrides
+        validateWaitStrategies(properties, errors);
+        validateMutableArgumentPolicy(properties, errors);
+        
+        // Validate rollover policy and interval
+        validateRolloverPolicy(properties, errors);
+        
+        // Validate durability mode
+        validateDurability(properties, errors);
+        
         // Validate logger-specific levels
         validateLoggerLevels(properties, errors);
         
@@ -299,6 +325,102 @@ public final class ConfigurationValidator {
         }
     }
     
+    private static void validateWaitStrategies(Properties properties, List<ConfigurationError> errors) {
+        String key = "log4rich.async.waitStrategy";
+        for (String name : properties.stringPropertyNames()) {
+            if (!name.equals(key) && !name.startsWith(key + ".")) {
+                continue;
+            }
+            String value = properties.getProperty(name);
+            if (value != null && !value.trim().isEmpty()) {
+                String trimmed = value.trim().toUpperCase().replace('-', '_');
+                if (!trimmed.equals("BUSY_SPIN") && !trimmed.equals("YIELD") &&
+                    !trimmed.equals("BACKOFF") && !trimmed.equals("BLOCKING")) {
+                    errors.add(new ConfigurationError(
+                        name,
+                        value,
+                        "Invalid wait strategy. Valid strategies: BUSY_SPIN, YIELD, BACKOFF, BLOCKING.",
+                        "Use: " + name + "=BACKOFF (recommended), or BLOCKING for zero idle CPU"
+                    ));
+                }
+            }
+        }
+    }
+    
+    private static void validateRolloverPolicy(Properties properties, List<ConfigurationError> errors) {
+        String policy = properties.getProperty("log4rich.file.rolloverPolicy");
+        if (policy != null && !policy.trim().isEmpty()) {
+            String trimmed = policy.trim().toUpperCase().replace('-', '_');
+            if (!trimmed.equals("SIZE") && !trimmed.equals("TIME") && !trimmed.equals("SIZE_AND_TIME")) {
+                errors.add(new ConfigurationError(
+                    "log4rich.file.rolloverPolicy",
+                    policy,
+                    "Invalid rollover policy. Valid policies: SIZE, TIME, SIZE_AND_TIME.",
+                    "Use: log4rich.file.rolloverPolicy=SIZE_AND_TIME to roll daily and on size"
+                ));
+            }
+        }
+        
+        String interval = properties.getProperty("log4rich.file.rolloverInterval");
+        if (interval != null && !interval.trim().isEmpty()) {
+            String trimmed = interval.trim().toUpperCase();
+            if (!trimmed.equals("HOURLY") && !trimmed.equals("DAILY")) {
+                errors.add(new ConfigurationError(
+                    "log4rich.file.rolloverInterval",
+                    interval,
+                    "Invalid rollover interval. Valid intervals: HOURLY, DAILY.",
+                    "Use: log4rich.file.rolloverInterval=DAILY"
+                ));
+            }
+        }
+    }
+    
+    private static void validateCompressionStrategy(Properties properties, List<ConfigurationError> errors) {
+        String value = properties.getProperty("log4rich.file.compress.strategy");
+        if (value != null && !value.trim().isEmpty()) {
+            String trimmed = value.trim().toUpperCase().replace('-', '_');
+            if (!trimmed.equals("DEFAULT") && !trimmed.equals("FILTERED") && !trimmed.equals("HUFFMAN_ONLY")) {
+                errors.add(new ConfigurationError(
+                    "log4rich.file.compress.strategy",
+                    value,
+                    "Invalid compression strategy. Valid strategies: DEFAULT, FILTERED, HUFFMAN_ONLY.",
+                    "Use: log4rich.file.compress.strategy=DEFAULT"
+                ));
+            }
+        }
+    }
+    
+    private static void validateDurability(Properties properties, List<ConfigurationError> errors) {
+        String value = properties.getProperty("log4rich.file.durability");
+        if (value != null && !value.trim().isEmpty()) {
+            String trimmed = value.trim().toUpperCase();
+            if (!trimmed.equals("NEVER") && !trimmed.equals("INTERVAL")
+                    && !trimmed.equals("BATCH") && !trimmed.equals("EVENT")) {
+                errors.add(new ConfigurationError(
+                    "log4rich.file.durability",
+                    value,
+                    "Invalid durability mode. Valid modes: NEVER, INTERVAL, BATCH, EVENT.",
+                    "Use: log4rich.file.durability=BATCH to sync once per batch of events"
+                ));
+            }
+        }
+    }
+    
+    private static void validateMutableArgumentPolicy(Properties properties, List<ConfigurationError> errors) {
+        String value = properties.getProperty("log4rich.async.mutableArguments");
+        if (value != null && !value.trim().isEmpty()) {
+            String trimmed = value.trim().toUpperCase();
+            if (!trimmed.equals("FORMAT") && !trimmed.equals("SNAPSHOT") && !trimmed.equals("CAPTURE")) {
+                errors.add(new ConfigurationError(
+                    "log4rich.async.mutableArguments",
+                    value,
+                    "Invalid mutable argument policy. Valid policies: FORMAT, SNAPSHOT, CAPTURE.",
+                    "Use: log4rich.async.mutableArguments=FORMAT (safe), or SNAPSHOT to defer formatting"
+                ));
+            }
+        }
+    }
+    
     private static void validateLoggerLevels(Properties properties, List<ConfigurationError> errors) {
         String prefix = "log4rich.logger.";
         for (String key : properties.stringPropertyNames()) {
@@ -17,23 +17,33 @@
 package com.log4rich.core;
 
 import com.log4rich.appenders.Appender;
+import com.log4rich.config.Configuration;
 import com.log4rich.util.LocationInfo;
 import com.log4rich.util.LoggingEvent;
+import com.log4rich.util.MessageFormatter;
+import com.log4rich.util.MutableArgumentPolicy;
 import com.log4rich.util.OverflowStrategy;
+import com.log4rich.util.ReusableLoggingEvent;
 import com.log4rich.util.RingBuffer;
+import com.log4rich.util.WaitStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 /**
  * Asynchronous logger implementation providing non-blocking logging operations.
  * 
  * This logger uses a lock-free ring buffer to decouple log event creation from
  * the actual I/O operations, providing sub-microsecond logging latency for
- * application threads. A dedicated background thread handles all I/O operations.
+ * application threads. Any number of application threads may log through the
+ * same instance concurrently; a dedicated background thread handles all I/O
+ * operations.
  * 
  * Key features:
  * - Sub-microsecond logging latency
@@ -41,6 +51,21 @@ import java.util.concurrent.locks.LockSupport;
  * - Configurable overflow handling strategies
  * - Graceful shutdown with event draining
  * - Comprehensive performance monitoring
+ * - Optional garbage-free mode with pre-allocated, reusable event slots
+ * - Pluggable {@link WaitStrategy} for the processing thread while idle
+ * 
+ * In garbage-free mode the ring buffer is filled once with
+ * {@link ReusableLoggingEvent} slots. Logging threads copy the event data
+ * into a claimed slot instead of allocating a new event, and the processing
+ * thread hands the slot to appenders in place before recycling it. Only the
+ * overflow path allocates. Appenders that keep events beyond the append
+ * call must use {@link LoggingEvent#toImmutable()}.
+ * 
+ * Parameterized calls such as {@code info("User {} logged in", user)} are
+ * published with the pattern and arguments, and the message is formatted on
+ * the processing thread. Arguments that are not of a known immutable type are
+ * handled according to the {@link MutableArgumentPolicy}; the default formats
+ * such messages on the calling thread as before.
  * 
  * @author log4Rich Contributors
  * @since 1.1.0
@@ -59,15 +84,27 @@ public class AsyncLogger extends Logger {
     private final OverflowStrategy overflowStrategy;
     private final long shutdownTimeoutMs;
     private final int batchSize;
+    private final boolean garbageFree;
+    private final WaitStrategy waitStrategy;
+    private volatile MutableArgumentPolicy mutableArgumentPolicy = MutableArgumentPolicy.getDefault();
+    
+    // Garbage-free mode: slots are processed in place and recycled afterwards
+    private final Consumer<LoggingEvent> slotProcessor = this::processSlot;
+    private static final Consumer<LoggingEvent> SLOT_DISCARDER =
+        event -> ((ReusableLoggingEvent) event).clear();
     
     private volatile boolean running = true;
     private volatile boolean shutdown = false;
     
-    // Performance monitoring
-    private final AtomicLong eventsPublished = new AtomicLong(0);
-    private final AtomicLong eventsProcessed = new AtomicLong(0);
-    private final AtomicLong eventsDropped = new AtomicLong(0);
-    private final AtomicLong overflowEvents = new AtomicLong(0);
+    // Checked by the wait strategy before the processing thread goes idle
+    private final BooleanSupplier workAvailable = this::hasPendingWork;
+    
+    // Performance monitoring. LongAdder keeps the counters off the shared
+    // cache line that every producer thread would otherwise contend on.
+    private final LongAdder eventsPublished = new LongAdder();
+    private final LongAdder eventsProcessed = new LongAdder();
+    private final LongAdder eventsDropped = new LongAdder();
+    private final LongAdder overflowEvents = new LongAdder();
     
     /**
      * Creates an async logger with default settings.
@@ -97,9 +134,46 @@ public class AsyncLogger extends Logger {
      * @param shutdownTimeoutMs timeout for graceful shutdown
      */
     public AsyncLogger(String name, int bufferSize, OverflowStrategy overflowStrategy, long shutdownTimeoutMs) {
+        this(name, bufferSize, overflowStrategy, shutdownTimeoutMs, false);
+    }
+    
+    /**
+     * Creates an async logger with full configuration, optionally garbage-free.
+     * 
+     * @param name the logger name
+     * @param bufferSize the ring buffer size (must be power of 2)
+     * @param overflowStrategy how to handle buffer overflow
+     * @param shutdownTimeoutMs timeout for graceful shutdown
+     * @param garbageFree true to pre-allocate reusable event slots instead of
+     *                    allocating an event per call
+     */
+    public AsyncLogger(String name, int bufferSize, OverflowStrategy overflowStrategy, long shutdownTimeoutMs,
+                       boolean garbageFree) {
+        this(name, bufferSize, overflowStrategy, shutdownTimeoutMs, garbageFree, null);
+    }
+    
+    /**
+     * Creates an async logger with full configuration, including the strategy
+     * the processing thread uses while the ring buffer is empty.
+     * 
+     * @param name the logger name
+     * @param bufferSize the ring buffer size (must be power of 2)
+     * @param overflowStrategy how to handle buffer overflow
+     * @param shutdownTimeoutMs timeout for graceful shutdown
+     * @param garbageFree true to pre-allocate reusable event slots instead of
+     *                    allocating an event per call
+     * @param waitStrategy the idle strategy for the processing thread, or null
+     *                     for the default; must not be shared with another logger
+     */
+    public AsyncLogger(String name, int bufferSize, OverflowStrategy overflowStrategy, long shutdownTimeoutMs,
+                       boolean garbageFree, WaitStrategy waitStrategy) {
         super(name);
         
-        this.ringBuffer = new RingBuffer<>(bufferSize);
+        this.garbageFree = garbageFree;
+        this.waitStrategy = waitStrategy != null ? waitStrategy : WaitStrategy.getDefault();
+        this.ringBuffer = garbageFree
+            ? new RingBuffer<LoggingEvent>(bufferSize, ReusableLoggingEvent::new)
+            : new RingBuffer<LoggingEvent>(bufferSize);
         this.appenders = new CopyOnWriteArrayList<>();
         this.overflowStrategy = overflowStrategy != null ? overflowStrategy : DEFAULT_OVERFLOW_STRATEGY;
         this.shutdownTimeoutMs = shutdownTimeoutMs;
@@ -112,7 +186,34 @@ public class AsyncLogger extends Logger {
         
         System.out.println("AsyncLogger initialized: name=" + name + 
                           ", bufferSize=" + bufferSize + 
-                          ", strategy=" + overflowStrategy);
+                          ", strategy=" + overflowStrategy +
+                          ", waitStrategy=" + this.waitStrategy.getName() +
+                          (garbageFree ? ", garbageFree=true" : ""));
+    }
+    
+    /**
+     * Creates an async logger from the {@code log4rich.async.*} settings of a
+     * configuration. Garbage-free mode follows
+     * {@link Configuration#isZeroAllocationEnabled()}, and the wait strategy
+     * may be overridden for this logger name.
+     * 
+     * @param name the logger name
+     * @param config the configuration to read
+     * @return a started async logger
+     */
+    public static AsyncLogger fromConfiguration(String name, Configuration config) {
+        AsyncLogger logger = new AsyncLogger(
+            name,
+            config.getAsyncBufferSize(),
+            OverflowStrategy.fromString(config.getAsyncOverflowStrategy()),
+            config.getAsyncShutdownTimeout(),
+            config.isZeroAllocationEnabled(),
+            WaitStrategy.fromString(config.getAsyncWaitStrategy(name))
+        );
+        logger.processingThread.setPriority(config.getAsyncThreadPriority());
+        logger.setMutableArgumentPolicy(
+            MutableArgumentPolicy.fromString(config.getAsyncMutableArgumentPolicy()));
+        return logger;
     }
     
     /**
@@ -124,23 +225,172 @@ public class AsyncLogger extends Logger {
      * @param locationInfo the location info, may be null
      */
     public void doLog(LogLevel level, String message, Throwable throwable, LocationInfo locationInfo) {
+        enqueue(level, message, null, throwable, locationInfo);
+    }
+    
+    /**
+     * Publishes an event with either a finished message or a message pattern
+     * and its arguments, which are formatted on the processing thread.
+     * 
+     * @param level the log level
+     * @param text the message, or the pattern if arguments is not null
+     * @param arguments the pattern arguments, or null for a finished message
+     * @param throwable the throwable, may be null
+     * @param locationInfo the location info, may be null
+     */
+    private void enqueue(LogLevel level, String text, Object[] arguments, Throwable throwable,
+                         LocationInfo locationInfo) {
         if (shutdown || !isLevelEnabled(level)) {
             return;
         }
         
+        // Get context data if available
+        Map<String, String> mdc = null;
+        List<String> ndc = null;
+        ContextProvider contextProvider = getContextProvider();
+        if (contextProvider.hasContext()) {
+            mdc = contextProvider.getMDC();
+            ndc = contextProvider.getNDC();
+        }
+        
+        if (garbageFree) {
+            // Copy the event data straight into a claimed slot
+            long sequence = ringBuffer.tryClaim();
+            if (sequence >= 0) {
+                try {
+                    ((ReusableLoggingEvent) ringBuffer.get(sequence))
+                        .set(level, text, arguments, getName(), locationInfo, throwable, mdc, ndc);
+                } finally {
+                    ringBuffer.publish(sequence);
+                }
+                onPublished();
+                return;
+            }
+            // Overflow is the exceptional path, so an ordinary event carries the data
+            handleOverflow(new LoggingEvent(level, text, arguments, getName(), locationInfo, throwable, mdc, ndc));
+            return;
+        }
+        
         // Create logging event
-        LoggingEvent event = new LoggingEvent(level, message, getName(), locationInfo, throwable);
+        LoggingEvent event = new LoggingEvent(level, text, arguments, getName(), locationInfo, throwable, mdc, ndc);
         
         // Try to publish to ring buffer
         if (ringBuffer.tryPublish(event)) {
-            eventsPublished.incrementAndGet();
+            onPublished();
         } else {
             // Handle buffer overflow
             handleOverflow(event);
         }
     }
     
+    /**
+     * Publishes an existing event, preserving its timestamp, thread name and
+     * context. Used to make an appender asynchronous.
+     * 
+     * @param event the event to publish
+     */
+    public void publish(LoggingEvent event) {
+        if (event == null || shutdown || !isLevelEnabled(event.getLevel())) {
+            return;
+        }
+        
+        if (tryPublishEvent(event)) {
+            onPublished();
+        } else {
+            handleOverflow(event);
+        }
+    }
+    
+    /**
+     * Records a successful publish and wakes the processing thread if its
+     * wait strategy is blocking.
+     */
+    private void onPublished() {
+        eventsPublished.increment();
+        waitStrategy.signal();
+    }
+    
+    /**
+     * Attempts to place an event in the ring buffer, copying it into a slot
+     * in garbage-free mode.
+     * 
+     * @param event the event to publish
+     * @return true if the event was published
+     */
+    private boolean tryPublishEvent(LoggingEvent event) {
+        if (!garbageFree) {
+            return ringBuffer.tryPublish(event.toImmutable());
+        }
+        
+        long sequence = ringBuffer.tryClaim();
+        if (sequence < 0) {
+            return false;
+        }
+        try {
+            ((ReusableLoggingEvent) ringBuffer.get(sequence)).set(event);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+        return true;
+    }
+    
     // Override the Logger's log methods to use async processing
+    @Override
+    public void log(LogLevel level, String message, Throwable throwable) {
+        doLog(level, message, throwable, captureLocation());
+    }
+    
+    /**
+     * Publishes a parameterized message without formatting it, unless the
+     * {@link MutableArgumentPolicy} requires formatting on this thread.
+     */
+    @Override
+    protected void logParameterized(LogLevel level, String messagePattern, Object[] arguments,
+                                    Throwable throwable) {
+        Object[] captured = captureArguments(arguments);
+        if (captured == null) {
+            doLog(level, MessageFormatter.format(messagePattern, arguments), throwable, captureLocation());
+        } else {
+            enqueue(level, messagePattern, captured, throwable, captureLocation());
+        }
+    }
+    
+    /**
+     * Prepares arguments for formatting on the processing thread.
+     * 
+     * @param arguments the arguments of the call
+     * @return the arguments to publish, or null if the message must be
+     *         formatted on the calling thread
+     */
+    private Object[] captureArguments(Object[] arguments) {
+        if (arguments == null || arguments.length == 0) {
+            return null;
+        }
+        MutableArgumentPolicy policy = mutableArgumentPolicy;
+        if (policy == MutableArgumentPolicy.CAPTURE) {
+            return arguments;
+        }
+        
+        Object[] captured = arguments;
+        for (int i = 0; i < arguments.length; i++) {
+            Object argument = arguments[i];
+            if (MessageFormatter.isImmutable(argument)) {
+                continue;
+            }
+            if (policy == MutableArgumentPolicy.FORMAT) {
+                return null;
+            }
+            // SNAPSHOT: freeze this argument's string form now, in a copy of the array
+            if (captured == arguments) {
+                captured = arguments.clone();
+            }
+            StringBuilder sb = new StringBuilder();
+            MessageFormatter.appendArgument(sb, argument);
+            captured[i] = sb.toString();
+        }
+        return captured;
+    }
+    
     @Override
     public void trace(String message) {
         doLog(LogLevel.TRACE, message, null, captureLocation());
@@ -207,7 +457,7 @@ public class AsyncLogger extends Logger {
      * @return location info or null if disabled
      */
     private LocationInfo captureLocation() {
-        return isLocationCaptureEnabled() ? LocationInfo.getCaller(3) : null;
+        return isLocationCaptureEnabled() ? LocationInfo.getCaller() : null;
     }
     
     /**
@@ -216,7 +466,7 @@ public class AsyncLogger extends Logger {
      * @param event the event that couldn't be published
      */
     private void handleOverflow(LoggingEvent event) {
-        overflowEvents.incrementAndGet();
+        overflowEvents.increment();
         
         switch (overflowStrategy) {
             case BLOCK:
@@ -228,7 +478,7 @@ public class AsyncLogger extends Logger {
                 break;
                 
             case DROP_NEWEST:
-                eventsDropped.incrementAndGet();
+                eventsDropped.increment();
                 break;
                 
             case SYNCHRONOUS_WRITE:
@@ -236,11 +486,11 @@ public class AsyncLogger extends Logger {
                 break;
                 
             case DISCARD:
-                eventsDropped.incrementAndGet();
+                eventsDropped.increment();
                 break;
                 
             default:
-                eventsDropped.incrementAndGet();
+                eventsDropped.increment();
                 break;
         }
     }
@@ -249,16 +499,19 @@ public class AsyncLogger extends Logger {
      * Handles blocking overflow strategy.
      */
     private void handleBlockingOverflow(LoggingEvent event) {
-        try {
-            // Try to publish with a reasonable timeout to avoid infinite blocking
-            if (ringBuffer.publish(event, 1_000_000L)) { // 1ms timeout
-                eventsPublished.incrementAndGet();
-            } else {
-                eventsDropped.incrementAndGet();
+        // Retry with a reasonable timeout to avoid infinite blocking
+        long deadline = System.nanoTime() + 1_000_000L; // 1ms timeout
+        
+        while (true) {
+            if (tryPublishEvent(event)) {
+                onPublished();
+                return;
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            eventsDropped.incrementAndGet();
+            if (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()) {
+                eventsDropped.increment();
+                return;
+            }
+            LockSupport.parkNanos(1000); // 1 microsecond
         }
     }
     
@@ -267,16 +520,18 @@ public class AsyncLogger extends Logger {
      */
     private void handleDropOldestOverflow(LoggingEvent event) {
         // Consume one old event to make space
-        LoggingEvent droppedEvent = ringBuffer.consume();
-        if (droppedEvent != null) {
-            eventsDropped.incrementAndGet();
+        int droppedCount = garbageFree
+            ? ringBuffer.drainTo(SLOT_DISCARDER, 1)
+            : (ringBuffer.consume() != null ? 1 : 0);
+        if (droppedCount > 0) {
+            eventsDropped.increment();
         }
         
         // Try to publish the new event
-        if (ringBuffer.tryPublish(event)) {
-            eventsPublished.incrementAndGet();
+        if (tryPublishEvent(event)) {
+            onPublished();
         } else {
-            eventsDropped.incrementAndGet();
+            eventsDropped.increment();
         }
     }
     
@@ -294,27 +549,38 @@ public class AsyncLogger extends Logger {
                 }
             }
         }
-        eventsProcessed.incrementAndGet();
+        eventsProcessed.increment();
     }
     
     /**
      * Main processing loop for the background thread.
      */
     private void processEvents() {
-        LoggingEvent[] batch = new LoggingEvent[batchSize];
+        LoggingEvent[] batch = garbageFree ? null : new LoggingEvent[batchSize];
+        int idleCount = 0;
         
         while (running || !ringBuffer.isEmpty()) {
             try {
-                // Try to consume a batch of events
-                int consumed = ringBuffer.consumeBatch(batch, batchSize);
+                // Try to consume a batch of events; slots are processed in place
+                // when garbage-free
+                int consumed = garbageFree
+                    ? ringBuffer.drainTo(slotProcessor, batchSize)
+                    : ringBuffer.consumeBatch(batch, batchSize);
                 
                 if (consumed > 0) {
                     // Process the batch
-                    processBatch(batch, consumed);
-                    eventsProcessed.addAndGet(consumed);
+                    if (!garbageFree) {
+                        processBatch(batch, consumed);
+                    }
+                    endBatch();
+                    eventsProcessed.add(consumed);
+                    idleCount = 0;
                 } else {
-                    // No events available, brief pause
-                    LockSupport.parkNanos(1000); // 1 microsecond
+                    // No events available, let the wait strategy decide how to idle
+                    waitStrategy.waitFor(idleCount, workAvailable);
+                    if (idleCount < Integer.MAX_VALUE) {
+                        idleCount++;
+                    }
                 }
                 
             } catch (Exception e) {
@@ -342,6 +608,33 @@ public class AsyncLogger extends Logger {
         }
     }
     
+    /**
+     * Tells the appenders that the batch just processed is complete.
+     */
+    private void endBatch() {
+        for (Appender appender : appenders) {
+            try {
+                appender.endOfBatch();
+            } catch (Exception e) {
+                System.err.println("Async logger appender error: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Processes a reusable slot in place and releases its references before
+     * the slot is handed back to producers.
+     * 
+     * @param event the slot to process
+     */
+    private void processSlot(LoggingEvent event) {
+        try {
+            processEvent(event);
+        } finally {
+            ((ReusableLoggingEvent) event).clear();
+        }
+    }
+    
     /**
      * Processes a single logging event by sending it to all appropriate appenders.
      * 
@@ -387,6 +680,7 @@ public class AsyncLogger extends Logger {
         
         shutdown = true;
         running = false;
+        waitStrategy.signal();
         
         try {
             // Wait for processing thread to finish
@@ -438,6 +732,51 @@ public class AsyncLogger extends Logger {
         }
     }
     
+    /**
+     * Checks whether the processing thread should poll again: either events
+     * are waiting or the logger is shutting down.
+     */
+    private boolean hasPendingWork() {
+        return !running || !ringBuffer.isEmpty();
+    }
+    
+    /**
+     * Checks whether this logger reuses pre-allocated event slots.
+     * 
+     * @return true if garbage-free mode is enabled
+     */
+    public boolean isGarbageFree() {
+        return garbageFree;
+    }
+    
+    /**
+     * Sets how arguments that are not known to be immutable are handled by
+     * parameterized logging calls.
+     * 
+     * @param policy the policy, or null for the default
+     */
+    public void setMutableArgumentPolicy(MutableArgumentPolicy policy) {
+        this.mutableArgumentPolicy = policy != null ? policy : MutableArgumentPolicy.getDefault();
+    }
+    
+    /**
+     * Gets how arguments that are not known to be immutable are handled.
+     * 
+     * @return the mutable argument policy
+     */
+    public MutableArgumentPolicy getMutableArgumentPolicy() {
+        return mutableArgumentPolicy;
+    }
+    
+    /**
+     * Gets the strategy the processing thread uses while idle.
+     * 
+     * @return the wait strategy
+     */
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+    
     /**
      * Gets comprehensive performance statistics for this async logger.
      * 
@@ -448,10 +787,10 @@ public class AsyncLogger extends Logger {
         
         return new AsyncLoggerStatistics(
             getName(),
-            eventsPublished.get(),
-            eventsProcessed.get(),
-            eventsDropped.get(),
-            overflowEvents.get(),
+            eventsPublished.sum(),
+            eventsProcessed.sum(),
+            eventsDropped.sum(),
+            overflowEvents.sum(),
             bufferStats,
             overflowStrategy,
             running,
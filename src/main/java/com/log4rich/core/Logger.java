@@ -200,8 +200,7 @@ public class Logger {
         if (isTraceEnabled()) {
             Throwable throwable = MessageFormatter.extractThrowable(arguments);
             Object[] args = MessageFormatter.removeThrowable(arguments, throwable);
-            String formattedMessage = MessageFormatter.format(messagePattern, args);
-            log(LogLevel.TRACE, formattedMessage, throwable);
+            logParameterized(LogLevel.TRACE, messagePattern, args, throwable);
         }
     }
     
@@ -215,8 +214,7 @@ public class Logger {
         if (isDebugEnabled()) {
             Throwable throwable = MessageFormatter.extractThrowable(arguments);
             Object[] args = MessageFormatter.removeThrowable(arguments, throwable);
-            String formattedMessage = MessageFormatter.format(messagePattern, args);
-            log(LogLevel.DEBUG, formattedMessage, throwable);
+            logParameterized(LogLevel.DEBUG, messagePattern, args, throwable);
         }
     }
     
@@ -230,8 +228,7 @@ public class Logger {
         if (isInfoEnabled()) {
             Throwable throwable = MessageFormatter.extractThrowable(arguments);
             Object[] args = MessageFormatter.removeThrowable(arguments, throwable);
-            String formattedMessage = MessageFormatter.format(messagePattern, args);
-            log(LogLevel.INFO, formattedMessage, throwable);
+            logParameterized(LogLevel.INFO, messagePattern, args, throwable);
         }
     }
     
@@ -245,8 +242,7 @@ public class Logger {
         if (isWarnEnabled()) {
             Throwable throwable = MessageFormatter.extractThrowable(arguments);
             Object[] args = MessageFormatter.removeThrowable(arguments, throwable);
-            String formattedMessage = MessageFormatter.format(messagePattern, args);
-            log(LogLevel.WARN, formattedMessage, throwable);
+            logParameterized(LogLevel.WARN, messagePattern, args, throwable);
         }
     }
     
@@ -260,8 +256,7 @@ public class Logger {
         if (isErrorEnabled()) {
             Throwable throwable = MessageFormatter.extractThrowable(arguments);
             Object[] args = MessageFormatter.removeThrowable(arguments, throwable);
-            String formattedMessage = MessageFormatter.format(messagePattern, args);
-            log(LogLevel.ERROR, formattedMessage, throwable);
+            logParameterized(LogLevel.ERROR, messagePattern, args, throwable);
         }
     }
     
@@ -275,8 +270,7 @@ public class Logger {
         if (isFatalEnabled()) {
             Throwable throwable = MessageFormatter.extractThrowable(arguments);
             Object[] args = MessageFormatter.removeThrowable(arguments, throwable);
-            String formattedMessage = MessageFormatter.format(messagePattern, args);
-            log(LogLevel.FATAL, formattedMessage, throwable);
+            logParameterized(LogLevel.FATAL, messagePattern, args, throwable);
         }
     }
 
@@ -291,8 +285,7 @@ public class Logger {
         if (isCriticalEnabled()) {
             Throwable throwable = MessageFormatter.extractThrowable(arguments);
             Object[] args = MessageFormatter.removeThrowable(arguments, throwable);
-            String formattedMessage = MessageFormatter.format(messagePattern, args);
-            log(LogLevel.CRITICAL, formattedMessage, throwable);
+            logParameterized(LogLevel.CRITICAL, messagePattern, args, throwable);
         }
     }
     
@@ -307,8 +300,7 @@ public class Logger {
      */
     public void error(String messagePattern, Object argument, Throwable throwable) {
         if (isErrorEnabled()) {
-            String formattedMessage = MessageFormatter.format(messagePattern, argument);
-            log(LogLevel.ERROR, formattedMessage, throwable);
+            logParameterized(LogLevel.ERROR, messagePattern, new Object[]{argument}, throwable);
         }
     }
     
@@ -322,8 +314,7 @@ public class Logger {
      */
     public void warn(String messagePattern, Object argument, Throwable throwable) {
         if (isWarnEnabled()) {
-            String formattedMessage = MessageFormatter.format(messagePattern, argument);
-            log(LogLevel.WARN, formattedMessage, throwable);
+            logParameterized(LogLevel.WARN, messagePattern, new Object[]{argument}, throwable);
         }
     }
     
@@ -337,8 +328,7 @@ public class Logger {
      */
     public void debug(String messagePattern, Object argument, Throwable throwable) {
         if (isDebugEnabled()) {
-            String formattedMessage = MessageFormatter.format(messagePattern, argument);
-            log(LogLevel.DEBUG, formattedMessage, throwable);
+            logParameterized(LogLevel.DEBUG, messagePattern, new Object[]{argument}, throwable);
         }
     }
     
@@ -352,8 +342,7 @@ public class Logger {
      */
     public void trace(String messagePattern, Object argument, Throwable throwable) {
         if (isTraceEnabled()) {
-            String formattedMessage = MessageFormatter.format(messagePattern, argument);
-            log(LogLevel.TRACE, formattedMessage, throwable);
+            logParameterized(LogLevel.TRACE, messagePattern, new Object[]{argument}, throwable);
         }
     }
     
@@ -367,8 +356,7 @@ public class Logger {
      */
     public void fatal(String messagePattern, Object argument, Throwable throwable) {
         if (isFatalEnabled()) {
-            String formattedMessage = MessageFormatter.format(messagePattern, argument);
-            log(LogLevel.FATAL, formattedMessage, throwable);
+            logParameterized(LogLevel.FATAL, messagePattern, new Object[]{argument}, throwable);
         }
     }
 
@@ -382,8 +370,7 @@ public class Logger {
      */
     public void critical(String messagePattern, Object argument, Throwable throwable) {
         if (isCriticalEnabled()) {
-            String formattedMessage = MessageFormatter.format(messagePattern, argument);
-            log(LogLevel.CRITICAL, formattedMessage, throwable);
+            logParameterized(LogLevel.CRITICAL, messagePattern, new Object[]{argument}, throwable);
         }
     }
     
@@ -399,8 +386,7 @@ public class Logger {
      */
     public void error(String messagePattern, Object arg1, Object arg2, Throwable throwable) {
         if (isErrorEnabled()) {
-            String formattedMessage = MessageFormatter.format(messagePattern, arg1, arg2);
-            log(LogLevel.ERROR, formattedMessage, throwable);
+            logParameterized(LogLevel.ERROR, messagePattern, new Object[]{arg1, arg2}, throwable);
         }
     }
     
@@ -415,8 +401,7 @@ public class Logger {
      */
     public void warn(String messagePattern, Object arg1, Object arg2, Throwable throwable) {
         if (isWarnEnabled()) {
-            String formattedMessage = MessageFormatter.format(messagePattern, arg1, arg2);
-            log(LogLevel.WARN, formattedMessage, throwable);
+            logParameterized(LogLevel.WARN, messagePattern, new Object[]{arg1, arg2}, throwable);
         }
     }
     
@@ -498,6 +483,21 @@ public class Logger {
         return level.isGreaterOrEqual(this.level);
     }
     
+    /**
+     * Logs a message with SLF4J-style {} placeholders once the level check
+     * has passed. The base logger formats the message on the calling thread;
+     * {@link AsyncLogger} defers formatting to its processing thread.
+     * 
+     * @param level the log level
+     * @param messagePattern the message pattern with {} placeholders
+     * @param arguments the arguments to substitute, without a trailing throwable
+     * @param throwable the throwable to log, may be null
+     */
+    protected void logParameterized(LogLevel level, String messagePattern, Object[] arguments,
+                                    Throwable throwable) {
+        log(level, MessageFormatter.format(messagePattern, arguments), throwable);
+    }
+    
     /**
      * Generic logging method for any level without throwable.
      * 
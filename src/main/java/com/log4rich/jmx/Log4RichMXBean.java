@@ -141,6 +141,41 @@ public interface Log4RichMXBean {
      */
     int getActiveAppenderCount();
 
+    // ======== Compression ========
+
+    /**
+     * Checks if background compression of rotated files is paused.
+     *
+     * @return true if compression is paused for any rolling file appender
+     */
+    boolean isCompressionPaused();
+
+    /**
+     * Gets the size of the rotated files waiting for or in compression.
+     *
+     * @return the backlog in uncompressed bytes, over all rolling file appenders
+     */
+    long getCompressionBacklogBytes();
+
+    /**
+     * Gets the estimated time until the compression backlog is drained.
+     *
+     * @return the longest estimate of the rolling file appenders in
+     *         milliseconds, or -1 if one cannot be estimated
+     */
+    long getCompressionDrainTimeMillis();
+
+    /**
+     * Pauses background compression of rotated files, for example while
+     * the application is under load.
+     */
+    void pauseCompression();
+
+    /**
+     * Resumes paused background compression.
+     */
+    void resumeCompression();
+
     // ======== Operations ========
 
     /**
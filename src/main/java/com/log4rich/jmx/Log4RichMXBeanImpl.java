@@ -19,6 +19,9 @@ package com.log4rich.jmx;
 
 import com.log4rich.Log4Rich;
 import com.log4rich.appenders.Appender;
+import com.log4rich.appenders.AsyncAppenderWrapper;
+import com.log4rich.appenders.RollingFileAppender;
+import com.log4rich.util.AsyncCompressionManager;
 import com.log4rich.core.LogLevel;
 import com.log4rich.core.LogManager;
 import com.log4rich.core.Logger;
@@ -215,6 +218,83 @@ public class Log4RichMXBeanImpl implements Log4RichMXBean {
         return count;
     }
 
+    // ======== Compression ========
+
+    @Override
+    public boolean isCompressionPaused() {
+        for (RollingFileAppender appender : getRollingFileAppenders()) {
+            if (appender.isCompressionPaused()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long getCompressionBacklogBytes() {
+        long backlog = 0;
+        for (RollingFileAppender appender : getRollingFileAppenders()) {
+            AsyncCompressionManager manager = appender.getAsyncCompressionManager();
+            if (manager != null) {
+                backlog += manager.getBacklogBytes();
+            }
+        }
+        return backlog;
+    }
+
+    @Override
+    public long getCompressionDrainTimeMillis() {
+        long longest = 0;
+        for (RollingFileAppender appender : getRollingFileAppenders()) {
+            AsyncCompressionManager manager = appender.getAsyncCompressionManager();
+            if (manager != null) {
+                long estimate = manager.getEstimatedDrainMillis();
+                if (estimate < 0) {
+                    return -1;
+                }
+                longest = Math.max(longest, estimate);
+            }
+        }
+        return longest;
+    }
+
+    @Override
+    public void pauseCompression() {
+        for (RollingFileAppender appender : getRollingFileAppenders()) {
+            appender.pauseCompression();
+        }
+    }
+
+    @Override
+    public void resumeCompression() {
+        for (RollingFileAppender appender : getRollingFileAppenders()) {
+            appender.resumeCompression();
+        }
+    }
+
+    /**
+     * Gets the rolling file appenders of the root logger, including those
+     * behind an async wrapper.
+     */
+    private List<RollingFileAppender> getRollingFileAppenders() {
+        List<RollingFileAppender> result = new ArrayList<>();
+        Logger rootLogger = LogManager.getRootLogger();
+        if (rootLogger != null) {
+            List<Appender> appenders = rootLogger.getAppenders();
+            if (appenders != null) {
+                for (Appender appender : appenders) {
+                    if (appender instanceof AsyncAppenderWrapper) {
+                        appender = ((AsyncAppenderWrapper) appender).getTargetAppender();
+                    }
+                    if (appender instanceof RollingFileAppender) {
+                        result.add((RollingFileAppender) appender);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
     // ======== Operations ========
 
     @Override
@@ -17,13 +17,11 @@
 
 package com.log4rich.layouts;
 
-import com.log4rich.util.JsonArray;
-import com.log4rich.util.JsonObject;
+import com.log4rich.util.CachedDateFormatter;
+import com.log4rich.util.JsonWriter;
 import com.log4rich.util.LocationInfo;
 import com.log4rich.util.LoggingEvent;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -34,6 +32,11 @@ import java.util.Map;
  * and analysis tools. It supports configurable formatting options including
  * pretty-printing, location information, and additional static fields.
  * 
+ * Events are streamed through a per-thread {@link JsonWriter} rather than
+ * built up as a {@link com.log4rich.util.JsonObject} tree. Field names are
+ * escaped once up front, and additional fields are fully encoded when they
+ * are added, so formatting an event allocates little beyond the result string.
+ * 
  * Example output (compact):
  * <pre>
  * {"timestamp":"2025-07-19T15:30:45.123Z","level":"INFO","logger":"com.example.MyClass","message":"User logged in","thread":"main"}
@@ -63,7 +66,31 @@ public class JsonLayout implements Layout {
     private final boolean includeThreadInfo;
     private final String timestampFormat;
     private final Map<String, Object> additionalFields;
-    private final SimpleDateFormat dateFormatter;
+    private final CachedDateFormatter dateFormatter;
+    
+    // Field names, quoted and escaped once
+    private static final String KEY_TIMESTAMP = JsonWriter.encodeName("timestamp");
+    private static final String KEY_LEVEL = JsonWriter.encodeName("level");
+    private static final String KEY_LOGGER = JsonWriter.encodeName("logger");
+    private static final String KEY_MESSAGE = JsonWriter.encodeName("message");
+    private static final String KEY_THREAD = JsonWriter.encodeName("thread");
+    private static final String KEY_LOCATION = JsonWriter.encodeName("location");
+    private static final String KEY_EXCEPTION = JsonWriter.encodeName("exception");
+    private static final String KEY_CLASS = JsonWriter.encodeName("class");
+    private static final String KEY_METHOD = JsonWriter.encodeName("method");
+    private static final String KEY_FILE = JsonWriter.encodeName("file");
+    private static final String KEY_LINE = JsonWriter.encodeName("line");
+    private static final String KEY_STACK_TRACE = JsonWriter.encodeName("stackTrace");
+    private static final String KEY_CAUSE = JsonWriter.encodeName("cause");
+    
+    // Builders that grew beyond this are not kept for reuse
+    private static final int MAX_REUSABLE_BUILDER_SIZE = 16384;
+    
+    private final ThreadLocal<JsonWriter> writers;
+    private final boolean timestampNeedsEscaping;
+    
+    // Snapshot of the additional fields in encoded form, rebuilt when they change
+    private volatile EncodedFields encodedFields = EncodedFields.EMPTY;
     
     /**
      * Creates a new JsonLayout with default settings.
@@ -79,7 +106,7 @@ public class JsonLayout implements Layout {
      * @param prettyPrint whether to format JSON with indentation and newlines
      * @param includeLocationInfo whether to include class, method, and line information
      * @param includeThreadInfo whether to include thread name
-     * @param timestampFormat format string for timestamps (SimpleDateFormat pattern)
+     * @param timestampFormat format string for timestamps (DateTimeFormatter pattern)
      */
     public JsonLayout(boolean prettyPrint, boolean includeLocationInfo, 
                      boolean includeThreadInfo, String timestampFormat) {
@@ -88,7 +115,12 @@ public class JsonLayout implements Layout {
         this.includeThreadInfo = includeThreadInfo;
         this.timestampFormat = timestampFormat != null ? timestampFormat : DEFAULT_TIMESTAMP_FORMAT;
         this.additionalFields = new LinkedHashMap<>();
-        this.dateFormatter = new SimpleDateFormat(this.timestampFormat);
+        this.dateFormatter = new CachedDateFormatter(this.timestampFormat);
+        this.writers = ThreadLocal.withInitial(() -> new JsonWriter(prettyPrint));
+        
+        // Only literal text in the pattern can produce characters that need escaping
+        String sample = dateFormatter.format(System.currentTimeMillis());
+        this.timestampNeedsEscaping = !sample.equals(JsonWriter.escape(sample));
     }
     
     /**
@@ -97,8 +129,9 @@ public class JsonLayout implements Layout {
      * @param key the field name
      * @param value the field value
      */
-    public void addAdditionalField(String key, Object value) {
+    public synchronized void addAdditionalField(String key, Object value) {
         additionalFields.put(key, value);
+        encodedFields = EncodedFields.encode(additionalFields);
     }
     
     /**
@@ -106,8 +139,9 @@ public class JsonLayout implements Layout {
      * 
      * @param key the field name to remove
      */
-    public void removeAdditionalField(String key) {
+    public synchronized void removeAdditionalField(String key) {
         additionalFields.remove(key);
+        encodedFields = EncodedFields.encode(additionalFields);
     }
     
     /**
@@ -118,77 +152,154 @@ public class JsonLayout implements Layout {
      */
     @Override
     public String format(LoggingEvent event) {
-        JsonObject json = new JsonObject();
+        JsonWriter writer = writers.get();
+        writer.reset();
         
-        // Core fields in logical order
-        json.addProperty("timestamp", formatTimestamp(event.getTimestamp()));
-        json.addProperty("level", event.getLevel().toString());
-        json.addProperty("logger", event.getLoggerName());
-        json.addProperty("message", event.getMessage());
+        write(event, writer);
+        String result = writer.getBuffer().toString();
+        
+        if (writer.getBuffer().capacity() > MAX_REUSABLE_BUILDER_SIZE) {
+            // Don't pin the memory of one huge event to this thread
+            writer.reset(new StringBuilder(512));
+        }
+        return result;
+    }
+    
+    /**
+     * Formats a logging event as JSON by appending to the given builder.
+     * 
+     * @param event the logging event to format
+     * @param sb the builder to append to
+     */
+    @Override
+    public void format(LoggingEvent event, StringBuilder sb) {
+        JsonWriter writer = writers.get();
+        StringBuilder own = writer.getBuffer();
+        writer.wrap(sb);
+        try {
+            write(event, writer);
+        } finally {
+            writer.wrap(own);
+        }
+    }
+    
+    /**
+     * Writes a logging event as one JSON object.
+     * 
+     * @param event the logging event to format
+     * @param writer the writer to append to
+     */
+    private void write(LoggingEvent event, JsonWriter writer) {
+        EncodedFields fields = encodedFields;
+        LocationInfo location = includeLocationInfo ? event.getLocationInfo() : null;
+        Throwable throwable = event.getThrowable();
+        
+        writer.beginObject();
+        
+        // Core fields in logical order. An additional field with the same
+        // name replaces the core value in place.
+        writer.encodedName(KEY_TIMESTAMP);
+        if (!fields.writeOverride("timestamp", writer)) {
+            writeTimestamp(event.getTimestamp(), writer);
+        }
+        writer.encodedName(KEY_LEVEL);
+        if (!fields.writeOverride("level", writer)) {
+            writer.value(event.getLevel().toString());
+        }
+        writer.encodedName(KEY_LOGGER);
+        if (!fields.writeOverride("logger", writer)) {
+            writer.value(event.getLoggerName());
+        }
+        writer.encodedName(KEY_MESSAGE);
+        if (!fields.writeOverride("message", writer)) {
+            writer.value(event.getMessage());
+        }
         
         // Thread information
         if (includeThreadInfo) {
-            json.addProperty("thread", event.getThreadName());
+            writer.encodedName(KEY_THREAD);
+            if (!fields.writeOverride("thread", writer)) {
+                writer.value(event.getThreadName());
+            }
         }
         
         // Location information
-        if (includeLocationInfo && event.getLocationInfo() != null) {
-            LocationInfo location = event.getLocationInfo();
-            JsonObject locationObj = new JsonObject();
-            locationObj.addProperty("class", location.getFullClassName());
-            locationObj.addProperty("method", location.getMethodName());
-            locationObj.addProperty("file", location.getFileName());
-            locationObj.addProperty("line", location.getLineNumber());
-            json.add("location", locationObj);
+        if (location != null) {
+            writer.encodedName(KEY_LOCATION);
+            if (!fields.writeOverride("location", writer)) {
+                writer.beginObject();
+                writer.encodedName(KEY_CLASS).value(location.getFullClassName());
+                writer.encodedName(KEY_METHOD).value(location.getMethodName());
+                writer.encodedName(KEY_FILE).value(location.getFileName());
+                writer.encodedName(KEY_LINE).value(location.getLineNumber());
+                writer.endObject();
+            }
         }
         
         // Exception information
-        if (event.getThrowable() != null) {
-            Throwable throwable = event.getThrowable();
-            JsonObject exception = new JsonObject();
-            exception.addProperty("class", throwable.getClass().getName());
-            exception.addProperty("message", throwable.getMessage());
-            exception.add("stackTrace", JsonArray.fromStackTrace(throwable));
-            
-            // Include cause if present
-            if (throwable.getCause() != null) {
-                JsonObject cause = new JsonObject();
-                cause.addProperty("class", throwable.getCause().getClass().getName());
-                cause.addProperty("message", throwable.getCause().getMessage());
-                exception.add("cause", cause);
+        if (throwable != null) {
+            writer.encodedName(KEY_EXCEPTION);
+            if (!fields.writeOverride("exception", writer)) {
+                writeException(throwable, writer);
             }
-            
-            json.add("exception", exception);
         }
         
-        // Additional static fields
-        for (Map.Entry<String, Object> entry : additionalFields.entrySet()) {
-            String key = entry.getKey();
-            Object value = entry.getValue();
-            
-            if (value instanceof String) {
-                json.addProperty(key, (String) value);
-            } else if (value instanceof Number) {
-                json.addProperty(key, (Number) value);
-            } else if (value instanceof Boolean) {
-                json.addProperty(key, (Boolean) value);
-            } else {
-                json.addProperty(key, value.toString());
+        // Additional static fields, except those already written in place
+        for (int i = 0; i < fields.names.length; i++) {
+            String coreField = fields.coreFields[i];
+            if (coreField != null && isCoreFieldWritten(coreField, location, throwable)) {
+                continue;
             }
+            writer.encodedName(fields.names[i]).rawValue(fields.values[i]);
         }
         
-        return prettyPrint ? json.toString() : json.toCompactString();
+        writer.endObject();
     }
     
-    /**
-     * Formats a timestamp using the configured format.
-     * 
-     * @param timestamp the timestamp in milliseconds
-     * @return formatted timestamp string
-     */
-    private String formatTimestamp(long timestamp) {
-        synchronized (dateFormatter) {
-            return dateFormatter.format(new Date(timestamp));
+    private void writeTimestamp(long timestamp, JsonWriter writer) {
+        if (timestampNeedsEscaping) {
+            writer.value(dateFormatter.format(timestamp));
+            return;
+        }
+        // Render straight into the output, skipping the escape scan
+        StringBuilder buffer = writer.rawValueBuffer();
+        buffer.append('"');
+        dateFormatter.formatTo(timestamp, buffer);
+        buffer.append('"');
+    }
+    
+    private void writeException(Throwable throwable, JsonWriter writer) {
+        writer.beginObject();
+        writer.encodedName(KEY_CLASS).value(throwable.getClass().getName());
+        writer.encodedName(KEY_MESSAGE).value(throwable.getMessage());
+        
+        writer.encodedName(KEY_STACK_TRACE).beginArray();
+        for (StackTraceElement element : throwable.getStackTrace()) {
+            writer.value(element.toString());
+        }
+        writer.endArray();
+        
+        // Include cause if present
+        Throwable cause = throwable.getCause();
+        if (cause != null) {
+            writer.encodedName(KEY_CAUSE).beginObject();
+            writer.encodedName(KEY_CLASS).value(cause.getClass().getName());
+            writer.encodedName(KEY_MESSAGE).value(cause.getMessage());
+            writer.endObject();
+        }
+        writer.endObject();
+    }
+    
+    private boolean isCoreFieldWritten(String field, LocationInfo location, Throwable throwable) {
+        switch (field) {
+            case "thread":
+                return includeThreadInfo;
+            case "location":
+                return location != null;
+            case "exception":
+                return throwable != null;
+            default:
+                return true;
         }
     }
     
@@ -305,7 +416,73 @@ public class JsonLayout implements Layout {
      * 
      * @return map of additional static fields
      */
-    public Map<String, Object> getAdditionalFields() {
+    public synchronized Map<String, Object> getAdditionalFields() {
         return new LinkedHashMap<>(additionalFields);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Additional fields with names and values already encoded as JSON text.
+     * Instances are immutable and replaced as a whole when fields change.
+     */
+    private static final class EncodedFields {
+        static final EncodedFields EMPTY = new EncodedFields(new String[0], new String[0], new String[0]);
+        
+        private static final String[] CORE_FIELDS = {
+            "timestamp", "level", "logger", "message", "thread", "location", "exception"
+        };
+        
+        final String[] names;
+        final String[] values;
+        // Core field name for additional fields that replace one, otherwise null
+        final String[] coreFields;
+        private final boolean hasOverrides;
+        
+        private EncodedFields(String[] names, String[] values, String[] coreFields) {
+            this.names = names;
+            this.values = values;
+            this.coreFields = coreFields;
+            boolean overrides = false;
+            for (String coreField : coreFields) {
+                overrides |= coreField != null;
+            }
+            this.hasOverrides = overrides;
+        }
+        
+        static EncodedFields encode(Map<String, Object> fields) {
+            int size = fields.size();
+            String[] names = new String[size];
+            String[] values = new String[size];
+            String[] coreFields = new String[size];
+            int i = 0;
+            for (Map.Entry<String, Object> entry : fields.entrySet()) {
+                names[i] = JsonWriter.encodeName(entry.getKey());
+                values[i] = JsonWriter.encodeValue(entry.getValue());
+                for (String coreField : CORE_FIELDS) {
+                    if (coreField.equals(entry.getKey())) {
+                        coreFields[i] = coreField;
+                    }
+                }
+                i++;
+            }
+            return new EncodedFields(names, values, coreFields);
+        }
+        
+        /**
+         * Writes the additional value that replaces a core field, if there is one.
+         * 
+         * @return true if a value was written
+         */
+        boolean writeOverride(String coreField, JsonWriter writer) {
+            if (!hasOverrides) {
+                return false;
+            }
+            for (int i = 0; i < coreFields.length; i++) {
+                if (coreField.equals(coreFields[i])) {
+                    writer.rawValue(values[i]);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
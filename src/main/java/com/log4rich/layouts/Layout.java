@@ -18,6 +18,9 @@
 package com.log4rich.layouts;
 
 import com.log4rich.util.LoggingEvent;
+import com.log4rich.util.Utf8Encoder;
+
+import java.nio.ByteBuffer;
 
 /**
  * Base interface for all log message layouts.
@@ -32,6 +35,32 @@ public interface Layout {
      */
     String format(LoggingEvent event);
     
+    /**
+     * Format a logging event by appending it to a builder.
+     * Layouts that build their output in a StringBuilder should override this
+     * to append directly instead of creating a String first.
+     * @param event The logging event to format
+     * @param sb The builder to append to
+     */
+    default void format(LoggingEvent event, StringBuilder sb) {
+        sb.append(format(event));
+    }
+    
+    /**
+     * Encode a logging event as UTF-8 bytes, appending them at the buffer's
+     * position. The event is formatted into a reused per-thread builder and
+     * encoded from there, so no String or byte[] is created per event.
+     * @param event The logging event to encode
+     * @param buffer The buffer to write into, in write mode
+     * @return The buffer holding the bytes; a larger replacement if the given
+     *         buffer was too small, which callers should keep for reuse
+     */
+    default ByteBuffer encode(LoggingEvent event, ByteBuffer buffer) {
+        StringBuilder sb = Utf8Encoder.getFormatBuffer();
+        format(event, sb);
+        return Utf8Encoder.encode(sb, buffer);
+    }
+    
     /**
      * Get the header for this layout, if any.
      * @return Header string or null if no header
@@ -0,0 +1,573 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.log4rich.layouts;
+
+import com.log4rich.util.CachedDateFormatter;
+import com.log4rich.util.LocationInfo;
+import com.log4rich.util.LoggingEvent;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One compiled element of a {@link StandardLayout} pattern.
+ *
+ * A pattern is parsed once into an array of converters; formatting an event
+ * then just asks each converter to append its part to a shared
+ * {@link StringBuilder}. Each converter carries the optional format modifier
+ * of its placeholder:
+ * - {@code %-5level}: pad to at least 5 characters, left-justified
+ * - {@code %5level}: pad to at least 5 characters, right-justified
+ * - {@code %.10logger}: keep at most the last 10 characters
+ * - {@code %.-10logger}: keep at most the first 10 characters
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+abstract class PatternConverter {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+    private static final String UNKNOWN_CLASS = "Unknown";
+    private static final String UNKNOWN_METHOD = "unknown";
+
+    // Keywords, longest first so that e.g. %ndc is not read as %n followed by "dc"
+    private static final String[] KEYWORDS = {
+        "throwable", "message", "logger", "method", "thread", "level",
+        "class", "date", "file", "line", "msg", "mdc", "ndc", "ex", "n"
+    };
+
+    private int minWidth = 0;
+    private int maxWidth = Integer.MAX_VALUE;
+    private boolean leftAlign = false;
+    private boolean truncateEnd = false;
+
+    /**
+     * Appends this converter's output for the event.
+     *
+     * @param event the event being formatted
+     * @param sb the buffer to append to
+     */
+    abstract void append(LoggingEvent event, StringBuilder sb);
+
+    /**
+     * Checks whether this converter renders the event's throwable.
+     *
+     * @return true for throwable converters
+     */
+    boolean handlesThrowable() {
+        return false;
+    }
+
+    /**
+     * Appends this converter's output and applies the format modifier.
+     *
+     * @param event the event being formatted
+     * @param sb the buffer to append to
+     */
+    final void format(LoggingEvent event, StringBuilder sb) {
+        int start = sb.length();
+        append(event, sb);
+        if (minWidth == 0 && maxWidth == Integer.MAX_VALUE) {
+            return;
+        }
+
+        int length = sb.length() - start;
+        if (length > maxWidth) {
+            if (truncateEnd) {
+                sb.setLength(start + maxWidth);
+            } else {
+                sb.delete(start, start + length - maxWidth);
+            }
+        } else if (length < minWidth) {
+            int padding = minWidth - length;
+            if (leftAlign) {
+                for (int i = 0; i < padding; i++) {
+                    sb.append(' ');
+                }
+            } else {
+                // Shift the value right in one pass rather than inserting a space at a time
+                int end = start + minWidth;
+                sb.setLength(end);
+                for (int i = end - 1; i >= start + padding; i--) {
+                    sb.setCharAt(i, sb.charAt(i - padding));
+                }
+                for (int i = start; i < start + padding; i++) {
+                    sb.setCharAt(i, ' ');
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a layout pattern into converters.
+     *
+     * Recognized placeholders are {@code %level}, {@code %date},
+     * {@code %date{format}}, {@code %thread}, {@code %logger},
+     * {@code %logger{n}}, {@code %class}, {@code %class{n}}, {@code %method},
+     * {@code %line}, {@code %file}, {@code %message} (or {@code %msg}),
+     * {@code %mdc}, {@code %mdc{key}}, {@code %ndc}, {@code %ex}
+     * (or {@code %throwable}), {@code %ex{n}}, {@code %n} and {@code %%}.
+     * Unrecognized placeholders are copied to the output unchanged.
+     *
+     * @param pattern the pattern to parse
+     * @return the converters, in output order
+     */
+    static PatternConverter[] parse(String pattern) {
+        List<PatternConverter> converters = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int length = pattern.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+            if (i + 1 < length && pattern.charAt(i + 1) == '%') {
+                literal.append('%');
+                i += 2;
+                continue;
+            }
+
+            // Format modifier: [-][minWidth][.[-]maxWidth]
+            int pos = i + 1;
+            boolean leftAlign = false;
+            boolean truncateEnd = false;
+            int minWidth = 0;
+            int maxWidth = Integer.MAX_VALUE;
+            if (pos < length && pattern.charAt(pos) == '-') {
+                leftAlign = true;
+                pos++;
+            }
+            int digitsStart = pos;
+            while (pos < length && Character.isDigit(pattern.charAt(pos))) {
+                pos++;
+            }
+            if (pos > digitsStart) {
+                minWidth = parseWidth(pattern.substring(digitsStart, pos));
+            }
+            if (pos < length && pattern.charAt(pos) == '.') {
+                int dot = pos++;
+                if (pos < length && pattern.charAt(pos) == '-') {
+                    truncateEnd = true;
+                    pos++;
+                }
+                digitsStart = pos;
+                while (pos < length && Character.isDigit(pattern.charAt(pos))) {
+                    pos++;
+                }
+                if (pos > digitsStart) {
+                    maxWidth = parseWidth(pattern.substring(digitsStart, pos));
+                } else {
+                    pos = dot;
+                    truncateEnd = false;
+                }
+            }
+
+            String keyword = matchKeyword(pattern, pos);
+            if (keyword == null) {
+                // Not a placeholder we know; keep the text as written
+                literal.append(c);
+                i++;
+                continue;
+            }
+            pos += keyword.length();
+
+            String option = null;
+            if (pos < length && pattern.charAt(pos) == '{') {
+                int close = pattern.indexOf('}', pos + 1);
+                if (close > pos) {
+                    option = pattern.substring(pos + 1, close);
+                    pos = close + 1;
+                }
+            }
+
+            if (literal.length() > 0) {
+                converters.add(new LiteralConverter(literal.toString()));
+                literal.setLength(0);
+            }
+            PatternConverter converter = createConverter(keyword, option);
+            converter.minWidth = minWidth;
+            converter.maxWidth = maxWidth;
+            converter.leftAlign = leftAlign;
+            converter.truncateEnd = truncateEnd;
+            converters.add(converter);
+            i = pos;
+        }
+
+        if (literal.length() > 0) {
+            converters.add(new LiteralConverter(literal.toString()));
+        }
+        return converters.toArray(new PatternConverter[0]);
+    }
+
+    private static int parseWidth(String digits) {
+        try {
+            return Integer.parseInt(digits);
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private static String matchKeyword(String pattern, int pos) {
+        for (String keyword : KEYWORDS) {
+            if (pattern.startsWith(keyword, pos)) {
+                return keyword;
+            }
+        }
+        return null;
+    }
+
+    private static PatternConverter createConverter(String keyword, String option) {
+        switch (keyword) {
+            case "level":
+                return new LevelConverter();
+            case "date":
+                return new DateConverter(option);
+            case "thread":
+                return new ThreadConverter();
+            case "logger":
+                return new LoggerConverter(parsePrecision(option));
+            case "class":
+                return new ClassConverter(parsePrecision(option));
+            case "method":
+                return new MethodConverter();
+            case "line":
+                return new LineConverter();
+            case "file":
+                return new FileConverter();
+            case "message":
+            case "msg":
+                return new MessageConverter();
+            case "mdc":
+                return new MdcConverter(option);
+            case "ndc":
+                return new NdcConverter();
+            case "ex":
+            case "throwable":
+                return new ThrowableConverter(option);
+            case "n":
+                return new LiteralConverter(LINE_SEPARATOR);
+            default:
+                throw new IllegalStateException("Unhandled pattern keyword: " + keyword);
+        }
+    }
+
+    private static int parsePrecision(String option) {
+        if (option == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(option.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Appends the rightmost {@code precision} dot-separated segments of a name,
+     * or the whole name when precision is 0.
+     */
+    static void appendAbbreviated(String name, int precision, StringBuilder sb) {
+        if (name == null) {
+            sb.append("null");
+            return;
+        }
+        if (precision <= 0) {
+            sb.append(name);
+            return;
+        }
+        int start = name.length();
+        for (int segments = 0; segments < precision; segments++) {
+            start = name.lastIndexOf('.', start - 1);
+            if (start < 0) {
+                sb.append(name);
+                return;
+            }
+        }
+        sb.append(name, start + 1, name.length());
+    }
+
+    /**
+     * Fixed text between placeholders.
+     */
+    static final class LiteralConverter extends PatternConverter {
+        private final String text;
+
+        LiteralConverter(String text) {
+            this.text = text;
+        }
+
+        @Override
+        void append(LoggingEvent event, StringBuilder sb) {
+            sb.append(text);
+        }
+    }
+
+    /**
+     * {@code %level}
+     */
+    static final class LevelConverter extends PatternConverter {
+        @Override
+        void append(LoggingEvent event, StringBuilder sb) {
+            sb.append(event.getLevel().name());
+        }
+    }
+
+    /**
+     * {@code %date} and {@code %date{format}}, rendered through a per-second cache.
+     */
+    static final class DateConverter extends PatternConverter {
+        private final CachedDateFormatter formatter;
+
+        DateConverter(String format) {
+            CachedDateFormatter parsed;
+            try {
+                parsed = new CachedDateFormatter(format != null ? format : DEFAULT_DATE_FORMAT);
+            } catch (IllegalArgumentException | DateTimeException e) {
+                // Fallback to default if pattern is invalid
+                parsed = new CachedDateFormatter(DEFAULT_DATE_FORMAT);
+            }
+            this.formatter = parsed;
+        }
+
+        @Override
+        void append(LoggingEvent event, StringBuilder sb) {
+            formatter.formatTo(event.getTimestamp(), sb);
+        }
+    }
+
+    /**
+     * {@code %thread}
+     */
+    static final class ThreadConverter extends PatternConverter {
+        @Override
+        void append(LoggingEvent event, StringBuilder sb) {
+            sb.append(event.getThreadName());
+        }
+    }
+
+    /**
+     * {@code %logger} and {@code %logger{n}}, keeping the last n name segments.
+     */
+    static final class LoggerConverter extends PatternConverter {
+        private final int precision;
+
+        LoggerConverter(int precision) {
+            this.precision = precision;
+        }
+
+        @Override
+        void append(LoggingEvent event, StringBuilder sb) {
+            appendAbbreviated(event.getLoggerName(), precision, sb);
+        }
+    }
+
+    /**
+     * {@code %class} (simple name) and {@code %class{n}} (last n segments of
+     * the fully qualified name).
+     */
+    static final class ClassConverter extends PatternConverter {
+        private final int precision;
+
+        ClassConverter(int precision) {
+            this.precision = precision;
+        }
+
+        @Override
+        void append(LoggingEvent event, StringBuilder sb) {
+            LocationInfo location = event.getLocationInfo();
+            if (location == null) {
+                sb.append(UNKNOWN_CLASS);
+            } else if (precision == 0) {
+                sb.append(location.getClassName());
+            } else {
+                appendAbbreviated(location.getFullClassName(), precision, sb);
+            }
+        }
+    }
+
+    /**
+     * {@code %method}
+     */
+    static final class MethodConverter extends PatternConverter {
+        @Override
+        void append(LoggingEvent event, StringBuilder sb) {
+            LocationInfo location = event.getLocationInfo();
+            sb.append(location != null ? location.getMethodName() : UNKNOWN_METHOD);
+        }
+    }
+
+    /**
+     * {@code %line}
+     */
+    static final class LineConverter extends PatternConverter {
+        @Override
+        void append(LoggingEvent event, StringBuilder sb) {
+            LocationInfo location = event.getLocationInfo();
+            sb.append(location != null ? location.getLineNumber() : 0);
+        }
+    }
+
+    /**
+     * {@code %file}
+     */
+    static final class FileConverter extends PatternConverter {
+        @Override
+        void append(LoggingEvent event, StringBuilder sb) {
+            LocationInfo location = event.getLocationInfo();
+            String fileName = location != null ? location.getFileName() : null;
+            sb.append(fileName != null ? fileName : UNKNOWN_CLASS);
+        }
+    }
+
+    /**
+     * {@code %message}. Includes the stack trace unless the pattern renders the
+     * throwable itself with {@code %ex}.
+     */
+    static final class MessageConverter extends PatternConverter {
+        private boolean includeThrowable = true;
+
+        void setIncludeThrowable(boolean includeThrowable) {
+            this.includeThrowable = includeThrowable;
+        }
+
+        @Override
+        void append(LoggingEvent event, StringBuilder sb) {
+            if (includeThrowable && event.getThrowable() != null) {
+                sb.append(event.getRenderedMessage());
+            } else {
+                // Parameterized messages are formatted straight into the builder
+                event.appendMessage(sb);
+            }
+        }
+    }
+
+    /**
+     * {@code %mdc{key}} for one value, or {@code %mdc} for the whole map as
+     * {@code {key=value, ...}}.
+     */
+    static final class MdcConverter extends PatternConverter {
+        private final String key;
+
+        MdcConverter(String key) {
+            this.key = key != null && !key.trim().isEmpty() ? key.trim() : null;
+        }
+
+        @Override
+        void append(LoggingEvent event, StringBuilder sb) {
+            Map<String, String> mdc = event.getMDC();
+            if (key != null) {
+                String value = mdc.get(key);
+                if (value != null) {
+                    sb.append(value);
+                }
+                return;
+            }
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(entry.getKey()).append('=').append(entry.getValue());
+                first = false;
+            }
+            sb.append('}');
+        }
+    }
+
+    /**
+     * {@code %ndc}: the context stack, outermost first, separated by spaces.
+     */
+    static final class NdcConverter extends PatternConverter {
+        @Override
+        void append(LoggingEvent event, StringBuilder sb) {
+            List<String> ndc = event.getNDC();
+            for (int i = 0; i < ndc.size(); i++) {
+                if (i > 0) {
+                    sb.append(' ');
+                }
+                sb.append(ndc.get(i));
+            }
+        }
+    }
+
+    /**
+     * {@code %ex}, {@code %ex{n}} or {@code %ex{none}}: the stack trace,
+     * optionally limited to its first n lines. Renders nothing when the
+     * event has no throwable.
+     */
+    static final class ThrowableConverter extends PatternConverter {
+        private final int maxLines;
+
+        ThrowableConverter(String option) {
+            int lines = Integer.MAX_VALUE;
+            if (option != null) {
+                String trimmed = option.trim();
+                if ("none".equalsIgnoreCase(trimmed)) {
+                    lines = 0;
+                } else if (!"full".equalsIgnoreCase(trimmed)) {
+                    try {
+                        lines = Math.max(0, Integer.parseInt(trimmed));
+                    } catch (NumberFormatException e) {
+                        lines = Integer.MAX_VALUE;
+                    }
+                }
+            }
+            this.maxLines = lines;
+        }
+
+        @Override
+        boolean handlesThrowable() {
+            return true;
+        }
+
+        @Override
+        void append(LoggingEvent event, StringBuilder sb) {
+            Throwable throwable = event.getThrowable();
+            if (throwable == null || maxLines == 0) {
+                return;
+            }
+
+            StringWriter writer = new StringWriter(512);
+            throwable.printStackTrace(new PrintWriter(writer));
+            String trace = writer.toString();
+
+            int lines = 0;
+            int start = 0;
+            while (start < trace.length() && lines < maxLines) {
+                int end = trace.indexOf('\n', start);
+                int next = end < 0 ? trace.length() : end + 1;
+                if (end > start && trace.charAt(end - 1) == '\r') {
+                    end--;
+                }
+                sb.append(trace, start, end < 0 ? trace.length() : end).append(LINE_SEPARATOR);
+                lines++;
+                start = next;
+            }
+        }
+    }
+}
@@ -18,30 +18,44 @@
 package com.log4rich.layouts;
 
 import com.log4rich.util.LoggingEvent;
-import com.log4rich.util.LocationInfo;
-
-import java.time.Instant;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.temporal.ChronoField;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Standard layout implementation with pattern support.
  * Supports various placeholders for formatting log messages.
+ * 
+ * The pattern is compiled once, when the layout is created, into a sequence
+ * of converters that append straight into a per-thread {@link StringBuilder}.
+ * Formatting an event therefore runs no regular expressions, builds no date
+ * formatters and never re-scans the message text for placeholders.
+ * 
+ * Supported placeholders:
+ * - {@code %level}, {@code %thread}, {@code %message} (or {@code %msg}), {@code %n}
+ * - {@code %date} or {@code %date{yyyy-MM-dd HH:mm:ss.SSS}}
+ * - {@code %logger}, or {@code %logger{n}} for the last n name segments
+ * - {@code %class}, {@code %class{n}}, {@code %method}, {@code %line}, {@code %file}
+ * - {@code %mdc} for the whole MDC, or {@code %mdc{key}} for a single value
+ * - {@code %ndc} for the NDC stack
+ * - {@code %ex}, or {@code %ex{n}} for the first n lines of the stack trace
+ * - {@code %%} for a literal percent sign
+ * 
+ * Any placeholder may carry a padding/truncation modifier, such as
+ * {@code %-5level} or {@code %20.30logger}. When the pattern contains
+ * {@code %ex}, {@code %message} renders the message only and the stack trace
+ * is left to {@code %ex}; otherwise {@code %message} includes it.
  */
 public class StandardLayout implements Layout {
     
     private static final String DEFAULT_PATTERN = 
         "[%level] %date{yyyy-MM-dd HH:mm:ss} [%thread] %class.%method:%line - %message%n";
     
+    // Builders that grew beyond this are not kept for reuse
+    private static final int MAX_REUSABLE_BUILDER_SIZE = 8192;
+    
     private final String pattern;
-    private final DateTimeFormatter defaultDateFormatter;
+    private final PatternConverter[] converters;
     
-    // Pattern for extracting date format from %date{format}
-    private static final Pattern DATE_PATTERN = Pattern.compile("%date\\{([^}]+)\\}");
+    private final ThreadLocal<StringBuilder> reusableBuilder =
+        ThreadLocal.withInitial(() -> new StringBuilder(256));
     
     /**
      * Creates a new StandardLayout with the default pattern.
@@ -58,90 +72,45 @@ public class StandardLayout implements Layout {
      */
     public StandardLayout(String pattern) {
         this.pattern = pattern != null ? pattern : DEFAULT_PATTERN;
-        this.defaultDateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
-            .withZone(ZoneId.systemDefault());
+        this.converters = PatternConverter.parse(this.pattern);
+        
+        boolean patternHandlesThrowable = false;
+        for (PatternConverter converter : converters) {
+            patternHandlesThrowable |= converter.handlesThrowable();
+        }
+        for (PatternConverter converter : converters) {
+            if (converter instanceof PatternConverter.MessageConverter) {
+                ((PatternConverter.MessageConverter) converter).setIncludeThrowable(!patternHandlesThrowable);
+            }
+        }
     }
     
     @Override
     public String format(LoggingEvent event) {
-        String result = pattern;
-        
-        // Replace level
-        result = result.replace("%level", event.getLevel().name());
-        
-        // Replace date patterns
-        result = replaceDatePatterns(result, event.getTimestamp());
-        
-        // Replace thread
-        result = result.replace("%thread", event.getThreadName());
-        
-        // Replace logger name
-        result = result.replace("%logger", event.getLoggerName());
-        
-        // Replace location information
-        result = replaceLocationInfo(result, event.getLocationInfo());
-        
-        // Replace message
-        result = result.replace("%message", event.getRenderedMessage());
-        
-        // Replace newline
-        result = result.replace("%n", System.lineSeparator());
+        StringBuilder sb = reusableBuilder.get();
+        sb.setLength(0);
         
-        return result;
-    }
-    
-    private String replaceDatePatterns(String input, long timestamp) {
-        Matcher matcher = DATE_PATTERN.matcher(input);
-        StringBuffer sb = new StringBuffer();
+        format(event, sb);
+        String result = sb.toString();
         
-        while (matcher.find()) {
-            String dateFormat = matcher.group(1);
-            DateTimeFormatter formatter;
-            
-            try {
-                // Handle milliseconds specially
-                if (dateFormat.contains("SSS")) {
-                    formatter = new DateTimeFormatterBuilder()
-                        .appendPattern(dateFormat.replace("SSS", ""))
-                        .appendValue(ChronoField.MILLI_OF_SECOND, 3)
-                        .toFormatter()
-                        .withZone(ZoneId.systemDefault());
-                } else {
-                    formatter = DateTimeFormatter.ofPattern(dateFormat)
-                        .withZone(ZoneId.systemDefault());
-                }
-            } catch (IllegalArgumentException e) {
-                // Fallback to default if pattern is invalid
-                formatter = defaultDateFormatter;
-            }
-            
-            String formattedDate = formatter.format(Instant.ofEpochMilli(timestamp));
-            matcher.appendReplacement(sb, Matcher.quoteReplacement(formattedDate));
+        if (sb.capacity() > MAX_REUSABLE_BUILDER_SIZE) {
+            // Don't pin the memory of one huge message to this thread
+            reusableBuilder.set(new StringBuilder(256));
         }
-        matcher.appendTail(sb);
-        
-        // Handle simple %date without format
-        return sb.toString().replace("%date", 
-            defaultDateFormatter.format(Instant.ofEpochMilli(timestamp)));
+        return result;
     }
     
-    private String replaceLocationInfo(String input, LocationInfo locationInfo) {
-        if (locationInfo == null) {
-            return input
-                .replace("%class", "Unknown")
-                .replace("%method", "unknown")
-                .replace("%line", "0")
-                .replace("%file", "Unknown");
+    /**
+     * Formats a logging event by appending to the given builder.
+     * 
+     * @param event the logging event to format
+     * @param sb the builder to append to
+     */
+    @Override
+    public void format(LoggingEvent event, StringBuilder sb) {
+        for (PatternConverter converter : converters) {
+            converter.format(event, sb);
         }
-        
-        String result = input;
-        result = result.replace("%class", locationInfo.getClassName());
-        result = result.replace("%method", locationInfo.getMethodName());
-        result = result.replace("%line", String.valueOf(locationInfo.getLineNumber()));
-        result = result.replace("%file", locationInfo.getFileName() != null ? 
-            locationInfo.getFileName() : "Unknown");
-        
-        return result;
     }
     
     @Override
@@ -32,10 +32,10 @@ import org.slf4j.spi.NOPLoggingEventBuilder;
  * logging backend. It implements the SLF4J Logger interface and delegates
  * all logging calls to the underlying log4Rich Logger.</p>
  *
- * <p><strong>Important:</strong> All methods call {@code logger.log(LogLevel, msg, throwable)}
- * directly instead of convenience methods like {@code logger.info(msg)} to ensure
- * correct caller location capture. The stack frame count in LocationInfo.getCaller(3)
- * expects exactly: getCaller → Logger.log → adapter method → application code.</p>
+ * <p>All methods call {@code logger.log(LogLevel, msg, throwable)} directly instead
+ * of convenience methods like {@code logger.info(msg)}. Caller location capture
+ * ({@link com.log4rich.util.LocationInfo#getCaller()}) skips every frame in the
+ * logging packages, so it reports the application code regardless of depth.</p>
  *
  * @author log4Rich Contributors
  * @since 1.0.5
@@ -21,6 +21,7 @@ import java.io.File;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Asynchronous compression manager that handles log file compression in background threads.
@@ -36,6 +37,16 @@ import java.util.concurrent.atomic.AtomicLong;
  * - Performance statistics and monitoring
  * - Graceful shutdown with queue draining
  * 
+ * Queued files are compressed oldest first, by modification time, so a
+ * burst of rotations cannot keep the oldest segment uncompressed. The
+ * compressions are paced by a {@link CompressionThrottle}: a byte rate
+ * limit for all of them together, a CPU share per compression thread, and
+ * a pause that holds them at their next chunk, for example while the
+ * application is under load. The backlog is reported in bytes and as an
+ * estimated time to drain. The overload fallback of
+ * {@link #compressWithAdaptiveManagement(File, long, String)} compresses
+ * on the caller's thread and is not throttled.
+ * 
  * @author log4Rich Contributors
  * @since 1.1.0
  */
@@ -47,9 +58,9 @@ public class AsyncCompressionManager {
     private static final int QUEUE_WARNING_THRESHOLD = 10;
     private static final int QUEUE_CRITICAL_THRESHOLD = 25;
     
-    private final CompressionManager compressionManager;
+    private volatile CompressionManager compressionManager;
+    private final CompressionThrottle throttle = new CompressionThrottle();
     private final ThreadPoolExecutor compressionExecutor;
-    private final BlockingQueue<CompressionTask> compressionQueue;
     private final int maxQueueSize;
     private final long compressionTimeout;
     
@@ -59,6 +70,9 @@ public class AsyncCompressionManager {
     private final AtomicLong totalFailed = new AtomicLong(0);
     private final AtomicLong totalBlocked = new AtomicLong(0);
     private final AtomicLong adaptiveResizes = new AtomicLong(0);
+    private final AtomicLong backlogBytes = new AtomicLong(0);
+    private final AtomicLong taskBytesPerSecond = new AtomicLong(0);  // smoothed, 0 until measured
+    private final AtomicLong taskSequence = new AtomicLong(0);
     
     private volatile boolean shutdown = false;
     
@@ -83,11 +97,9 @@ public class AsyncCompressionManager {
         this.maxQueueSize = maxQueueSize;
         this.compressionTimeout = compressionTimeout;
         
-        // Create bounded queue for compression tasks
-        this.compressionQueue = new ArrayBlockingQueue<>(maxQueueSize);
-        
-        // Create separate queue for executor since ThreadPoolExecutor needs BlockingQueue<Runnable>
-        BlockingQueue<Runnable> executorQueue = new ArrayBlockingQueue<>(maxQueueSize);
+        // Orders tasks oldest file first and holds at most maxQueueSize of them. Submissions
+        // stop at QUEUE_CRITICAL_THRESHOLD first, so the smaller of the two is the bound
+        BlockingQueue<Runnable> executorQueue = new BoundedPriorityQueue(maxQueueSize);
         
         // Create thread pool with daemon threads
         this.compressionExecutor = new ThreadPoolExecutor(
@@ -141,17 +153,18 @@ public class AsyncCompressionManager {
                       "). Consider increasing file size limits.");
         }
         
+        CompressionTask task = new CompressionTask(sourceFile, callback);
+        // Counted before it is handed over, so that a fast task cannot finish first
+        queueSize.incrementAndGet();
+        backlogBytes.addAndGet(task.size);
         try {
-            CompressionTask task = new CompressionTask(sourceFile, callback);
-            boolean queued = compressionExecutor.submit(task) != null;
-            
-            if (queued) {
-                queueSize.incrementAndGet();
-            }
-            
-            return queued;
+            // Not submit(), whose wrapper would hide the task's priority
+            compressionExecutor.execute(task);
+            return true;
             
         } catch (RejectedExecutionException e) {
+            queueSize.decrementAndGet();
+            backlogBytes.addAndGet(-task.size);
             logError("Compression task rejected for file: " + sourceFile.getName() + 
                     ", queue full or executor shutdown");
             return false;
@@ -261,12 +274,137 @@ public class AsyncCompressionManager {
         }
     }
     
+    /**
+     * Sets the compression manager the pool compresses files with. Tasks
+     * already queued use the new manager when they run.
+     * 
+     * @param compressionManager the compression manager; null is ignored
+     */
+    public void setCompressionManager(CompressionManager compressionManager) {
+        if (compressionManager != null) {
+            this.compressionManager = compressionManager;
+        }
+    }
+    
+    /**
+     * Gets the compression manager the pool compresses files with.
+     * 
+     * @return the compression manager
+     */
+    public CompressionManager getCompressionManager() {
+        return compressionManager;
+    }
+    
+    /**
+     * Pauses queued and running compressions at their next chunk until
+     * {@link #resumeCompression()}. Rotated files keep being queued.
+     */
+    public void pauseCompression() {
+        throttle.pause();
+    }
+    
+    /**
+     * Lets paused compressions continue.
+     */
+    public void resumeCompression() {
+        throttle.resume();
+    }
+    
+    /**
+     * Checks whether compressions are paused.
+     * 
+     * @return true while paused
+     */
+    public boolean isCompressionPaused() {
+        return throttle.isPaused();
+    }
+    
+    /**
+     * Sets the rate limit for all compressions of this manager together.
+     * 
+     * @param maxBytesPerSecond the bytes read per second, or 0 for no limit
+     */
+    public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        throttle.setMaxBytesPerSecond(maxBytesPerSecond);
+    }
+    
+    /**
+     * Gets the rate limit for all compressions of this manager together.
+     * 
+     * @return the bytes read per second, or 0 for no limit
+     */
+    public long getMaxBytesPerSecond() {
+        return throttle.getMaxBytesPerSecond();
+    }
+    
+    /**
+     * Sets the share of its time that each compression thread may be busy.
+     * 
+     * @param cpuPercent the share from 1 to 100; 100 does not limit
+     */
+    public void setCpuPercent(int cpuPercent) {
+        throttle.setCpuPercent(cpuPercent);
+    }
+    
+    /**
+     * Gets the share of its time that each compression thread may be busy.
+     * 
+     * @return the share from 1 to 100
+     */
+    public int getCpuPercent() {
+        return throttle.getCpuPercent();
+    }
+    
+    /**
+     * Gets the throttle that paces the compressions.
+     * 
+     * @return the throttle
+     */
+    public CompressionThrottle getThrottle() {
+        return throttle;
+    }
+    
+    /**
+     * Gets the size of the files queued or being compressed.
+     * 
+     * @return the backlog in uncompressed bytes
+     */
+    public long getBacklogBytes() {
+        return backlogBytes.get();
+    }
+    
+    /**
+     * Estimates the time until the backlog is compressed, from the recent
+     * rate of finished compressions, including the time they were
+     * throttled, across all compression threads and within the rate limit.
+     * 
+     * @return the estimate in milliseconds, 0 without a backlog, or -1
+     *         while paused or before a compression has finished
+     */
+    public long getEstimatedDrainMillis() {
+        long backlog = backlogBytes.get();
+        if (backlog <= 0) {
+            return 0;
+        }
+        long rate = taskBytesPerSecond.get() * compressionExecutor.getMaximumPoolSize();
+        long limit = throttle.getMaxBytesPerSecond();
+        if (limit > 0 && (rate == 0 || limit < rate)) {
+            rate = limit;
+        }
+        if (throttle.isPaused() || rate <= 0) {
+            return -1;
+        }
+        return backlog * 1000 / rate;
+    }
+    
     /**
      * Shuts down the compression manager gracefully.
-     * Waits for pending compressions to complete.
+     * Waits for pending compressions to complete; throttling and a pause
+     * are lifted so that they finish as fast as they can.
      */
     public void shutdown() {
         shutdown = true;
+        throttle.release();
         
         logInfo("AsyncCompressionManager shutting down...");
         compressionExecutor.shutdown();
@@ -302,7 +440,10 @@ public class AsyncCompressionManager {
             totalFailed.get(),
             totalBlocked.get(),
             adaptiveResizes.get(),
-            maxQueueSize
+            maxQueueSize,
+            backlogBytes.get(),
+            getEstimatedDrainMillis(),
+            throttle.isPaused()
         );
     }
     
@@ -334,47 +475,116 @@ public class AsyncCompressionManager {
     }
     
     /**
-     * Compression task for background execution.
+     * A priority queue that refuses offers once it holds its capacity, as
+     * a bounded queue does, so that the executor's rejection policy applies
+     * when it is full. A priority queue's capacity is otherwise only its
+     * initial size.
      */
-    private class CompressionTask implements Runnable {
+    private static final class BoundedPriorityQueue extends PriorityBlockingQueue<Runnable> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final int capacity;
+        private final transient ReentrantLock offerLock = new ReentrantLock();
+        
+        BoundedPriorityQueue(int capacity) {
+            super(Math.max(1, capacity));
+            this.capacity = Math.max(1, capacity);
+        }
+        
+        @Override
+        public boolean offer(Runnable task) {
+            // Takes only shrink the queue, so checking under a lock of our own is enough
+            offerLock.lock();
+            try {
+                return size() < capacity && super.offer(task);
+            } finally {
+                offerLock.unlock();
+            }
+        }
+        
+        @Override
+        public int remainingCapacity() {
+            return Math.max(0, capacity - size());
+        }
+    }
+    
+    /**
+     * Compression task for background execution, ordered oldest file first.
+     */
+    private class CompressionTask implements Runnable, Comparable<CompressionTask> {
         private final File sourceFile;
         private final CompressionCallback callback;
+        private final long size;
+        private final long lastModified;
+        private final long sequence;
         
         CompressionTask(File sourceFile, CompressionCallback callback) {
             this.sourceFile = sourceFile;
             this.callback = callback;
+            this.size = sourceFile.length();
+            this.lastModified = sourceFile.lastModified();
+            this.sequence = taskSequence.incrementAndGet();
+        }
+        
+        @Override
+        public int compareTo(CompressionTask other) {
+            int byAge = Long.compare(lastModified, other.lastModified);
+            return byAge != 0 ? byAge : Long.compare(sequence, other.sequence);
         }
         
         @Override
         public void run() {
+            File compressed = sourceFile;
+            boolean success = false;
             try {
-                File compressed = compressionManager.compressFile(sourceFile);
-                boolean success = compressed != null && !compressed.equals(sourceFile);
-                
-                if (callback != null) {
-                    callback.onCompressionComplete(sourceFile, compressed, success);
-                }
-                
+                // Waits out a pause before the file is opened
+                throttle.pace(0, 0);
+                long startTime = System.nanoTime();
+                compressed = compressionManager.compressFile(sourceFile, throttle);
+                success = compressed != null && !compressed.equals(sourceFile);
                 if (success) {
-                    totalCompressed.incrementAndGet();
-                } else {
-                    totalFailed.incrementAndGet();
+                    recordRate(size, System.nanoTime() - startTime);
                 }
-                
             } catch (Exception e) {
-                totalFailed.incrementAndGet();
+                compressed = sourceFile;
                 logError("Compression task failed for file: " + sourceFile.getName() + 
                         ", error: " + e.getMessage());
-                
-                if (callback != null) {
-                    callback.onCompressionComplete(sourceFile, sourceFile, false);
-                }
             } finally {
+                // Settled before the callback, so that whoever it wakes sees the task gone
                 queueSize.decrementAndGet();
+                backlogBytes.addAndGet(-size);
+            }
+            
+            if (success) {
+                totalCompressed.incrementAndGet();
+            } else {
+                totalFailed.incrementAndGet();
+            }
+            
+            if (callback != null) {
+                try {
+                    callback.onCompressionComplete(sourceFile, compressed, success);
+                } catch (Exception e) {
+                    logError("Compression callback failed for file: " + sourceFile.getName() + 
+                            ", error: " + e.getMessage());
+                }
             }
         }
     }
     
+    /**
+     * Folds the rate of a finished compression into the smoothed rate per
+     * thread that drain estimates are based on.
+     */
+    private void recordRate(long bytes, long elapsedNanos) {
+        if (bytes <= 0 || elapsedNanos <= 0) {
+            return;
+        }
+        long sample = Math.max(1, (long) (bytes * 1e9 / elapsedNanos));
+        taskBytesPerSecond.updateAndGet(rate -> rate == 0 ? sample : (rate * 3 + sample) / 4);
+    }
+    
     /**
      * Callback interface for compression completion notification.
      */
@@ -441,15 +651,22 @@ public class AsyncCompressionManager {
         private final long totalBlocked;
         private final long adaptiveResizes;
         private final int maxQueueSize;
+        private final long backlogBytes;
+        private final long estimatedDrainMillis;
+        private final boolean paused;
         
         CompressionStatistics(int currentQueueSize, long totalCompressed, long totalFailed,
-                            long totalBlocked, long adaptiveResizes, int maxQueueSize) {
+                            long totalBlocked, long adaptiveResizes, int maxQueueSize,
+                            long backlogBytes, long estimatedDrainMillis, boolean paused) {
             this.currentQueueSize = currentQueueSize;
             this.totalCompressed = totalCompressed;
             this.totalFailed = totalFailed;
             this.totalBlocked = totalBlocked;
             this.adaptiveResizes = adaptiveResizes;
             this.maxQueueSize = maxQueueSize;
+            this.backlogBytes = backlogBytes;
+            this.estimatedDrainMillis = estimatedDrainMillis;
+            this.paused = paused;
         }
         
         /**
@@ -494,13 +711,32 @@ public class AsyncCompressionManager {
          */
         public double getQueueUtilization() { return (double) currentQueueSize / maxQueueSize; }
         
+        /**
+         * Gets the size of the files queued or being compressed.
+         * @return the backlog in uncompressed bytes
+         */
+        public long getBacklogBytes() { return backlogBytes; }
+        
+        /**
+         * Gets the estimated time until the backlog is compressed.
+         * @return the estimate in milliseconds, or -1 if it cannot be estimated
+         */
+        public long getEstimatedDrainMillis() { return estimatedDrainMillis; }
+        
+        /**
+         * Checks whether compressions were paused.
+         * @return true if compressions were paused
+         */
+        public boolean isPaused() { return paused; }
+        
         @Override
         public String toString() {
             return String.format(
                 "CompressionStats{queue=%d/%d (%.1f%%), compressed=%d, failed=%d, " +
-                "blocked=%d, adaptiveResizes=%d}",
+                "blocked=%d, adaptiveResizes=%d, backlog=%d bytes, drainMs=%d, paused=%s}",
                 currentQueueSize, maxQueueSize, getQueueUtilization() * 100,
-                totalCompressed, totalFailed, totalBlocked, adaptiveResizes
+                totalCompressed, totalFailed, totalBlocked, adaptiveResizes,
+                backlogBytes, estimatedDrainMillis, paused
             );
         }
     }
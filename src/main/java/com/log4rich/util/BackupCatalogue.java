@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.io.File;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory list of the rotated segments of one log file, oldest first.
+ *
+ * The directory is listed once, when the catalogue is created; after that a
+ * rolling appender reports each rotated file and each compressed
+ * replacement, so retention is enforced without listing the directory or
+ * sorting by modification time on every rollover. Pruning removes segments
+ * from the old end until the count, total size and age limits are all met.
+ *
+ * A segment is recognized at startup by its name: the log file name, a dot,
+ * a timestamp in the appender's date pattern, an optional {@code .N} counter
+ * and an optional compression extension. Files created by other means
+ * after startup are not seen until the catalogue is rebuilt.
+ *
+ * This class is thread-safe.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public class BackupCatalogue {
+
+    private static final String[] COMPRESSED_EXTENSIONS = {
+        ".gz", ".bz2", ".xz", ".zip", ".7z", ".compressed"
+    };
+
+    private final File mainFile;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Map<String, Segment> segmentsByName = new HashMap<>();
+    private long totalSize;
+
+    /**
+     * Creates an empty catalogue.
+     *
+     * @param mainFile the log file whose segments are tracked
+     */
+    public BackupCatalogue(File mainFile) {
+        this.mainFile = mainFile;
+    }
+
+    /**
+     * Builds a catalogue from the segments already on disk. This lists the
+     * directory once and reads the size and modification time of each
+     * segment, which orders them.
+     *
+     * @param mainFile the log file whose segments are tracked
+     * @param datePattern the date pattern used in segment names
+     * @return the catalogue
+     */
+    public static BackupCatalogue scan(File mainFile, String datePattern) {
+        BackupCatalogue catalogue = new BackupCatalogue(mainFile);
+        File parentDir = mainFile.getAbsoluteFile().getParentFile();
+        if (parentDir == null) {
+            return catalogue;
+        }
+
+        SimpleDateFormat format = new SimpleDateFormat(datePattern);
+        format.setLenient(false);
+        String prefix = mainFile.getName() + ".";
+        File[] files = parentDir.listFiles((dir, name) ->
+            name.startsWith(prefix) && isSegmentSuffix(name.substring(prefix.length()), format));
+        if (files == null) {
+            return catalogue;
+        }
+
+        List<Segment> found = new ArrayList<>(files.length);
+        for (File file : files) {
+            found.add(new Segment(file, file.length(), file.lastModified()));
+        }
+        found.sort((a, b) -> Long.compare(a.timestamp, b.timestamp));
+        for (Segment segment : found) {
+            catalogue.addSegment(segment);
+        }
+        return catalogue;
+    }
+
+    /**
+     * Checks whether the part of a file name after the log file name is a
+     * timestamp, optionally followed by a counter and a compression extension.
+     */
+    private static boolean isSegmentSuffix(String suffix, SimpleDateFormat format) {
+        for (String extension : COMPRESSED_EXTENSIONS) {
+            if (suffix.endsWith(extension)) {
+                suffix = suffix.substring(0, suffix.length() - extension.length());
+                break;
+            }
+        }
+        if (isTimestamp(suffix, format)) {
+            return true;
+        }
+        // Segments rolled within the same second get a ".N" counter
+        int dot = suffix.lastIndexOf('.');
+        if (dot <= 0 || dot == suffix.length() - 1) {
+            return false;
+        }
+        for (int i = dot + 1; i < suffix.length(); i++) {
+            if (!Character.isDigit(suffix.charAt(i))) {
+                return false;
+            }
+        }
+        return isTimestamp(suffix.substring(0, dot), format);
+    }
+
+    private static boolean isTimestamp(String text, SimpleDateFormat format) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        ParsePosition position = new ParsePosition(0);
+        return format.parse(text, position) != null && position.getIndex() == text.length();
+    }
+
+    /**
+     * Records a newly rotated segment as the newest one. A file that is
+     * already recorded or no longer exists is skipped: a scan that ran
+     * before the rotation was recorded may have found it and pruned it, and
+     * recording it again would make a later prune count it, or delete a
+     * newer segment that has since been given the same name.
+     *
+     * @param file the rotated file
+     * @param timestamp the rotation time in milliseconds
+     */
+    public synchronized void add(File file, long timestamp) {
+        if (segmentsByName.containsKey(file.getName()) || !file.exists()) {
+            return;
+        }
+        addSegment(new Segment(file, file.length(), timestamp));
+    }
+
+    private void addSegment(Segment segment) {
+        segments.addLast(segment);
+        segmentsByName.put(segment.file.getName(), segment);
+        totalSize += segment.size;
+    }
+
+    /**
+     * Replaces a segment with another file holding the same content, such as
+     * its compressed version. The segment keeps its place in the order.
+     *
+     * @param original the file that was recorded
+     * @param replacement the file that now holds the segment
+     */
+    public synchronized void replace(File original, File replacement) {
+        Segment segment = segmentsByName.remove(original.getName());
+        if (segment == null) {
+            return;
+        }
+        long size = replacement.length();
+        totalSize += size - segment.size;
+        segment.file = replacement;
+        segment.size = size;
+        segmentsByName.put(replacement.getName(), segment);
+    }
+
+    /**
+     * Deletes the oldest segments until at most {@code maxCount} remain,
+     * their total size is at most {@code maxTotalSize} and none is older
+     * than {@code maxAgeMillis}. A limit of zero or less is not applied.
+     *
+     * @param maxCount the maximum number of segments
+     * @param maxTotalSize the maximum total size in bytes
+     * @param maxAgeMillis the maximum segment age in milliseconds
+     * @param now the current time in milliseconds
+     * @return the number of segments removed
+     */
+    public synchronized int prune(int maxCount, long maxTotalSize, long maxAgeMillis, long now) {
+        int removed = 0;
+        while (!segments.isEmpty()) {
+            Segment oldest = segments.peekFirst();
+            boolean overCount = maxCount > 0 && segments.size() > maxCount;
+            boolean overSize = maxTotalSize > 0 && totalSize > maxTotalSize;
+            boolean tooOld = maxAgeMillis > 0 && now - oldest.timestamp > maxAgeMillis;
+            if (!overCount && !overSize && !tooOld) {
+                break;
+            }
+
+            segments.removeFirst();
+            segmentsByName.remove(oldest.file.getName());
+            totalSize -= oldest.size;
+            removed++;
+            // A segment that cannot be deleted is dropped anyway; a later scan finds it again
+            if (oldest.file.exists() && !oldest.file.delete()) {
+                System.err.println("Warning: Failed to delete old backup file: " + oldest.file.getName());
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Checks whether a segment with the given file name is recorded.
+     *
+     * @param fileName the segment file name
+     * @return true if the segment is recorded
+     */
+    public synchronized boolean contains(String fileName) {
+        return segmentsByName.containsKey(fileName);
+    }
+
+    /**
+     * Gets the segment files, oldest first.
+     *
+     * @return a snapshot of the segment files
+     */
+    public synchronized List<File> getFiles() {
+        List<File> files = new ArrayList<>(segments.size());
+        for (Segment segment : segments) {
+            files.add(segment.file);
+        }
+        return files;
+    }
+
+    /**
+     * Gets the number of recorded segments.
+     *
+     * @return the segment count
+     */
+    public synchronized int size() {
+        return segments.size();
+    }
+
+    /**
+     * Gets the total size of the recorded segments.
+     *
+     * @return the total size in bytes
+     */
+    public synchronized long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * Gets the log file whose segments are tracked.
+     *
+     * @return the main log file
+     */
+    public File getMainFile() {
+        return mainFile;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("BackupCatalogue[file=%s, segments=%d, totalSize=%d]",
+                           mainFile.getName(), segments.size(), totalSize);
+    }
+
+    /**
+     * One rotated segment. File and size change when it is compressed.
+     */
+    private static final class Segment {
+        File file;
+        long size;
+        final long timestamp;
+
+        Segment(File file, long size, long timestamp) {
+            this.file = file;
+            this.size = size;
+            this.timestamp = timestamp;
+        }
+    }
+}
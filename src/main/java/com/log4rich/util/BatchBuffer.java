@@ -16,9 +16,14 @@
  */
 package com.log4rich.util;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -28,31 +33,48 @@ import java.util.concurrent.locks.ReentrantLock;
  * and time thresholds. Batching reduces I/O system calls and improves overall
  * throughput by amortizing the cost of each I/O operation across multiple log entries.
  * 
+ * Each producer thread stages its events in its own chain of fixed-size
+ * chunks, which only that thread writes and only the drainer reads, so
+ * adding an event takes no lock and touches no memory shared with other
+ * producers. {@link #getAndClear()} collects every thread's chunks and
+ * merges them by timestamp; events of one thread keep their order.
+ * 
  * Key features:
  * - Size-based flushing (when buffer reaches capacity)
  * - Time-based flushing (periodic flush regardless of size)
- * - Thread-safe operation with minimal lock contention
- * - Graceful handling of shutdown scenarios
+ * - Lock-free adds from any number of threads
+ * - Graceful shutdown: every accepted event is left for the final drain
+ * 
+ * The size threshold is checked every few events per thread rather than on
+ * every event, so a batch may exceed the maximum size by a few events per
+ * producer.
  * 
  * @author log4Rich Contributors
  * @since 1.1.0
  */
 public class BatchBuffer {
     
-    private final List<LoggingEvent> buffer;
+    private static final int CHUNK_SIZE = 256;
+    private static final int MAX_CHECK_INTERVAL = 64;
+    private static final Comparator<LoggingEvent> BY_TIMESTAMP =
+        Comparator.comparingLong(LoggingEvent::getTimestamp);
+    
     private final int maxBatchSize;
     private final long maxBatchTimeMs;
-    private final AtomicInteger currentSize;
-    private final ReentrantLock bufferLock;
+    private final int checkInterval;
+    private final ThreadLocal<Stage> localStage = new ThreadLocal<>();
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+    private final LongAdder pending = new LongAdder();
+    private final ReentrantLock drainLock = new ReentrantLock();
     
     private volatile long lastFlushTime;
     private volatile boolean shutdown;
     
     // Performance monitoring
-    private long totalEvents;
-    private long batchCount;
-    private long timeFlushCount;
-    private long sizeFlushCount;
+    private final LongAdder totalEvents = new LongAdder();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong timeFlushCount = new AtomicLong();
+    private final AtomicLong sizeFlushCount = new AtomicLong();
     
     /**
      * Creates a new batch buffer with specified parameters.
@@ -68,17 +90,15 @@ public class BatchBuffer {
             throw new IllegalArgumentException("maxBatchTimeMs must be positive");
         }
         
-        this.buffer = new ArrayList<>(maxBatchSize);
         this.maxBatchSize = maxBatchSize;
         this.maxBatchTimeMs = maxBatchTimeMs;
-        this.currentSize = new AtomicInteger(0);
-        this.bufferLock = new ReentrantLock();
+        this.checkInterval = Math.max(1, Math.min(MAX_CHECK_INTERVAL, maxBatchSize / 16));
         this.lastFlushTime = System.currentTimeMillis();
         this.shutdown = false;
     }
     
     /**
-     * Adds an event to the buffer.
+     * Adds an event to the calling thread's staging chunks.
      * 
      * @param event the logging event to add
      * @return true if buffer should be flushed immediately, false otherwise
@@ -88,61 +108,86 @@ public class BatchBuffer {
             return false;
         }
         
-        bufferLock.lock();
+        Stage stage = localStage.get();
+        if (stage == null) {
+            stage = new Stage(Thread.currentThread());
+            localStage.set(stage);
+            stages.add(stage);
+        }
+        
+        // Announce the add before checking again, so that shutdown() either
+        // waits for it or is seen here and the event is refused
+        stage.adding = true;
         try {
             if (shutdown) {
-                return false; // Double-check after acquiring lock
+                return false;
             }
-            
-            buffer.add(event);
-            int newSize = currentSize.incrementAndGet();
-            totalEvents++;
-            
-            // Check if we should flush due to size
-            if (newSize >= maxBatchSize) {
-                sizeFlushCount++;
-                return true;
-            }
-            
-            // Check if we should flush due to time
-            if (shouldFlushByTime()) {
-                timeFlushCount++;
-                return true;
-            }
-            
-            return false;
-            
+            // Events are held until the next flush, so detach recycled ones
+            stage.publish(event.toImmutable());
+            pending.increment();
+            totalEvents.increment();
         } finally {
-            bufferLock.unlock();
+            stage.adding = false;
         }
+        
+        // Summing the shared counter on every event would bring back the contention
+        if (++stage.sinceCheck < checkInterval) {
+            return false;
+        }
+        stage.sinceCheck = 0;
+        
+        // Check if we should flush due to size
+        if (pending.sum() >= maxBatchSize) {
+            sizeFlushCount.incrementAndGet();
+            return true;
+        }
+        
+        // Check if we should flush due to time
+        if (shouldFlushByTime()) {
+            timeFlushCount.incrementAndGet();
+            return true;
+        }
+        
+        return false;
     }
     
     /**
      * Gets all buffered events and clears the buffer.
      * This method is typically called when a flush is needed.
      * 
+     * Events are returned in timestamp order. Calls are serialized, so every
+     * event is returned exactly once.
+     * 
      * @return list of events to be processed (may be empty)
      */
     public List<LoggingEvent> getAndClear() {
-        bufferLock.lock();
+        drainLock.lock();
         try {
-            if (buffer.isEmpty()) {
-                return new ArrayList<>(); // Return empty list instead of null
+            List<LoggingEvent> events = new ArrayList<>();
+            for (Stage stage : stages) {
+                // A finished thread adds nothing more, so its stage can go once drained
+                boolean abandoned = stage.isAbandoned();
+                stage.drainTo(events);
+                if (abandoned) {
+                    stages.remove(stage);
+                }
             }
             
-            // Create copy of current events
-            List<LoggingEvent> events = new ArrayList<>(buffer);
+            if (events.isEmpty()) {
+                return events;
+            }
+            
+            // Each thread's events form a sorted run; a stable sort merges the runs
+            events.sort(BY_TIMESTAMP);
             
-            // Clear buffer and reset counters
-            buffer.clear();
-            currentSize.set(0);
+            pending.add(-events.size());
             lastFlushTime = System.currentTimeMillis();
-            batchCount++;
+            batchCount.incrementAndGet();
             
             return events;
             
         } finally {
-            bufferLock.unlock();
+            drainLock.unlock();
         }
     }
     
@@ -163,10 +208,10 @@ public class BatchBuffer {
      */
     public boolean shouldFlush() {
         if (shutdown) {
-            return currentSize.get() > 0; // Flush remaining events on shutdown
+            return size() > 0; // Flush remaining events on shutdown
         }
         
-        return currentSize.get() >= maxBatchSize || shouldFlushByTime();
+        return size() >= maxBatchSize || shouldFlushByTime();
     }
     
     /**
@@ -175,7 +220,8 @@ public class BatchBuffer {
      * @return current buffer size
      */
     public int size() {
-        return currentSize.get();
+        // Briefly negative when a drain takes an event before its add is counted
+        return (int) Math.max(0, pending.sum());
     }
     
     /**
@@ -184,16 +230,23 @@ public class BatchBuffer {
      * @return true if buffer is empty
      */
     public boolean isEmpty() {
-        return currentSize.get() == 0;
+        return size() == 0;
     }
     
     /**
      * Initiates shutdown of the buffer.
      * After calling this method, no new events will be accepted,
      * but existing events can still be retrieved via getAndClear().
+     * Waits for adds that were accepted before the shutdown to finish
+     * staging their events, so a drain after this returns finds them all.
      */
     public void shutdown() {
         this.shutdown = true;
+        for (Stage stage : stages) {
+            while (stage.adding) {
+                Thread.yield();
+            }
+        }
     }
     
     /**
@@ -211,35 +264,96 @@ public class BatchBuffer {
      * @return buffer statistics
      */
     public BatchStatistics getStatistics() {
-        bufferLock.lock();
-        try {
-            return new BatchStatistics(
-                totalEvents,
-                batchCount,
-                sizeFlushCount,
-                timeFlushCount,
-                currentSize.get(),
-                maxBatchSize,
-                maxBatchTimeMs
-            );
-        } finally {
-            bufferLock.unlock();
-        }
+        return new BatchStatistics(
+            totalEvents.sum(),
+            batchCount.get(),
+            sizeFlushCount.get(),
+            timeFlushCount.get(),
+            size(),
+            maxBatchSize,
+            maxBatchTimeMs
+        );
     }
     
     /**
      * Resets performance counters.
      */
     public void resetStatistics() {
-        bufferLock.lock();
-        try {
-            totalEvents = 0;
-            batchCount = 0;
-            sizeFlushCount = 0;
-            timeFlushCount = 0;
-        } finally {
-            bufferLock.unlock();
+        totalEvents.reset();
+        batchCount.set(0);
+        sizeFlushCount.set(0);
+        timeFlushCount.set(0);
+    }
+    
+    /**
+     * The staging chunks of one producer thread. The owner appends at the
+     * tail and the drainer, holding the drain lock, reads from the head.
+     */
+    private static final class Stage {
+        private final WeakReference<Thread> owner;
+        private Chunk tail;        // owner only
+        private int sinceCheck;    // owner only
+        volatile boolean adding;   // written by the owner, read by shutdown()
+        private Chunk head;        // drainer only
+        private int readIndex;     // drainer only
+        
+        Stage(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+            this.tail = new Chunk();
+            this.head = tail;
         }
+        
+        void publish(LoggingEvent event) {
+            Chunk chunk = tail;
+            int index = chunk.published;
+            if (index == CHUNK_SIZE) {
+                Chunk next = new Chunk();
+                chunk.next = next;
+                tail = next;
+                chunk = next;
+                index = 0;
+            }
+            chunk.events[index] = event;
+            // Ordered store: the drainer sees the slot once it sees the count
+            Chunk.PUBLISHED.lazySet(chunk, index + 1);
+        }
+        
+        void drainTo(List<LoggingEvent> out) {
+            Chunk chunk = head;
+            int index = readIndex;
+            while (true) {
+                int published = chunk.published;
+                for (; index < published; index++) {
+                    out.add(chunk.events[index]);
+                    chunk.events[index] = null;
+                }
+                Chunk next = chunk.next;
+                if (published < CHUNK_SIZE || next == null) {
+                    break;
+                }
+                chunk = next;
+                index = 0;
+            }
+            head = chunk;
+            readIndex = index;
+        }
+        
+        boolean isAbandoned() {
+            Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+    }
+    
+    /**
+     * A fixed-size block of staged events.
+     */
+    private static final class Chunk {
+        static final AtomicIntegerFieldUpdater<Chunk> PUBLISHED =
+            AtomicIntegerFieldUpdater.newUpdater(Chunk.class, "published");
+        
+        final LoggingEvent[] events = new LoggingEvent[CHUNK_SIZE];
+        volatile int published;
+        volatile Chunk next;
     }
     
     /**
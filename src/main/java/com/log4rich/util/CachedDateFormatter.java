@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Timestamp formatter that renders each second only once.
+ *
+ * The first event in a new second formats the full timestamp with a
+ * {@link DateTimeFormatter} and caches the text together with the position
+ * of its millisecond digits. Every further event in that second copies the
+ * cached text and patches in its own milliseconds, so the common case costs
+ * a few character appends instead of a full date rendering.
+ *
+ * The cache is an immutable snapshot published through a volatile field, so
+ * one instance can be shared by any number of threads without locking. When
+ * two threads roll over to a new second at the same time both render it and
+ * one snapshot wins, which is harmless.
+ *
+ * Patterns use {@link DateTimeFormatter} syntax. Patterns whose output
+ * changes within a second in ways other than the millisecond digits (such
+ * as nano-of-second fields) are detected and simply formatted every time.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public final class CachedDateFormatter {
+
+    // Millisecond offset rendered next to the start of a second to locate the digits
+    private static final int PROBE_MILLIS = 987;
+
+    private final String pattern;
+    private final DateTimeFormatter formatter;
+    private volatile CachedSecond cache;
+
+    /**
+     * Creates a formatter for the system time zone and default locale.
+     *
+     * @param pattern the {@link DateTimeFormatter} pattern
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public CachedDateFormatter(String pattern) {
+        this(pattern, Locale.getDefault(), ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates a formatter for the system time zone.
+     *
+     * @param pattern the {@link DateTimeFormatter} pattern
+     * @param locale the locale for month and day names
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public CachedDateFormatter(String pattern, Locale locale) {
+        this(pattern, locale, ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates a formatter.
+     *
+     * @param pattern the {@link DateTimeFormatter} pattern
+     * @param locale the locale for month and day names
+     * @param zone the time zone to render in
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public CachedDateFormatter(String pattern, Locale locale, ZoneId zone) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Date pattern cannot be null");
+        }
+        this.pattern = pattern;
+        this.formatter = DateTimeFormatter.ofPattern(pattern, locale).withZone(zone);
+        // Render once so that patterns the zone cannot satisfy fail here, not per event
+        this.cache = createCache(Math.floorDiv(System.currentTimeMillis(), 1000L));
+    }
+
+    /**
+     * Formats a timestamp.
+     *
+     * @param epochMillis milliseconds since the epoch
+     * @return the formatted timestamp
+     */
+    public String format(long epochMillis) {
+        CachedSecond second = cachedSecond(epochMillis);
+        if (second.millisOffset < 0) {
+            return second.millisOffset == CachedSecond.CONSTANT
+                ? second.text
+                : formatter.format(Instant.ofEpochMilli(epochMillis));
+        }
+        StringBuilder sb = new StringBuilder(second.text.length());
+        appendPatched(second, epochMillis, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Formats a timestamp by appending to a builder.
+     *
+     * @param epochMillis milliseconds since the epoch
+     * @param sb the builder to append to
+     */
+    public void formatTo(long epochMillis, StringBuilder sb) {
+        CachedSecond second = cachedSecond(epochMillis);
+        if (second.millisOffset < 0) {
+            if (second.millisOffset == CachedSecond.CONSTANT) {
+                sb.append(second.text);
+            } else {
+                formatter.formatTo(Instant.ofEpochMilli(epochMillis), sb);
+            }
+            return;
+        }
+        appendPatched(second, epochMillis, sb);
+    }
+
+    /**
+     * Gets the pattern of this formatter.
+     *
+     * @return the pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    private CachedSecond cachedSecond(long epochMillis) {
+        long epochSecond = Math.floorDiv(epochMillis, 1000L);
+        CachedSecond second = cache;
+        if (second.epochSecond != epochSecond) {
+            second = createCache(epochSecond);
+            cache = second;
+        }
+        return second;
+    }
+
+    private static void appendPatched(CachedSecond second, long epochMillis, StringBuilder sb) {
+        int millis = (int) Math.floorMod(epochMillis, 1000L);
+        String text = second.text;
+        int offset = second.millisOffset;
+
+        sb.append(text, 0, offset);
+        // Fraction digits: S is tenths, SS hundredths, SSS milliseconds
+        int divisor = 100;
+        for (int i = 0; i < second.millisDigits; i++) {
+            sb.append((char) ('0' + (millis / divisor) % 10));
+            divisor /= 10;
+        }
+        sb.append(text, offset + second.millisDigits, text.length());
+    }
+
+    private CachedSecond createCache(long epochSecond) {
+        long base = epochSecond * 1000L;
+        String text = formatter.format(Instant.ofEpochMilli(base));
+        String probe = formatter.format(Instant.ofEpochMilli(base + PROBE_MILLIS));
+
+        if (text.equals(probe)) {
+            // No sub-second field: the text is the same for the whole second
+            return new CachedSecond(epochSecond, text, CachedSecond.CONSTANT, 0);
+        }
+        if (text.length() != probe.length()) {
+            return new CachedSecond(epochSecond, text, CachedSecond.UNCACHEABLE, 0);
+        }
+
+        int first = 0;
+        while (text.charAt(first) == probe.charAt(first)) {
+            first++;
+        }
+        int last = text.length() - 1;
+        while (text.charAt(last) == probe.charAt(last)) {
+            last--;
+        }
+        int digits = last - first + 1;
+        if (digits > 3 || !"987".startsWith(probe.substring(first, last + 1))) {
+            return new CachedSecond(epochSecond, text, CachedSecond.UNCACHEABLE, 0);
+        }
+        for (int i = first; i <= last; i++) {
+            if (text.charAt(i) != '0') {
+                return new CachedSecond(epochSecond, text, CachedSecond.UNCACHEABLE, 0);
+            }
+        }
+        return new CachedSecond(epochSecond, text, first, digits);
+    }
+
+    /**
+     * Rendered text of one second and where its millisecond digits are.
+     */
+    private static final class CachedSecond {
+        static final int CONSTANT = -1;
+        static final int UNCACHEABLE = -2;
+
+        final long epochSecond;
+        final String text;
+        final int millisOffset;
+        final int millisDigits;
+
+        CachedSecond(long epochSecond, String text, int millisOffset, int millisDigits) {
+            this.epochSecond = epochSecond;
+            this.text = text;
+            this.millisOffset = millisOffset;
+            this.millisDigits = millisDigits;
+        }
+    }
+}
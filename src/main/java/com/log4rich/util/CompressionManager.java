@@ -23,10 +23,12 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Manages external compression of log files.
+ * Manages compression of log files.
  * Supports configurable compression programs and arguments.
- * This class handles the execution of external compression programs
- * with timeout support and proper error handling.
+ * gzip compression runs inside the JVM with a {@link GzipCompressor}, so no
+ * process is forked and no gzip binary is needed; other programs are
+ * executed as external processes with timeout support and proper error
+ * handling.
  */
 public class CompressionManager {
     
@@ -37,6 +39,7 @@ public class CompressionManager {
     private final String program;
     private final String arguments;
     private final long timeoutMillis;
+    private final GzipCompressor gzipCompressor;
     
     /**
      * Creates a new CompressionManager with default settings.
@@ -55,9 +58,78 @@ public class CompressionManager {
      * @param timeoutMillis the timeout in milliseconds for compression operations
      */
     public CompressionManager(String program, String arguments, long timeoutMillis) {
+        this(program, arguments, timeoutMillis, -1, GzipCompressor.DEFAULT_BUFFER_SIZE, GzipCompressor.Strategy.DEFAULT);
+    }
+    
+    /**
+     * Creates a new CompressionManager with the specified settings and gzip
+     * tuning. The level, buffer size and strategy apply when the program is
+     * gzip, which then runs in-process on the calling thread.
+     * 
+     * @param program the compression program to use (e.g., "gzip", "bzip2", "xz")
+     * @param arguments additional arguments for the compression program
+     * @param timeoutMillis the timeout in milliseconds for external compression programs
+     * @param gzipLevel the gzip level from 0 to 9, or -1 to take it from the
+     *                  arguments ({@code -1} to {@code -9}, {@code --fast} or
+     *                  {@code --best}) and otherwise use the default
+     * @param gzipBufferSize the gzip read and write buffer size in bytes
+     * @param gzipStrategy the gzip deflate strategy; null selects DEFAULT
+     */
+    public CompressionManager(String program, String arguments, long timeoutMillis,
+                              int gzipLevel, int gzipBufferSize, GzipCompressor.Strategy gzipStrategy) {
+        this(program, arguments, timeoutMillis, gzipLevel, gzipBufferSize, gzipStrategy,
+             1, GzipCompressor.DEFAULT_BLOCK_SIZE);
+    }
+    
+    /**
+     * Creates a new CompressionManager with the specified settings and gzip
+     * tuning, compressing large files in parallel blocks when the program is
+     * gzip. See {@link GzipCompressor} for the block format.
+     * 
+     * @param program the compression program to use (e.g., "gzip", "bzip2", "xz")
+     * @param arguments additional arguments for the compression program
+     * @param timeoutMillis the timeout in milliseconds for external compression programs
+     * @param gzipLevel the gzip level from 0 to 9, or -1 to take it from the
+     *                  arguments ({@code -1} to {@code -9}, {@code --fast} or
+     *                  {@code --best}) and otherwise use the default
+     * @param gzipBufferSize the gzip read and write buffer size in bytes
+     * @param gzipStrategy the gzip deflate strategy; null selects DEFAULT
+     * @param gzipParallelism the most threads compressing one file; 1 compresses on the calling thread
+     * @param gzipBlockSize the size of the blocks compressed in parallel, in bytes
+     */
+    public CompressionManager(String program, String arguments, long timeoutMillis,
+                              int gzipLevel, int gzipBufferSize, GzipCompressor.Strategy gzipStrategy,
+                              int gzipParallelism, int gzipBlockSize) {
         this.program = program != null ? program : DEFAULT_PROGRAM;
         this.arguments = arguments != null ? arguments : DEFAULT_ARGS;
         this.timeoutMillis = timeoutMillis > 0 ? timeoutMillis : DEFAULT_TIMEOUT;
+        if ("gzip".equalsIgnoreCase(this.program.trim())) {
+            int level = gzipLevel >= 0 ? gzipLevel : levelFromArguments(this.arguments);
+            this.gzipCompressor = new GzipCompressor(level, gzipBufferSize, gzipStrategy,
+                                                     gzipParallelism, gzipBlockSize);
+        } else {
+            this.gzipCompressor = null;
+        }
+    }
+    
+    /**
+     * Gets the compression level given in gzip arguments.
+     * 
+     * @param arguments the gzip arguments
+     * @return the last level given, or the default level
+     */
+    private static int levelFromArguments(String arguments) {
+        int level = GzipCompressor.DEFAULT_LEVEL;
+        for (String arg : arguments.trim().split("\\s+")) {
+            if (arg.length() == 2 && arg.charAt(0) == '-' && arg.charAt(1) >= '1' && arg.charAt(1) <= '9') {
+                level = arg.charAt(1) - '0';
+            } else if (arg.equals("--fast")) {
+                level = 1;
+            } else if (arg.equals("--best")) {
+                level = 9;
+            }
+        }
+        return level;
     }
     
     /**
@@ -68,11 +140,42 @@ public class CompressionManager {
      * @return the compressed file, or the original file if compression failed
      */
     public File compressFile(File sourceFile) {
+        return compressFile(sourceFile, null);
+    }
+    
+    /**
+     * Compresses the specified file, pacing the work with a throttle. The
+     * in-process gzip compressor is paced as it reads the file; an external
+     * program cannot be, so the throttle is paced once it has finished,
+     * which spaces out the following compressions instead.
+     * 
+     * @param sourceFile the file to compress
+     * @param throttle the throttle to pace the compression with, or null
+     * @return the compressed file, or the original file if compression failed
+     */
+    public File compressFile(File sourceFile, CompressionThrottle throttle) {
         if (sourceFile == null || !sourceFile.exists()) {
             return sourceFile;
         }
         
+        if (gzipCompressor != null) {
+            try {
+                return gzipCompressor.compress(sourceFile, throttle);
+            } catch (IOException e) {
+                logError("IOException during compression of file: " + sourceFile.getName() + 
+                        ", error: " + e.getMessage());
+                return sourceFile;
+            }
+        }
+        
         try {
+            long sourceSize = sourceFile.length();
+            if (throttle != null) {
+                // Waits out a pause before the program starts
+                throttle.pace(0, 0);
+            }
+            long startTime = System.nanoTime();
+            
             // Build command
             List<String> command = buildCommand(sourceFile);
             
@@ -92,6 +195,9 @@ public class CompressionManager {
             }
             
             int exitCode = process.exitValue();
+            if (throttle != null) {
+                throttle.pace(sourceSize, System.nanoTime() - startTime);
+            }
             if (exitCode == 0) {
                 // Success - return the compressed file
                 File compressedFile = getCompressedFileName(sourceFile);
@@ -213,11 +319,15 @@ public class CompressionManager {
     
     /**
      * Checks if the compression program is available.
-     * Tests if the program can be executed by running it with --version.
+     * gzip is always available; other programs are tested by running
+     * them with --version.
      * 
      * @return true if the program can be executed, false otherwise
      */
     public boolean isProgramAvailable() {
+        if (gzipCompressor != null) {
+            return true;
+        }
         try {
             ProcessBuilder pb = new ProcessBuilder(program, "--version");
             Process process = pb.start();
@@ -261,4 +371,13 @@ public class CompressionManager {
     public long getTimeoutMillis() {
         return timeoutMillis;
     }
+    
+    /**
+     * Gets the compressor used when the program is gzip.
+     * 
+     * @return the gzip compressor, or null if another program is used
+     */
+    public GzipCompressor getGzipCompressor() {
+        return gzipCompressor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Paces background compression so it does not compete with the
+ * application for disk bandwidth and CPU.
+ *
+ * Compressions report their progress through {@link #pace(long, long)}
+ * after each chunk: the bytes they read and the time they spent on them.
+ * The throttle then makes the compressing thread wait so that:
+ * - all compressions together read at most the byte rate limit; the
+ *   limit is enforced by spacing chunks out, not by a burst allowance
+ * - each compressing thread is busy at most the CPU share of its time,
+ *   resting in proportion to the time it just spent; a file compressed in
+ *   parallel blocks counts as one thread, its blocks' time summed
+ * - no compression goes on while the throttle is paused
+ *
+ * The wait happens between chunks, so a paused or rate-limited
+ * compression holds on to its open files until it continues. Changes to
+ * the limits, {@link #resume()} and {@link #release()} wake waiting
+ * threads at once. An interrupted wait ends the compression with an
+ * {@link InterruptedIOException}.
+ *
+ * This class is thread-safe.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public class CompressionThrottle {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private volatile long maxBytesPerSecond;
+    private volatile int cpuPercent;
+    private volatile boolean paused;
+    private volatile boolean released;
+    private long nextSlotNanos;  // guarded by lock
+    private int limitChanges;  // guarded by lock
+    private long throttledNanos;  // guarded by lock
+
+    /**
+     * Creates a throttle that does not limit anything until configured.
+     */
+    public CompressionThrottle() {
+        this(0, 100);
+    }
+
+    /**
+     * Creates a throttle.
+     *
+     * @param maxBytesPerSecond the byte rate limit for all compressions
+     *                          together, or 0 for no limit
+     * @param cpuPercent the share of its time, from 1 to 100, that each
+     *                   compressing thread may be busy
+     */
+    public CompressionThrottle(long maxBytesPerSecond, int cpuPercent) {
+        this.maxBytesPerSecond = Math.max(0, maxBytesPerSecond);
+        this.cpuPercent = clampPercent(cpuPercent);
+        this.nextSlotNanos = System.nanoTime();
+    }
+
+    /**
+     * Reports a compressed chunk and waits as the limits require.
+     *
+     * @param bytes the bytes read for the chunk
+     * @param busyNanos the time spent on the chunk in nanoseconds
+     * @throws InterruptedIOException if the thread is interrupted while waiting
+     */
+    public void pace(long bytes, long busyNanos) throws InterruptedIOException {
+        if (released) {
+            return;
+        }
+        lock.lock();
+        try {
+            long start = System.nanoTime();
+
+            int percent = cpuPercent;
+            if (percent < 100 && busyNanos > 0) {
+                // Resting (100 - p) for every p spent keeps the thread busy p percent of the time
+                awaitUntil(start + busyNanos * (100 - percent) / percent);
+            }
+
+            long rate = maxBytesPerSecond;
+            if (rate > 0 && bytes > 0) {
+                long now = System.nanoTime();
+                long slot = Math.max(nextSlotNanos, now);
+                nextSlotNanos = slot + TimeUnit.SECONDS.toNanos(bytes) / rate;
+                awaitUntil(slot);
+            }
+
+            while (paused && !released) {
+                changed.await();
+            }
+            throttledNanos += System.nanoTime() - start;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compression was throttled");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a point in time, or until a change lifts the wait.
+     */
+    private void awaitUntil(long deadlineNanos) throws InterruptedException {
+        long remaining = deadlineNanos - System.nanoTime();
+        int changesAtStart = limitChanges;
+        while (remaining > 0 && !released) {
+            changed.awaitNanos(remaining);
+            if (limitChanges != changesAtStart) {
+                // New limits apply from the next chunk on
+                nextSlotNanos = System.nanoTime();
+                return;
+            }
+            remaining = deadlineNanos - System.nanoTime();
+        }
+    }
+
+    /**
+     * Pauses compressions at their next chunk until {@link #resume()}.
+     */
+    public void pause() {
+        paused = true;
+    }
+
+    /**
+     * Lets paused compressions continue.
+     */
+    public void resume() {
+        lock.lock();
+        try {
+            paused = false;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether compressions are paused.
+     *
+     * @return true while paused
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Lifts every limit for good, so that pending compressions finish as
+     * fast as they can, for example at shutdown.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            released = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the byte rate limit for all compressions together.
+     *
+     * @param maxBytesPerSecond the limit in bytes per second, or 0 for no limit
+     */
+    public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        lock.lock();
+        try {
+            this.maxBytesPerSecond = Math.max(0, maxBytesPerSecond);
+            limitChanges++;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the byte rate limit for all compressions together.
+     *
+     * @return the limit in bytes per second, or 0 for no limit
+     */
+    public long getMaxBytesPerSecond() {
+        return maxBytesPerSecond;
+    }
+
+    /**
+     * Sets the share of its time that each compressing thread may be busy.
+     *
+     * @param cpuPercent the share from 1 to 100; 100 does not limit
+     */
+    public void setCpuPercent(int cpuPercent) {
+        lock.lock();
+        try {
+            this.cpuPercent = clampPercent(cpuPercent);
+            limitChanges++;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the share of its time that each compressing thread may be busy.
+     *
+     * @return the share from 1 to 100
+     */
+    public int getCpuPercent() {
+        return cpuPercent;
+    }
+
+    /**
+     * Gets the total time compressions have waited on this throttle.
+     *
+     * @return the time in milliseconds
+     */
+    public long getThrottledMillis() {
+        lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(throttledNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int clampPercent(int percent) {
+        return Math.max(1, Math.min(100, percent));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CompressionThrottle[maxBytesPerSecond=%d, cpuPercent=%d, paused=%s]",
+                           maxBytesPerSecond, cpuPercent, paused);
+    }
+}
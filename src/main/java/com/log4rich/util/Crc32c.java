@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Computes CRC-32C (Castagnoli) checksums, as used by the journal format.
+ *
+ * This is the Java 8 implementation, a table lookup per byte. On Java 9 and
+ * later the multi-release jar replaces it with one that delegates to
+ * {@code java.util.zip.CRC32C}, which the JVM computes with dedicated CPU
+ * instructions where available. Both produce the same values.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public final class Crc32c {
+
+    private static final int POLYNOMIAL = 0x82F63B78;  // reversed Castagnoli polynomial
+    private static final int[] TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ POLYNOMIAL : crc >>> 1;
+            }
+            TABLE[i] = crc;
+        }
+    }
+
+    private Crc32c() {
+        // Utility class
+    }
+
+    /**
+     * Computes the checksum of a range of a buffer. The buffer's position
+     * and limit are not changed.
+     *
+     * @param buffer the buffer holding the bytes
+     * @param offset the absolute index of the first byte
+     * @param length the number of bytes
+     * @return the checksum
+     */
+    public static int compute(ByteBuffer buffer, int offset, int length) {
+        int crc = 0xFFFFFFFF;
+        int end = offset + length;
+        if (buffer.hasArray()) {
+            byte[] array = buffer.array();
+            int base = buffer.arrayOffset();
+            for (int i = offset; i < end; i++) {
+                crc = (crc >>> 8) ^ TABLE[(crc ^ array[base + i]) & 0xFF];
+            }
+        } else {
+            for (int i = offset; i < end; i++) {
+                crc = (crc >>> 8) ^ TABLE[(crc ^ buffer.get(i)) & 0xFF];
+            }
+        }
+        return ~crc;
+    }
+}
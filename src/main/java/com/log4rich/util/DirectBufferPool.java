@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide pool of direct byte buffers, grouped by capacity.
+ *
+ * Direct buffers are expensive to allocate and their native memory is only
+ * given back when the garbage collector gets around to the buffer object,
+ * so writers that are opened and closed repeatedly, such as the writer of a
+ * rolling file, take their buffers from here and return them on close. At
+ * most {@value #MAX_POOLED_PER_CAPACITY} idle buffers are kept per capacity;
+ * a buffer returned beyond that is freed at once where the platform allows.
+ *
+ * This class is thread-safe.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public final class DirectBufferPool {
+
+    private static final int MAX_POOLED_PER_CAPACITY = 32;
+
+    private static final ConcurrentHashMap<Integer, Shelf> SHELVES = new ConcurrentHashMap<>();
+
+    private DirectBufferPool() {
+        // Utility class
+    }
+
+    /**
+     * Takes a cleared direct buffer of the given capacity, allocating one if
+     * none is idle.
+     *
+     * @param capacity the buffer capacity in bytes
+     * @return a direct buffer in write mode
+     */
+    public static ByteBuffer acquire(int capacity) {
+        Shelf shelf = SHELVES.get(capacity);
+        ByteBuffer buffer = shelf != null ? shelf.buffers.poll() : null;
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        shelf.idle.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer taken from {@link #acquire(int)}. The caller must not
+     * use the buffer afterwards.
+     *
+     * @param buffer the buffer to return, or null
+     */
+    public static void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        Shelf shelf = SHELVES.computeIfAbsent(buffer.capacity(), capacity -> new Shelf());
+        if (shelf.idle.incrementAndGet() > MAX_POOLED_PER_CAPACITY) {
+            shelf.idle.decrementAndGet();
+            BufferCleaner.clean(buffer);
+            return;
+        }
+        shelf.buffers.offer(buffer);
+    }
+
+    /**
+     * Gets the number of idle buffers of a capacity.
+     *
+     * @param capacity the buffer capacity in bytes
+     * @return the number of pooled buffers
+     */
+    public static int getIdleCount(int capacity) {
+        Shelf shelf = SHELVES.get(capacity);
+        return shelf != null ? shelf.idle.get() : 0;
+    }
+
+    /**
+     * Idle buffers of one capacity.
+     */
+    private static final class Shelf {
+        final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+        final AtomicInteger idle = new AtomicInteger();
+    }
+}
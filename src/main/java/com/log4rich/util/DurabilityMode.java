@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+/**
+ * When a file appender forces written events to storage with an fsync.
+ * 
+ * Flushing only hands bytes to the operating system; they survive a crash
+ * of the JVM but not of the machine. The modes trade that gap against the
+ * cost of an fsync, which is shared through {@link GroupCommit}: one sync
+ * covers every write that completed before it started.
+ * 
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public enum DurabilityMode {
+    
+    /**
+     * Never sync; the operating system writes data back when it chooses.
+     */
+    NEVER("No fsync"),
+    
+    /**
+     * Sync at most once per sync interval, started by the first write after
+     * the interval has passed. No writer waits for the sync except the one
+     * that runs it.
+     */
+    INTERVAL("Fsync per interval"),
+    
+    /**
+     * Sync at the end of each batch: after every batch a batching appender
+     * writes, and after every batch the asynchronous logger hands to an
+     * appender. Writes outside a batch are synced as in INTERVAL mode.
+     */
+    BATCH("Fsync per batch"),
+    
+    /**
+     * Every write returns only once it is on storage. Writers arriving while
+     * a sync runs wait for the next one, which covers all of them.
+     */
+    EVENT("Fsync per event");
+    
+    private final String description;
+    
+    DurabilityMode(String description) {
+        this.description = description;
+    }
+    
+    /**
+     * Gets a human-readable description of this mode.
+     * 
+     * @return mode description
+     */
+    public String getDescription() {
+        return description;
+    }
+    
+    /**
+     * Parses a durability mode from a string (case-insensitive).
+     * 
+     * @param mode the mode name; null or empty selects NEVER
+     * @return the corresponding DurabilityMode
+     * @throws IllegalArgumentException if the mode is not recognized
+     */
+    public static DurabilityMode fromString(String mode) {
+        if (mode == null || mode.trim().isEmpty()) {
+            return NEVER;
+        }
+        
+        try {
+            return valueOf(mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                "Unknown durability mode: " + mode + 
+                ". Valid options: NEVER, INTERVAL, BATCH, EVENT"
+            );
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shares fsyncs between the writers of one file.
+ * 
+ * A writer takes a ticket after its bytes are written. Whoever finds no
+ * sync running becomes the leader: it notes the newest ticket, releases the
+ * lock and syncs, which makes every write with that ticket or an older one
+ * durable. Writers that arrive during the sync wait for it to finish; one
+ * of them then leads the next sync, covering everyone who queued up in the
+ * meantime. Under load, a burst of concurrent writers therefore pays for
+ * about two syncs instead of one each.
+ * 
+ * Appenders call {@link #written()} after each write, outside their own
+ * lock so that writes go on while a sync runs, and {@link #endOfBatch()}
+ * at batch boundaries. What the calls do depends on the
+ * {@link DurabilityMode}. The sync target must cover everything written
+ * before it is called, even if the appender has since moved to another
+ * file; appenders sync the old file themselves when they roll over.
+ * 
+ * This class is thread-safe.
+ * 
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public class GroupCommit {
+    
+    /**
+     * Forces written data to storage.
+     */
+    @FunctionalInterface
+    public interface Syncable {
+        
+        /**
+         * Forces everything written so far to storage.
+         * 
+         * @throws IOException if the sync fails
+         */
+        void sync() throws IOException;
+    }
+    
+    private final Syncable target;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition syncFinished = lock.newCondition();
+    private final AtomicLong tickets = new AtomicLong();
+    private final LongAdder syncCount = new LongAdder();
+    private volatile DurabilityMode mode;
+    private volatile long syncIntervalMillis;
+    private volatile long lastSyncTime;
+    private volatile long durableTicket;  // written under lock
+    private boolean syncing;  // guarded by lock
+    
+    /**
+     * Creates a group commit for a sync target.
+     * 
+     * @param target forces the file to storage
+     * @param mode when writes are synced
+     * @param syncIntervalMillis the longest time between syncs in the
+     *                           INTERVAL and BATCH modes
+     */
+    public GroupCommit(Syncable target, DurabilityMode mode, long syncIntervalMillis) {
+        this.target = target;
+        this.mode = mode != null ? mode : DurabilityMode.NEVER;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.lastSyncTime = System.currentTimeMillis();
+    }
+    
+    /**
+     * Records a completed write. In EVENT mode this returns once the write
+     * is on storage; in the INTERVAL and BATCH modes it starts a sync if the
+     * interval has passed and none is running.
+     * 
+     * @throws IOException if a sync run by this thread fails
+     */
+    public void written() throws IOException {
+        DurabilityMode current = mode;
+        if (current == DurabilityMode.NEVER) {
+            return;
+        }
+        long ticket = tickets.incrementAndGet();
+        if (current == DurabilityMode.EVENT) {
+            awaitDurable(ticket);
+        } else if (intervalElapsed()) {
+            syncIfIdle();
+        }
+    }
+    
+    /**
+     * Marks the end of a batch. In BATCH mode this returns once every
+     * write recorded so far is on storage; in the other modes it does
+     * nothing.
+     * 
+     * @throws IOException if a sync run by this thread fails
+     */
+    public void endOfBatch() throws IOException {
+        if (mode == DurabilityMode.BATCH) {
+            awaitDurable(tickets.get());
+        }
+    }
+    
+    /**
+     * Forces every write recorded so far to storage, whatever the mode.
+     * 
+     * @throws IOException if a sync run by this thread fails
+     */
+    public void sync() throws IOException {
+        awaitDurable(tickets.incrementAndGet());
+    }
+    
+    private boolean intervalElapsed() {
+        return System.currentTimeMillis() - lastSyncTime >= syncIntervalMillis;
+    }
+    
+    /**
+     * Waits until a ticket is durable, leading syncs while none is running.
+     */
+    private void awaitDurable(long ticket) throws IOException {
+        if (durableTicket >= ticket) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durableTicket < ticket) {
+                if (syncing) {
+                    syncFinished.awaitUninterruptibly();
+                } else {
+                    runSync();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Runs a sync unless one is already running or another thread is about
+     * to start one. Used where nobody waits for the result.
+     */
+    private void syncIfIdle() throws IOException {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            // The sync that just finished may have made this one unnecessary
+            if (!syncing && intervalElapsed()) {
+                runSync();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Syncs the target with the lock released, so that writers can queue up
+     * for the next sync meanwhile. Must be called with the lock held and no
+     * sync running; returns with the lock held.
+     */
+    private void runSync() throws IOException {
+        syncing = true;
+        long covered = tickets.get();
+        boolean synced = false;
+        lock.unlock();
+        try {
+            target.sync();
+            synced = true;
+        } finally {
+            lock.lock();
+            syncing = false;
+            if (synced) {
+                if (covered > durableTicket) {
+                    durableTicket = covered;
+                }
+                lastSyncTime = System.currentTimeMillis();
+                syncCount.increment();
+            }
+            // On failure a waiter takes over and tries again
+            syncFinished.signalAll();
+        }
+    }
+    
+    /**
+     * Gets the durability mode.
+     * 
+     * @return the mode
+     */
+    public DurabilityMode getMode() {
+        return mode;
+    }
+    
+    /**
+     * Sets the durability mode. Writes recorded before the change keep the
+     * durability they were given.
+     * 
+     * @param mode the mode; null selects NEVER
+     */
+    public void setMode(DurabilityMode mode) {
+        this.mode = mode != null ? mode : DurabilityMode.NEVER;
+    }
+    
+    /**
+     * Gets the longest time between syncs in the INTERVAL and BATCH modes.
+     * 
+     * @return the interval in milliseconds
+     */
+    public long getSyncInterval() {
+        return syncIntervalMillis;
+    }
+    
+    /**
+     * Sets the longest time between syncs in the INTERVAL and BATCH modes.
+     * 
+     * @param syncIntervalMillis the interval in milliseconds
+     */
+    public void setSyncInterval(long syncIntervalMillis) {
+        this.syncIntervalMillis = Math.max(0, syncIntervalMillis);
+    }
+    
+    /**
+     * Gets the number of completed syncs.
+     * 
+     * @return the sync count
+     */
+    public long getSyncCount() {
+        return syncCount.sum();
+    }
+}
@@ -0,0 +1,564 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses files to the gzip format inside the JVM.
+ *
+ * The output is what {@code gzip} produces: {@code name.gz} next to the
+ * source, with the source's modification time, and the source deleted once
+ * the compressed file is complete. It is written to a temporary file, synced
+ * and renamed, so a crash never leaves a truncated {@code .gz} behind.
+ *
+ * Each thread keeps its {@link Deflater}, checksum and byte arrays between
+ * files, and the file data passes through direct buffers from the
+ * {@link DirectBufferPool}; compressing a file allocates nothing per block.
+ * The deflater's native memory (a few hundred KB at level 9) stays with the
+ * thread, which suits the small, long-lived compression pools.
+ *
+ * With a parallelism above one, files larger than the block size are
+ * compressed the way {@code pigz} does: the file is split into blocks that
+ * are deflated independently on a fork-join pool of at most that many
+ * threads, and each block is written, in order, as a gzip member of its
+ * own. A file of several members is a standard {@code .gz} that gzip and
+ * {@link java.util.zip.GZIPInputStream} read as one; each block compresses
+ * without the history of the previous one, which costs a little ratio. At
+ * most two blocks per thread are in memory at a time. The pool is created
+ * on first use and its threads exit when idle.
+ *
+ * A {@link CompressionThrottle} passed to {@link #compress(File, CompressionThrottle)}
+ * is paced after every buffer read, or with parallel blocks after every
+ * block written, with the pool thread's time on it, so that one file's
+ * pool is held to the CPU share of a single thread.
+ *
+ * This class is thread-safe.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public final class GzipCompressor {
+
+    /** Default compression level, the same as {@code gzip -6}. */
+    public static final int DEFAULT_LEVEL = 6;
+    /** Default size of the read and write buffers. */
+    public static final int DEFAULT_BUFFER_SIZE = 65536;
+    /** Default size of the blocks compressed in parallel. */
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final int MIN_BLOCK_SIZE = 64 * 1024;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int FLAG_NAME = 8;
+    private static final int OS_UNKNOWN = 255;
+    private static final int TRAILER_SIZE = 8;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final ThreadLocal<Engine> ENGINES = ThreadLocal.withInitial(Engine::new);
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    private final int level;
+    private final int bufferSize;
+    private final Strategy strategy;
+    private final int parallelism;
+    private final int blockSize;
+    private volatile ForkJoinPool pool;
+
+    /**
+     * Deflate strategies; see {@link Deflater}.
+     */
+    public enum Strategy {
+        /** The standard mix of string matching and Huffman coding. */
+        DEFAULT(Deflater.DEFAULT_STRATEGY),
+        /** Favours Huffman coding, for data of small, somewhat random values. */
+        FILTERED(Deflater.FILTERED),
+        /** Huffman coding only: fastest, with the least compression. */
+        HUFFMAN_ONLY(Deflater.HUFFMAN_ONLY);
+
+        private final int value;
+
+        Strategy(int value) {
+            this.value = value;
+        }
+
+        /**
+         * Parses a strategy name (case-insensitive).
+         *
+         * @param name DEFAULT, FILTERED or HUFFMAN_ONLY; null or empty selects DEFAULT
+         * @return the strategy
+         * @throws IllegalArgumentException if the name is not recognized
+         */
+        public static Strategy fromString(String name) {
+            if (name == null || name.trim().isEmpty()) {
+                return DEFAULT;
+            }
+            try {
+                return valueOf(name.trim().toUpperCase().replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                    "Unknown compression strategy: " + name + ". Valid options: DEFAULT, FILTERED, HUFFMAN_ONLY");
+            }
+        }
+    }
+
+    /**
+     * Creates a compressor with the default level, buffer size and strategy.
+     */
+    public GzipCompressor() {
+        this(DEFAULT_LEVEL, DEFAULT_BUFFER_SIZE, Strategy.DEFAULT);
+    }
+
+    /**
+     * Creates a compressor that compresses on the calling thread.
+     *
+     * @param level the compression level from 0 (stored) to 9 (smallest);
+     *              out-of-range values select {@link #DEFAULT_LEVEL}
+     * @param bufferSize the size of the read and write buffers in bytes; at least 4KB
+     * @param strategy the deflate strategy; null selects DEFAULT
+     */
+    public GzipCompressor(int level, int bufferSize, Strategy strategy) {
+        this(level, bufferSize, strategy, 1, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a compressor that splits large files into blocks compressed
+     * in parallel.
+     *
+     * @param level the compression level from 0 (stored) to 9 (smallest);
+     *              out-of-range values select {@link #DEFAULT_LEVEL}
+     * @param bufferSize the size of the read and write buffers in bytes; at least 4KB
+     * @param strategy the deflate strategy; null selects DEFAULT
+     * @param parallelism the most threads compressing one file; 1 compresses
+     *                    on the calling thread
+     * @param blockSize the size of the blocks in bytes, at least 64KB; files
+     *                  no larger than one block are compressed on the calling thread
+     */
+    public GzipCompressor(int level, int bufferSize, Strategy strategy, int parallelism, int blockSize) {
+        this.level = level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION ? level : DEFAULT_LEVEL;
+        this.bufferSize = Math.max(4096, bufferSize);
+        this.strategy = strategy != null ? strategy : Strategy.DEFAULT;
+        this.parallelism = Math.max(1, parallelism);
+        this.blockSize = Math.max(MIN_BLOCK_SIZE, blockSize);
+    }
+
+    /**
+     * Compresses a file to {@code name.gz} and deletes it.
+     *
+     * @param source the file to compress
+     * @return the compressed file
+     * @throws IOException if the file cannot be read or the compressed file
+     *         written; the source is then left in place
+     */
+    public File compress(File source) throws IOException {
+        return compress(source, null);
+    }
+
+    /**
+     * Compresses a file to {@code name.gz} and deletes it, pacing the work
+     * with a throttle.
+     *
+     * @param source the file to compress
+     * @param throttle the throttle to pace the compression with, or null
+     * @return the compressed file
+     * @throws IOException if the file cannot be read or the compressed file
+     *         written, or the throttled thread is interrupted; the source is
+     *         then left in place
+     */
+    public File compress(File source, CompressionThrottle throttle) throws IOException {
+        File target = new File(source.getParentFile(), source.getName() + ".gz");
+        File temp = new File(source.getParentFile(), target.getName() + TEMP_SUFFIX);
+        long lastModified = source.lastModified();
+
+        boolean complete = false;
+        try {
+            try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE,
+                         StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long size = in.size();
+                if (parallelism > 1 && size > blockSize) {
+                    compressBlocks(in, size, out, source.getName(), lastModified, throttle);
+                } else {
+                    ENGINES.get().compress(in, out, source.getName(), lastModified, this, throttle);
+                }
+                out.force(false);
+            }
+            try {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                           StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            complete = true;
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(temp.toPath());
+            }
+        }
+
+        if (lastModified > 0 && !target.setLastModified(lastModified)) {
+            System.err.println("Warning: Failed to set modification time of " + target.getName());
+        }
+        if (!source.delete()) {
+            System.err.println("Warning: Failed to delete uncompressed file: " + source.getName());
+        }
+        return target;
+    }
+
+    /**
+     * Compresses the blocks of a file on the pool and writes the members in
+     * order, keeping at most two blocks per thread in flight. The throttle
+     * is paced as each member is written, with the time a pool thread spent
+     * compressing its block, and holds back the next block handed to the
+     * pool. The CPU share therefore limits the pool as a whole, not each of
+     * its threads.
+     */
+    private void compressBlocks(FileChannel in, long size, FileChannel out, String name, long lastModified,
+                                CompressionThrottle throttle) throws IOException {
+        ForkJoinPool blockPool = getPool();
+        Deque<Future<CompressedBlock>> inFlight = new ArrayDeque<>();
+        try {
+            for (long offset = 0; offset < size; offset += blockSize) {
+                long blockOffset = offset;
+                int length = (int) Math.min(blockSize, size - offset);
+                // Only the first member names the original file, as in pigz output
+                String memberName = offset == 0 ? name : null;
+                inFlight.addLast(blockPool.submit(() -> {
+                    long start = System.nanoTime();
+                    byte[] member = ENGINES.get().compressBlock(in, blockOffset, length, memberName, lastModified, this);
+                    return new CompressedBlock(member, length, System.nanoTime() - start);
+                }));
+                if (inFlight.size() >= 2 * parallelism) {
+                    writeMember(out, inFlight.removeFirst(), throttle);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                writeMember(out, inFlight.removeFirst(), throttle);
+            }
+        } finally {
+            for (Future<CompressedBlock> future : inFlight) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private static void writeMember(FileChannel out, Future<CompressedBlock> pending,
+                                    CompressionThrottle throttle) throws IOException {
+        CompressedBlock block;
+        try {
+            block = pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Block compression failed: " + cause, cause);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(block.member);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        if (throttle != null) {
+            throttle.pace(block.length, block.busyNanos);
+        }
+    }
+
+    private ForkJoinPool getPool() {
+        ForkJoinPool current = pool;
+        if (current == null) {
+            synchronized (this) {
+                current = pool;
+                if (current == null) {
+                    String prefix = "log4Rich-gzip-" + POOL_COUNT.incrementAndGet() + "-";
+                    current = new ForkJoinPool(parallelism, forkJoinPool -> {
+                        ForkJoinWorkerThread thread =
+                            ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                        thread.setName(prefix + thread.getPoolIndex());
+                        thread.setDaemon(true);
+                        thread.setPriority(Thread.NORM_PRIORITY - 1); // Lower priority than logging
+                        return thread;
+                    }, null, false);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Gets the compression level.
+     *
+     * @return the level from 0 to 9
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the size of the read and write buffers.
+     *
+     * @return the buffer size in bytes
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Gets the deflate strategy.
+     *
+     * @return the strategy
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Gets the most threads compressing one file.
+     *
+     * @return the parallelism; 1 when files are compressed on the calling thread
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Gets the size of the blocks compressed in parallel.
+     *
+     * @return the block size in bytes
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GzipCompressor[level=%d, bufferSize=%d, strategy=%s, parallelism=%d, blockSize=%d]",
+                           level, bufferSize, strategy, parallelism, blockSize);
+    }
+
+    /**
+     * A block compressed on the pool, with the time it took.
+     */
+    private static final class CompressedBlock {
+        final byte[] member;
+        final int length;  // uncompressed
+        final long busyNanos;
+
+        CompressedBlock(byte[] member, int length, long busyNanos) {
+            this.member = member;
+            this.length = length;
+            this.busyNanos = busyNanos;
+        }
+    }
+
+    /**
+     * Compression state reused by one thread across files and blocks.
+     */
+    private static final class Engine {
+        private final Deflater deflater = new Deflater(DEFAULT_LEVEL, true);
+        private final CRC32 crc = new CRC32();
+        private byte[] input = new byte[0];
+        private byte[] output = new byte[0];
+        private byte[] member = new byte[0];
+        private int memberLength;
+
+        /**
+         * Compresses a whole file as a single member.
+         */
+        void compress(FileChannel in, FileChannel out, String name, long lastModified,
+                      GzipCompressor settings, CompressionThrottle throttle) throws IOException {
+            ByteBuffer writeBuffer = DirectBufferPool.acquire(settings.bufferSize);
+            try {
+                writeHeader(writeBuffer, name, lastModified, settings.level);
+                deflate(in, 0, Long.MAX_VALUE, settings, throttle, (bytes, length) -> {
+                    int offset = 0;
+                    while (offset < length) {
+                        int count = Math.min(length - offset, writeBuffer.remaining());
+                        writeBuffer.put(bytes, offset, count);
+                        offset += count;
+                        if (!writeBuffer.hasRemaining()) {
+                            writeFully(out, writeBuffer);
+                        }
+                    }
+                });
+                if (writeBuffer.remaining() < TRAILER_SIZE) {
+                    writeFully(out, writeBuffer);
+                }
+                writeTrailer(writeBuffer);
+                writeFully(out, writeBuffer);
+            } finally {
+                DirectBufferPool.release(writeBuffer);
+            }
+        }
+
+        /**
+         * Compresses one block of a file as a complete member.
+         *
+         * @return the member's bytes
+         */
+        byte[] compressBlock(FileChannel in, long offset, int length, String name, long lastModified,
+                             GzipCompressor settings) throws IOException {
+            ByteBuffer header = ByteBuffer.wrap(ensureMember(0, settings.bufferSize));
+            writeHeader(header, name, lastModified, settings.level);
+            memberLength = header.position();
+            deflate(in, offset, length, settings, null, (bytes, count) -> {
+                ensureMember(memberLength, count);
+                System.arraycopy(bytes, 0, member, memberLength, count);
+                memberLength += count;
+            });
+            ByteBuffer trailer = ByteBuffer.wrap(ensureMember(memberLength, TRAILER_SIZE), memberLength, TRAILER_SIZE);
+            writeTrailer(trailer);
+            return Arrays.copyOf(member, memberLength + TRAILER_SIZE);
+        }
+
+        private byte[] ensureMember(int used, int extra) {
+            if (member.length - used < extra) {
+                member = Arrays.copyOf(member, Math.max(used + extra, member.length * 2));
+            }
+            return member;
+        }
+
+        /**
+         * Deflates a range of a file with positional reads, which leave the
+         * channel position alone so blocks can be read concurrently, and
+         * passes the compressed bytes to the sink. A throttle is paced after
+         * each read.
+         */
+        private void deflate(FileChannel in, long offset, long length, GzipCompressor settings,
+                             CompressionThrottle throttle, Sink sink) throws IOException {
+            int bufferSize = settings.bufferSize;
+            if (input.length != bufferSize) {
+                input = new byte[bufferSize];
+                output = new byte[bufferSize];
+            }
+            deflater.reset();
+            deflater.setLevel(settings.level);
+            deflater.setStrategy(settings.strategy.value);
+            crc.reset();
+
+            ByteBuffer readBuffer = DirectBufferPool.acquire(bufferSize);
+            try {
+                long position = offset;
+                long end = length == Long.MAX_VALUE ? Long.MAX_VALUE : offset + length;
+                long busySince = System.nanoTime();
+                while (position < end) {
+                    readBuffer.clear();
+                    if (end - position < bufferSize) {
+                        readBuffer.limit((int) (end - position));
+                    }
+                    int read = in.read(readBuffer, position);
+                    if (read < 0) {
+                        break;
+                    }
+                    if (read == 0) {
+                        continue;
+                    }
+                    position += read;
+                    readBuffer.flip();
+                    readBuffer.get(input, 0, read);
+                    crc.update(input, 0, read);
+                    deflater.setInput(input, 0, read);
+                    while (!deflater.needsInput()) {
+                        drain(sink);
+                    }
+                    if (throttle != null) {
+                        throttle.pace(read, System.nanoTime() - busySince);
+                        busySince = System.nanoTime();
+                    }
+                }
+                deflater.finish();
+                while (!deflater.finished()) {
+                    drain(sink);
+                }
+            } finally {
+                DirectBufferPool.release(readBuffer);
+            }
+        }
+
+        private void drain(Sink sink) throws IOException {
+            int length = deflater.deflate(output, 0, output.length);
+            if (length > 0) {
+                sink.accept(output, length);
+            }
+        }
+
+        private void writeTrailer(ByteBuffer buffer) {
+            writeIntLE(buffer, (int) crc.getValue());
+            writeIntLE(buffer, (int) deflater.getBytesRead());
+        }
+
+        private static void writeHeader(ByteBuffer buffer, String name, long lastModified, int level) {
+            buffer.put((byte) GZIP_MAGIC);
+            buffer.put((byte) (GZIP_MAGIC >> 8));
+            buffer.put((byte) Deflater.DEFLATED);
+            // The original name lets "gzip -dN" restore it, as for files gzip compressed
+            byte[] nameBytes = name != null ? name.getBytes(StandardCharsets.ISO_8859_1) : null;
+            boolean withName = nameBytes != null && nameBytes.length < buffer.remaining() - 16;
+            buffer.put((byte) (withName ? FLAG_NAME : 0));
+            writeIntLE(buffer, (int) (lastModified / 1000));
+            buffer.put((byte) (level == Deflater.BEST_COMPRESSION ? 2 : level == Deflater.BEST_SPEED ? 4 : 0));
+            buffer.put((byte) OS_UNKNOWN);
+            if (withName) {
+                buffer.put(nameBytes);
+                buffer.put((byte) 0);
+            }
+        }
+
+        private static void writeIntLE(ByteBuffer buffer, int value) {
+            buffer.put((byte) value);
+            buffer.put((byte) (value >> 8));
+            buffer.put((byte) (value >> 16));
+            buffer.put((byte) (value >> 24));
+        }
+
+        private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Receives compressed bytes from the deflater's output array.
+     */
+    private interface Sink {
+        void accept(byte[] bytes, int length) throws IOException;
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import com.log4rich.core.LogLevel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a gzip file made of independently compressed blocks with an index
+ * of the events in each block, so readers can seek to a time window
+ * without decompressing the whole file. See {@link IndexedGzipReader}.
+ *
+ * The file is a standard multi-member gzip file: every block is a gzip
+ * member of whole events, and the index follows in empty gzip members
+ * that carry it in their extra field, as BGZF files carry their block
+ * sizes. gzip and {@link java.util.zip.GZIPInputStream} read it like any
+ * other {@code .gz} file. The last member is a fixed-size locator holding
+ * the offset of the index, so a reader finds the index from the end of
+ * the file.
+ *
+ * For each block the index records its offset and length, the lowest and
+ * highest event timestamps and the number of events per level. A block is
+ * closed at the first event that starts after it holds the block size of
+ * uncompressed bytes. The index and locator are written by
+ * {@link #close()}; a file that was not closed has readable blocks but no
+ * index.
+ *
+ * Callers announce each event with {@link #startEvent(long, LogLevel)}
+ * before writing its bytes. This class is not thread-safe.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public final class IndexedGzipOutputStream extends OutputStream {
+
+    /** Magic number of the locator, "LRIX". */
+    static final int LOCATOR_MAGIC = 0x4C524958;
+    /** Version of the index format. */
+    static final int FORMAT_VERSION = 1;
+    /** Extra field subfield id of index members. */
+    static final byte INDEX_ID1 = 'L';
+    static final byte INDEX_ID2 = 'I';
+    /** Extra field subfield id of the locator member. */
+    static final byte LOCATOR_ID1 = 'L';
+    static final byte LOCATOR_ID2 = 'X';
+    /** Number of level counts per block: TRACE, DEBUG, INFO, WARN, ERROR and FATAL. */
+    static final int LEVEL_BUCKETS = 6;
+    /** Size of one index entry. */
+    static final int ENTRY_SIZE = 8 + 4 + 8 + 8 + 4 + 4 * LEVEL_BUCKETS;
+    /** Size of the locator data: magic, version, index offset and block count. */
+    static final int LOCATOR_DATA_SIZE = 4 + 4 + 8 + 4;
+    /** Size of a member header with an extra field holding one subfield, without the data. */
+    static final int EXTRA_HEADER_SIZE = 10 + 2 + 4;
+    /** Size of the empty deflate stream and the trailer that end an empty member. */
+    static final int EMPTY_MEMBER_END_SIZE = 2 + 8;
+    /** Total size of the locator member at the end of the file. */
+    static final int LOCATOR_MEMBER_SIZE = EXTRA_HEADER_SIZE + LOCATOR_DATA_SIZE + EMPTY_MEMBER_END_SIZE;
+
+    private static final int MAX_SUBFIELD_DATA = 65535 - 4;
+    private static final int ENTRIES_PER_INDEX_MEMBER = MAX_SUBFIELD_DATA / ENTRY_SIZE;
+    private static final int FLAG_EXTRA = 4;
+    private static final int OS_UNKNOWN = 255;
+    private static final byte[] BLOCK_HEADER = {
+        0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) OS_UNKNOWN
+    };
+    // A final fixed-Huffman block with no data
+    private static final byte[] EMPTY_DEFLATE = {0x03, 0x00};
+
+    private final OutputStream out;
+    private final int blockSize;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] input;
+    private final byte[] output;
+    private int buffered;
+
+    private long position;
+    private boolean blockOpen;
+    private long blockOffset;
+    private long blockBytes;
+    private long minTimestamp;
+    private long maxTimestamp;
+    private int eventCount;
+    private final int[] levelCounts = new int[LEVEL_BUCKETS];
+    private ByteBuffer index = ByteBuffer.allocate(ENTRY_SIZE * 64).order(ByteOrder.LITTLE_ENDIAN);
+    private int blockCount;
+    private boolean closed;
+
+    /**
+     * Creates an indexed gzip stream.
+     *
+     * @param out the stream the file is written to
+     * @param startOffset the file offset {@code out} writes at, such as the
+     *                    length of a file opened for appending
+     * @param bufferSize the size of the input and output buffers in bytes
+     * @param level the compression level from 0 to 9
+     * @param blockSize the uncompressed bytes after which a block is closed
+     */
+    public IndexedGzipOutputStream(OutputStream out, long startOffset, int bufferSize, int level, int blockSize) {
+        this.out = out;
+        this.position = startOffset;
+        this.blockSize = Math.max(4096, blockSize);
+        this.deflater = new Deflater(level, true);
+        this.input = new byte[Math.max(512, bufferSize)];
+        this.output = new byte[Math.max(512, bufferSize)];
+    }
+
+    /**
+     * Announces an event whose bytes are written next. Closes the current
+     * block first if it holds the block size.
+     *
+     * @param timestamp the event timestamp in milliseconds
+     * @param level the event level
+     * @throws IOException if closing the block fails
+     */
+    public void startEvent(long timestamp, LogLevel level) throws IOException {
+        ensureOpen();
+        if (blockOpen && blockBytes >= blockSize) {
+            finishBlock();
+        }
+        if (!blockOpen) {
+            startBlock();
+        }
+        if (eventCount == 0 || timestamp < minTimestamp) {
+            minTimestamp = timestamp;
+        }
+        if (eventCount == 0 || timestamp > maxTimestamp) {
+            maxTimestamp = timestamp;
+        }
+        eventCount++;
+        levelCounts[levelBucket(level)]++;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        if (!blockOpen) {
+            startBlock();
+        }
+        blockBytes += length;
+        while (length > 0) {
+            int count = Math.min(length, input.length - buffered);
+            System.arraycopy(bytes, offset, input, buffered, count);
+            buffered += count;
+            offset += count;
+            length -= count;
+            if (buffered == input.length) {
+                deflateBuffered();
+            }
+        }
+    }
+
+    /**
+     * Writes everything written so far to the underlying stream without
+     * ending the block: the compressor is sync-flushed, so the bytes can be
+     * decompressed from the file while the block keeps its history.
+     *
+     * @throws IOException if writing fails
+     */
+    public void syncFlush() throws IOException {
+        ensureOpen();
+        if (blockOpen) {
+            deflateBuffered();
+            int length;
+            do {
+                length = deflater.deflate(output, 0, output.length, Deflater.SYNC_FLUSH);
+                writeOut(output, length);
+            } while (length == output.length);
+        }
+        out.flush();
+    }
+
+    /**
+     * Flushes the underlying stream only; bytes held by the compressor stay
+     * there. Use {@link #syncFlush()} to make them readable.
+     *
+     * @throws IOException if flushing fails
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Closes the current block, writes the index and the locator, and
+     * closes the underlying stream.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (blockOpen) {
+                finishBlock();
+            }
+            long indexOffset = position;
+            index.flip();
+            while (index.hasRemaining()) {
+                int length = Math.min(index.remaining(), ENTRIES_PER_INDEX_MEMBER * ENTRY_SIZE);
+                writeExtraMember(INDEX_ID1, INDEX_ID2, index.array(), index.position(), length);
+                index.position(index.position() + length);
+            }
+            ByteBuffer locator = ByteBuffer.allocate(LOCATOR_DATA_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            locator.putInt(LOCATOR_MAGIC).putInt(FORMAT_VERSION).putLong(indexOffset).putInt(blockCount);
+            writeExtraMember(LOCATOR_ID1, LOCATOR_ID2, locator.array(), 0, LOCATOR_DATA_SIZE);
+            out.flush();
+        } finally {
+            closed = true;
+            deflater.end();
+            out.close();
+        }
+    }
+
+    /**
+     * Gets the number of blocks written so far, including the open one.
+     *
+     * @return the block count
+     */
+    public int getBlockCount() {
+        return blockCount + (blockOpen ? 1 : 0);
+    }
+
+    /**
+     * Maps a level to its count in an index entry; CRITICAL counts as FATAL.
+     *
+     * @param level the level
+     * @return the index of the count
+     */
+    static int levelBucket(LogLevel level) {
+        int value = level != null ? level.getValue() : LogLevel.INFO.getValue();
+        if (value <= LogLevel.TRACE.getValue()) {
+            return 0;
+        }
+        return Math.min(LEVEL_BUCKETS - 1, value / 100 - 1);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+    }
+
+    private void startBlock() throws IOException {
+        deflater.reset();
+        crc.reset();
+        blockOffset = position;
+        blockBytes = 0;
+        eventCount = 0;
+        Arrays.fill(levelCounts, 0);
+        writeOut(BLOCK_HEADER, BLOCK_HEADER.length);
+        blockOpen = true;
+    }
+
+    private void deflateBuffered() throws IOException {
+        if (buffered == 0) {
+            return;
+        }
+        crc.update(input, 0, buffered);
+        deflater.setInput(input, 0, buffered);
+        while (!deflater.needsInput()) {
+            writeOut(output, deflater.deflate(output, 0, output.length));
+        }
+        buffered = 0;
+    }
+
+    private void finishBlock() throws IOException {
+        deflateBuffered();
+        deflater.finish();
+        while (!deflater.finished()) {
+            writeOut(output, deflater.deflate(output, 0, output.length));
+        }
+        byte[] trailer = new byte[8];
+        ByteBuffer.wrap(trailer).order(ByteOrder.LITTLE_ENDIAN)
+            .putInt((int) crc.getValue())
+            .putInt((int) deflater.getBytesRead());
+        writeOut(trailer, trailer.length);
+        blockOpen = false;
+
+        if (index.remaining() < ENTRY_SIZE) {
+            ByteBuffer grown = ByteBuffer.allocate(index.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+            index.flip();
+            grown.put(index);
+            index = grown;
+        }
+        index.putLong(blockOffset);
+        index.putInt((int) (position - blockOffset));
+        index.putLong(minTimestamp);
+        index.putLong(maxTimestamp);
+        index.putInt(eventCount);
+        for (int count : levelCounts) {
+            index.putInt(count);
+        }
+        blockCount++;
+    }
+
+    /**
+     * Writes an empty gzip member whose extra field holds one subfield.
+     */
+    private void writeExtraMember(byte id1, byte id2, byte[] data, int offset, int length) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(EXTRA_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(BLOCK_HEADER, 0, 3);
+        header.put((byte) FLAG_EXTRA);
+        header.putInt(0);
+        header.put((byte) 0);
+        header.put((byte) OS_UNKNOWN);
+        header.putShort((short) (4 + length));
+        header.put(id1).put(id2);
+        header.putShort((short) length);
+        writeOut(header.array(), EXTRA_HEADER_SIZE);
+        out.write(data, offset, length);
+        position += length;
+        writeOut(EMPTY_DEFLATE, EMPTY_DEFLATE.length);
+        // CRC and size of the empty content
+        writeOut(new byte[8], 8);
+    }
+
+    private void writeOut(byte[] bytes, int length) throws IOException {
+        if (length > 0) {
+            out.write(bytes, 0, length);
+            position += length;
+        }
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import com.log4rich.core.LogLevel;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the index of a file written by {@link IndexedGzipOutputStream} and
+ * decompresses only the blocks that hold a time window.
+ *
+ * The index is found from the locator at the end of the file, so opening a
+ * reader costs two small reads however large the file is. A file without
+ * a locator, such as a plain gzip file or an indexed file whose writer did
+ * not close it, has no index; {@link #hasIndex()} returns false and the
+ * file can still be read whole with {@link GZIPInputStream}.
+ *
+ * Blocks are matched on their lowest and highest event timestamps, so a
+ * block returned for a window may also hold events just outside it;
+ * callers filter the decompressed events. Streams opened by this reader
+ * read the file with positional reads and must be closed before the
+ * reader. This class is not thread-safe.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public class IndexedGzipReader implements Closeable {
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    private final File file;
+    private final FileChannel channel;
+    private final List<Block> blocks;
+
+    /**
+     * Opens a file and reads its index.
+     *
+     * @param file the file to read
+     * @throws IOException if the file cannot be read or its index is corrupt
+     */
+    public IndexedGzipReader(File file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            this.blocks = readIndex();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether the file has an index.
+     *
+     * @return true if the file ends with a locator
+     */
+    public boolean hasIndex() {
+        return blocks != null;
+    }
+
+    /**
+     * Gets all blocks in file order.
+     *
+     * @return the blocks; empty if the file has no index
+     */
+    public List<Block> getBlocks() {
+        return blocks != null ? Collections.unmodifiableList(blocks) : Collections.<Block>emptyList();
+    }
+
+    /**
+     * Finds the blocks that may hold events in a time window, in file order.
+     *
+     * @param fromTimestamp the start of the window in milliseconds, inclusive
+     * @param toTimestamp the end of the window in milliseconds, inclusive
+     * @return the blocks whose timestamp range overlaps the window
+     */
+    public List<Block> findBlocks(long fromTimestamp, long toTimestamp) {
+        List<Block> found = new ArrayList<>();
+        for (Block block : getBlocks()) {
+            if (block.eventCount > 0 && block.minTimestamp <= toTimestamp && block.maxTimestamp >= fromTimestamp) {
+                found.add(block);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Opens the decompressed content of one block.
+     *
+     * @param block a block of this file
+     * @return a stream of the block's events
+     * @throws IOException if the block cannot be read
+     */
+    public InputStream openBlock(Block block) throws IOException {
+        return new GZIPInputStream(new RangeInputStream(block.offset, block.length), STREAM_BUFFER_SIZE);
+    }
+
+    /**
+     * Opens the decompressed content of the blocks that may hold events in
+     * a time window, one after another.
+     *
+     * @param fromTimestamp the start of the window in milliseconds, inclusive
+     * @param toTimestamp the end of the window in milliseconds, inclusive
+     * @return a stream of the matching blocks' events
+     * @throws IOException if a block cannot be read
+     */
+    public InputStream openRange(long fromTimestamp, long toTimestamp) throws IOException {
+        List<InputStream> streams = new ArrayList<>();
+        try {
+            for (Block block : findBlocks(fromTimestamp, toTimestamp)) {
+                streams.add(openBlock(block));
+            }
+        } catch (IOException e) {
+            for (InputStream stream : streams) {
+                stream.close();
+            }
+            throw e;
+        }
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    /**
+     * Gets the file this reader reads.
+     *
+     * @return the file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads the locator at the end of the file and the index it points to.
+     *
+     * @return the blocks, or null if the file has no locator
+     */
+    private List<Block> readIndex() throws IOException {
+        long size = channel.size();
+        if (size < IndexedGzipOutputStream.LOCATOR_MEMBER_SIZE) {
+            return null;
+        }
+        ByteBuffer locator = read(size - IndexedGzipOutputStream.LOCATOR_MEMBER_SIZE,
+                                  IndexedGzipOutputStream.LOCATOR_MEMBER_SIZE);
+        if (!isExtraMember(locator, IndexedGzipOutputStream.LOCATOR_ID1, IndexedGzipOutputStream.LOCATOR_ID2)
+                || locator.getShort(14) != IndexedGzipOutputStream.LOCATOR_DATA_SIZE) {
+            return null;
+        }
+        locator.position(IndexedGzipOutputStream.EXTRA_HEADER_SIZE);
+        if (locator.getInt() != IndexedGzipOutputStream.LOCATOR_MAGIC) {
+            return null;
+        }
+        int version = locator.getInt();
+        if (version != IndexedGzipOutputStream.FORMAT_VERSION) {
+            throw new IOException("Unsupported index version " + version + " in " + file);
+        }
+        long indexOffset = locator.getLong();
+        int blockCount = locator.getInt();
+        long indexEnd = size - IndexedGzipOutputStream.LOCATOR_MEMBER_SIZE;
+        if (indexOffset < 0 || indexOffset > indexEnd || blockCount < 0) {
+            throw new IOException("Corrupt index locator in " + file);
+        }
+
+        List<Block> found = new ArrayList<>(blockCount);
+        long position = indexOffset;
+        while (found.size() < blockCount) {
+            if (indexEnd - position < IndexedGzipOutputStream.EXTRA_HEADER_SIZE) {
+                throw new IOException("Truncated index in " + file);
+            }
+            ByteBuffer header = read(position, IndexedGzipOutputStream.EXTRA_HEADER_SIZE);
+            if (!isExtraMember(header, IndexedGzipOutputStream.INDEX_ID1, IndexedGzipOutputStream.INDEX_ID2)) {
+                throw new IOException("Corrupt index member at offset " + position + " in " + file);
+            }
+            int length = header.getShort(14) & 0xFFFF;
+            if (length % IndexedGzipOutputStream.ENTRY_SIZE != 0
+                    || indexEnd - position < IndexedGzipOutputStream.EXTRA_HEADER_SIZE + length) {
+                throw new IOException("Corrupt index member at offset " + position + " in " + file);
+            }
+            ByteBuffer entries = read(position + IndexedGzipOutputStream.EXTRA_HEADER_SIZE, length);
+            while (entries.hasRemaining() && found.size() < blockCount) {
+                found.add(new Block(entries));
+            }
+            position += IndexedGzipOutputStream.EXTRA_HEADER_SIZE + length
+                      + IndexedGzipOutputStream.EMPTY_MEMBER_END_SIZE;
+        }
+        return found;
+    }
+
+    /**
+     * Checks that a buffer starts with a gzip member header whose extra
+     * field holds one subfield with the given id.
+     */
+    private static boolean isExtraMember(ByteBuffer header, byte id1, byte id2) {
+        return header.get(0) == (byte) 0x1f && header.get(1) == (byte) 0x8b
+            && (header.get(3) & 4) != 0
+            && (header.getShort(10) & 0xFFFF) == (header.getShort(14) & 0xFFFF) + 4
+            && header.get(12) == id1 && header.get(13) == id2;
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + file);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * One compressed block and the events it holds.
+     */
+    public static final class Block {
+        private final long offset;
+        private final int length;
+        private final long minTimestamp;
+        private final long maxTimestamp;
+        private final int eventCount;
+        private final int[] levelCounts = new int[IndexedGzipOutputStream.LEVEL_BUCKETS];
+
+        Block(ByteBuffer entry) {
+            this.offset = entry.getLong();
+            this.length = entry.getInt();
+            this.minTimestamp = entry.getLong();
+            this.maxTimestamp = entry.getLong();
+            this.eventCount = entry.getInt();
+            for (int i = 0; i < levelCounts.length; i++) {
+                levelCounts[i] = entry.getInt();
+            }
+        }
+
+        /**
+         * Gets the offset of the block's gzip member in the file.
+         *
+         * @return the offset in bytes
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * Gets the compressed length of the block.
+         *
+         * @return the length in bytes
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Gets the lowest event timestamp in the block.
+         *
+         * @return the timestamp in milliseconds
+         */
+        public long getMinTimestamp() {
+            return minTimestamp;
+        }
+
+        /**
+         * Gets the highest event timestamp in the block.
+         *
+         * @return the timestamp in milliseconds
+         */
+        public long getMaxTimestamp() {
+            return maxTimestamp;
+        }
+
+        /**
+         * Gets the number of events in the block.
+         *
+         * @return the event count
+         */
+        public int getEventCount() {
+            return eventCount;
+        }
+
+        /**
+         * Gets the number of events of a level in the block. CRITICAL and
+         * FATAL share one count.
+         *
+         * @param level the level
+         * @return the event count
+         */
+        public int getLevelCount(LogLevel level) {
+            return levelCounts[IndexedGzipOutputStream.levelBucket(level)];
+        }
+
+        /**
+         * Checks whether the block holds any event at or above a level.
+         *
+         * @param level the lowest level of interest
+         * @return true if such an event is in the block
+         */
+        public boolean hasLevel(LogLevel level) {
+            for (int i = IndexedGzipOutputStream.levelBucket(level); i < levelCounts.length; i++) {
+                if (levelCounts[i] > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Block[offset=%d, length=%d, events=%d, time=%d..%d]",
+                               offset, length, eventCount, minTimestamp, maxTimestamp);
+        }
+    }
+
+    /**
+     * Reads a range of the file with positional reads.
+     */
+    private final class RangeInputStream extends InputStream {
+        private long position;
+        private final long end;
+
+        RangeInputStream(long offset, long length) {
+            this.position = offset;
+            this.end = offset + length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int count = (int) Math.min(length, end - position);
+            int read = channel.read(ByteBuffer.wrap(bytes, offset, count), position);
+            if (read < 0) {
+                return -1;
+            }
+            position += read;
+            return read;
+        }
+    }
+}
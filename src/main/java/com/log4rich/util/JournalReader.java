@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the records of one journal segment, stopping at the first record
+ * that is torn, corrupt or not written yet. See {@link JournalRecord} for
+ * the format.
+ *
+ * {@link #findValidEnd(File)} is the recovery scan a journal appender runs
+ * at startup: it checks every record of a segment once, so it takes time
+ * proportional to the segment, and returns the offset just past the last
+ * complete record.
+ *
+ * The segment is mapped read-only while the reader is open. This class is
+ * not thread-safe.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public class JournalReader implements Closeable {
+
+    private final File segment;
+    private MappedByteBuffer buffer;
+    private final long sequence;
+    private int position;
+
+    /**
+     * Opens a segment for reading.
+     *
+     * @param segment the segment file
+     * @throws IOException if the file cannot be read or is larger than 2GB
+     */
+    public JournalReader(File segment) throws IOException {
+        this.segment = segment;
+        try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Journal segment too large: " + segment);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        this.sequence = JournalRecord.readSegmentHeader(buffer);
+        this.position = sequence >= 0 ? JournalRecord.SEGMENT_HEADER_SIZE : 0;
+    }
+
+    /**
+     * Lists the segments of a journal, oldest first.
+     *
+     * @param journal the journal file name the segments are named after
+     * @return the segment files in sequence order
+     */
+    public static List<File> listSegments(File journal) {
+        File parentDir = journal.getAbsoluteFile().getParentFile();
+        File[] files = parentDir != null
+                ? parentDir.listFiles(file -> JournalRecord.sequenceOf(journal, file) >= 0)
+                : null;
+        List<File> segments = new ArrayList<>();
+        if (files != null) {
+            for (File file : files) {
+                segments.add(file);
+            }
+        }
+        segments.sort((a, b) -> Long.compare(JournalRecord.sequenceOf(journal, a),
+                                             JournalRecord.sequenceOf(journal, b)));
+        return segments;
+    }
+
+    /**
+     * Finds the end of the valid records of a segment.
+     *
+     * @param segment the segment file
+     * @return the offset just past the last complete record, or -1 if the
+     *         segment has no valid header
+     * @throws IOException if the file cannot be read
+     */
+    public static long findValidEnd(File segment) throws IOException {
+        try (JournalReader reader = new JournalReader(segment)) {
+            if (!reader.hasValidHeader()) {
+                return -1;
+            }
+            while (reader.skip()) {
+                // Checks each record's checksum without decoding it
+            }
+            return reader.getValidLength();
+        }
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the event, or null at the end of the valid records
+     * @throws IOException if a record has a valid checksum but cannot be decoded
+     */
+    public LoggingEvent next() throws IOException {
+        int start = position;
+        if (!skip()) {
+            return null;
+        }
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(position);
+        payload.position(start + JournalRecord.RECORD_HEADER_SIZE);
+        try {
+            return JournalRecord.decode(payload);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Undecodable record at offset " + start + " of " + segment + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Moves past the next record if it is valid.
+     */
+    private boolean skip() {
+        if (buffer == null || sequence < 0) {
+            return false;
+        }
+        int size = JournalRecord.validate(buffer, position, buffer.capacity());
+        if (size < 0) {
+            return false;
+        }
+        position += size;
+        return true;
+    }
+
+    /**
+     * Checks whether the segment starts with a valid header.
+     *
+     * @return true if the header is valid
+     */
+    public boolean hasValidHeader() {
+        return sequence >= 0;
+    }
+
+    /**
+     * Gets the sequence number from the segment header.
+     *
+     * @return the sequence number, or -1 if the header is not valid
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the offset just past the last record read.
+     *
+     * @return the length of the valid part of the segment read so far
+     */
+    public long getValidLength() {
+        return position;
+    }
+
+    /**
+     * Checks whether the segment has bytes past the valid records other than
+     * the zeros of preallocated space, which means a torn or corrupt record.
+     * Meaningful once {@link #next()} has returned null.
+     *
+     * @return true if unreadable data follows the valid records
+     */
+    public boolean hasTrailingData() {
+        if (buffer == null) {
+            return false;
+        }
+        for (int i = position; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        if (buffer != null) {
+            BufferCleaner.clean(buffer);
+            buffer = null;
+        }
+    }
+}
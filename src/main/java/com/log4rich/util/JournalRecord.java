@@ -0,0 +1,421 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import com.log4rich.core.LogLevel;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The binary format of a log journal: segment files holding checksummed,
+ * length-prefixed records, one per logging event.
+ *
+ * A segment starts with a {@value #SEGMENT_HEADER_SIZE}-byte header: the
+ * magic number {@code L4RJ}, the format version, two reserved bytes and the
+ * segment's sequence number. Records follow back to back, each made of
+ * <pre>
+ *   int crc      CRC-32C of the length field and the payload
+ *   int length   payload length in bytes, always positive
+ *   payload      the event fields
+ * </pre>
+ * Integers are big-endian and strings are UTF-8 with an int length prefix,
+ * -1 for null. Segments are preallocated, so unwritten space reads as
+ * zeros; a zero length, a length running past the end of the segment or a
+ * checksum mismatch marks the end of the valid records. After a crash the
+ * last record may be torn, and this is how it is told apart.
+ *
+ * The payload keeps the event's data rather than formatted text: a
+ * parameterized message is stored as its pattern and rendered arguments,
+ * and a throwable as its class, message, stack frames and causes. Text is
+ * produced when the journal is read, see {@link JournalReader}.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public final class JournalRecord {
+
+    /** The magic number at the start of every segment, "L4RJ". */
+    public static final int SEGMENT_MAGIC = 0x4C34524A;
+    /** The format version written by this class. */
+    public static final short FORMAT_VERSION = 1;
+    /** The size of the segment header in bytes. */
+    public static final int SEGMENT_HEADER_SIZE = 16;
+    /** The size of the checksum and length fields in front of each payload. */
+    public static final int RECORD_HEADER_SIZE = 8;
+
+    private static final int FLAG_PARAMETERIZED = 1;
+    private static final int FLAG_LOCATION = 2;
+    private static final int FLAG_THROWABLE = 4;
+    private static final int MAX_CAUSE_DEPTH = 8;
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private JournalRecord() {
+        // Utility class
+    }
+
+    /**
+     * Gets the file of a segment.
+     *
+     * @param journal the journal file name the segments are named after
+     * @param sequence the segment sequence number
+     * @return the segment file, the journal name followed by the zero-padded sequence
+     */
+    public static File segmentFile(File journal, long sequence) {
+        return new File(journal.getPath() + "." + String.format("%010d", sequence));
+    }
+
+    /**
+     * Gets the sequence number of a segment from its file name.
+     *
+     * @param journal the journal file name the segments are named after
+     * @param segment a file in the journal's directory
+     * @return the sequence number, or -1 if the file is not a segment of the journal
+     */
+    public static long sequenceOf(File journal, File segment) {
+        String prefix = journal.getName() + ".";
+        String name = segment.getName();
+        if (!name.startsWith(prefix) || name.length() == prefix.length()) {
+            return -1;
+        }
+        for (int i = prefix.length(); i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return -1;
+            }
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Writes a segment header at the buffer's position.
+     *
+     * @param buffer the buffer, with at least {@value #SEGMENT_HEADER_SIZE} bytes remaining
+     * @param sequence the segment sequence number
+     */
+    public static void writeSegmentHeader(ByteBuffer buffer, long sequence) {
+        buffer.putInt(SEGMENT_MAGIC);
+        buffer.putShort(FORMAT_VERSION);
+        buffer.putShort((short) 0);
+        buffer.putLong(sequence);
+    }
+
+    /**
+     * Checks a segment header at the buffer's position and reads the
+     * sequence number from it.
+     *
+     * @param buffer the buffer, with at least {@value #SEGMENT_HEADER_SIZE} bytes remaining
+     * @return the sequence number, or -1 if the header is not valid
+     */
+    public static long readSegmentHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < SEGMENT_HEADER_SIZE || buffer.getInt() != SEGMENT_MAGIC) {
+            return -1;
+        }
+        short version = buffer.getShort();
+        buffer.getShort();
+        long sequence = buffer.getLong();
+        return version == FORMAT_VERSION ? sequence : -1;
+    }
+
+    /**
+     * Encodes an event as a complete record at the buffer's position.
+     *
+     * When the buffer is too small a larger heap buffer is allocated, the
+     * existing content is copied over and the new buffer is returned; callers
+     * should keep the returned buffer for reuse.
+     *
+     * @param event the event to encode
+     * @param buffer the buffer to write into, in write mode
+     * @return the buffer holding the record, positioned after it
+     */
+    public static ByteBuffer encode(LoggingEvent event, ByteBuffer buffer) {
+        buffer = ensureRemaining(buffer, RECORD_HEADER_SIZE + 32);
+        int start = buffer.position();
+        buffer.position(start + RECORD_HEADER_SIZE);
+
+        Object[] arguments = event.getArguments();
+        LocationInfo location = event.getLocationInfo();
+        Throwable throwable = event.getThrowable();
+        int flags = (arguments != null ? FLAG_PARAMETERIZED : 0)
+                | (location != null ? FLAG_LOCATION : 0)
+                | (throwable != null ? FLAG_THROWABLE : 0);
+
+        buffer.putLong(event.getTimestamp());
+        buffer.put((byte) event.getLevel().ordinal());
+        buffer.put((byte) flags);
+        buffer = putString(buffer, event.getLoggerName());
+        buffer = putString(buffer, event.getThreadName());
+        if (arguments != null) {
+            buffer = putString(buffer, event.getMessagePattern());
+            buffer = putInt(buffer, arguments.length);
+            for (Object argument : arguments) {
+                buffer = putArgument(buffer, argument);
+            }
+        } else {
+            buffer = putString(buffer, event.getMessage());
+        }
+        if (location != null) {
+            buffer = putString(buffer, location.getFullClassName());
+            buffer = putString(buffer, location.getMethodName());
+            buffer = putString(buffer, location.getFileName());
+            buffer = putInt(buffer, location.getLineNumber());
+        }
+        Map<String, String> mdc = event.getMDC();
+        buffer = putInt(buffer, mdc.size());
+        for (Map.Entry<String, String> entry : mdc.entrySet()) {
+            buffer = putString(buffer, entry.getKey());
+            buffer = putString(buffer, entry.getValue());
+        }
+        List<String> ndc = event.getNDC();
+        buffer = putInt(buffer, ndc.size());
+        for (String entry : ndc) {
+            buffer = putString(buffer, entry);
+        }
+        if (throwable != null) {
+            buffer = putThrowable(buffer, throwable, 0);
+        }
+
+        int length = buffer.position() - start - RECORD_HEADER_SIZE;
+        buffer.putInt(start + 4, length);
+        buffer.putInt(start, Crc32c.compute(buffer, start + 4, length + 4));
+        return buffer;
+    }
+
+    /**
+     * Checks the record at an absolute offset of a buffer.
+     *
+     * @param buffer the buffer holding the record
+     * @param offset the absolute index of the record's first byte
+     * @param limit the absolute index past the last byte that may belong to the record
+     * @return the record's total size in bytes, or -1 if no valid record starts there
+     */
+    public static int validate(ByteBuffer buffer, int offset, int limit) {
+        if (limit - offset < RECORD_HEADER_SIZE) {
+            return -1;
+        }
+        int crc = buffer.getInt(offset);
+        int length = buffer.getInt(offset + 4);
+        if (length <= 0 || length > limit - offset - RECORD_HEADER_SIZE) {
+            return -1;
+        }
+        if (Crc32c.compute(buffer, offset + 4, length + 4) != crc) {
+            return -1;
+        }
+        return RECORD_HEADER_SIZE + length;
+    }
+
+    /**
+     * Decodes the payload of a record that passed {@link #validate}.
+     *
+     * @param buffer the buffer, positioned at the payload and limited to its end
+     * @return the event
+     * @throws IllegalArgumentException if the payload is not a valid event
+     */
+    public static LoggingEvent decode(ByteBuffer buffer) {
+        try {
+            long timestamp = buffer.getLong();
+            int levelIndex = buffer.get();
+            int flags = buffer.get();
+            if (levelIndex < 0 || levelIndex >= LEVELS.length) {
+                throw new IllegalArgumentException("Unknown level " + levelIndex);
+            }
+            String loggerName = getString(buffer);
+            String threadName = getString(buffer);
+            String message = getString(buffer);
+            Object[] arguments = null;
+            if ((flags & FLAG_PARAMETERIZED) != 0) {
+                arguments = new Object[getCount(buffer)];
+                for (int i = 0; i < arguments.length; i++) {
+                    arguments[i] = getString(buffer);
+                }
+            }
+            LocationInfo location = null;
+            if ((flags & FLAG_LOCATION) != 0) {
+                location = new LocationInfo(getString(buffer), getString(buffer), getString(buffer), buffer.getInt());
+            }
+            int mdcSize = getCount(buffer);
+            Map<String, String> mdc = new LinkedHashMap<>();
+            for (int i = 0; i < mdcSize; i++) {
+                mdc.put(getString(buffer), getString(buffer));
+            }
+            int ndcSize = getCount(buffer);
+            List<String> ndc = new ArrayList<>(ndcSize);
+            for (int i = 0; i < ndcSize; i++) {
+                ndc.add(getString(buffer));
+            }
+            Throwable throwable = (flags & FLAG_THROWABLE) != 0 ? getThrowable(buffer, 0) : null;
+            return new LoggingEvent(LEVELS[levelIndex], message, arguments, loggerName, timestamp, threadName,
+                                    location, throwable, mdc, ndc);
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalArgumentException) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Malformed journal record: " + e, e);
+        }
+    }
+
+    private static ByteBuffer putArgument(ByteBuffer buffer, Object argument) {
+        if (argument == null || argument instanceof String) {
+            return putString(buffer, (String) argument);
+        }
+        // Rendered the way the message formatter would, so the journal needs no classes to read
+        StringBuilder sb = Utf8Encoder.getFormatBuffer();
+        MessageFormatter.appendArgument(sb, argument);
+        return putChars(buffer, sb);
+    }
+
+    private static ByteBuffer putThrowable(ByteBuffer buffer, Throwable throwable, int depth) {
+        buffer = putString(buffer, throwable instanceof RecordedThrowable
+                ? ((RecordedThrowable) throwable).getClassName() : throwable.getClass().getName());
+        buffer = putString(buffer, throwable.getMessage());
+        StackTraceElement[] frames = throwable.getStackTrace();
+        buffer = putInt(buffer, frames.length);
+        for (StackTraceElement frame : frames) {
+            buffer = putString(buffer, frame.getClassName());
+            buffer = putString(buffer, frame.getMethodName());
+            buffer = putString(buffer, frame.getFileName());
+            buffer = putInt(buffer, frame.getLineNumber());
+        }
+        Throwable cause = throwable.getCause();
+        boolean hasCause = cause != null && cause != throwable && depth + 1 < MAX_CAUSE_DEPTH;
+        buffer = ensureRemaining(buffer, 1);
+        buffer.put((byte) (hasCause ? 1 : 0));
+        return hasCause ? putThrowable(buffer, cause, depth + 1) : buffer;
+    }
+
+    private static Throwable getThrowable(ByteBuffer buffer, int depth) {
+        String className = getString(buffer);
+        String message = getString(buffer);
+        StackTraceElement[] frames = new StackTraceElement[getCount(buffer)];
+        for (int i = 0; i < frames.length; i++) {
+            String declaringClass = getString(buffer);
+            String methodName = getString(buffer);
+            frames[i] = new StackTraceElement(declaringClass != null ? declaringClass : "",
+                    methodName != null ? methodName : "", getString(buffer), buffer.getInt());
+        }
+        Throwable cause = buffer.get() != 0 && depth + 1 < MAX_CAUSE_DEPTH ? getThrowable(buffer, depth + 1) : null;
+        return new RecordedThrowable(className, message, frames, cause);
+    }
+
+    private static ByteBuffer putInt(ByteBuffer buffer, int value) {
+        buffer = ensureRemaining(buffer, 4);
+        buffer.putInt(value);
+        return buffer;
+    }
+
+    private static ByteBuffer putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            return putInt(buffer, -1);
+        }
+        return putChars(buffer, value);
+    }
+
+    private static ByteBuffer putChars(ByteBuffer buffer, CharSequence value) {
+        buffer = ensureRemaining(buffer, 4);
+        int lengthIndex = buffer.position();
+        buffer.position(lengthIndex + 4);
+        buffer = Utf8Encoder.encode(value, buffer);
+        buffer.putInt(lengthIndex, buffer.position() - lengthIndex - 4);
+        return buffer;
+    }
+
+    private static int getCount(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        // Every element takes at least one byte, which bounds allocations for corrupt input
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid element count " + count);
+        }
+        return count;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static ByteBuffer ensureRemaining(ByteBuffer buffer, int required) {
+        if (buffer.remaining() >= required) {
+            return buffer;
+        }
+        int needed = buffer.position() + required;
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(needed, buffer.capacity() * 2));
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    /**
+     * A throwable read back from a journal. It reports the class name, message,
+     * stack trace and causes of the original, which need not be loadable.
+     */
+    public static final class RecordedThrowable extends Throwable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String className;
+
+        RecordedThrowable(String className, String message, StackTraceElement[] frames, Throwable cause) {
+            super(message, cause, false, true);
+            this.className = className != null ? className : Throwable.class.getName();
+            setStackTrace(frames);
+        }
+
+        /**
+         * Gets the class name of the original throwable.
+         *
+         * @return the fully qualified class name
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            // The recorded frames replace the reader's own
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            String message = getLocalizedMessage();
+            return message != null ? className + ": " + message : className;
+        }
+    }
+}
@@ -0,0 +1,442 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.util.Arrays;
+
+/**
+ * Streaming JSON writer that appends straight into a {@link StringBuilder}.
+ *
+ * Unlike {@link JsonObject} and {@link JsonArray}, no intermediate tree is
+ * built: names and values are written in order as they are supplied, so a
+ * reused writer formats an event without allocating maps or per-value
+ * objects. Output, including the pretty-printed form, is identical to the
+ * tree classes.
+ *
+ * Constant names can be escaped once with {@link #encodeName(String)} and
+ * written with {@link #encodedName(String)}; constant values can be encoded
+ * once with {@link #encodeValue(Object)} and written with
+ * {@link #rawValue(String)}.
+ *
+ * Instances are not thread-safe; keep one per thread and {@link #reset()} it
+ * between documents.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public final class JsonWriter {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // Characters below 128 that must be escaped: control characters, quote and backslash
+    private static final boolean[] NEEDS_ESCAPE = new boolean[128];
+
+    static {
+        for (int c = 0; c < ' '; c++) {
+            NEEDS_ESCAPE[c] = true;
+        }
+        NEEDS_ESCAPE['"'] = true;
+        NEEDS_ESCAPE['\\'] = true;
+    }
+
+    private StringBuilder out;
+    private final boolean pretty;
+
+    // Per nesting level: whether the current object or array has elements yet
+    private boolean[] hasElements = new boolean[8];
+    private int depth = 0;
+    private boolean afterName = false;
+
+    /**
+     * Creates a writer with its own buffer.
+     *
+     * @param pretty whether to format with indentation and newlines
+     */
+    public JsonWriter(boolean pretty) {
+        this(new StringBuilder(512), pretty);
+    }
+
+    /**
+     * Creates a writer that appends to the given buffer.
+     *
+     * @param out the buffer to append to
+     * @param pretty whether to format with indentation and newlines
+     */
+    public JsonWriter(StringBuilder out, boolean pretty) {
+        this.out = out;
+        this.pretty = pretty;
+    }
+
+    /**
+     * Clears the buffer and nesting state so the writer can start a new document.
+     */
+    public void reset() {
+        out.setLength(0);
+        depth = 0;
+        afterName = false;
+    }
+
+    /**
+     * Replaces the buffer, for example to drop one that grew too large, and
+     * resets the writer.
+     *
+     * @param buffer the new buffer
+     */
+    public void reset(StringBuilder buffer) {
+        this.out = buffer;
+        reset();
+    }
+
+    /**
+     * Directs output to the given buffer, appending after its current
+     * content, and resets the nesting state.
+     *
+     * @param buffer the buffer to append to
+     */
+    public void wrap(StringBuilder buffer) {
+        this.out = buffer;
+        depth = 0;
+        afterName = false;
+    }
+
+    /**
+     * Gets the buffer the writer appends to.
+     *
+     * @return the buffer
+     */
+    public StringBuilder getBuffer() {
+        return out;
+    }
+
+    /**
+     * Starts an object.
+     *
+     * @return this writer
+     */
+    public JsonWriter beginObject() {
+        beforeValue();
+        out.append('{');
+        push();
+        return this;
+    }
+
+    /**
+     * Ends the current object.
+     *
+     * @return this writer
+     */
+    public JsonWriter endObject() {
+        pop();
+        out.append('}');
+        return this;
+    }
+
+    /**
+     * Starts an array.
+     *
+     * @return this writer
+     */
+    public JsonWriter beginArray() {
+        beforeValue();
+        out.append('[');
+        push();
+        return this;
+    }
+
+    /**
+     * Ends the current array.
+     *
+     * @return this writer
+     */
+    public JsonWriter endArray() {
+        pop();
+        out.append(']');
+        return this;
+    }
+
+    /**
+     * Writes a property name, escaping it.
+     *
+     * @param name the property name
+     * @return this writer
+     */
+    public JsonWriter name(String name) {
+        beforeElement();
+        out.append('"');
+        appendEscaped(name, out);
+        out.append('"');
+        afterNameSeparator();
+        return this;
+    }
+
+    /**
+     * Writes a property name that was prepared with {@link #encodeName(String)}.
+     *
+     * @param encodedName the quoted, escaped name
+     * @return this writer
+     */
+    public JsonWriter encodedName(String encodedName) {
+        beforeElement();
+        out.append(encodedName);
+        afterNameSeparator();
+        return this;
+    }
+
+    /**
+     * Writes a string value, or {@code null}.
+     *
+     * @param value the value to write
+     * @return this writer
+     */
+    public JsonWriter value(String value) {
+        beforeValue();
+        if (value == null) {
+            out.append("null");
+        } else {
+            out.append('"');
+            appendEscaped(value, out);
+            out.append('"');
+        }
+        return this;
+    }
+
+    /**
+     * Writes a numeric value.
+     *
+     * @param value the value to write
+     * @return this writer
+     */
+    public JsonWriter value(long value) {
+        beforeValue();
+        out.append(value);
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value the value to write
+     * @return this writer
+     */
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        out.append(value);
+        return this;
+    }
+
+    /**
+     * Writes a value that is already valid JSON, such as one prepared with
+     * {@link #encodeValue(Object)}.
+     *
+     * @param json the JSON text
+     * @return this writer
+     */
+    public JsonWriter rawValue(String json) {
+        beforeValue();
+        out.append(json);
+        return this;
+    }
+
+    /**
+     * Prepares for a value that the caller appends directly to the buffer,
+     * such as a timestamp rendered in place. The caller must append exactly
+     * one complete JSON value.
+     *
+     * @return the buffer to append the value to
+     */
+    public StringBuilder rawValueBuffer() {
+        beforeValue();
+        return out;
+    }
+
+    /**
+     * Quotes and escapes a property name for {@link #encodedName(String)}.
+     *
+     * @param name the property name
+     * @return the quoted, escaped name
+     */
+    public static String encodeName(String name) {
+        StringBuilder sb = new StringBuilder(name.length() + 2);
+        sb.append('"');
+        appendEscaped(name, sb);
+        sb.append('"');
+        return sb.toString();
+    }
+
+    /**
+     * Encodes a simple value the same way {@link JsonObject} does: strings
+     * are quoted, numbers and booleans are written as-is and anything else is
+     * written as its quoted {@code toString()}.
+     *
+     * @param value the value, may be null
+     * @return the JSON text of the value
+     */
+    public static String encodeValue(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        String text = value.toString();
+        StringBuilder sb = new StringBuilder(text.length() + 2);
+        sb.append('"');
+        appendEscaped(text, sb);
+        sb.append('"');
+        return sb.toString();
+    }
+
+    /**
+     * Escapes a string for inclusion in JSON.
+     *
+     * @param input the string to escape
+     * @return the escaped string, or null if input is null
+     */
+    public static String escape(String input) {
+        if (input == null) {
+            return null;
+        }
+        int first = firstEscapeIndex(input);
+        if (first < 0) {
+            return input;
+        }
+        StringBuilder sb = new StringBuilder(input.length() + 16);
+        appendEscaped(input, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Appends a string to a builder with JSON escaping. Runs of characters
+     * that need no escaping are copied in bulk.
+     *
+     * @param input the string to escape
+     * @param sb the builder to append to
+     */
+    public static void appendEscaped(CharSequence input, StringBuilder sb) {
+        int length = input.length();
+        int runStart = 0;
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            if (c >= 128 || !NEEDS_ESCAPE[c]) {
+                continue;
+            }
+            if (i > runStart) {
+                sb.append(input, runStart, i);
+            }
+            appendEscapedChar(c, sb);
+            runStart = i + 1;
+        }
+        if (runStart < length) {
+            sb.append(input, runStart, length);
+        }
+    }
+
+    private static int firstEscapeIndex(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c < 128 && NEEDS_ESCAPE[c]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void appendEscapedChar(char c, StringBuilder sb) {
+        switch (c) {
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            case '\b':
+                sb.append("\\b");
+                break;
+            case '\f':
+                sb.append("\\f");
+                break;
+            default:
+                // Other control characters
+                sb.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+                break;
+        }
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+        } else {
+            beforeElement();
+        }
+    }
+
+    private void beforeElement() {
+        if (depth == 0) {
+            return;
+        }
+        if (hasElements[depth]) {
+            out.append(',');
+        }
+        hasElements[depth] = true;
+        if (pretty) {
+            out.append('\n');
+            appendIndent(depth);
+        }
+    }
+
+    private void afterNameSeparator() {
+        out.append(':');
+        if (pretty) {
+            out.append(' ');
+        }
+        afterName = true;
+    }
+
+    private void push() {
+        depth++;
+        if (depth == hasElements.length) {
+            hasElements = Arrays.copyOf(hasElements, depth * 2);
+        }
+        hasElements[depth] = false;
+    }
+
+    private void pop() {
+        if (depth == 0) {
+            throw new IllegalStateException("No open object or array");
+        }
+        if (pretty && hasElements[depth]) {
+            out.append('\n');
+            appendIndent(depth - 1);
+        }
+        depth--;
+    }
+
+    private void appendIndent(int level) {
+        for (int i = 0; i < level; i++) {
+            out.append("  ");
+        }
+    }
+}
@@ -17,9 +17,16 @@
 
 package com.log4rich.util;
 
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Captures location information about where a log event occurred.
  * This includes class name, method name, line number, and filename.
+ * 
+ * Instances are immutable. Locations found by {@link #getCaller()} are
+ * interned per call site, so a log statement that runs repeatedly reuses
+ * the same instance instead of allocating a new one for every event.
  */
 public class LocationInfo {
     private final String className;
@@ -44,6 +51,14 @@ public class LocationInfo {
         this.lineNumber = lineNumber;
     }
     
+    /** Upper bound on interned call sites, so generated code cannot grow the cache forever. */
+    private static final int MAX_CACHED_CALL_SITES = 8192;
+    
+    private static final ConcurrentHashMap<CallSite, LocationInfo> CALL_SITES = new ConcurrentHashMap<>();
+    
+    // Mutable per-thread key for lookups, so cache hits allocate nothing
+    private static final ThreadLocal<CallSite> LOOKUP_KEY = ThreadLocal.withInitial(CallSite::new);
+    
     /** Package prefixes to skip when walking the stack to find the real caller. */
     private static final String[] LOGGING_PACKAGES = {
         "com.log4rich.",
@@ -62,23 +77,15 @@ public class LocationInfo {
      * how many bridge layers (SLF4J, commons-logging, spring-jcl) sit between
      * the application code and the log4Rich core.</p>
      *
+     * <p>On Java 9 and later the stack is walked lazily with
+     * {@code java.lang.StackWalker} and the walk stops at the caller's frame;
+     * on Java 8 the stack trace of a new Throwable is scanned. The result is
+     * interned per call site.</p>
+     *
      * @return LocationInfo for the application caller, or null if unable to determine
      */
     public static LocationInfo getCaller() {
-        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-
-        for (int i = 1; i < stack.length; i++) {
-            String className = stack[i].getClassName();
-            if (!isLoggingFrame(className)) {
-                return new LocationInfo(
-                    className,
-                    stack[i].getMethodName(),
-                    stack[i].getFileName(),
-                    stack[i].getLineNumber()
-                );
-            }
-        }
-        return null;
+        return StackLocator.getCaller();
     }
 
     /**
@@ -107,7 +114,41 @@ public class LocationInfo {
         );
     }
 
-    private static boolean isLoggingFrame(String className) {
+    /**
+     * Returns the interned location for a call site, creating it on first use.
+     * 
+     * @param className the fully qualified class name
+     * @param methodName the method name
+     * @param fileName the source file name
+     * @param lineNumber the line number in the source file
+     * @return the shared LocationInfo for the call site
+     */
+    static LocationInfo intern(String className, String methodName, String fileName, int lineNumber) {
+        CallSite key = LOOKUP_KEY.get();
+        key.set(className, methodName, lineNumber);
+        LocationInfo cached = CALL_SITES.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        
+        LocationInfo location = new LocationInfo(className, methodName, fileName, lineNumber);
+        if (CALL_SITES.size() < MAX_CACHED_CALL_SITES) {
+            cached = CALL_SITES.putIfAbsent(new CallSite(className, methodName, lineNumber), location);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return location;
+    }
+    
+    /**
+     * Checks whether a frame belongs to logging infrastructure and should be
+     * skipped when looking for the caller.
+     * 
+     * @param className the class name of the frame
+     * @return true if the frame is part of a logging framework
+     */
+    static boolean isLoggingFrame(String className) {
         for (String prefix : LOGGING_PACKAGES) {
             if (className.startsWith(prefix)) {
                 return true;
@@ -201,4 +242,47 @@ public class LocationInfo {
         return String.format("%s.%s(%s:%d)", 
             className, methodName, fileName, lineNumber);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Cache key identifying a call site by class, method and line.
+     */
+    private static final class CallSite {
+        private String className;
+        private String methodName;
+        private int lineNumber;
+        
+        CallSite() {
+        }
+        
+        CallSite(String className, String methodName, int lineNumber) {
+            set(className, methodName, lineNumber);
+        }
+        
+        void set(String className, String methodName, int lineNumber) {
+            this.className = className;
+            this.methodName = methodName;
+            this.lineNumber = lineNumber;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CallSite)) {
+                return false;
+            }
+            CallSite other = (CallSite) o;
+            return lineNumber == other.lineNumber
+                && className.equals(other.className)
+                && Objects.equals(methodName, other.methodName);
+        }
+        
+        @Override
+        public int hashCode() {
+            int result = className.hashCode();
+            result = 31 * result + (methodName != null ? methodName.hashCode() : 0);
+            return 31 * result + lineNumber;
+        }
+    }
+}
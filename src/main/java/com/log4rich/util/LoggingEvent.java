@@ -23,11 +23,21 @@ import java.util.Map;
 
 /**
  * Represents a single logging event with all associated metadata.
- * This class is immutable and thread-safe.
+ * This class is immutable and thread-safe. Subclasses that recycle their
+ * state, such as {@link ReusableLoggingEvent}, override the getters and
+ * {@link #toImmutable()}.
+ * 
+ * An event may carry a message pattern with its arguments instead of a
+ * finished message. The message is then rendered on first access, typically
+ * by the layout on an asynchronous logger's processing thread, so the
+ * logging thread does not pay for formatting.
  */
 public class LoggingEvent {
     private final LogLevel level;
-    private final String message;
+    private final String messagePattern;
+    private final Object[] arguments;
+    // Rendered lazily for parameterized events; a racy but idempotent cache
+    private String message;
     private final String loggerName;
     private final long timestamp;
     private final String threadName;
@@ -50,11 +60,85 @@ public class LoggingEvent {
     public LoggingEvent(LogLevel level, String message, String loggerName, 
                        LocationInfo locationInfo, Throwable throwable,
                        Map<String, String> mdc, List<String> ndc) {
+        this(level, message, loggerName, System.currentTimeMillis(), Thread.currentThread().getName(),
+             locationInfo, throwable, mdc, ndc);
+    }
+    
+    /**
+     * Creates a new LoggingEvent with an explicit timestamp and thread name.
+     * Used when an event is rebuilt from data captured elsewhere, such as
+     * a copy of a reusable event taken on another thread.
+     * 
+     * @param level the log level
+     * @param message the log message
+     * @param loggerName the name of the logger
+     * @param timestamp the event time in milliseconds since epoch
+     * @param threadName the name of the thread that created the event
+     * @param locationInfo location information where the log occurred
+     * @param throwable optional exception associated with the log event
+     * @param mdc mapped diagnostic context data
+     * @param ndc nested diagnostic context data
+     */
+    public LoggingEvent(LogLevel level, String message, String loggerName,
+                       long timestamp, String threadName,
+                       LocationInfo locationInfo, Throwable throwable,
+                       Map<String, String> mdc, List<String> ndc) {
+        this(level, message, null, loggerName, timestamp, threadName, locationInfo, throwable, mdc, ndc);
+    }
+    
+    /**
+     * Creates a new LoggingEvent whose message is formatted from a pattern
+     * with SLF4J-style {} placeholders when it is first needed.
+     * The arguments array is kept as it is and must not be modified afterwards.
+     * 
+     * @param level the log level
+     * @param messagePattern the message pattern
+     * @param arguments the arguments for the pattern
+     * @param loggerName the name of the logger
+     * @param locationInfo location information where the log occurred
+     * @param throwable optional exception associated with the log event
+     * @param mdc mapped diagnostic context data
+     * @param ndc nested diagnostic context data
+     */
+    public LoggingEvent(LogLevel level, String messagePattern, Object[] arguments, String loggerName,
+                       LocationInfo locationInfo, Throwable throwable,
+                       Map<String, String> mdc, List<String> ndc) {
+        this(level, messagePattern, arguments, loggerName, System.currentTimeMillis(),
+             Thread.currentThread().getName(), locationInfo, throwable, mdc, ndc);
+    }
+    
+    /**
+     * Creates a new LoggingEvent with a message pattern and arguments, an
+     * explicit timestamp and thread name. A null arguments array makes the
+     * pattern the finished message.
+     * 
+     * @param level the log level
+     * @param messagePattern the message pattern, or the message if arguments is null
+     * @param arguments the arguments for the pattern, may be null
+     * @param loggerName the name of the logger
+     * @param timestamp the event time in milliseconds since epoch
+     * @param threadName the name of the thread that created the event
+     * @param locationInfo location information where the log occurred
+     * @param throwable optional exception associated with the log event
+     * @param mdc mapped diagnostic context data
+     * @param ndc nested diagnostic context data
+     */
+    public LoggingEvent(LogLevel level, String messagePattern, Object[] arguments, String loggerName,
+                       long timestamp, String threadName,
+                       LocationInfo locationInfo, Throwable throwable,
+                       Map<String, String> mdc, List<String> ndc) {
         this.level = level;
-        this.message = message;
+        if (arguments == null) {
+            this.message = messagePattern;
+            this.messagePattern = null;
+            this.arguments = null;
+        } else {
+            this.messagePattern = messagePattern;
+            this.arguments = arguments;
+        }
         this.loggerName = loggerName;
-        this.timestamp = System.currentTimeMillis();
-        this.threadName = Thread.currentThread().getName();
+        this.timestamp = timestamp;
+        this.threadName = threadName;
         this.locationInfo = locationInfo;
         this.throwable = throwable;
         this.mdc = mdc != null ? java.util.Collections.unmodifiableMap(mdc) : java.util.Collections.emptyMap();
@@ -99,12 +183,51 @@ public class LoggingEvent {
     }
     
     /**
-     * Gets the log message.
+     * Gets the log message, formatting it from the pattern and arguments on
+     * first access if this is a parameterized event.
      * 
      * @return the log message
      */
     public String getMessage() {
-        return message;
+        String rendered = message;
+        if (rendered == null && messagePattern != null) {
+            rendered = MessageFormatter.format(messagePattern, arguments);
+            message = rendered;
+        }
+        return rendered;
+    }
+    
+    /**
+     * Appends the log message to a builder. Nothing is appended for a null
+     * message. Layouts should prefer this to {@link #getMessage()}, since
+     * reusable events format straight into the builder.
+     * 
+     * @param sb the builder to append to
+     */
+    public void appendMessage(StringBuilder sb) {
+        String rendered = getMessage();
+        if (rendered != null) {
+            sb.append(rendered);
+        }
+    }
+    
+    /**
+     * Gets the message pattern of a parameterized event.
+     * 
+     * @return the pattern, or null if the event was created with a finished message
+     */
+    public String getMessagePattern() {
+        return messagePattern;
+    }
+    
+    /**
+     * Gets the arguments of a parameterized event. The array is shared and
+     * must not be modified.
+     * 
+     * @return the arguments, or null if the event was created with a finished message
+     */
+    public Object[] getArguments() {
+        return arguments;
     }
     
     /**
@@ -158,7 +281,7 @@ public class LoggingEvent {
      * @return true if this event has a throwable, false otherwise
      */
     public boolean hasThrowable() {
-        return throwable != null;
+        return getThrowable() != null;
     }
     
     /**
@@ -185,7 +308,20 @@ public class LoggingEvent {
      * @return true if context data is present, false otherwise
      */
     public boolean hasContext() {
-        return !mdc.isEmpty() || !ndc.isEmpty();
+        return !getMDC().isEmpty() || !getNDC().isEmpty();
+    }
+    
+    /**
+     * Returns an event that is safe to keep after the current append call
+     * returns. Regular events are immutable, so this returns the event itself;
+     * reusable events recycled by the async logger return a detached copy.
+     * Appenders that buffer events for later processing must keep the
+     * result of this method rather than the event they were handed.
+     * 
+     * @return an immutable event with the same content
+     */
+    public LoggingEvent toImmutable() {
+        return this;
     }
     
     /**
@@ -196,6 +332,8 @@ public class LoggingEvent {
      * @return the complete message with stack trace if applicable
      */
     public String getRenderedMessage() {
+        String message = getMessage();
+        Throwable throwable = getThrowable();
         String safeMessage = message != null ? message : "";
 
         if (throwable == null) {
@@ -224,6 +362,6 @@ public class LoggingEvent {
      */
     @Override
     public String toString() {
-        return String.format("[%s] %s - %s", level, loggerName, message);
+        return String.format("[%s] %s - %s", getLevel(), getLoggerName(), getMessage());
     }
 }
\ No newline at end of file
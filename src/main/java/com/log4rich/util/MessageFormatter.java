@@ -17,6 +17,21 @@
 
 package com.log4rich.util;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
 /**
  * Utility class for formatting log messages with SLF4J-style placeholders.
  * 
@@ -59,6 +74,15 @@ public final class MessageFormatter {
     private static final String PLACEHOLDER = "{}";
     private static final int PLACEHOLDER_LENGTH = 2;
     
+    // Value types whose string form cannot change after construction
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+        String.class, Boolean.class, Character.class,
+        Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+        BigInteger.class, BigDecimal.class, UUID.class, Class.class,
+        Instant.class, LocalDate.class, LocalTime.class, LocalDateTime.class,
+        OffsetDateTime.class, ZonedDateTime.class, Duration.class, Period.class
+    ));
+    
     private MessageFormatter() {
         // Utility class
     }
@@ -85,6 +109,32 @@ public final class MessageFormatter {
         }
         
         StringBuilder result = new StringBuilder(messagePattern.length() + 50);
+        appendFormatted(result, messagePattern, arguments);
+        return result.toString();
+    }
+    
+    /**
+     * Formats a message using SLF4J-style {} placeholders by appending to a
+     * builder, without creating an intermediate String. Nothing is appended
+     * for a null pattern.
+     * 
+     * @param sb the builder to append to
+     * @param messagePattern the message pattern with {} placeholders
+     * @param arguments the arguments to substitute
+     */
+    public static void formatTo(StringBuilder sb, String messagePattern, Object... arguments) {
+        if (messagePattern == null) {
+            return;
+        }
+        if (arguments == null || arguments.length == 0
+                || messagePattern.indexOf(PLACEHOLDER) == -1) {
+            sb.append(messagePattern);
+        } else {
+            appendFormatted(sb, messagePattern, arguments);
+        }
+    }
+    
+    private static void appendFormatted(StringBuilder result, String messagePattern, Object[] arguments) {
         int messageStart = 0;
         int argumentIndex = 0;
         
@@ -109,28 +159,55 @@ public final class MessageFormatter {
             result.append(messagePattern, messageStart, placeholderIndex);
             
             // Append the argument
-            Object argument = arguments[argumentIndex++];
-            if (argument != null) {
-                if (argument instanceof Object[]) {
-                    // Handle array arguments
-                    result.append(java.util.Arrays.toString((Object[]) argument));
-                } else if (argument.getClass().isArray()) {
-                    // Handle primitive arrays
-                    result.append(arrayToString(argument));
-                } else {
-                    result.append(argument.toString());
-                }
-            } else {
-                result.append("null");
-            }
+            appendArgument(result, arguments[argumentIndex++]);
             
             messageStart = placeholderIndex + PLACEHOLDER_LENGTH;
         }
         
         // Append any remaining text
         result.append(messagePattern, messageStart, messagePattern.length());
-        
-        return result.toString();
+    }
+    
+    /**
+     * Appends the string form of one argument the way a placeholder renders
+     * it. Arrays are expanded, and an argument whose toString() throws is
+     * written as "[FAILED toString()]", as SLF4J does, so that a broken
+     * argument cannot lose the whole event.
+     * 
+     * @param sb the builder to append to
+     * @param argument the argument, may be null
+     */
+    public static void appendArgument(StringBuilder sb, Object argument) {
+        if (argument == null) {
+            sb.append("null");
+            return;
+        }
+        try {
+            if (argument instanceof Object[]) {
+                // Handle array arguments
+                sb.append(Arrays.toString((Object[]) argument));
+            } else if (argument.getClass().isArray()) {
+                // Handle primitive arrays
+                sb.append(arrayToString(argument));
+            } else {
+                sb.append(argument.toString());
+            }
+        } catch (RuntimeException e) {
+            sb.append("[FAILED toString()]");
+        }
+    }
+    
+    /**
+     * Checks whether an argument is of a well-known immutable type, so that
+     * it can be formatted later, on another thread, with the same result.
+     * 
+     * @param argument the argument, may be null
+     * @return true for null and for immutable JDK value types and enums
+     */
+    public static boolean isImmutable(Object argument) {
+        return argument == null
+            || IMMUTABLE_TYPES.contains(argument.getClass())
+            || argument instanceof Enum;
     }
     
     /**
@@ -179,21 +256,21 @@ public final class MessageFormatter {
         Class<?> type = array.getClass().getComponentType();
         
         if (type == boolean.class) {
-            return java.util.Arrays.toString((boolean[]) array);
+            return Arrays.toString((boolean[]) array);
         } else if (type == byte.class) {
-            return java.util.Arrays.toString((byte[]) array);
+            return Arrays.toString((byte[]) array);
         } else if (type == char.class) {
-            return java.util.Arrays.toString((char[]) array);
+            return Arrays.toString((char[]) array);
         } else if (type == short.class) {
-            return java.util.Arrays.toString((short[]) array);
+            return Arrays.toString((short[]) array);
         } else if (type == int.class) {
-            return java.util.Arrays.toString((int[]) array);
+            return Arrays.toString((int[]) array);
         } else if (type == long.class) {
-            return java.util.Arrays.toString((long[]) array);
+            return Arrays.toString((long[]) array);
         } else if (type == float.class) {
-            return java.util.Arrays.toString((float[]) array);
+            return Arrays.toString((float[]) array);
         } else if (type == double.class) {
-            return java.util.Arrays.toString((double[]) array);
+            return Arrays.toString((double[]) array);
         }
         
         return String.valueOf(array);
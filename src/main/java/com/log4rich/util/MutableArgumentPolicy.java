@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+/**
+ * How an asynchronous logger treats parameterized-message arguments that may
+ * change after the logging call returns.
+ * 
+ * Asynchronous loggers defer formatting of {@code {}} messages to the
+ * processing thread. Arguments of well-known immutable types (strings, boxed
+ * primitives, enums, {@code java.time} values and the like) are captured
+ * as they are. Any other argument could be modified by the application
+ * before the message is rendered, so this policy decides what happens to it.
+ * 
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public enum MutableArgumentPolicy {
+    
+    /**
+     * Format the whole message on the calling thread as soon as one argument
+     * is not known to be immutable. Always safe; this is the default.
+     */
+    FORMAT,
+    
+    /**
+     * Replace each argument that is not known to be immutable with its
+     * string form on the calling thread, and defer the rest of the formatting.
+     */
+    SNAPSHOT,
+    
+    /**
+     * Keep references to all arguments and format later. Only safe when the
+     * application does not modify arguments after logging them.
+     */
+    CAPTURE;
+    
+    /**
+     * Parses a policy from a string (case-insensitive).
+     * 
+     * @param policy the policy name
+     * @return the corresponding policy, or {@link #FORMAT} if null or empty
+     * @throws IllegalArgumentException if the policy is not recognized
+     */
+    public static MutableArgumentPolicy fromString(String policy) {
+        if (policy == null || policy.trim().isEmpty()) {
+            return getDefault();
+        }
+        
+        try {
+            return valueOf(policy.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                "Unknown mutable argument policy: " + policy +
+                ". Valid options: FORMAT, SNAPSHOT, CAPTURE"
+            );
+        }
+    }
+    
+    /**
+     * Gets the default policy.
+     * 
+     * @return the default policy (FORMAT)
+     */
+    public static MutableArgumentPolicy getDefault() {
+        return FORMAT;
+    }
+}
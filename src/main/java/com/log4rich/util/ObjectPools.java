@@ -74,8 +74,8 @@ public final class ObjectPools {
     }
     
     // Note: getLoggingEvent() method was removed because LoggingEvent is immutable.
-    // The LoggingEvent class has all fields as final and no setter methods,
-    // making it impossible to create a reusable version for object pooling.
+    // Reusable events live in the async ring buffer instead: see ReusableLoggingEvent
+    // and the garbage-free mode of AsyncLogger.
     
     /**
      * Configures the initial capacity for new StringBuilders.
@@ -135,8 +135,7 @@ public final class ObjectPools {
         }
     }
     
-    // Note: ReusableLoggingEvent was removed because LoggingEvent is immutable.
-    // The LoggingEvent class has all fields as final and no setter methods,
-    // making it impossible to create a mutable version for object pooling.
-    // Instead, consider using the existing LoggingEvent constructor efficiently.
+    // Note: ReusableLoggingEvent is not pooled here. Its instances are owned by the
+    // pre-allocated slots of a garbage-free AsyncLogger ring buffer, which recycles
+    // them once the appenders have processed the event.
 }
\ No newline at end of file
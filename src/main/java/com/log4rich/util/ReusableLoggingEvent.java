@@ -0,0 +1,419 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import com.log4rich.core.LogLevel;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Mutable logging event used as a pre-allocated ring buffer slot in
+ * garbage-free asynchronous logging.
+ *
+ * The producing thread copies the event data into the slot with one of the
+ * {@code set} methods; the processing thread then hands the slot to appenders
+ * as a plain {@link LoggingEvent}, which only exposes getters. MDC and NDC
+ * entries are copied into arrays owned by the slot, so filling a slot does
+ * not allocate once those arrays have grown to the working size.
+ *
+ * Parameterized events keep the pattern and a reference to the arguments
+ * array; layouts format them straight into their output buffer through
+ * {@link #appendMessage(StringBuilder)}.
+ *
+ * Instances are recycled as soon as the appenders return. An appender that
+ * needs to keep an event must call {@link #toImmutable()} to take a copy.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public class ReusableLoggingEvent extends LoggingEvent {
+
+    private static final int INITIAL_CONTEXT_CAPACITY = 8;
+
+    private LogLevel level;
+    private String message;
+    private String messagePattern;
+    private Object[] arguments;
+    private String loggerName;
+    private long timestamp;
+    private String threadName;
+    private LocationInfo locationInfo;
+    private Throwable throwable;
+
+    private String[] mdcKeys = new String[INITIAL_CONTEXT_CAPACITY];
+    private String[] mdcValues = new String[INITIAL_CONTEXT_CAPACITY];
+    private int mdcSize;
+    private String[] ndcValues = new String[INITIAL_CONTEXT_CAPACITY];
+    private int ndcSize;
+
+    // Read-only views over the context arrays, created once per slot
+    private final Map<String, String> mdcView = new MdcView();
+    private final List<String> ndcView = new NdcView();
+
+    /**
+     * Creates an empty reusable event.
+     */
+    public ReusableLoggingEvent() {
+        super(null, null, null, null);
+    }
+
+    /**
+     * Fills this event from the calling thread. The timestamp and thread
+     * name are taken from the current time and thread.
+     *
+     * @param level the log level
+     * @param message the log message
+     * @param loggerName the name of the logger
+     * @param locationInfo location information, may be null
+     * @param throwable the throwable, may be null
+     * @param mdc MDC data to copy, may be null
+     * @param ndc NDC data to copy, may be null
+     */
+    public void set(LogLevel level, String message, String loggerName,
+                    LocationInfo locationInfo, Throwable throwable,
+                    Map<String, String> mdc, List<String> ndc) {
+        set(level, message, null, loggerName, System.currentTimeMillis(), Thread.currentThread().getName(),
+            locationInfo, throwable, mdc, ndc);
+    }
+
+    /**
+     * Fills this event with a parameterized message from the calling thread.
+     * The message is formatted when it is first needed. The arguments array
+     * is referenced, not copied, and must not be modified afterwards.
+     *
+     * @param level the log level
+     * @param messagePattern the message pattern with {} placeholders
+     * @param arguments the arguments for the pattern
+     * @param loggerName the name of the logger
+     * @param locationInfo location information, may be null
+     * @param throwable the throwable, may be null
+     * @param mdc MDC data to copy, may be null
+     * @param ndc NDC data to copy, may be null
+     */
+    public void set(LogLevel level, String messagePattern, Object[] arguments, String loggerName,
+                    LocationInfo locationInfo, Throwable throwable,
+                    Map<String, String> mdc, List<String> ndc) {
+        set(level, messagePattern, arguments, loggerName, System.currentTimeMillis(),
+            Thread.currentThread().getName(), locationInfo, throwable, mdc, ndc);
+    }
+
+    /**
+     * Fills this event from an existing event, preserving its timestamp and
+     * thread name.
+     *
+     * @param source the event to copy
+     */
+    public void set(LoggingEvent source) {
+        // Keep a parameterized message unformatted
+        Object[] sourceArguments = source.getArguments();
+        String text = sourceArguments != null ? source.getMessagePattern() : source.getMessage();
+        set(source.getLevel(), text, sourceArguments, source.getLoggerName(),
+            source.getTimestamp(), source.getThreadName(),
+            source.getLocationInfo(), source.getThrowable(),
+            source.getMDC(), source.getNDC());
+    }
+
+    private void set(LogLevel level, String text, Object[] arguments, String loggerName,
+                     long timestamp, String threadName,
+                     LocationInfo locationInfo, Throwable throwable,
+                     Map<String, String> mdc, List<String> ndc) {
+        this.level = level;
+        if (arguments == null) {
+            this.message = text;
+            this.messagePattern = null;
+            this.arguments = null;
+        } else {
+            this.message = null;
+            this.messagePattern = text;
+            this.arguments = arguments;
+        }
+        this.loggerName = loggerName;
+        this.timestamp = timestamp;
+        this.threadName = threadName;
+        this.locationInfo = locationInfo;
+        this.throwable = throwable;
+        copyMdc(mdc);
+        copyNdc(ndc);
+    }
+
+    /**
+     * Releases all references held by this event so that a recycled slot
+     * does not keep messages or exceptions reachable.
+     */
+    public void clear() {
+        level = null;
+        message = null;
+        messagePattern = null;
+        arguments = null;
+        loggerName = null;
+        threadName = null;
+        locationInfo = null;
+        throwable = null;
+        Arrays.fill(mdcKeys, 0, mdcSize, null);
+        Arrays.fill(mdcValues, 0, mdcSize, null);
+        mdcSize = 0;
+        Arrays.fill(ndcValues, 0, ndcSize, null);
+        ndcSize = 0;
+    }
+
+    private void copyMdc(Map<String, String> mdc) {
+        Arrays.fill(mdcKeys, 0, mdcSize, null);
+        Arrays.fill(mdcValues, 0, mdcSize, null);
+        mdcSize = 0;
+        if (mdc == null || mdc.isEmpty()) {
+            return;
+        }
+        if (mdc.size() > mdcKeys.length) {
+            int capacity = Math.max(mdc.size(), mdcKeys.length * 2);
+            mdcKeys = new String[capacity];
+            mdcValues = new String[capacity];
+        }
+        for (Map.Entry<String, String> entry : mdc.entrySet()) {
+            if (mdcSize == mdcKeys.length) {
+                break;
+            }
+            mdcKeys[mdcSize] = entry.getKey();
+            mdcValues[mdcSize] = entry.getValue();
+            mdcSize++;
+        }
+    }
+
+    private void copyNdc(List<String> ndc) {
+        Arrays.fill(ndcValues, 0, ndcSize, null);
+        ndcSize = 0;
+        if (ndc == null || ndc.isEmpty()) {
+            return;
+        }
+        if (ndc.size() > ndcValues.length) {
+            ndcValues = new String[Math.max(ndc.size(), ndcValues.length * 2)];
+        }
+        int size = Math.min(ndc.size(), ndcValues.length);
+        for (int i = 0; i < size; i++) {
+            ndcValues[i] = ndc.get(i);
+        }
+        ndcSize = size;
+    }
+
+    @Override
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null && messagePattern != null) {
+            message = MessageFormatter.format(messagePattern, arguments);
+        }
+        return message;
+    }
+
+    /**
+     * Appends the log message to a builder. A parameterized message that has
+     * not been rendered yet is formatted straight into the builder.
+     *
+     * @param sb the builder to append to
+     */
+    @Override
+    public void appendMessage(StringBuilder sb) {
+        if (message != null) {
+            sb.append(message);
+        } else if (messagePattern != null) {
+            MessageFormatter.formatTo(sb, messagePattern, arguments);
+        }
+    }
+
+    @Override
+    public String getMessagePattern() {
+        return messagePattern;
+    }
+
+    @Override
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public String getLoggerName() {
+        return loggerName;
+    }
+
+    @Override
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String getThreadName() {
+        return threadName;
+    }
+
+    @Override
+    public LocationInfo getLocationInfo() {
+        return locationInfo;
+    }
+
+    @Override
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    /**
+     * Gets a read-only view of the MDC data. The view reflects the slot's
+     * current content and must not be retained after the append call.
+     *
+     * @return the MDC view, never null
+     */
+    @Override
+    public Map<String, String> getMDC() {
+        return mdcView;
+    }
+
+    /**
+     * Gets a read-only view of the NDC data. The view reflects the slot's
+     * current content and must not be retained after the append call.
+     *
+     * @return the NDC view, never null
+     */
+    @Override
+    public List<String> getNDC() {
+        return ndcView;
+    }
+
+    /**
+     * Takes a detached, immutable copy of this event.
+     *
+     * @return a new immutable event with the same content
+     */
+    @Override
+    public LoggingEvent toImmutable() {
+        Map<String, String> mdc = null;
+        if (mdcSize > 0) {
+            mdc = new LinkedHashMap<>(mdcView);
+        }
+        List<String> ndc = null;
+        if (ndcSize > 0) {
+            ndc = new ArrayList<>(ndcView);
+        }
+        if (arguments != null && message == null) {
+            return new LoggingEvent(level, messagePattern, arguments, loggerName, timestamp, threadName,
+                                    locationInfo, throwable, mdc, ndc);
+        }
+        return new LoggingEvent(level, message, loggerName, timestamp, threadName,
+                                locationInfo, throwable, mdc, ndc);
+    }
+
+    /**
+     * Read-only map view over the MDC arrays.
+     */
+    private final class MdcView extends AbstractMap<String, String> {
+
+        private final Set<Entry<String, String>> entries = new AbstractSet<Entry<String, String>>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<Entry<String, String>>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < mdcSize;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (index >= mdcSize) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, String> entry =
+                            new SimpleImmutableEntry<>(mdcKeys[index], mdcValues[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return mdcSize;
+            }
+        };
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return entries;
+        }
+
+        @Override
+        public int size() {
+            return mdcSize;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return mdcSize == 0;
+        }
+
+        @Override
+        public String get(Object key) {
+            for (int i = 0; i < mdcSize; i++) {
+                if (Objects.equals(mdcKeys[i], key)) {
+                    return mdcValues[i];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            for (int i = 0; i < mdcSize; i++) {
+                if (Objects.equals(mdcKeys[i], key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Read-only list view over the NDC array.
+     */
+    private final class NdcView extends AbstractList<String> {
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= ndcSize) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + ndcSize);
+            }
+            return ndcValues[index];
+        }
+
+        @Override
+        public int size() {
+            return ndcSize;
+        }
+    }
+}
@@ -16,21 +16,40 @@
  */
 package com.log4rich.util;
 
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * High-performance lock-free ring buffer implementation for asynchronous logging.
  * 
  * This ring buffer provides sub-microsecond latency for logging operations by using
  * lock-free algorithms and memory-efficient circular buffer design. It's specifically
- * optimized for the producer-consumer pattern common in asynchronous logging.
+ * optimized for the producer-consumer pattern common in asynchronous logging, where
+ * many application threads publish into a single logger.
  * 
  * Key features:
- * - Lock-free operation using CAS operations
+ * - Multi-producer safe: producers claim slots with a CAS on the write sequence
+ * - Per-slot publish sequences, so a consumer never reads a half-published slot
+ * - Consumers claim slots with a CAS as well, so overflow handling that discards
+ *   the oldest event from a producer thread cannot race the processing thread
  * - Power-of-2 sizing for efficient modulo operations
- * - False sharing prevention with padding
+ * - Cache-line padded cursors ({@link Sequence}) to prevent false sharing
  * - Overflow detection and handling
- * - Memory-efficient circular design
+ * 
+ * Each slot carries its own sequence number. A slot whose sequence equals the
+ * producer's claimed position is free for that position; after writing the
+ * item the producer advances it by one, marking it readable. The consumer
+ * that takes the item advances it by the capacity, handing the slot back to
+ * the producer one lap later.
+ * 
+ * A buffer created with a slot factory is pre-allocated: every slot holds a
+ * long-lived mutable object. Producers then {@link #tryClaim() claim} a
+ * sequence, fill {@link #get(long) the slot} in place and {@link #publish(long)
+ * publish} it, and consumers process slots in place with {@link #drainTo}.
+ * The reference-passing methods are not available in that mode.
  * 
  * @param <T> the type of elements stored in the buffer
  * @author log4Rich Contributors
@@ -38,25 +57,21 @@ import java.util.concurrent.locks.LockSupport;
  */
 public class RingBuffer<T> {
     
-    // Padding to prevent false sharing - size of cache line (64 bytes)
-    private static final int CACHE_LINE_SIZE = 64;
-    private static final int CACHE_LINE_LONGS = CACHE_LINE_SIZE / 8;
-    
     private final Object[] buffer;
+    private final AtomicLongArray slotSequences;
     private final int capacity;
     private final int mask;
+    private final boolean preallocated;
     
-    // Volatile fields with padding to prevent false sharing
-    private volatile long writeSequence = 0;
-    private final long[] writeSequencePadding = new long[CACHE_LINE_LONGS - 1];
+    // Producer and consumer cursors, each on its own cache line
+    private final Sequence writeSequence = new Sequence(0);
+    private final Sequence readSequence = new Sequence(0);
     
-    private volatile long readSequence = 0;
-    private final long[] readSequencePadding = new long[CACHE_LINE_LONGS - 1];
-    
-    // Statistics for monitoring
-    private volatile long totalPublished = 0;
-    private volatile long totalConsumed = 0;
-    private volatile long bufferFullCount = 0;
+    // Statistics for monitoring. Published and consumed totals are derived from
+    // the cursors, so the hot path carries no extra shared counters.
+    private final LongAdder bufferFullCount = new LongAdder();
+    private volatile long publishedBase = 0;
+    private volatile long consumedBase = 0;
     
     /**
      * Creates a new ring buffer with the specified capacity.
@@ -65,6 +80,18 @@ public class RingBuffer<T> {
      * @throws IllegalArgumentException if capacity is not a power of 2
      */
     public RingBuffer(int capacity) {
+        this(capacity, null);
+    }
+    
+    /**
+     * Creates a new pre-allocated ring buffer whose slots are filled once
+     * from the given factory and reused for the lifetime of the buffer.
+     * 
+     * @param capacity the buffer capacity (must be a power of 2)
+     * @param slotFactory creates the slot objects, or null for a reference-passing buffer
+     * @throws IllegalArgumentException if capacity is not a power of 2
+     */
+    public RingBuffer(int capacity, Supplier<? extends T> slotFactory) {
         if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
             throw new IllegalArgumentException("Capacity must be a positive power of 2, was: " + capacity);
         }
@@ -72,10 +99,19 @@ public class RingBuffer<T> {
         this.capacity = capacity;
         this.mask = capacity - 1;
         this.buffer = new Object[capacity];
+        this.slotSequences = new AtomicLongArray(capacity);
+        this.preallocated = slotFactory != null;
+        for (int i = 0; i < capacity; i++) {
+            slotSequences.set(i, i);
+            if (preallocated) {
+                buffer[i] = slotFactory.get();
+            }
+        }
     }
     
     /**
      * Attempts to publish an item to the buffer without blocking.
+     * Safe to call from any number of threads concurrently.
      * 
      * @param item the item to publish
      * @return true if the item was successfully published, false if buffer is full
@@ -84,25 +120,28 @@ public class RingBuffer<T> {
         if (item == null) {
             throw new IllegalArgumentException("Cannot publish null item");
         }
+        checkReferenceMode();
         
-        long currentWrite = writeSequence;
-        long wrapPoint = currentWrite - capacity;
-        
-        // Check if buffer is full by comparing with read sequence
-        if (wrapPoint >= readSequence) {
-            bufferFullCount++;
-            return false;
+        while (true) {
+            long currentWrite = writeSequence.get();
+            int index = (int) (currentWrite & mask);
+            long diff = slotSequences.get(index) - currentWrite;
+            
+            if (diff == 0) {
+                // Slot is free for this position; claim it
+                if (writeSequence.compareAndSet(currentWrite, currentWrite + 1)) {
+                    buffer[index] = item;
+                    // Release the item to consumers
+                    slotSequences.lazySet(index, currentWrite + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // Slot still holds an unconsumed item from the previous lap
+                bufferFullCount.increment();
+                return false;
+            }
+            // Another producer claimed this position first; retry with a fresh cursor
         }
-        
-        // Store item at current write position
-        int index = (int) (currentWrite & mask);
-        buffer[index] = item;
-        
-        // Advance write sequence
-        writeSequence = currentWrite + 1;
-        totalPublished++;
-        
-        return true;
     }
     
     /**
@@ -143,33 +182,36 @@ public class RingBuffer<T> {
     /**
      * Consumes the next available item from the buffer.
      * 
-     * @return the next item, or null if the buffer is empty
+     * @return the next item, or null if the buffer is empty or the next
+     *         item has been claimed but not yet fully published
      */
     @SuppressWarnings("unchecked")
     public T consume() {
-        long currentRead = readSequence;
-        
-        // Check if buffer is empty
-        if (currentRead >= writeSequence) {
-            return null;
+        checkReferenceMode();
+        while (true) {
+            long currentRead = readSequence.get();
+            int index = (int) (currentRead & mask);
+            long diff = slotSequences.get(index) - (currentRead + 1);
+            
+            if (diff == 0) {
+                if (readSequence.compareAndSet(currentRead, currentRead + 1)) {
+                    T item = (T) buffer[index];
+                    // Clear reference to prevent memory leaks
+                    buffer[index] = null;
+                    // Hand the slot back to producers for the next lap
+                    slotSequences.lazySet(index, currentRead + capacity);
+                    return item;
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+            // Another consumer took this item; retry with a fresh cursor
         }
-        
-        // Get item at current read position
-        int index = (int) (currentRead & mask);
-        T item = (T) buffer[index];
-        
-        // Clear reference to prevent memory leaks
-        buffer[index] = null;
-        
-        // Advance read sequence
-        readSequence = currentRead + 1;
-        totalConsumed++;
-        
-        return item;
     }
     
     /**
      * Consumes multiple items from the buffer in a batch operation.
+     * All readable items up to the limit are claimed with a single CAS.
      * 
      * @param items array to store consumed items
      * @param maxItems maximum number of items to consume
@@ -181,42 +223,188 @@ public class RingBuffer<T> {
             return 0;
         }
         
+        checkReferenceMode();
         int actualMax = Math.min(maxItems, items.length);
-        int consumed = 0;
         
-        for (int i = 0; i < actualMax; i++) {
-            long currentRead = readSequence + i;
+        while (true) {
+            long currentRead = readSequence.get();
             
-            // Check if we've reached the write sequence
-            if (currentRead >= writeSequence) {
-                break;
+            // Count the contiguous run of fully published slots
+            int available = 0;
+            while (available < actualMax) {
+                long sequence = currentRead + available;
+                if (slotSequences.get((int) (sequence & mask)) != sequence + 1) {
+                    break;
+                }
+                available++;
             }
             
-            // Get item at current read position
-            int index = (int) (currentRead & mask);
-            items[i] = (T) buffer[index];
-            buffer[index] = null; // Clear reference
-            consumed++;
+            if (available == 0) {
+                if (readSequence.get() == currentRead) {
+                    return 0;
+                }
+                continue;
+            }
+            
+            if (!readSequence.compareAndSet(currentRead, currentRead + available)) {
+                // Lost a race with another consumer; the run may have shifted
+                continue;
+            }
+            
+            for (int i = 0; i < available; i++) {
+                long sequence = currentRead + i;
+                int index = (int) (sequence & mask);
+                items[i] = (T) buffer[index];
+                buffer[index] = null; // Clear reference
+                slotSequences.lazySet(index, sequence + capacity);
+            }
+            
+            return available;
+        }
+    }
+    
+    /**
+     * Claims the next slot of a pre-allocated buffer for writing. The caller
+     * must fill {@link #get(long) the slot} and then {@link #publish(long)
+     * publish} the returned sequence; until then the consumer stalls at that
+     * position, so nothing between claim and publish may throw.
+     * 
+     * @return the claimed sequence, or -1 if the buffer is full
+     * @throws IllegalStateException if the buffer is not pre-allocated
+     */
+    public long tryClaim() {
+        if (!preallocated) {
+            throw new IllegalStateException("tryClaim requires a pre-allocated ring buffer");
         }
         
-        // Update read sequence once for all consumed items
-        if (consumed > 0) {
-            readSequence += consumed;
-            totalConsumed += consumed;
+        while (true) {
+            long currentWrite = writeSequence.get();
+            long diff = slotSequences.get((int) (currentWrite & mask)) - currentWrite;
+            
+            if (diff == 0) {
+                if (writeSequence.compareAndSet(currentWrite, currentWrite + 1)) {
+                    return currentWrite;
+                }
+            } else if (diff < 0) {
+                bufferFullCount.increment();
+                return -1;
+            }
+        }
+    }
+    
+    /**
+     * Gets the slot object for a sequence. Only meaningful for a sequence the
+     * caller has claimed and not yet published.
+     * 
+     * @param sequence the claimed sequence
+     * @return the slot object
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long sequence) {
+        return (T) buffer[(int) (sequence & mask)];
+    }
+    
+    /**
+     * Publishes a previously claimed slot, making it visible to consumers.
+     * 
+     * @param sequence the sequence returned by {@link #tryClaim()}
+     */
+    public void publish(long sequence) {
+        slotSequences.lazySet((int) (sequence & mask), sequence + 1);
+    }
+    
+    /**
+     * Claims up to {@code maxItems} readable slots and passes each one to the
+     * handler in publication order. Slots are handed back to producers only
+     * after the handler returns, so the handler may read a pre-allocated slot
+     * in place but must not keep a reference to it. Works in both modes; in
+     * reference-passing mode the slot reference is cleared afterwards.
+     * 
+     * @param handler receives each claimed item
+     * @param maxItems maximum number of items to drain
+     * @return the number of items drained
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(Consumer<? super T> handler, int maxItems) {
+        if (maxItems <= 0) {
+            return 0;
         }
         
-        return consumed;
+        while (true) {
+            long currentRead = readSequence.get();
+            
+            int available = 0;
+            while (available < maxItems) {
+                long sequence = currentRead + available;
+                if (slotSequences.get((int) (sequence & mask)) != sequence + 1) {
+                    break;
+                }
+                available++;
+            }
+            
+            if (available == 0) {
+                if (readSequence.get() == currentRead) {
+                    return 0;
+                }
+                continue;
+            }
+            
+            if (!readSequence.compareAndSet(currentRead, currentRead + available)) {
+                continue;
+            }
+            
+            // Every claimed slot must be released even if the handler fails,
+            // otherwise producers would stall on it one lap later
+            RuntimeException failure = null;
+            for (int i = 0; i < available; i++) {
+                long sequence = currentRead + i;
+                int index = (int) (sequence & mask);
+                try {
+                    handler.accept((T) buffer[index]);
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+                if (!preallocated) {
+                    buffer[index] = null;
+                }
+                slotSequences.lazySet(index, sequence + capacity);
+            }
+            
+            if (failure != null) {
+                throw failure;
+            }
+            return available;
+        }
     }
     
     /**
-     * Gets the current number of items in the buffer.
+     * Checks whether this buffer was created with a slot factory.
+     * 
+     * @return true if slots are pre-allocated and reused
+     */
+    public boolean isPreallocated() {
+        return preallocated;
+    }
+    
+    private void checkReferenceMode() {
+        if (preallocated) {
+            throw new IllegalStateException(
+                "Pre-allocated ring buffer slots must be used through tryClaim/publish and drainTo");
+        }
+    }
+    
+    /**
+     * Gets the current number of items in the buffer, including items that
+     * have been claimed by a producer but not yet fully published.
      * 
      * @return the current buffer size
      */
     public int size() {
-        long write = writeSequence;
-        long read = readSequence;
-        return (int) Math.max(0, write - read);
+        long read = readSequence.get();
+        long write = writeSequence.get();
+        return (int) Math.min(capacity, Math.max(0, write - read));
     }
     
     /**
@@ -225,7 +413,7 @@ public class RingBuffer<T> {
      * @return true if the buffer is empty
      */
     public boolean isEmpty() {
-        return readSequence >= writeSequence;
+        return readSequence.get() >= writeSequence.get();
     }
     
     /**
@@ -261,13 +449,19 @@ public class RingBuffer<T> {
      * when no concurrent access is occurring.
      */
     public void clear() {
-        // Clear all references to prevent memory leaks
-        for (int i = 0; i < buffer.length; i++) {
-            buffer[i] = null;
+        long write = writeSequence.get();
+        
+        // Clear all references to prevent memory leaks and release the slots
+        for (long sequence = readSequence.get(); sequence < write; sequence++) {
+            int index = (int) (sequence & mask);
+            if (!preallocated) {
+                buffer[index] = null;
+            }
+            slotSequences.set(index, sequence + capacity);
         }
         
         // Reset sequences
-        readSequence = writeSequence;
+        readSequence.set(write);
     }
     
     /**
@@ -277,9 +471,9 @@ public class RingBuffer<T> {
      */
     public RingBufferStatistics getStatistics() {
         return new RingBufferStatistics(
-            totalPublished,
-            totalConsumed,
-            bufferFullCount,
+            writeSequence.get() - publishedBase,
+            readSequence.get() - consumedBase,
+            bufferFullCount.sum(),
             size(),
             capacity,
             getUtilization()
@@ -290,9 +484,9 @@ public class RingBuffer<T> {
      * Resets performance statistics.
      */
     public void resetStatistics() {
-        totalPublished = 0;
-        totalConsumed = 0;
-        bufferFullCount = 0;
+        publishedBase = writeSequence.get();
+        consumedBase = readSequence.get();
+        bufferFullCount.reset();
     }
     
     /**
@@ -0,0 +1,321 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background worker that finishes file rotations off the logging thread.
+ * 
+ * A rolling appender only renames the active file and opens a new one while
+ * holding its lock; the slow part of a rotation (compressing the rotated
+ * file and pruning old backups) is submitted here and run on a single daemon
+ * thread, in submission order. Running every task for an appender on one
+ * thread means pruning never races a compression of the same files.
+ * Appenders that keep a standby file ready for the next rotation prepare it
+ * here as well.
+ * 
+ * The queue is bounded. When it is full, or the worker has been shut down,
+ * a submitted task runs on the caller's thread instead, so rotated files are
+ * never left unprocessed.
+ * 
+ * Rotation lag, the time from submission until a task finishes, is tracked
+ * for monitoring through {@link #getStatistics()}.
+ * 
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public class RolloverWorker {
+    
+    private static final int DEFAULT_QUEUE_SIZE = 64;
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger(1);
+    
+    private final BlockingQueue<Task> queue;
+    private final int maxQueueSize;
+    private final Thread thread;
+    
+    private final AtomicInteger pending = new AtomicInteger(0);
+    private final AtomicLong totalSubmitted = new AtomicLong(0);
+    private final AtomicLong totalCompleted = new AtomicLong(0);
+    private final AtomicLong totalFailed = new AtomicLong(0);
+    private final AtomicLong totalRanInline = new AtomicLong(0);
+    private final AtomicLong totalLagNanos = new AtomicLong(0);
+    private final AtomicLong maxLagNanos = new AtomicLong(0);
+    private volatile long lastLagNanos = 0;
+    
+    private volatile boolean shutdown = false;
+    
+    /**
+     * Creates a worker with the default queue size.
+     * 
+     * @param name name used for the worker thread, usually the appender name
+     */
+    public RolloverWorker(String name) {
+        this(name, DEFAULT_QUEUE_SIZE);
+    }
+    
+    /**
+     * Creates a worker and starts its thread.
+     * 
+     * @param name name used for the worker thread, usually the appender name
+     * @param maxQueueSize maximum number of rotations waiting to be processed
+     */
+    public RolloverWorker(String name, int maxQueueSize) {
+        this.maxQueueSize = Math.max(1, maxQueueSize);
+        this.queue = new ArrayBlockingQueue<>(this.maxQueueSize);
+        this.thread = new Thread(this::processTasks,
+            "log4Rich-rollover-" + name + "-" + THREAD_NUMBER.getAndIncrement());
+        this.thread.setDaemon(true);
+        this.thread.setPriority(Thread.NORM_PRIORITY - 1); // Lower priority than logging
+        this.thread.start();
+    }
+    
+    /**
+     * Submits rotation work. Returns without waiting unless the queue is full
+     * or the worker has been shut down, in which case the task runs on the
+     * calling thread before this method returns.
+     * 
+     * @param task the work to run
+     * @return true if the task was queued, false if it ran on the calling thread
+     */
+    public boolean submit(Runnable task) {
+        Task entry = new Task(task, System.nanoTime());
+        totalSubmitted.incrementAndGet();
+        pending.incrementAndGet();
+        
+        if (!shutdown && queue.offer(entry)) {
+            return true;
+        }
+        
+        totalRanInline.incrementAndGet();
+        run(entry);
+        return false;
+    }
+    
+    /**
+     * Waits until every submitted task has finished.
+     * 
+     * @param timeoutMs maximum time to wait in milliseconds
+     * @return true if no work is pending, false if the timeout elapsed first
+     */
+    public boolean awaitIdle(long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (pending.get() > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return pending.get() == 0;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Stops accepting work and waits for queued tasks to finish. Tasks
+     * submitted afterwards run on the caller's thread.
+     * 
+     * @param timeoutMs maximum time to wait for queued tasks in milliseconds
+     */
+    public void shutdown(long timeoutMs) {
+        shutdown = true;
+        try {
+            thread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            System.err.println("[log4Rich] Rollover worker did not finish within " + timeoutMs +
+                              "ms, " + pending.get() + " rotation(s) still pending");
+            return;
+        }
+        // A task offered while the worker was exiting is run here
+        Task task;
+        while ((task = queue.poll()) != null) {
+            run(task);
+        }
+    }
+    
+    /**
+     * Checks whether the worker has been shut down.
+     * 
+     * @return true once {@link #shutdown(long)} has been called
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+    
+    /**
+     * Gets current statistics for monitoring.
+     * 
+     * @return queue and rotation lag statistics
+     */
+    public RolloverStatistics getStatistics() {
+        long completed = totalCompleted.get() + totalFailed.get();
+        return new RolloverStatistics(
+            pending.get(),
+            maxQueueSize,
+            totalSubmitted.get(),
+            totalCompleted.get(),
+            totalFailed.get(),
+            totalRanInline.get(),
+            TimeUnit.NANOSECONDS.toMillis(lastLagNanos),
+            TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get()),
+            completed > 0 ? TimeUnit.NANOSECONDS.toMillis(totalLagNanos.get() / completed) : 0
+        );
+    }
+    
+    private void processTasks() {
+        while (!shutdown || !queue.isEmpty()) {
+            try {
+                Task task = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (task != null) {
+                    run(task);
+                }
+            } catch (InterruptedException e) {
+                // Keep draining; shutdown is signalled through the flag
+            }
+        }
+    }
+    
+    private void run(Task task) {
+        try {
+            task.action.run();
+            totalCompleted.incrementAndGet();
+        } catch (RuntimeException e) {
+            totalFailed.incrementAndGet();
+            System.err.println("[log4Rich] Rollover task failed: " + e.getMessage());
+        } finally {
+            long lag = System.nanoTime() - task.submittedNanos;
+            lastLagNanos = lag;
+            totalLagNanos.addAndGet(lag);
+            maxLagNanos.accumulateAndGet(lag, Math::max);
+            pending.decrementAndGet();
+        }
+    }
+    
+    /**
+     * A queued task with its submission time.
+     */
+    private static final class Task {
+        final Runnable action;
+        final long submittedNanos;
+        
+        Task(Runnable action, long submittedNanos) {
+            this.action = action;
+            this.submittedNanos = submittedNanos;
+        }
+    }
+    
+    /**
+     * Rollover worker statistics.
+     */
+    public static class RolloverStatistics {
+        private final int pendingTasks;
+        private final int maxQueueSize;
+        private final long totalSubmitted;
+        private final long totalCompleted;
+        private final long totalFailed;
+        private final long totalRanInline;
+        private final long lastLagMillis;
+        private final long maxLagMillis;
+        private final long averageLagMillis;
+        
+        RolloverStatistics(int pendingTasks, int maxQueueSize, long totalSubmitted, long totalCompleted,
+                           long totalFailed, long totalRanInline, long lastLagMillis, long maxLagMillis,
+                           long averageLagMillis) {
+            this.pendingTasks = pendingTasks;
+            this.maxQueueSize = maxQueueSize;
+            this.totalSubmitted = totalSubmitted;
+            this.totalCompleted = totalCompleted;
+            this.totalFailed = totalFailed;
+            this.totalRanInline = totalRanInline;
+            this.lastLagMillis = lastLagMillis;
+            this.maxLagMillis = maxLagMillis;
+            this.averageLagMillis = averageLagMillis;
+        }
+        
+        /**
+         * Gets the number of rotations submitted but not yet finished.
+         * @return number of pending rotations
+         */
+        public int getPendingTasks() { return pendingTasks; }
+        
+        /**
+         * Gets the queue capacity.
+         * @return the queue capacity
+         */
+        public int getMaxQueueSize() { return maxQueueSize; }
+        
+        /**
+         * Gets the total number of rotations submitted.
+         * @return total number of rotations submitted
+         */
+        public long getTotalSubmitted() { return totalSubmitted; }
+        
+        /**
+         * Gets the number of rotations that finished without error.
+         * @return number of completed rotations
+         */
+        public long getTotalCompleted() { return totalCompleted; }
+        
+        /**
+         * Gets the number of rotations whose task threw an exception.
+         * @return number of failed rotations
+         */
+        public long getTotalFailed() { return totalFailed; }
+        
+        /**
+         * Gets the number of rotations that ran on the logging thread because the queue was full.
+         * @return number of rotations run inline
+         */
+        public long getTotalRanInline() { return totalRanInline; }
+        
+        /**
+         * Gets the lag of the most recently finished rotation in milliseconds.
+         * @return the lag of the most recently finished rotation in milliseconds
+         */
+        public long getLastLagMillis() { return lastLagMillis; }
+        
+        /**
+         * Gets the largest lag seen in milliseconds.
+         * @return the largest lag seen in milliseconds
+         */
+        public long getMaxLagMillis() { return maxLagMillis; }
+        
+        /**
+         * Gets the average lag in milliseconds.
+         * @return the average lag in milliseconds
+         */
+        public long getAverageLagMillis() { return averageLagMillis; }
+        
+        @Override
+        public String toString() {
+            return String.format("RolloverStats{pending=%d/%d, submitted=%d, completed=%d, failed=%d, " +
+                               "inline=%d, lastLag=%dms, maxLag=%dms, avgLag=%dms}",
+                               pendingTasks, maxQueueSize, totalSubmitted, totalCompleted, totalFailed,
+                               totalRanInline, lastLagMillis, maxLagMillis, averageLagMillis);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Left-hand cache line padding for {@link Sequence}.
+ * The JVM lays out superclass fields before subclass fields, so padding
+ * declared through the class hierarchy stays adjacent to the value.
+ */
+abstract class SequenceLhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+/**
+ * Holder of the sequence value, surrounded by padding on both sides.
+ */
+abstract class SequenceValue extends SequenceLhsPadding {
+    protected volatile long value;
+}
+
+/**
+ * Right-hand cache line padding for {@link Sequence}.
+ */
+abstract class SequenceRhsPadding extends SequenceValue {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
+
+/**
+ * Cache-line padded atomic sequence counter.
+ *
+ * A plain {@code AtomicLong} or a volatile field shares its cache line with
+ * whatever the allocator places next to it, so two hot counters updated by
+ * different threads (such as the producer and consumer cursors of a ring
+ * buffer) invalidate each other on every write. This class pads the value
+ * with seven longs on each side so that it owns a full 64-byte cache line.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public final class Sequence extends SequenceRhsPadding {
+
+    private static final AtomicLongFieldUpdater<SequenceValue> UPDATER =
+        AtomicLongFieldUpdater.newUpdater(SequenceValue.class, "value");
+
+    /**
+     * Creates a sequence with the given initial value.
+     *
+     * @param initialValue the initial value
+     */
+    public Sequence(long initialValue) {
+        UPDATER.lazySet(this, initialValue);
+    }
+
+    /**
+     * Gets the current value with volatile read semantics.
+     *
+     * @return the current value
+     */
+    public long get() {
+        return value;
+    }
+
+    /**
+     * Sets the value with volatile write semantics.
+     *
+     * @param newValue the new value
+     */
+    public void set(long newValue) {
+        value = newValue;
+    }
+
+    /**
+     * Sets the value with release semantics only. Cheaper than {@link #set(long)}
+     * when the writer is the sole owner of the sequence.
+     *
+     * @param newValue the new value
+     */
+    public void lazySet(long newValue) {
+        UPDATER.lazySet(this, newValue);
+    }
+
+    /**
+     * Atomically sets the value if it currently equals the expected value.
+     *
+     * @param expected the expected current value
+     * @param newValue the new value
+     * @return true if the update succeeded
+     */
+    public boolean compareAndSet(long expected, long newValue) {
+        return UPDATER.compareAndSet(this, expected, newValue);
+    }
+
+    /**
+     * Atomically adds the given delta and returns the previous value.
+     *
+     * @param delta the amount to add
+     * @return the value before the addition
+     */
+    public long getAndAdd(long delta) {
+        return UPDATER.getAndAdd(this, delta);
+    }
+
+    /**
+     * Atomically adds the given delta and returns the updated value.
+     *
+     * @param delta the amount to add
+     * @return the value after the addition
+     */
+    public long addAndGet(long delta) {
+        return UPDATER.addAndGet(this, delta);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(value);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+/**
+ * Finds the application frame that called into the logging framework.
+ *
+ * This is the Java 8 implementation, which scans the stack trace of a new
+ * Throwable. The multi-release jar carries a Java 9 version under
+ * {@code META-INF/versions/9} that uses {@code java.lang.StackWalker}
+ * instead and stops walking at the caller's frame.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+final class StackLocator {
+
+    private StackLocator() {
+        // Utility class
+    }
+
+    /**
+     * Gets the location of the first frame outside the logging packages.
+     *
+     * @return the interned caller location, or null if there is none
+     */
+    static LocationInfo getCaller() {
+        StackTraceElement[] stack = new Throwable().getStackTrace();
+        for (StackTraceElement element : stack) {
+            if (!LocationInfo.isLoggingFrame(element.getClassName())) {
+                return LocationInfo.intern(
+                    element.getClassName(),
+                    element.getMethodName(),
+                    element.getFileName(),
+                    element.getLineNumber()
+                );
+            }
+        }
+        return null;
+    }
+}
@@ -17,27 +17,87 @@
 
 package com.log4rich.util;
 
+import com.log4rich.core.LogLevel;
+
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Thread-safe file writer with buffering support.
  * Provides synchronized access to file writing operations with automatic
  * initialization, parent directory creation, and resource management.
+ * 
+ * Text is encoded into a reused byte buffer rather than through a Writer;
+ * UTF-8 uses the allocation-free {@link Utf8Encoder}. Callers that already
+ * hold encoded bytes can pass them to {@link #write(ByteBuffer)} directly.
+ * 
+ * A writer created with a flush watermark writes through the file's
+ * {@link FileChannel} instead of a buffered stream. UTF-8 text is encoded
+ * straight into direct buffers taken from the {@link DirectBufferPool};
+ * once the buffered bytes reach the watermark they are written with one
+ * gathering write, so the bytes are copied once on their way to the
+ * kernel instead of three times.
+ * 
+ * A gzip writer compresses everything it writes into a gzip stream, so a
+ * rolled file needs no compression afterwards. The compressor is
+ * sync-flushed at most once per flush interval, on a write, and on every
+ * {@link #flush()} and {@link #sync()}, which keeps the file's tail
+ * readable with {@code zcat} while it is being written; {@link #close()}
+ * completes the stream. The file size then counts compressed bytes.
+ * 
+ * A gzip writer with an index block size writes the seekable format of
+ * {@link IndexedGzipOutputStream}: callers announce each event with
+ * {@link #markEvent(long, LogLevel)} before writing it, and the file is
+ * split into independently compressed blocks of whole events with an
+ * index of their timestamps and levels.
  */
 public class ThreadSafeWriter {
     
     private final ReentrantLock lock;
-    private final File file;
+    private volatile File file;  // changes only through renameTo
     private final Charset charset;
     private final boolean immediateFlush;
     private final int bufferSize;
+    private final boolean utf8;
+    
+    // Encode buffers that grew beyond this are not kept for reuse
+    private static final int MAX_REUSABLE_BUFFER_SIZE = 65536;
+    
+    // Zero for stream writes; otherwise the bytes buffered before a channel write
+    private final int flushWatermark;
+    
+    // Negative for plain writes; otherwise the longest time between gzip sync flushes
+    private final long syncFlushInterval;
+    private final int compressionLevel;
+    private final int indexBlockSize;  // zero unless gzip writes are indexed
+    private SyncFlushGzipStream gzipOut;  // unindexed gzip writes only
+    private IndexedGzipOutputStream indexedOut;  // indexed gzip writes only
+    private long lastSyncFlush;
+    private boolean syncFlushPending;  // gzip bytes written since the last sync flush
     
-    private BufferedWriter writer;
+    private OutputStream out;  // stream writes only
+    private FileChannel channel;
+    private ByteBuffer[] segments;  // channel writes only; the first segmentCount hold pending bytes
+    private int segmentCount;
+    private long pendingBytes;
+    private CharsetEncoder encoder;  // charsets other than UTF-8 only
+    private ByteBuffer encodeBuffer;
     private boolean closed;
     
+    // File length at open plus every byte written since; -1 until opened
+    private volatile long bytesWritten = -1;
+    
     /**
      * Creates a new ThreadSafeWriter with default settings.
      * Uses UTF-8 encoding, immediate flush enabled, and 8KB buffer size.
@@ -57,10 +117,82 @@ public class ThreadSafeWriter {
      * @param bufferSize the buffer size in bytes
      */
     public ThreadSafeWriter(File file, Charset charset, boolean immediateFlush, int bufferSize) {
+        this(file, charset, immediateFlush, bufferSize, 0);
+    }
+    
+    /**
+     * Creates a new ThreadSafeWriter that writes through the file channel
+     * from pooled direct buffers of {@code bufferSize} bytes when
+     * {@code flushWatermark} is positive. Pending bytes are written once they
+     * reach the watermark, or after every write with immediate flush.
+     * 
+     * @param file the file to write to
+     * @param charset the character encoding to use
+     * @param immediateFlush whether to flush after each write
+     * @param bufferSize the buffer size in bytes
+     * @param flushWatermark the pending bytes that trigger a channel write,
+     *                       or 0 to write through a buffered stream
+     */
+    public ThreadSafeWriter(File file, Charset charset, boolean immediateFlush, int bufferSize,
+                            int flushWatermark) {
         this.file = file;
         this.charset = charset;
         this.immediateFlush = immediateFlush;
         this.bufferSize = bufferSize;
+        this.flushWatermark = Math.max(0, flushWatermark);
+        this.syncFlushInterval = -1;
+        this.compressionLevel = Deflater.DEFAULT_COMPRESSION;
+        this.indexBlockSize = 0;
+        this.utf8 = StandardCharsets.UTF_8.equals(charset);
+        this.lock = new ReentrantLock();
+        this.closed = false;
+    }
+    
+    /**
+     * Creates a new ThreadSafeWriter that gzip-compresses what it writes.
+     * Opening an existing file appends a new gzip member to it, which
+     * decompresses as a continuation of the file as long as the earlier
+     * members are complete.
+     * 
+     * @param file the file to write to
+     * @param charset the character encoding to use
+     * @param bufferSize the buffer size in bytes
+     * @param compressionLevel the compression level from 0 to 9
+     * @param syncFlushIntervalMillis the longest time in milliseconds between
+     *                                sync flushes while writing; 0 sync-flushes
+     *                                every write, at a cost in compression
+     */
+    public ThreadSafeWriter(File file, Charset charset, int bufferSize, int compressionLevel,
+                            long syncFlushIntervalMillis) {
+        this(file, charset, bufferSize, compressionLevel, syncFlushIntervalMillis, 0);
+    }
+    
+    /**
+     * Creates a new ThreadSafeWriter that gzip-compresses what it writes,
+     * in the block-indexed format of {@link IndexedGzipOutputStream} when
+     * {@code indexBlockSize} is positive. The index covers the blocks
+     * written since the file was opened.
+     * 
+     * @param file the file to write to
+     * @param charset the character encoding to use
+     * @param bufferSize the buffer size in bytes
+     * @param compressionLevel the compression level from 0 to 9
+     * @param syncFlushIntervalMillis the longest time in milliseconds between
+     *                                sync flushes while writing
+     * @param indexBlockSize the uncompressed bytes per indexed block, or 0
+     *                       for one unindexed gzip stream
+     */
+    public ThreadSafeWriter(File file, Charset charset, int bufferSize, int compressionLevel,
+                            long syncFlushIntervalMillis, int indexBlockSize) {
+        this.file = file;
+        this.charset = charset;
+        this.immediateFlush = false;
+        this.bufferSize = bufferSize;
+        this.flushWatermark = 0;
+        this.syncFlushInterval = Math.max(0, syncFlushIntervalMillis);
+        this.compressionLevel = compressionLevel;
+        this.indexBlockSize = Math.max(0, indexBlockSize);
+        this.utf8 = StandardCharsets.UTF_8.equals(charset);
         this.lock = new ReentrantLock();
         this.closed = false;
     }
@@ -86,10 +218,43 @@ public class ThreadSafeWriter {
                 }
             }
             
-            // Create buffered writer
-            FileOutputStream fos = new FileOutputStream(file, true); // Append mode
-            OutputStreamWriter osw = new OutputStreamWriter(fos, charset);
-            writer = new BufferedWriter(osw, bufferSize);
+            if (flushWatermark > 0) {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                // Enough segments to reach the watermark, plus one because a segment may be
+                // left partly filled; each is taken from the pool when first used
+                segments = new ByteBuffer[(flushWatermark + bufferSize - 1) / bufferSize + 1];
+                bytesWritten = channel.size();
+            } else if (indexBlockSize > 0) {
+                FileOutputStream fos = new FileOutputStream(file, true); // Append mode
+                channel = fos.getChannel();
+                bytesWritten = channel.size();
+                // Buffers its input itself, so block boundaries fall between events
+                indexedOut = new IndexedGzipOutputStream(new CountingStream(fos), bytesWritten,
+                        bufferSize, compressionLevel, indexBlockSize);
+                out = indexedOut;
+                lastSyncFlush = System.currentTimeMillis();
+            } else if (syncFlushInterval >= 0) {
+                FileOutputStream fos = new FileOutputStream(file, true); // Append mode
+                channel = fos.getChannel();
+                bytesWritten = channel.size();
+                gzipOut = new SyncFlushGzipStream(new CountingStream(fos), bufferSize, compressionLevel);
+                // Batches small writes before they reach the compressor
+                out = new BufferedOutputStream(gzipOut, bufferSize);
+                lastSyncFlush = System.currentTimeMillis();
+            } else {
+                // Create buffered stream
+                FileOutputStream fos = new FileOutputStream(file, true); // Append mode
+                out = new BufferedOutputStream(fos, bufferSize);
+                channel = fos.getChannel();
+                bytesWritten = channel.size();
+            }
+            encodeBuffer = ByteBuffer.allocate(1024);
+            if (!utf8) {
+                encoder = charset.newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            }
             
         } finally {
             lock.unlock();
@@ -104,27 +269,257 @@ public class ThreadSafeWriter {
      * @throws IOException if writing fails
      */
     public void write(String text) throws IOException {
+        write((CharSequence) text);
+    }
+    
+    /**
+     * Writes text held in a builder, such as a layout's reused format
+     * buffer, without creating a String. With channel writes and UTF-8 the
+     * characters are encoded straight into the pending direct buffers.
+     * The writer is automatically initialized if not already done.
+     * 
+     * @param text the text to write
+     * @throws IOException if writing fails
+     */
+    public void write(CharSequence text) throws IOException {
         lock.lock();
         try {
             if (closed) {
                 throw new IOException("Writer is closed");
             }
             
-            if (writer == null) {
+            if (channel == null) {
                 initialize();
             }
             
-            writer.write(text);
+            if (utf8 && segments != null && encodeIntoSegment(text)) {
+                return;
+            }
             
-            if (immediateFlush) {
-                writer.flush();
+            ByteBuffer buffer = encodeBuffer;
+            buffer.clear();
+            if (utf8) {
+                buffer = Utf8Encoder.encode(text, buffer);
+            } else {
+                buffer = encodeWithCharset(text, buffer);
             }
+            buffer.flip();
+            writeBytes(buffer);
+            
+            encodeBuffer = buffer.capacity() > MAX_REUSABLE_BUFFER_SIZE
+                    ? ByteBuffer.allocate(1024) : buffer;
             
         } finally {
             lock.unlock();
         }
     }
     
+    /**
+     * Writes already encoded bytes to the file, from the buffer's position to
+     * its limit. The buffer's position is advanced to its limit.
+     * The writer is automatically initialized if not already done.
+     * 
+     * @param bytes the bytes to write
+     * @throws IOException if writing fails
+     */
+    public void write(ByteBuffer bytes) throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Writer is closed");
+            }
+            
+            if (channel == null) {
+                initialize();
+            }
+            
+            writeBytes(bytes);
+            
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Checks whether this writer encodes text as UTF-8, so that bytes produced
+     * by {@link com.log4rich.layouts.Layout#encode} can be written as they are.
+     * 
+     * @return true if the charset is UTF-8
+     */
+    public boolean isUtf8() {
+        return utf8;
+    }
+    
+    /**
+     * Encodes UTF-8 text straight into a direct segment with room for one
+     * byte per character, which is exact for ASCII. Text longer than a
+     * segment goes through the encode buffer instead.
+     */
+    private boolean encodeIntoSegment(CharSequence text) throws IOException {
+        if (text.length() > bufferSize) {
+            return false;
+        }
+        ByteBuffer segment = segmentWithRoom(text.length());
+        int start = segment.position();
+        ByteBuffer encoded = Utf8Encoder.encode(text, segment);
+        int length;
+        if (encoded == segment) {
+            length = segment.position() - start;
+            pendingBytes += length;
+        } else {
+            // Multi-byte characters outgrew the segment, so the encoder moved
+            // its content to a heap buffer; carry the new bytes over from there
+            segment.limit(segment.capacity());
+            segment.position(start);
+            encoded.flip();
+            encoded.position(start);
+            length = encoded.remaining();
+            appendToSegments(encoded);
+        }
+        bytesWritten += length;
+        flushIfNeeded();
+        return true;
+    }
+    
+    /**
+     * Gets the segment to append to, moving on to the next one when the
+     * current one has less than {@code required} bytes left and writing the
+     * pending segments when all are in use. A partly filled segment is left
+     * as it is; the gathering write skips its unused tail.
+     */
+    private ByteBuffer segmentWithRoom(int required) throws IOException {
+        if (segmentCount > 0 && segments[segmentCount - 1].remaining() >= required) {
+            return segments[segmentCount - 1];
+        }
+        if (segmentCount == segments.length) {
+            writePending();
+        }
+        if (segments[segmentCount] == null) {
+            segments[segmentCount] = DirectBufferPool.acquire(bufferSize);
+        }
+        return segments[segmentCount++];
+    }
+    
+    private void appendToSegments(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            ByteBuffer segment = segmentWithRoom(1);
+            int count = Math.min(segment.remaining(), bytes.remaining());
+            int limit = bytes.limit();
+            bytes.limit(bytes.position() + count);
+            segment.put(bytes);
+            bytes.limit(limit);
+            pendingBytes += count;
+        }
+    }
+    
+    /**
+     * Writes the pending segments with gathering writes and clears them.
+     */
+    private void writePending() throws IOException {
+        if (segmentCount == 0) {
+            return;
+        }
+        try {
+            for (int i = 0; i < segmentCount; i++) {
+                segments[i].flip();
+            }
+            long remaining = pendingBytes;
+            while (remaining > 0) {
+                remaining -= channel.write(segments, 0, segmentCount);
+            }
+        } finally {
+            for (int i = 0; i < segmentCount; i++) {
+                segments[i].clear();
+            }
+            segmentCount = 0;
+            pendingBytes = 0;
+        }
+    }
+    
+    private void flushIfNeeded() throws IOException {
+        if (syncFlushInterval >= 0) {
+            if (System.currentTimeMillis() - lastSyncFlush >= syncFlushInterval) {
+                flushOutput();
+            } else {
+                syncFlushPending = true;
+            }
+        } else if (immediateFlush) {
+            flushOutput();
+        } else if (segments != null && pendingBytes >= flushWatermark) {
+            writePending();
+        }
+    }
+    
+    private void flushOutput() throws IOException {
+        if (segments != null) {
+            writePending();
+        } else {
+            out.flush();
+            if (gzipOut != null) {
+                gzipOut.syncFlush();
+                lastSyncFlush = System.currentTimeMillis();
+                syncFlushPending = false;
+            } else if (indexedOut != null) {
+                indexedOut.syncFlush();
+                lastSyncFlush = System.currentTimeMillis();
+                syncFlushPending = false;
+            }
+        }
+    }
+    
+    private void writeBytes(ByteBuffer bytes) throws IOException {
+        int length = bytes.remaining();
+        if (segments != null) {
+            appendToSegments(bytes);
+        } else if (bytes.hasArray()) {
+            out.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+            bytes.position(bytes.limit());
+        } else {
+            byte[] chunk = new byte[Math.min(bytes.remaining(), bufferSize)];
+            while (bytes.hasRemaining()) {
+                int count = Math.min(chunk.length, bytes.remaining());
+                bytes.get(chunk, 0, count);
+                out.write(chunk, 0, count);
+            }
+        }
+        if (syncFlushInterval < 0) {
+            // Gzip writers count the compressed bytes as they reach the file
+            bytesWritten += length;
+        }
+        flushIfNeeded();
+    }
+    
+    private ByteBuffer encodeWithCharset(CharSequence text, ByteBuffer buffer) {
+        CharBuffer chars = CharBuffer.wrap(text);
+        // Not end of input: a trailing high surrogate waits for the next write
+        while (encoder.encode(chars, buffer, false).isOverflow()) {
+            buffer = grow(buffer);
+        }
+        return buffer;
+    }
+    
+    private void finishEncoding() throws IOException {
+        ByteBuffer buffer = encodeBuffer;
+        buffer.clear();
+        while (encoder.encode(CharBuffer.allocate(0), buffer, true).isOverflow()) {
+            buffer = grow(buffer);
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            buffer = grow(buffer);
+        }
+        buffer.flip();
+        if (buffer.hasRemaining()) {
+            writeBytes(buffer);
+        }
+    }
+    
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+    
     /**
      * Flushes any buffered data to the file.
      * This method is safe to call even if the writer is closed.
@@ -134,14 +529,71 @@ public class ThreadSafeWriter {
     public void flush() throws IOException {
         lock.lock();
         try {
-            if (writer != null && !closed) {
-                writer.flush();
+            if (channel != null && !closed) {
+                flushOutput();
             }
         } finally {
             lock.unlock();
         }
     }
     
+    /**
+     * Sync-flushes a gzip writer that has written since its last sync flush
+     * once the sync flush interval has passed. Writes only check the
+     * interval when they are made, so a timer calls this to make the tail
+     * readable when logging goes quiet.
+     * 
+     * @return the milliseconds until a sync flush may next be due, or 0 if
+     *         there is nothing to time: a plain writer, or an interval of 0
+     *         so that every write sync-flushes
+     * @throws IOException if flushing fails
+     */
+    public long syncFlushIfDue() throws IOException {
+        lock.lock();
+        try {
+            if (syncFlushInterval < 0 || channel == null || closed || !syncFlushPending) {
+                return Math.max(0, syncFlushInterval);
+            }
+            long wait = lastSyncFlush + syncFlushInterval - System.currentTimeMillis();
+            if (wait > 0) {
+                return wait;
+            }
+            flushOutput();
+            return syncFlushInterval;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Flushes buffered data and forces the file's content to storage. The
+     * lock is held only for the flush, so other threads keep writing while
+     * the storage device works; their bytes may or may not be included.
+     * Syncing a writer that is closed, or closed during the sync, does
+     * nothing: whoever closes it is responsible for syncing it first.
+     * 
+     * @throws IOException if flushing or forcing fails
+     */
+    public void sync() throws IOException {
+        FileChannel target;
+        lock.lock();
+        try {
+            if (channel == null || closed) {
+                return;
+            }
+            flushOutput();
+            target = channel;
+        } finally {
+            lock.unlock();
+        }
+        
+        try {
+            target.force(false);
+        } catch (ClosedChannelException e) {
+            // Closed meanwhile
+        }
+    }
+    
     /**
      * Closes the writer and releases resources.
      * This method is safe to call multiple times.
@@ -157,16 +609,99 @@ public class ThreadSafeWriter {
             
             closed = true;
             
-            if (writer != null) {
-                writer.flush();
-                writer.close();
-                writer = null;
+            if (channel != null) {
+                try {
+                    if (encoder != null) {
+                        finishEncoding();
+                    }
+                    flushOutput();
+                } finally {
+                    if (out != null) {
+                        // Completes the gzip stream of a gzip writer
+                        out.close();
+                        out = null;
+                        gzipOut = null;
+                        indexedOut = null;
+                    } else {
+                        channel.close();
+                    }
+                    channel = null;
+                    releaseSegments();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void releaseSegments() {
+        if (segments == null) {
+            return;
+        }
+        for (ByteBuffer segment : segments) {
+            DirectBufferPool.release(segment);
+        }
+        segments = null;
+        segmentCount = 0;
+    }
+    
+    /**
+     * Gets the pending bytes that trigger a channel write.
+     * 
+     * @return the flush watermark in bytes, or 0 if this writer writes
+     *         through a buffered stream
+     */
+    public int getFlushWatermark() {
+        return flushWatermark;
+    }
+    
+    /**
+     * Announces an event whose text is written next. An indexed gzip writer
+     * records it in the current block, first closing the block if it is
+     * full; other writers ignore it. Callers that write an event with
+     * several writes must keep other threads from writing in between.
+     * 
+     * @param timestamp the event timestamp in milliseconds
+     * @param level the event level
+     * @throws IOException if closing a block fails
+     */
+    public void markEvent(long timestamp, LogLevel level) throws IOException {
+        if (indexBlockSize == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Writer is closed");
             }
+            if (channel == null) {
+                initialize();
+            }
+            indexedOut.startEvent(timestamp, level);
         } finally {
             lock.unlock();
         }
     }
     
+    /**
+     * Gets the uncompressed bytes per indexed block.
+     * 
+     * @return the block size in bytes, or 0 if this writer does not write
+     *         the indexed format
+     */
+    public int getIndexBlockSize() {
+        return indexBlockSize;
+    }
+    
+    /**
+     * Checks whether this writer gzip-compresses what it writes.
+     * 
+     * @return true for a gzip writer
+     */
+    public boolean isGzip() {
+        return syncFlushInterval >= 0;
+    }
+    
     /**
      * Checks if the writer is closed.
      * 
@@ -181,6 +716,28 @@ public class ThreadSafeWriter {
         }
     }
     
+    /**
+     * Renames the file while it stays open, so that writes continue into the
+     * renamed file. This relies on the platform allowing open files to be
+     * renamed; where it doesn't, false is returned and the writer keeps its
+     * current file.
+     * 
+     * @param target the new name of the file
+     * @return true if the file was renamed
+     */
+    public boolean renameTo(File target) {
+        lock.lock();
+        try {
+            if (closed || !file.renameTo(target)) {
+                return false;
+            }
+            file = target;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
     /**
      * Gets the file this writer is writing to.
      * 
@@ -191,11 +748,65 @@ public class ThreadSafeWriter {
     }
     
     /**
-     * Gets the current file size.
+     * Gets the current file size. Once the writer has been opened this is
+     * the file's length at open plus the bytes written since, including
+     * bytes still held in the buffer; before that the file is checked on disk.
+     * A gzip writer counts the compressed bytes that have reached the file,
+     * so bytes held by the compressor are not included.
      * 
      * @return the file size in bytes, or 0 if the file doesn't exist
      */
     public long getFileSize() {
+        long written = bytesWritten;
+        if (written >= 0) {
+            return written;
+        }
         return file.exists() ? file.length() : 0;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Gzip stream that can be sync-flushed: everything written so far is
+     * compressed and written out, ending on a byte boundary, while the
+     * compressor keeps its history for what follows.
+     */
+    private static final class SyncFlushGzipStream extends GZIPOutputStream {
+        
+        SyncFlushGzipStream(OutputStream out, int bufferSize, int level) throws IOException {
+            super(out, bufferSize, false);
+            def.setLevel(level);
+        }
+        
+        void syncFlush() throws IOException {
+            int length;
+            while ((length = def.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH)) > 0) {
+                out.write(buf, 0, length);
+                if (length < buf.length) {
+                    break;
+                }
+            }
+            out.flush();
+        }
+    }
+    
+    /**
+     * Adds the bytes that reach the file to the writer's byte count.
+     */
+    private final class CountingStream extends FilterOutputStream {
+        
+        CountingStream(OutputStream out) {
+            super(out);
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytesWritten++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytesWritten += len;
+        }
+    }
+}
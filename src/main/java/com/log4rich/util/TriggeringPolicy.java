@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Decides when a rolling file appender rotates its file.
+ *
+ * The policies are:
+ * - {@link SizeBased}: rolls once the file reaches a maximum size (default)
+ * - {@link TimeBased}: rolls at the first event past an hourly or daily boundary
+ * - {@link Composite}: rolls when any of its policies would
+ *
+ * The appender asks {@link #isTriggeringEvent(long, long)} for every event,
+ * so implementations keep that check to a comparison of longs; anything
+ * more expensive, such as working out the next time boundary, is done in
+ * {@link #fileStarted(long)}, which runs once per file.
+ *
+ * Policies are called with the appender's lock held and are not thread-safe
+ * otherwise. A policy instance holds per-file state and must not be shared
+ * between appenders. Use {@link #fromString(String, String, SizeBased)} to
+ * create one by name.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public interface TriggeringPolicy {
+
+    /**
+     * Called when the appender starts writing a file: when it opens the file
+     * for the first time and after every rollover.
+     *
+     * @param startTime the time the file's content starts, in milliseconds;
+     *                  the last modification time for an existing file
+     */
+    void fileStarted(long startTime);
+
+    /**
+     * Checks whether the file must be rolled before an event is written.
+     *
+     * @param timestamp the event timestamp in milliseconds
+     * @param fileSize the current file size in bytes, including unflushed bytes
+     * @return true if the appender should roll over
+     */
+    boolean isTriggeringEvent(long timestamp, long fileSize);
+
+    /**
+     * Gets the configuration name of this policy.
+     *
+     * @return the policy name, such as {@code SIZE}
+     */
+    String getName();
+
+    /**
+     * Creates a policy from its configuration name (case-insensitive).
+     *
+     * @param name SIZE, TIME or SIZE_AND_TIME; null or empty selects SIZE
+     * @param interval HOURLY or DAILY, used by the time-based policies; null
+     *                 or empty selects DAILY
+     * @param sizePolicy the size policy to use for SIZE and SIZE_AND_TIME
+     * @return the policy
+     * @throws IllegalArgumentException if the name or interval is not recognized
+     */
+    static TriggeringPolicy fromString(String name, String interval, SizeBased sizePolicy) {
+        if (name == null || name.trim().isEmpty()) {
+            return sizePolicy;
+        }
+
+        String normalized = name.trim().toUpperCase().replace('-', '_');
+        switch (normalized) {
+            case "SIZE":
+                return sizePolicy;
+            case "TIME":
+                return new TimeBased(Interval.fromString(interval));
+            case "SIZE_AND_TIME":
+                return new Composite(sizePolicy, new TimeBased(Interval.fromString(interval)));
+            default:
+                throw new IllegalArgumentException(
+                    "Unknown rollover policy: " + name +
+                    ". Valid options: SIZE, TIME, SIZE_AND_TIME"
+                );
+        }
+    }
+
+    /**
+     * Period boundaries for {@link TimeBased} rollover.
+     */
+    enum Interval {
+        /** Rolls at the start of every hour. */
+        HOURLY(ChronoUnit.HOURS),
+        /** Rolls at midnight. */
+        DAILY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Interval(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        /**
+         * Gets the first boundary after a point in time.
+         *
+         * @param time the point in time in milliseconds
+         * @param zone the time zone boundaries are computed in
+         * @return the next boundary in milliseconds
+         */
+        long nextBoundary(long time, ZoneId zone) {
+            ZonedDateTime start = Instant.ofEpochMilli(time).atZone(zone).truncatedTo(unit);
+            // Adding to the local time keeps daily boundaries at midnight across DST changes
+            return start.plus(1, unit).toInstant().toEpochMilli();
+        }
+
+        /**
+         * Parses an interval name (case-insensitive).
+         *
+         * @param name HOURLY or DAILY; null or empty selects DAILY
+         * @return the interval
+         * @throws IllegalArgumentException if the name is not recognized
+         */
+        public static Interval fromString(String name) {
+            if (name == null || name.trim().isEmpty()) {
+                return DAILY;
+            }
+            try {
+                return valueOf(name.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                    "Unknown rollover interval: " + name + ". Valid options: HOURLY, DAILY");
+            }
+        }
+    }
+
+    /**
+     * Rolls once the file reaches a maximum size.
+     *
+     * The limit may be changed while the appender runs, for example by the
+     * adaptive size increase after compression falls behind.
+     */
+    final class SizeBased implements TriggeringPolicy {
+
+        private volatile long maxFileSize;
+
+        /**
+         * Creates a size-based policy.
+         *
+         * @param maxFileSize the maximum file size in bytes
+         */
+        public SizeBased(long maxFileSize) {
+            this.maxFileSize = maxFileSize;
+        }
+
+        @Override
+        public void fileStarted(long startTime) {
+        }
+
+        @Override
+        public boolean isTriggeringEvent(long timestamp, long fileSize) {
+            return fileSize >= maxFileSize;
+        }
+
+        /**
+         * Gets the maximum file size.
+         *
+         * @return the maximum file size in bytes
+         */
+        public long getMaxFileSize() {
+            return maxFileSize;
+        }
+
+        /**
+         * Sets the maximum file size.
+         *
+         * @param maxFileSize the maximum file size in bytes
+         */
+        public void setMaxFileSize(long maxFileSize) {
+            this.maxFileSize = maxFileSize;
+        }
+
+        @Override
+        public String getName() {
+            return "SIZE";
+        }
+    }
+
+    /**
+     * Rolls at the first event at or after the next hourly or daily boundary.
+     *
+     * The boundary is computed once when a file starts, so the per-event
+     * check compares the event timestamp with a precomputed value. An
+     * existing file last written before the current period is rolled by the
+     * first event after startup.
+     */
+    final class TimeBased implements TriggeringPolicy {
+
+        private final Interval interval;
+        private final ZoneId zone;
+        private long nextRolloverTime = Long.MAX_VALUE;
+
+        /**
+         * Creates a time-based policy using the system time zone.
+         *
+         * @param interval the rollover interval
+         */
+        public TimeBased(Interval interval) {
+            this(interval, ZoneId.systemDefault());
+        }
+
+        /**
+         * Creates a time-based policy.
+         *
+         * @param interval the rollover interval
+         * @param zone the time zone boundaries are computed in
+         */
+        public TimeBased(Interval interval, ZoneId zone) {
+            this.interval = interval != null ? interval : Interval.DAILY;
+            this.zone = zone != null ? zone : ZoneId.systemDefault();
+        }
+
+        @Override
+        public void fileStarted(long startTime) {
+            nextRolloverTime = interval.nextBoundary(startTime, zone);
+        }
+
+        @Override
+        public boolean isTriggeringEvent(long timestamp, long fileSize) {
+            return timestamp >= nextRolloverTime;
+        }
+
+        /**
+         * Gets the time of the next rollover.
+         *
+         * @return the next boundary in milliseconds, or {@link Long#MAX_VALUE}
+         *         before the first file has started
+         */
+        public long getNextRolloverTime() {
+            return nextRolloverTime;
+        }
+
+        /**
+         * Gets the rollover interval.
+         *
+         * @return the interval
+         */
+        public Interval getInterval() {
+            return interval;
+        }
+
+        @Override
+        public String getName() {
+            return "TIME";
+        }
+    }
+
+    /**
+     * Rolls when any of its policies would, for example on size within a
+     * day and at every midnight.
+     */
+    final class Composite implements TriggeringPolicy {
+
+        private final TriggeringPolicy[] policies;
+
+        /**
+         * Creates a composite policy.
+         *
+         * @param policies the policies to combine
+         */
+        public Composite(TriggeringPolicy... policies) {
+            this.policies = policies.clone();
+        }
+
+        @Override
+        public void fileStarted(long startTime) {
+            for (TriggeringPolicy policy : policies) {
+                policy.fileStarted(startTime);
+            }
+        }
+
+        @Override
+        public boolean isTriggeringEvent(long timestamp, long fileSize) {
+            for (TriggeringPolicy policy : policies) {
+                if (policy.isTriggeringEvent(timestamp, fileSize)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String getName() {
+            if (policies.length == 2 && policies[0] instanceof SizeBased && policies[1] instanceof TimeBased) {
+                return "SIZE_AND_TIME";
+            }
+            return "COMPOSITE";
+        }
+    }
+}
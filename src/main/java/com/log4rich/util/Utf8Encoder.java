@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes character sequences as UTF-8 straight into a {@link ByteBuffer}.
+ *
+ * This replaces the {@code String -> byte[]} round trip of
+ * {@link String#getBytes(java.nio.charset.Charset)}: the characters of a
+ * reused {@link StringBuilder} are written into a reused buffer, so encoding
+ * a log line allocates nothing. Pure ASCII text, by far the common case for
+ * log output, is copied one byte per character by a tight loop; other
+ * characters fall back to the general multi-byte encoding.
+ *
+ * Malformed input (an unpaired surrogate) is encoded as {@code '?'}, which
+ * matches what {@code String.getBytes(StandardCharsets.UTF_8)} produces.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public final class Utf8Encoder {
+
+    // Builders grown past this size are replaced rather than kept per thread
+    private static final int MAX_REUSABLE_BUILDER_SIZE = 8192;
+
+    private static final ThreadLocal<StringBuilder> FORMAT_BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private Utf8Encoder() {
+        // Utility class
+    }
+
+    /**
+     * Gets an empty builder owned by the calling thread, for formatting text
+     * that is about to be encoded. The builder is cleared by the next call on
+     * the same thread, so it must not be held on to.
+     *
+     * @return an empty builder
+     */
+    public static StringBuilder getFormatBuffer() {
+        StringBuilder sb = FORMAT_BUFFER.get();
+        if (sb.capacity() > MAX_REUSABLE_BUILDER_SIZE) {
+            sb = new StringBuilder(256);
+            FORMAT_BUFFER.set(sb);
+        } else {
+            sb.setLength(0);
+        }
+        return sb;
+    }
+
+    /**
+     * Encodes text as UTF-8, appending it at the buffer's position.
+     *
+     * When the buffer is too small a larger heap buffer is allocated, the
+     * existing content is copied over and the new buffer is returned; callers
+     * should keep the returned buffer for reuse.
+     *
+     * @param text the text to encode
+     * @param buffer the buffer to write into, in write mode
+     * @return the buffer holding the encoded bytes, positioned after them
+     */
+    public static ByteBuffer encode(CharSequence text, ByteBuffer buffer) {
+        int length = text.length();
+        // Every remaining character needs at least one byte
+        buffer = ensureRemaining(buffer, length);
+        if (!buffer.hasArray()) {
+            return encodeDirect(text, buffer);
+        }
+
+        byte[] array = buffer.array();
+        int offset = buffer.arrayOffset();
+        int pos = offset + buffer.position();
+        int i = 0;
+        // ASCII fast path
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            array[pos++] = (byte) c;
+            i++;
+        }
+        buffer.position(pos - offset);
+        return i == length ? buffer : encodeSlow(text, i, buffer);
+    }
+
+    /**
+     * Encodes into a buffer without an accessible array, such as a direct
+     * buffer. ASCII goes through absolute puts, which skip the relative
+     * puts' position bookkeeping, and the position is set once at the end.
+     */
+    private static ByteBuffer encodeDirect(CharSequence text, ByteBuffer buffer) {
+        int length = text.length();
+        int pos = buffer.position();
+        int i = 0;
+        // ASCII fast path
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            buffer.put(pos++, (byte) c);
+            i++;
+        }
+        buffer.position(pos);
+        return i == length ? buffer : encodeSlow(text, i, buffer);
+    }
+
+    private static ByteBuffer encodeSlow(CharSequence text, int start, ByteBuffer buffer) {
+        int length = text.length();
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+                continue;
+            }
+            // Room for this character's bytes plus one per character after it
+            buffer = ensureRemaining(buffer, length - i + 3);
+            if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                char low;
+                if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(low = text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, low);
+                    buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                    i++;
+                } else {
+                    buffer.put((byte) '?');
+                }
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return buffer;
+    }
+
+    private static ByteBuffer ensureRemaining(ByteBuffer buffer, int required) {
+        if (buffer.remaining() >= required) {
+            return buffer;
+        }
+        int needed = buffer.position() + required;
+        int capacity = Math.max(needed, buffer.capacity() * 2);
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Strategy used by an asynchronous processing thread while its ring buffer is empty.
+ *
+ * The strategies trade idle CPU for wake-up latency:
+ * - {@link BusySpin}: lowest latency, burns a full core while idle
+ * - {@link Yielding}: near busy-spin latency, gives the core to other runnable threads
+ * - {@link Backoff}: spins, then yields, then parks with growing intervals (default)
+ * - {@link Blocking}: sleeps on a condition until a producer signals; no idle CPU
+ *
+ * A strategy instance holds per-consumer state and must not be shared between
+ * async loggers. Use {@link #fromString(String)} to create one by name.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public interface WaitStrategy {
+
+    /**
+     * Waits until more work may be available. Called by the consumer after a
+     * poll of the ring buffer returned nothing. Implementations may return
+     * early; the consumer simply polls again.
+     *
+     * @param idleCount number of consecutive empty polls before this one, starting at 0
+     * @param workAvailable returns true once the consumer should poll again
+     */
+    void waitFor(int idleCount, BooleanSupplier workAvailable);
+
+    /**
+     * Wakes a consumer waiting in {@link #waitFor}. Called by producers after
+     * every publish, so non-blocking strategies implement this as a no-op.
+     */
+    void signal();
+
+    /**
+     * Gets the configuration name of this strategy.
+     *
+     * @return the strategy name, such as {@code BACKOFF}
+     */
+    String getName();
+
+    /**
+     * Creates a new strategy instance from its name (case-insensitive).
+     *
+     * @param name BUSY_SPIN, YIELD, BACKOFF or BLOCKING; null or empty selects the default
+     * @return a new wait strategy
+     * @throws IllegalArgumentException if the name is not recognized
+     */
+    static WaitStrategy fromString(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return getDefault();
+        }
+
+        String normalized = name.trim().toUpperCase().replace('-', '_');
+        switch (normalized) {
+            case "BUSY_SPIN":
+                return new BusySpin();
+            case "YIELD":
+                return new Yielding();
+            case "BACKOFF":
+                return new Backoff();
+            case "BLOCKING":
+                return new Blocking();
+            default:
+                throw new IllegalArgumentException(
+                    "Unknown wait strategy: " + name +
+                    ". Valid options: BUSY_SPIN, YIELD, BACKOFF, BLOCKING"
+                );
+        }
+    }
+
+    /**
+     * Creates the default wait strategy.
+     *
+     * @return a new {@link Backoff} strategy
+     */
+    static WaitStrategy getDefault() {
+        return new Backoff();
+    }
+
+    /**
+     * Re-polls immediately without giving up the CPU.
+     *
+     * Best for: latency-critical paths with a dedicated (ideally pinned) core.
+     */
+    final class BusySpin implements WaitStrategy {
+
+        @Override
+        public void waitFor(int idleCount, BooleanSupplier workAvailable) {
+            // Spin: return straight to polling
+        }
+
+        @Override
+        public void signal() {
+        }
+
+        @Override
+        public String getName() {
+            return "BUSY_SPIN";
+        }
+    }
+
+    /**
+     * Yields the CPU to other runnable threads between polls.
+     *
+     * Best for: low latency when cores are shared with other busy threads.
+     */
+    final class Yielding implements WaitStrategy {
+
+        @Override
+        public void waitFor(int idleCount, BooleanSupplier workAvailable) {
+            Thread.yield();
+        }
+
+        @Override
+        public void signal() {
+        }
+
+        @Override
+        public String getName() {
+            return "YIELD";
+        }
+    }
+
+    /**
+     * Spins, then yields, then parks for exponentially growing intervals up
+     * to a cap. Bursty traffic is picked up within a few polls. A logger
+     * that stays idle for about a second then parks for 20 ms at a time,
+     * settling at about 50 wake-ups per second; the first event after such
+     * a quiet spell waits at most that long.
+     *
+     * Best for: general purpose use; this is the default.
+     */
+    final class Backoff implements WaitStrategy {
+
+        private static final int DEFAULT_SPIN_TRIES = 100;
+        private static final int DEFAULT_YIELD_TRIES = 100;
+        private static final long MIN_PARK_NANOS = 1_000L;              // 1 microsecond
+        private static final long DEFAULT_MAX_PARK_NANOS = 1_000_000L;  // 1 millisecond
+        private static final long IDLE_PARK_NANOS = 20_000_000L;        // 20 milliseconds
+        private static final int IDLE_PARK_ROUNDS = 1000;  // parks before settling, about a second at the cap
+
+        private final int spinTries;
+        private final int yieldTries;
+        private final long maxParkNanos;
+
+        /**
+         * Creates a backoff strategy with default thresholds.
+         */
+        public Backoff() {
+            this(DEFAULT_SPIN_TRIES, DEFAULT_YIELD_TRIES, DEFAULT_MAX_PARK_NANOS);
+        }
+
+        /**
+         * Creates a backoff strategy with custom thresholds.
+         *
+         * @param spinTries number of empty polls to spin through
+         * @param yieldTries number of further empty polls to yield through
+         * @param maxParkNanos upper bound for a single park once parking
+         *                     starts; a logger that stays idle parks for the
+         *                     larger of this and 20 ms
+         */
+        public Backoff(int spinTries, int yieldTries, long maxParkNanos) {
+            this.spinTries = Math.max(0, spinTries);
+            this.yieldTries = Math.max(0, yieldTries);
+            this.maxParkNanos = Math.max(MIN_PARK_NANOS, maxParkNanos);
+        }
+
+        @Override
+        public void waitFor(int idleCount, BooleanSupplier workAvailable) {
+            if (idleCount < spinTries) {
+                return;
+            }
+            if (idleCount < spinTries + yieldTries) {
+                Thread.yield();
+                return;
+            }
+
+            int parkRound = idleCount - spinTries - yieldTries;
+            if (parkRound >= IDLE_PARK_ROUNDS) {
+                LockSupport.parkNanos(Math.max(maxParkNanos, IDLE_PARK_NANOS));
+                return;
+            }
+            // Double the park time for every further empty poll, up to the cap
+            long parkNanos = Math.min(maxParkNanos, MIN_PARK_NANOS << Math.min(parkRound, 30));
+            LockSupport.parkNanos(parkNanos);
+        }
+
+        @Override
+        public void signal() {
+        }
+
+        @Override
+        public String getName() {
+            return "BACKOFF";
+        }
+    }
+
+    /**
+     * Sleeps on a lock condition until a producer signals new work.
+     *
+     * Producers only take the lock when the consumer has announced that it is
+     * about to sleep, so the publish path stays a volatile read in the common
+     * case. A bounded wait guards against shutdown races.
+     *
+     * Best for: batch services and other processes that want zero idle CPU.
+     */
+    final class Blocking implements WaitStrategy {
+
+        private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition workSignalled = lock.newCondition();
+        private volatile boolean consumerWaiting = false;
+
+        @Override
+        public void waitFor(int idleCount, BooleanSupplier workAvailable) {
+            lock.lock();
+            try {
+                // Announce the wait before the final check, so a producer that
+                // publishes after the check is guaranteed to see the flag
+                consumerWaiting = true;
+                if (!workAvailable.getAsBoolean()) {
+                    workSignalled.awaitNanos(MAX_WAIT_NANOS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                consumerWaiting = false;
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void signal() {
+            if (consumerWaiting) {
+                lock.lock();
+                try {
+                    workSignalled.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        @Override
+        public String getName() {
+            return "BLOCKING";
+        }
+    }
+}
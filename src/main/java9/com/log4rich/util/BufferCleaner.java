@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the memory of a direct or memory-mapped buffer immediately
+ * instead of when the garbage collector gets to it. For a mapping this
+ * unmaps the region, returning its address space and resident pages.
+ *
+ * This is the Java 9 implementation, packaged under
+ * {@code META-INF/versions/9} of the multi-release jar. It calls
+ * {@code sun.misc.Unsafe.invokeCleaner}, which the {@code jdk.unsupported}
+ * module keeps accessible, so no internal package has to be opened.
+ *
+ * After a buffer is cleaned any access to it, or to a view of it, can crash
+ * the JVM, so callers must make sure nothing touches it again.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public final class BufferCleaner {
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private BufferCleaner() {
+        // Utility class
+    }
+
+    /**
+     * Checks whether buffers can be released on this JVM.
+     *
+     * @return true if {@link #clean(ByteBuffer)} can release buffers
+     */
+    public static boolean isSupported() {
+        return INVOKE_CLEANER != null;
+    }
+
+    /**
+     * Releases a direct buffer. Heap buffers, views created with
+     * {@code duplicate()} or {@code slice()} and buffers on a JVM without
+     * support are left to the garbage collector.
+     *
+     * @param buffer the buffer to release; it must not be used afterwards
+     * @return true if the buffer was released
+     */
+    public static boolean clean(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || INVOKE_CLEANER == null) {
+            return false;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Views have no cleaner of their own; the buffer stays with the GC
+        }
+        return false;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * Computes CRC-32C (Castagnoli) checksums, as used by the journal format.
+ *
+ * This is the Java 9 implementation, packaged under
+ * {@code META-INF/versions/9} of the multi-release jar. It delegates to
+ * {@link CRC32C}, which the JVM computes with dedicated CPU instructions
+ * where available.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+public final class Crc32c {
+
+    private static final ThreadLocal<CRC32C> CHECKSUM = ThreadLocal.withInitial(CRC32C::new);
+
+    private Crc32c() {
+        // Utility class
+    }
+
+    /**
+     * Computes the checksum of a range of a buffer. The buffer's position
+     * and limit are not changed.
+     *
+     * @param buffer the buffer holding the bytes
+     * @param offset the absolute index of the first byte
+     * @param length the number of bytes
+     * @return the checksum
+     */
+    public static int compute(ByteBuffer buffer, int offset, int length) {
+        CRC32C checksum = CHECKSUM.get();
+        checksum.reset();
+        ByteBuffer range = buffer.duplicate();
+        range.limit(offset + length);
+        range.position(offset);
+        checksum.update(range);
+        return (int) checksum.getValue();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Finds the application frame that called into the logging framework.
+ *
+ * This is the Java 9 implementation, packaged under
+ * {@code META-INF/versions/9} of the multi-release jar. It walks the stack
+ * lazily with {@link StackWalker}, so only the frames down to the caller are
+ * materialized instead of the whole stack.
+ *
+ * @author log4Rich Contributors
+ * @since 1.1.0
+ */
+final class StackLocator {
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private static final Function<Stream<StackWalker.StackFrame>, LocationInfo> FIND_CALLER =
+        frames -> frames
+            .filter(frame -> !LocationInfo.isLoggingFrame(frame.getClassName()))
+            .findFirst()
+            .map(frame -> LocationInfo.intern(
+                frame.getClassName(),
+                frame.getMethodName(),
+                frame.getFileName(),
+                frame.getLineNumber()))
+            .orElse(null);
+
+    private StackLocator() {
+        // Utility class
+    }
+
+    /**
+     * Gets the location of the first frame outside the logging packages.
+     *
+     * @return the interned caller location, or null if there is none
+     */
+    static LocationInfo getCaller() {
+        return WALKER.walk(FIND_CALLER);
+    }
+}
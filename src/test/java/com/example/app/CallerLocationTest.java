@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.app;
+
+import com.log4rich.util.LocationInfo;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Caller location tests. This class lives outside the log4Rich packages
+ * because frames in those packages are skipped as logging infrastructure.
+ */
+public class CallerLocationTest {
+
+    @Test
+    public void testGetCallerFindsApplicationFrame() {
+        LocationInfo location = LocationInfo.getCaller();
+
+        assertNotNull(location);
+        assertEquals(CallerLocationTest.class.getName(), location.getFullClassName());
+        assertEquals("CallerLocationTest", location.getClassName());
+        assertEquals("testGetCallerFindsApplicationFrame", location.getMethodName());
+        assertEquals("CallerLocationTest.java", location.getFileName());
+        assertTrue(location.getLineNumber() > 0);
+    }
+
+    @Test
+    public void testCallSitesAreInterned() {
+        LocationInfo[] locations = new LocationInfo[3];
+        for (int i = 0; i < locations.length; i++) {
+            locations[i] = LocationInfo.getCaller();
+        }
+        LocationInfo otherLine = LocationInfo.getCaller();
+
+        assertSame(locations[0], locations[1]);
+        assertSame(locations[0], locations[2]);
+        assertNotSame(locations[0], otherLine);
+        assertTrue(otherLine.getLineNumber() > locations[0].getLineNumber());
+    }
+}
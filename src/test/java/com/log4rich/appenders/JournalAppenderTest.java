@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.appenders;
+
+import com.log4rich.core.LogLevel;
+import com.log4rich.layouts.StandardLayout;
+import com.log4rich.util.DurabilityMode;
+import com.log4rich.util.JournalReader;
+import com.log4rich.util.JournalRecord;
+import com.log4rich.util.LoggingEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalAppenderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static LoggingEvent event(String pattern, Object... arguments) {
+        return new LoggingEvent(LogLevel.INFO, pattern, arguments, "test", null, null, null, null);
+    }
+
+    private static List<String> readMessages(File journal) throws IOException {
+        List<String> messages = new ArrayList<>();
+        for (File segment : JournalReader.listSegments(journal)) {
+            try (JournalReader reader = new JournalReader(segment)) {
+                assertTrue(reader.hasValidHeader(), segment.getName());
+                LoggingEvent event;
+                while ((event = reader.next()) != null) {
+                    messages.add(event.getMessage());
+                }
+                assertFalse(reader.hasTrailingData(), segment.getName());
+            }
+        }
+        return messages;
+    }
+
+    @Test
+    public void testWritesAcrossSegments() throws IOException {
+        File journal = tempDir.resolve("app.journal").toFile();
+        JournalAppender appender = new JournalAppender("Journal", journal.getPath());
+        appender.setSegmentSize(4096);
+        appender.setImmediateFlush(false);
+        for (int i = 0; i < 500; i++) {
+            appender.append(event("Event {} of {}", i, 500));
+        }
+        appender.close();
+
+        List<File> segments = JournalReader.listSegments(journal);
+        assertTrue(segments.size() > 1, "Expected rollover into several segments");
+        for (File segment : segments) {
+            assertTrue(segment.length() <= 4096, "Sealed segments are truncated to their content");
+        }
+        List<String> messages = readMessages(journal);
+        assertEquals(500, messages.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals("Event " + i + " of 500", messages.get(i));
+        }
+        assertEquals(500, appender.getRecordsWritten());
+    }
+
+    @Test
+    public void testRecoversTornTailOnRestart() throws IOException {
+        File journal = tempDir.resolve("app.journal").toFile();
+        JournalAppender first = new JournalAppender("Journal", journal.getPath());
+        first.setDurability(DurabilityMode.EVENT);
+        first.append(event("before {}", 1));
+        first.append(event("before {}", 2));
+        File segment = first.getCurrentSegment();
+        assertEquals(1, JournalRecord.sequenceOf(journal, segment));
+        assertEquals(2, first.getSyncCount());
+        long validEnd = JournalReader.findValidEnd(segment);
+        // Simulates a crash: the appender is never closed and a record was half written
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(validEnd);
+            file.writeInt(0x12345678);
+            file.writeInt(200);
+            file.write(new byte[]{1, 2, 3});
+        }
+
+        JournalAppender second = new JournalAppender("Journal", journal.getPath());
+        second.append(event("after {}", 3));
+        assertEquals(validEnd, second.getRecoveredLength());
+        assertEquals(validEnd, segment.length());
+        assertEquals(2, JournalRecord.sequenceOf(journal, second.getCurrentSegment()));
+        second.close();
+        first.close();
+
+        List<String> messages = readMessages(journal);
+        assertEquals(3, messages.size());
+        assertEquals("before 1", messages.get(0));
+        assertEquals("after 3", messages.get(2));
+    }
+
+    @Test
+    public void testConvertToText() throws IOException {
+        File journal = tempDir.resolve("app.journal").toFile();
+        JournalAppender appender = new JournalAppender("Journal", journal.getPath());
+        appender.setLevel(LogLevel.INFO);
+        appender.append(new LoggingEvent(LogLevel.DEBUG, "filtered", "test", null));
+        appender.append(event("Hello {}", "journal"));
+        appender.close();
+        assertTrue(appender.isClosed());
+
+        StringWriter out = new StringWriter();
+        assertEquals(1, JournalAppender.convert(journal, new StandardLayout("[%level] %message%n"), out));
+        assertEquals("[INFO] Hello journal" + System.lineSeparator(), out.toString());
+    }
+}
@@ -17,13 +17,26 @@
 package com.log4rich.appenders;
 
 import com.log4rich.core.LogLevel;
+import com.log4rich.layouts.StandardLayout;
+import com.log4rich.util.BufferCleaner;
+import com.log4rich.util.DurabilityMode;
 import com.log4rich.util.LoggingEvent;
 import com.log4rich.util.Java8Utils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -74,6 +87,147 @@ class PerformanceAppendersTest {
         appender.close();
     }
     
+    @Test
+    void testBatchingFileAppenderFormatsOnFlushThread() throws Exception {
+        Path logFile = tempDir.resolve("batch-thread.log");
+        BatchingFileAppender appender = new BatchingFileAppender("TestBatch", logFile.toString(), 10, 60000);
+        Set<String> formattingThreads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        appender.setLayout(event -> {
+            formattingThreads.add(Thread.currentThread().getName());
+            return event.getMessage() + "\n";
+        });
+        
+        for (int i = 0; i < 10; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO, "Batched message " + i, "TestLogger", null));
+        }
+        
+        long deadline = System.currentTimeMillis() + 5000;
+        while (appender.getBatchesWritten() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, appender.getBatchesWritten());
+        assertEquals(Collections.singleton("log4Rich-batch-TestBatch"), formattingThreads);
+        
+        appender.close();
+    }
+    
+    @Test
+    void testBatchingFileAppenderConcurrentProducers() throws Exception {
+        Path logFile = tempDir.resolve("batch-concurrent.log");
+        BatchingFileAppender appender = new BatchingFileAppender("TestBatch", logFile.toString(), 100, 20);
+        appender.setLayout(new StandardLayout("%message%n"));
+        int threadCount = 16;
+        int eventsPerThread = 2000;
+        
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final int id = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < eventsPerThread; i++) {
+                    appender.append(new LoggingEvent(LogLevel.INFO, id + ":" + i, "TestLogger", null));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(30000);
+        }
+        appender.close();
+        
+        // Every event is written once and each thread's events keep their order
+        List<String> lines = Files.readAllLines(logFile, StandardCharsets.UTF_8);
+        assertEquals(threadCount * eventsPerThread, lines.size());
+        int[] next = new int[threadCount];
+        for (String line : lines) {
+            String[] parts = line.split(":");
+            int id = Integer.parseInt(parts[0]);
+            assertEquals(next[id], Integer.parseInt(parts[1]), "Out of order for thread " + id);
+            next[id]++;
+        }
+        assertEquals(threadCount * eventsPerThread, appender.getTotalEventsWritten());
+    }
+    
+    @Test
+    void testBatchingFileAppenderCloseKeepsAcceptedEvents() throws Exception {
+        // The window between an add's shutdown check and its publish is short, so close many times
+        for (int round = 0; round < 20; round++) {
+            Path logFile = tempDir.resolve("batch-close-" + round + ".log");
+            BatchingFileAppender appender = new BatchingFileAppender("TestBatch", logFile.toString(), 100, 20);
+            appender.setLayout(new StandardLayout("%message%n"));
+            
+            // Producers keep appending while the appender closes under them
+            CountDownLatch running = new CountDownLatch(4);
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread thread = new Thread(() -> {
+                    running.countDown();
+                    for (int i = 0; i < 1_000_000 && !appender.isClosed(); i++) {
+                        appender.append(new LoggingEvent(LogLevel.INFO, "Racing message " + i, "TestLogger", null));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            running.await();
+            Thread.sleep(5);
+            appender.close();
+            for (Thread thread : threads) {
+                thread.join(30000);
+            }
+            
+            // Every event the buffer accepted was written by the close
+            long accepted = appender.getBatchStatistics().getTotalEvents();
+            assertTrue(accepted > 0);
+            assertEquals(accepted, Files.readAllLines(logFile, StandardCharsets.UTF_8).size(), "Round " + round);
+        }
+    }
+    
+    @Test
+    void testBatchingFileAppenderChannelWrites() throws Exception {
+        Path logFile = tempDir.resolve("batch-channel.log");
+        BatchingFileAppender appender = new BatchingFileAppender("TestBatch", logFile.toString(), 100, 60000);
+        appender.setLayout(new StandardLayout("%message%n"));
+        appender.setFlushWatermark(16384);
+        
+        for (int i = 0; i < 250; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO, "Channel message " + i + " ü", "TestLogger", null));
+        }
+        appender.forceFlush();
+        
+        // Flushed at the end of each batch
+        List<String> lines = Files.readAllLines(logFile, StandardCharsets.UTF_8);
+        assertEquals(250, lines.size());
+        assertEquals("Channel message 249 ü", lines.get(249));
+        
+        appender.close();
+    }
+    
+    @Test
+    void testBatchingFileAppenderEventDurabilityWritesBeforeReturning() throws Exception {
+        Path logFile = tempDir.resolve("batch-event.log");
+        BatchingFileAppender appender = new BatchingFileAppender("TestBatch", logFile.toString(), 100, 60000);
+        appender.setLayout(new StandardLayout("%message%n"));
+        appender.setDurability(DurabilityMode.EVENT);
+        
+        for (int i = 0; i < 3; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO, "Durable message " + i, "TestLogger", null));
+            
+            // Written and synced without waiting for the batch to fill
+            assertEquals(i + 1, Files.readAllLines(logFile, StandardCharsets.UTF_8).size());
+            assertEquals(i + 1, appender.getSyncCount());
+        }
+        
+        appender.close();
+    }
+    
     @Test
     void testMemoryMappedFileAppenderBasicFunctionality() throws Exception {
         Path logFile = tempDir.resolve("mmap.log");
@@ -113,6 +267,77 @@ class PerformanceAppendersTest {
         assertEquals(5, appender.getForceCount()); // One force per write since forceOnWrite=true
     }
     
+    @Test
+    void testMemoryMappedSlidingWindowUnmapsWrittenRegions() throws Exception {
+        Path logFile = tempDir.resolve("mmap-window.log");
+        MemoryMappedFileAppender appender = new MemoryMappedFileAppender(
+            "TestMMapWindow", logFile.toString(), 1024 * 1024, false, 0);
+        appender.setLayout(new StandardLayout("%message%n"));
+        
+        // About 3.5MB, so the writer moves through four regions
+        String padding = Java8Utils.repeat("z", 100);
+        for (int i = 0; i < 32000; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO, i + " " + padding, "TestLogger", null));
+        }
+        long regions = appender.getTotalBytesWritten() / (1024 * 1024) + 1;
+        assertEquals(regions, appender.getMappingCount());
+        if (BufferCleaner.isSupported()) {
+            // Only the region being written stays mapped
+            assertEquals(regions - 1, appender.getUnmapCount());
+        }
+        appender.close();
+        
+        if (BufferCleaner.isSupported()) {
+            assertEquals(regions, appender.getUnmapCount());
+        }
+        assertEquals(appender.getTotalBytesWritten(), Files.size(logFile));
+        List<String> lines = Files.readAllLines(logFile, StandardCharsets.UTF_8);
+        assertEquals(32000, lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertEquals(i + " " + padding, lines.get(i));
+        }
+    }
+    
+    @Test
+    void testMemoryMappedRolloverWithStandbySegment() throws Exception {
+        Path logFile = tempDir.resolve("mmap-rolling.log");
+        Path standbyFile = tempDir.resolve("mmap-rolling.log.standby");
+        
+        MemoryMappedFileAppender appender = new MemoryMappedFileAppender(
+            "TestMMapRolling", logFile.toString(), 1024 * 1024, false, 0);
+        appender.setMaxFileSize(200);
+        appender.setMaxBackups(10);
+        appender.setStandbySegment(true);
+        
+        for (int i = 0; i < 6; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO,
+                "Rolling message " + i + " " + Java8Utils.repeat("x", 150), "TestLogger", null));
+            // Let the worker get the next segment mapped
+            assertTrue(appender.awaitRollovers(5000));
+            assertTrue(Files.exists(standbyFile));
+        }
+        appender.close();
+        
+        assertEquals(5, appender.getRolloverCount());
+        assertEquals(5, appender.getStandbySwapCount());
+        assertFalse(Files.exists(standbyFile));
+        
+        // Every file holds exactly one event, without the zero-filled mapping tail
+        File[] files = tempDir.toFile().listFiles((dir, name) -> name.startsWith("mmap-rolling.log"));
+        assertNotNull(files);
+        assertEquals(6, files.length);
+        StringBuilder content = new StringBuilder();
+        for (File file : files) {
+            String text = Java8Utils.readString(file.toPath());
+            assertTrue(file.length() < 1024, file.getName());
+            assertEquals(-1, text.indexOf('\0'), file.getName());
+            content.append(text);
+        }
+        for (int i = 0; i < 6; i++) {
+            assertTrue(content.indexOf("Rolling message " + i + " ") >= 0, "Message " + i + " was lost");
+        }
+    }
+    
     @Test
     void testAppenderInterfaceImplementation() {
         // Test that both appenders properly implement the Appender interface
@@ -150,4 +375,156 @@ class PerformanceAppendersTest {
         assertTrue(batchAppender.isClosed());
         assertTrue(mmapAppender.isClosed());
     }
-}
\ No newline at end of file
+    
+    /**
+     * Writes events from several threads at once and returns the thread
+     * failures, if any.
+     */
+    private static List<Throwable> writeConcurrently(Appender appender, int threads, int eventsPerThread,
+                                                     String padding) throws InterruptedException {
+        List<Throwable> failures = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        appender.append(new LoggingEvent(LogLevel.INFO,
+                            "T" + thread + "-" + i + " " + padding, "TestLogger", null));
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        return failures;
+    }
+    
+    /**
+     * Checks that every line of the files is a complete record and that
+     * every expected record is present exactly once.
+     */
+    private static void assertWholeRecords(File[] files, int threads, int eventsPerThread, String padding)
+            throws Exception {
+        Set<String> seen = new HashSet<>();
+        for (File file : files) {
+            String content = Java8Utils.readString(file.toPath());
+            assertEquals(-1, content.indexOf('\0'), file.getName() + " contains unwritten bytes");
+            assertTrue(content.isEmpty() || content.endsWith("\n"), file.getName());
+            for (String line : content.split("\n")) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                assertTrue(line.matches("T\\d+-\\d+ " + padding), "Torn record: " + line);
+                assertTrue(seen.add(line), "Duplicate record: " + line);
+            }
+        }
+        assertEquals(threads * eventsPerThread, seen.size());
+    }
+    
+    @Test
+    void testMemoryMappedConcurrentWrites() throws Exception {
+        Path logFile = tempDir.resolve("mmap-concurrent.log");
+        MemoryMappedFileAppender appender = new MemoryMappedFileAppender(
+            "TestMMapConcurrent", logFile.toString(), 1024 * 1024, false, 0);
+        appender.setLayout(new StandardLayout("%message%n"));
+        appender.setConcurrentWrites(true);
+        
+        // About 2.5MB, so writers cross two region boundaries
+        String padding = Java8Utils.repeat("x", 64);
+        List<Throwable> failures = writeConcurrently(appender, 16, 2000, padding);
+        assertTrue(failures.isEmpty(), failures.toString());
+        
+        assertEquals(appender.getTotalBytesWritten(), appender.getCommittedPosition());
+        assertTrue(Files.exists(tempDir.resolve("mmap-concurrent.log.commit")));
+        assertTrue(appender.getMappingCount() >= 3);
+        assertThrows(IllegalStateException.class, () -> appender.setConcurrentWrites(false));
+        appender.close();
+        
+        assertEquals(appender.getTotalBytesWritten(), Files.size(logFile));
+        assertFalse(Files.exists(tempDir.resolve("mmap-concurrent.log.commit")));
+        assertWholeRecords(new File[]{logFile.toFile()}, 16, 2000, padding);
+    }
+    
+    @Test
+    void testMemoryMappedConcurrentRollover() throws Exception {
+        Path logFile = tempDir.resolve("mmap-concurrent-rolling.log");
+        MemoryMappedFileAppender appender = new MemoryMappedFileAppender(
+            "TestMMapConcurrentRolling", logFile.toString(), 1024 * 1024, false, 0);
+        appender.setLayout(new StandardLayout("%message%n"));
+        appender.setConcurrentWrites(true);
+        appender.setMaxFileSize(64 * 1024);
+        appender.setMaxBackups(1000);
+        appender.setStandbySegment(true);
+        
+        String padding = Java8Utils.repeat("y", 40);
+        List<Throwable> failures = writeConcurrently(appender, 8, 2000, padding);
+        assertTrue(failures.isEmpty(), failures.toString());
+        appender.close();
+        
+        assertTrue(appender.getRolloverCount() > 0);
+        File[] files = tempDir.toFile().listFiles((dir, name) -> name.startsWith("mmap-concurrent-rolling.log"));
+        assertNotNull(files);
+        assertEquals(appender.getRolloverCount() + 1, files.length);
+        for (File file : files) {
+            assertFalse(file.getName().endsWith(".standby") || file.getName().endsWith(".commit"), file.getName());
+        }
+        assertWholeRecords(files, 8, 2000, padding);
+    }
+    
+    @Test
+    void testMemoryMappedConcurrentWritesWithSmallWindow() throws Exception {
+        Path logFile = tempDir.resolve("mmap-concurrent-window.log");
+        MemoryMappedFileAppender appender = new MemoryMappedFileAppender(
+            "TestMMapConcurrentWindow", logFile.toString(), 1024 * 1024, false, 0);
+        appender.setLayout(new StandardLayout("%message%n"));
+        appender.setConcurrentWrites(true);
+        appender.setMaxMappedRegions(2);
+        
+        String padding = Java8Utils.repeat("w", 64);
+        List<Throwable> failures = writeConcurrently(appender, 16, 2000, padding);
+        assertTrue(failures.isEmpty(), failures.toString());
+        appender.close();
+        
+        assertTrue(appender.getMappingCount() >= 3);
+        if (BufferCleaner.isSupported()) {
+            assertEquals(appender.getMappingCount(), appender.getUnmapCount());
+        }
+        assertEquals(appender.getTotalBytesWritten(), Files.size(logFile));
+        assertWholeRecords(new File[]{logFile.toFile()}, 16, 2000, padding);
+    }
+    
+    @Test
+    void testMemoryMappedConcurrentRecoveryFromCommitMarker() throws Exception {
+        // A run that died without closing: two complete records, a torn one and the mapping tail
+        Path logFile = tempDir.resolve("mmap-recovery.log");
+        byte[] complete = "first\nsecond\n".getBytes(StandardCharsets.UTF_8);
+        try (RandomAccessFile raf = new RandomAccessFile(logFile.toFile(), "rw")) {
+            raf.write(complete);
+            raf.write("thi".getBytes(StandardCharsets.UTF_8));
+            raf.setLength(4096);
+        }
+        try (RandomAccessFile marker = new RandomAccessFile(tempDir.resolve("mmap-recovery.log.commit").toFile(), "rw")) {
+            marker.writeLong(complete.length);
+        }
+        
+        MemoryMappedFileAppender appender = new MemoryMappedFileAppender(
+            "TestMMapRecovery", logFile.toString(), 1024 * 1024, false, 0);
+        appender.setLayout(new StandardLayout("%message%n"));
+        appender.setConcurrentWrites(true);
+        appender.append(new LoggingEvent(LogLevel.INFO, "third", "TestLogger", null));
+        appender.close();
+        
+        assertEquals("first\nsecond\nthird\n", Java8Utils.readString(logFile));
+    }
+}
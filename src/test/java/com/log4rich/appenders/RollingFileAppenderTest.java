@@ -20,18 +20,29 @@ package com.log4rich.appenders;
 import com.log4rich.core.LogLevel;
 import com.log4rich.layouts.StandardLayout;
 import com.log4rich.util.CompressionManager;
+import com.log4rich.util.DurabilityMode;
 import com.log4rich.util.LoggingEvent;
 import com.log4rich.util.LocationInfo;
 import com.log4rich.util.Java8Utils;
+import com.log4rich.util.RolloverWorker;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -90,9 +101,9 @@ public class RollingFileAppenderTest {
             appender.append(event);
         }
         
-        // Check that backup files were created
+        // Check that backup files were created; rollovers within one second get a counter
         File[] backupFiles = tempDir.toFile().listFiles((dir, name) -> 
-            name.startsWith("test.log.") && name.matches("test\\.log\\.\\d{4}-\\d{2}-\\d{2}-\\d{2}-\\d{2}-\\d{2}"));
+            name.startsWith("test.log.") && name.matches("test\\.log\\.\\d{4}-\\d{2}-\\d{2}-\\d{2}-\\d{2}-\\d{2}(\\.\\d+)?"));
         
         assertNotNull(backupFiles);
         assertTrue(backupFiles.length > 0, "Should have created backup files");
@@ -115,12 +126,15 @@ public class RollingFileAppenderTest {
             appender.append(event);
         }
         
-        // Check that we don't have more than maxBackups backup files
+        // Pruning runs on the rollover worker
+        assertTrue(appender.awaitRollovers(5000));
+        
+        // Far more rollovers than maxBackups, so exactly maxBackups backups are kept
         File[] backupFiles = tempDir.toFile().listFiles((dir, name) -> 
-            name.startsWith("test.log.") && name.matches("test\\.log\\.\\d{4}-\\d{2}-\\d{2}-\\d{2}-\\d{2}-\\d{2}"));
+            name.startsWith("test.log.") && name.matches("test\\.log\\.\\d{4}-\\d{2}-\\d{2}-\\d{2}-\\d{2}-\\d{2}(\\.\\d+)?"));
         
         assertNotNull(backupFiles);
-        assertTrue(backupFiles.length <= 2, "Should not have more than maxBackups files");
+        assertEquals(2, backupFiles.length, "Should keep exactly maxBackups files");
     }
     
     @Test
@@ -179,4 +193,326 @@ public class RollingFileAppenderTest {
         assertEquals(5, appender.getMaxBackups());
         assertTrue(appender.isCompression());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testEncodingOfNonAsciiText() throws IOException {
+        appender.setMaxFileSize(1024 * 1024);
+        appender.append(new LoggingEvent(LogLevel.INFO, "Grüße € 😀", "TestLogger", null));
+        appender.close();
+
+        byte[] expected = ("[INFO] Grüße € 😀" + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, Files.readAllBytes(logFile.toPath()));
+
+        // Charsets other than UTF-8 go through the charset encoder
+        File latin1File = tempDir.resolve("latin1.log").toFile();
+        appender = new RollingFileAppender(latin1File);
+        appender.setLayout(new StandardLayout("%message"));
+        appender.setEncoding(StandardCharsets.ISO_8859_1);
+        appender.append(new LoggingEvent(LogLevel.INFO, "Grüße €", "TestLogger", null));
+        appender.close();
+
+        assertArrayEquals("Grüße ?".getBytes(StandardCharsets.ISO_8859_1), Files.readAllBytes(latin1File.toPath()));
+    }
+
+    @Test
+    void testRolloverCountsUnflushedBytes() throws IOException {
+        // Nothing reaches the file until the buffer fills, yet rollover must still happen on size
+        appender.setImmediateFlush(false);
+        appender.setBufferSize(64 * 1024);
+        for (int i = 0; i < 10; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO, "Buffered message " + i + " " + Java8Utils.repeat("x", 40),
+                "TestLogger", null));
+        }
+
+        File[] backupFiles = tempDir.toFile().listFiles((dir, name) -> name.startsWith("test.log."));
+        assertNotNull(backupFiles);
+        assertTrue(backupFiles.length > 0, "Should roll over on bytes written, not bytes flushed");
+    }
+
+    @Test
+    void testRolloverWorkRunsOffTheLoggingThread() throws Exception {
+        CountDownLatch compressionStarted = new CountDownLatch(1);
+        CountDownLatch releaseCompression = new CountDownLatch(1);
+        AtomicReference<String> compressionThread = new AtomicReference<>();
+        appender.setCompression(true);
+        appender.setUseAsyncCompression(false);
+        appender.setCompressionManager(new CompressionManager() {
+            @Override
+            public File compressFile(File sourceFile) {
+                compressionThread.set(Thread.currentThread().getName());
+                compressionStarted.countDown();
+                try {
+                    releaseCompression.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return sourceFile;
+            }
+        });
+        
+        for (int i = 0; i < 4; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO, "Message " + i + " " + Java8Utils.repeat("x", 60),
+                "TestLogger", null));
+        }
+        
+        // Logging went on while the first compression was still blocked
+        assertTrue(compressionStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(compressionThread.get().startsWith("log4Rich-rollover-"));
+        assertTrue(appender.getRolloverStatistics().getPendingTasks() > 0);
+        
+        releaseCompression.countDown();
+        assertTrue(appender.awaitRollovers(5000));
+        RolloverWorker.RolloverStatistics stats = appender.getRolloverStatistics();
+        assertEquals(0, stats.getPendingTasks());
+        assertEquals(stats.getTotalSubmitted(), stats.getTotalCompleted());
+        assertTrue(stats.getMaxLagMillis() >= stats.getAverageLagMillis());
+    }
+    
+    @Test
+    void testSynchronousRollover() throws IOException {
+        appender.setAsyncRollover(false);
+        appender.setMaxBackups(1);
+        for (int i = 0; i < 20; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO, "Message " + i + " " + Java8Utils.repeat("x", 60),
+                "TestLogger", null));
+        }
+        
+        assertNull(appender.getRolloverStatistics());
+        File[] backupFiles = tempDir.toFile().listFiles((dir, name) -> name.startsWith("test.log."));
+        assertNotNull(backupFiles);
+        assertTrue(backupFiles.length <= 1);
+    }
+    
+    @Test
+    void testStandbySegmentRollover() throws IOException {
+        appender.setStandbySegment(true);
+        appender.setMaxBackups(10);
+        File standbyFile = tempDir.resolve("test.log.standby").toFile();
+        
+        for (int i = 0; i < 6; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO, "Message " + i + " " + Java8Utils.repeat("x", 120),
+                "TestLogger", null));
+            // Let the worker get the next standby file ready
+            assertTrue(appender.awaitRollovers(5000));
+            assertTrue(standbyFile.exists());
+        }
+        
+        assertEquals(5, appender.getStandbySwapCount());
+        // The standby file became the main file and only holds the last event
+        String content = Java8Utils.readString(logFile.toPath());
+        assertTrue(content.startsWith("[INFO] Message 5 "));
+        assertEquals(1, content.split("\n").length);
+        
+        appender.close();
+        assertFalse(standbyFile.exists());
+    }
+    
+    private static LoggingEvent eventAt(long timestamp, String message) {
+        return new LoggingEvent(LogLevel.INFO, message, null, "TestLogger", timestamp,
+            Thread.currentThread().getName(), null, null, null, null);
+    }
+    
+    @Test
+    void testHourlyTimeBasedRollover() throws IOException {
+        appender.setMaxFileSize(1024 * 1024);
+        appender.setRolloverInterval("HOURLY");
+        appender.setRolloverPolicy("TIME");
+        appender.setAsyncRollover(false);
+        
+        long hour = TimeUnit.HOURS.toMillis(1);
+        long start = System.currentTimeMillis() / hour * hour + hour;
+        appender.append(eventAt(start + 1000, "first hour a"));
+        appender.append(eventAt(start + 2000, "first hour b"));
+        appender.append(eventAt(start + hour + 1000, "second hour"));
+        appender.append(eventAt(start + 3 * hour + 1000, "fourth hour"));
+        
+        assertEquals("[INFO] fourth hour\n", Java8Utils.readString(logFile.toPath()));
+        assertEquals(2, appender.getBackupCatalogue().size());
+        File firstBackup = appender.getBackupCatalogue().getFiles().get(0);
+        assertEquals("[INFO] first hour a\n[INFO] first hour b\n", Java8Utils.readString(firstBackup.toPath()));
+    }
+    
+    @Test
+    void testRetentionByTotalSizeIncludesExistingBackups() throws IOException {
+        // Backups from an earlier run are found once and pruned with the new ones
+        for (int i = 0; i < 3; i++) {
+            File old = tempDir.resolve("test.log.2020-01-0" + (i + 1) + "-00-00-00").toFile();
+            Files.write(old.toPath(), new byte[200]);
+            assertTrue(old.setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(10 - i)));
+        }
+        appender.setMaxBackups(10);
+        appender.setMaxTotalSize(500);
+        
+        for (int i = 0; i < 4; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO, "Message " + i + " " + Java8Utils.repeat("x", 120),
+                "TestLogger", null));
+        }
+        assertTrue(appender.awaitRollovers(5000));
+        
+        assertTrue(appender.getBackupCatalogue().getTotalSize() <= 500);
+        assertFalse(tempDir.resolve("test.log.2020-01-01-00-00-00").toFile().exists());
+        assertFalse(tempDir.resolve("test.log.2020-01-02-00-00-00").toFile().exists());
+        File[] backupFiles = tempDir.toFile().listFiles((dir, name) -> name.startsWith("test.log."));
+        assertNotNull(backupFiles);
+        assertEquals(appender.getBackupCatalogue().size(), backupFiles.length);
+    }
+    
+    @Test
+    void testRetentionByAge() throws IOException {
+        File old = tempDir.resolve("test.log.2020-01-01-00-00-00").toFile();
+        Files.write(old.toPath(), new byte[10]);
+        assertTrue(old.setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(30)));
+        appender.setMaxAge(TimeUnit.DAYS.toMillis(7));
+        appender.setAsyncRollover(false);
+        
+        for (int i = 0; i < 2; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO, "Message " + i + " " + Java8Utils.repeat("x", 120),
+                "TestLogger", null));
+        }
+        
+        assertFalse(old.exists());
+        assertEquals(1, appender.getBackupCatalogue().size());
+    }
+    
+    @Test
+    void testEventDurabilitySyncsBeforeAppendReturns() throws IOException {
+        appender.setMaxFileSize(10000);
+        appender.setDurability("EVENT");
+        appender.setImmediateFlush(false);
+        
+        appender.append(new LoggingEvent(LogLevel.INFO, "Durable message", "TestLogger", null));
+        
+        assertEquals(DurabilityMode.EVENT, appender.getDurability());
+        assertEquals(1, appender.getSyncCount());
+        assertTrue(new String(Files.readAllBytes(logFile.toPath()), StandardCharsets.UTF_8).contains("Durable message"));
+    }
+    
+    @Test
+    void testBatchDurabilitySyncsAtEndOfBatch() throws IOException {
+        appender.setMaxFileSize(10000);
+        appender.setDurability(DurabilityMode.BATCH);
+        appender.setSyncInterval(60000);
+        
+        for (int i = 0; i < 5; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO, "Message " + i, "TestLogger", null));
+        }
+        assertEquals(0, appender.getSyncCount());
+        
+        appender.endOfBatch();
+        assertEquals(1, appender.getSyncCount());
+    }
+    
+    @Test
+    void testChannelWritesWithRollover() throws IOException {
+        appender.setFlushWatermark(4096);
+        appender.setImmediateFlush(false);
+        appender.setAsyncRollover(false);
+        appender.setMaxBackups(20);
+        
+        for (int i = 0; i < 10; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO, "Message " + i + " " + Java8Utils.repeat("x", 60),
+                "TestLogger", null));
+        }
+        appender.close();
+        
+        // Every event is in exactly one file despite the buffering
+        int found = 0;
+        File[] files = tempDir.toFile().listFiles((dir, name) -> name.startsWith("test.log"));
+        assertNotNull(files);
+        assertTrue(files.length > 1);
+        for (File f : files) {
+            String content = new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8);
+            found += content.split("Message ", -1).length - 1;
+        }
+        assertEquals(10, found);
+    }
+
+    @Test
+    void testCompressOnWriteRollsGzipFiles() throws IOException {
+        appender.setCompressOnWrite(true);
+        appender.setCompressFlushInterval(0);
+        appender.setCompression(true);
+        appender.setAsyncRollover(false);
+        appender.setMaxBackups(50);
+        
+        for (int i = 0; i < 40; i++) {
+            appender.append(new LoggingEvent(LogLevel.INFO, "Message " + i + " " + Java8Utils.repeat("x", 60),
+                "TestLogger", null));
+        }
+        appender.close();
+        
+        assertFalse(logFile.exists(), "Only the compressed file is written");
+        File[] files = tempDir.toFile().listFiles((dir, name) -> name.startsWith("test.log"));
+        assertNotNull(files);
+        assertTrue(files.length > 2, "Expected rollovers on the compressed size");
+        int found = 0;
+        for (File f : files) {
+            assertTrue(f.getName().endsWith(".gz"), f.getName());
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(f.toPath()))) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, read);
+                }
+                found += out.toString("UTF-8").split("Message ", -1).length - 1;
+            }
+        }
+        assertEquals(40, found);
+        
+        // A compressed file left by an earlier run is rotated, not appended to
+        File activeFile = tempDir.resolve("test.log.gz").toFile();
+        assertTrue(activeFile.exists());
+        appender = new RollingFileAppender(logFile);
+        appender.setCompressOnWrite(true);
+        appender.setAsyncRollover(false);
+        appender.setMaxBackups(50);
+        appender.append(new LoggingEvent(LogLevel.INFO, "After restart", "TestLogger", null));
+        appender.close();
+        File[] afterRestart = tempDir.toFile().listFiles((dir, name) -> name.startsWith("test.log"));
+        assertNotNull(afterRestart);
+        assertEquals(files.length + 1, afterRestart.length);
+    }
+    
+    @Test
+    void testCompressOnWriteFlushesTailWhenQuiet() throws Exception {
+        appender.setCompressOnWrite(true);
+        appender.setCompressFlushInterval(100);
+        
+        appender.append(new LoggingEvent(LogLevel.INFO, "Before the quiet spell", "TestLogger", null));
+        
+        // No further write comes to trigger the sync flush, so the timer has to
+        File activeFile = tempDir.resolve("test.log.gz").toFile();
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = readGrowingGzip(activeFile);
+        while (!content.contains("Before the quiet spell") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = readGrowingGzip(activeFile);
+        }
+        assertEquals("[INFO] Before the quiet spell", content.trim());
+    }
+    
+    /**
+     * Decompresses what has reached a gzip file that is still being written,
+     * which has no trailer yet.
+     */
+    private static String readGrowingGzip(File file) throws IOException, DataFormatException {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        if (bytes.length <= 10) {
+            return "";
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes, 10, bytes.length - 10);  // past the fixed header
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int length;
+            while ((length = inflater.inflate(buffer)) > 0) {
+                out.write(buffer, 0, length);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -19,8 +19,12 @@ package com.log4rich.appenders.network;
 
 import com.log4rich.core.LogLevel;
 import com.log4rich.util.LoggingEvent;
+import com.log4rich.layouts.StandardLayout;
 import org.junit.jupiter.api.Test;
 
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -185,4 +189,27 @@ public class NetworkAppenderTest {
         assertNotNull(event.getMessage());
         assertEquals(LogLevel.INFO, event.getLevel());
     }
+
+    @Test
+    void testUDPAppenderSendsEncodedMessages() throws Exception {
+        try (DatagramSocket receiver = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            receiver.setSoTimeout(5000);
+            UDPAppender appender = new UDPAppender(
+                    InetAddress.getLoopbackAddress().getHostAddress(), receiver.getLocalPort());
+            appender.setLayout(new StandardLayout("%level %message"));
+            try {
+                for (String message : new String[]{"plain ascii", "Grüße € 😀"}) {
+                    appender.append(new LoggingEvent(LogLevel.INFO, message, "TestLogger", null));
+
+                    DatagramPacket packet = new DatagramPacket(new byte[1024], 1024);
+                    receiver.receive(packet);
+                    assertEquals("INFO " + message, new String(packet.getData(), 0, packet.getLength(),
+                            StandardCharsets.UTF_8));
+                }
+                assertEquals(2, appender.getMessagesSent());
+            } finally {
+                appender.close();
+            }
+        }
+    }
 }
@@ -21,8 +21,10 @@ import com.log4rich.appenders.ConsoleAppender;
 import com.log4rich.appenders.RollingFileAppender;
 import com.log4rich.core.AsyncLogger;
 import com.log4rich.core.LogLevel;
+import com.log4rich.util.MutableArgumentPolicy;
 import com.log4rich.util.OverflowStrategy;
 import com.log4rich.util.RingBuffer;
+import com.log4rich.util.WaitStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -155,6 +157,52 @@ public class AsyncLoggingTest {
         assertTrue(stats.getUtilization() > 0.5, "Expected utilization > 50%, got: " + (stats.getUtilization() * 100) + "%");
     }
     
+    @Test
+    void testRingBufferMultiProducerDeliversEveryItemOnce() throws Exception {
+        RingBuffer<Integer> buffer = new RingBuffer<>(256);
+        int producerCount = 8;
+        int itemsPerProducer = 20000;
+        int total = producerCount * itemsPerProducer;
+
+        ExecutorService executor = Executors.newFixedThreadPool(producerCount);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producerCount; p++) {
+            final int base = p * itemsPerProducer;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < itemsPerProducer; i++) {
+                    while (!buffer.tryPublish(base + i)) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            });
+        }
+
+        boolean[] seen = new boolean[total];
+        Integer[] batch = new Integer[64];
+        int received = 0;
+        long deadline = System.currentTimeMillis() + 30000;
+        start.countDown();
+
+        while (received < total && System.currentTimeMillis() < deadline) {
+            int consumed = buffer.consumeBatch(batch, batch.length);
+            for (int i = 0; i < consumed; i++) {
+                int value = batch[i];
+                assertFalse(seen[value], "Item delivered twice: " + value);
+                seen[value] = true;
+            }
+            received += consumed;
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(total, received);
+        assertTrue(buffer.isEmpty());
+        assertEquals(total, buffer.getStatistics().getTotalPublished());
+        assertEquals(total, buffer.getStatistics().getTotalConsumed());
+    }
+
     @Test
     void testAsyncLoggerBasicFunctionality() throws Exception {
         AsyncLogger logger = new AsyncLogger("TestAsync", 16);
@@ -178,6 +226,130 @@ public class AsyncLoggingTest {
         logger.shutdown();
     }
     
+    @Test
+    void testGarbageFreeAsyncLoggerDeliversEventContent() throws Exception {
+        AsyncLogger logger = new AsyncLogger("GarbageFree", 16, OverflowStrategy.SYNCHRONOUS_WRITE, 1000, true);
+        assertTrue(logger.isGarbageFree());
+        
+        java.util.Map<String, String> mdc = new java.util.HashMap<>();
+        mdc.put("requestId", "r-42");
+        logger.setContextProvider(new com.log4rich.core.ContextProvider() {
+            @Override
+            public java.util.Map<String, String> getMDC() { return mdc; }
+            @Override
+            public java.util.List<String> getNDC() { return java.util.Collections.singletonList("outer"); }
+            @Override
+            public boolean hasContext() { return true; }
+        });
+        
+        java.util.List<com.log4rich.util.LoggingEvent> captured =
+            java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+        logger.addAppender(new CountingAppender() {
+            @Override
+            public void append(com.log4rich.util.LoggingEvent event) {
+                captured.add(event.toImmutable());
+            }
+        });
+        
+        RuntimeException failure = new RuntimeException("boom");
+        int messageCount = 200;
+        for (int i = 0; i < messageCount; i++) {
+            logger.error("Message " + i, i == 0 ? failure : null);
+        }
+        logger.shutdown();
+        
+        assertEquals(messageCount, captured.size());
+        java.util.Set<String> messages = new java.util.HashSet<>();
+        for (com.log4rich.util.LoggingEvent event : captured) {
+            assertFalse(event instanceof com.log4rich.util.ReusableLoggingEvent);
+            assertEquals(LogLevel.ERROR, event.getLevel());
+            assertEquals("GarbageFree", event.getLoggerName());
+            assertEquals(Thread.currentThread().getName(), event.getThreadName());
+            assertEquals("r-42", event.getMDC().get("requestId"));
+            assertEquals(java.util.Collections.singletonList("outer"), event.getNDC());
+            if ("Message 0".equals(event.getMessage())) {
+                assertSame(failure, event.getThrowable());
+            } else {
+                assertNull(event.getThrowable());
+            }
+            messages.add(event.getMessage());
+        }
+        assertEquals(messageCount, messages.size());
+    }
+    
+    @Test
+    void testParameterizedMessagesAreFormattedOnProcessingThread() throws Exception {
+        String caller = Thread.currentThread().getName();
+        Object threadProbe = new Object() {
+            @Override
+            public String toString() {
+                return Thread.currentThread().getName();
+            }
+        };
+        
+        for (boolean garbageFree : new boolean[]{false, true}) {
+            AsyncLogger logger = new AsyncLogger("Deferred", 64, OverflowStrategy.BLOCK, 1000, garbageFree);
+            assertEquals(MutableArgumentPolicy.FORMAT, logger.getMutableArgumentPolicy());
+            java.util.List<String> messages = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+            logger.addAppender(new CountingAppender() {
+                @Override
+                public void append(com.log4rich.util.LoggingEvent event) {
+                    messages.add(event.getMessage());
+                }
+            });
+            
+            StringBuilder mutable = new StringBuilder("before");
+            // Default policy: a mutable argument forces formatting on the caller
+            logger.info("probe={} sb={}", threadProbe, mutable);
+            logger.info("user {} id {}", "alice", 42);
+            logger.critical("critical {}", "x");
+            logger.log(LogLevel.WARN, "plain", null);
+            
+            logger.setMutableArgumentPolicy(MutableArgumentPolicy.CAPTURE);
+            logger.info("probe={}", threadProbe);
+            
+            logger.setMutableArgumentPolicy(MutableArgumentPolicy.SNAPSHOT);
+            logger.info("sb={} n={}", mutable, 7);
+            mutable.setLength(0);
+            mutable.append("after");
+            logger.shutdown();
+            
+            assertEquals(java.util.Arrays.asList(
+                "probe=" + caller + " sb=before",
+                "user alice id 42",
+                "critical x",
+                "plain",
+                "probe=log4Rich-async-Deferred",
+                "sb=before n=7"
+            ), messages, "garbageFree=" + garbageFree);
+        }
+    }
+    
+    @Test
+    void testPreallocatedRingBufferClaimAndDrain() {
+        RingBuffer<StringBuilder> buffer = new RingBuffer<>(4, StringBuilder::new);
+        assertTrue(buffer.isPreallocated());
+        assertThrows(IllegalStateException.class, () -> buffer.tryPublish(new StringBuilder()));
+        
+        for (int i = 0; i < 4; i++) {
+            long sequence = buffer.tryClaim();
+            assertEquals(i, sequence);
+            buffer.get(sequence).setLength(0);
+            buffer.get(sequence).append("slot").append(i);
+            buffer.publish(sequence);
+        }
+        assertEquals(-1, buffer.tryClaim());
+        
+        java.util.List<String> drained = new java.util.ArrayList<>();
+        assertEquals(4, buffer.drainTo(slot -> drained.add(slot.toString()), 8));
+        assertEquals(java.util.Arrays.asList("slot0", "slot1", "slot2", "slot3"), drained);
+        
+        // Slots are reused on the next lap
+        long sequence = buffer.tryClaim();
+        assertEquals(4, sequence);
+        assertEquals("slot0", buffer.get(sequence).toString());
+    }
+    
     @Test
     void testAsyncLoggerOverflowStrategies() throws Exception {
         // Test DROP_OLDEST strategy with a very small buffer to force overflow
@@ -409,6 +581,50 @@ public class AsyncLoggingTest {
         assertThrows(IllegalArgumentException.class, () -> OverflowStrategy.fromString("INVALID"));
     }
     
+    @Test
+    void testWaitStrategyParsing() {
+        assertTrue(WaitStrategy.fromString("BUSY_SPIN") instanceof WaitStrategy.BusySpin);
+        assertTrue(WaitStrategy.fromString("yield") instanceof WaitStrategy.Yielding);
+        assertTrue(WaitStrategy.fromString("Backoff") instanceof WaitStrategy.Backoff);
+        assertTrue(WaitStrategy.fromString("busy-spin") instanceof WaitStrategy.BusySpin);
+        assertEquals("BLOCKING", WaitStrategy.fromString("blocking").getName());
+        
+        // Test default
+        assertTrue(WaitStrategy.fromString(null) instanceof WaitStrategy.Backoff);
+        assertTrue(WaitStrategy.fromString("") instanceof WaitStrategy.Backoff);
+        
+        // Test invalid
+        assertThrows(IllegalArgumentException.class, () -> WaitStrategy.fromString("INVALID"));
+    }
+    
+    @Test
+    void testAsyncLoggerWaitStrategiesDeliverAllEvents() throws Exception {
+        String[] strategies = {"BUSY_SPIN", "YIELD", "BACKOFF", "BLOCKING"};
+        for (String strategy : strategies) {
+            AsyncLogger logger = new AsyncLogger("Wait-" + strategy, 1024, OverflowStrategy.BLOCK, 1000,
+                                                 false, WaitStrategy.fromString(strategy));
+            assertEquals(strategy, logger.getWaitStrategy().getName());
+            CountingAppender appender = new CountingAppender();
+            logger.addAppender(appender);
+            
+            // Let the processing thread go idle between bursts so the
+            // blocking strategy has to be woken up by a producer
+            for (int burst = 0; burst < 5; burst++) {
+                for (int i = 0; i < 20; i++) {
+                    logger.info("Message " + i);
+                }
+                Thread.sleep(20);
+            }
+            
+            long deadline = System.currentTimeMillis() + 2000;
+            while (appender.getMessageCount() < 100 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(100, appender.getMessageCount(), "Lost events with " + strategy);
+            logger.shutdown();
+        }
+    }
+    
     /**
      * Test appender that counts messages for testing purposes.
      */
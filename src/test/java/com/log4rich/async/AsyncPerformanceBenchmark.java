@@ -23,6 +23,7 @@ import com.log4rich.core.LogLevel;
 import com.log4rich.core.Logger;
 import com.log4rich.util.LoggingEvent;
 import com.log4rich.util.OverflowStrategy;
+import com.log4rich.util.RingBuffer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -33,6 +34,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Performance benchmarks for asynchronous logging to validate sub-microsecond latency claims.
@@ -257,6 +259,89 @@ public class AsyncPerformanceBenchmark {
         }
     }
     
+    @Test
+    void benchmarkRingBufferContention() throws Exception {
+        System.out.println("\n=== Ring Buffer Multi-Producer Contention Benchmark ===");
+        
+        int[] producerCounts = {1, 4, 16, 64};
+        int itemsPerProducer = 200000;
+        
+        for (int producers : producerCounts) {
+            // Warmup
+            runRingBufferContention(producers, itemsPerProducer / 10);
+            
+            long elapsedNanos = runRingBufferContention(producers, itemsPerProducer);
+            long total = (long) producers * itemsPerProducer;
+            double throughput = total * 1_000_000_000.0 / elapsedNanos;
+            
+            System.out.printf("%2d producers: %6d ms (%.0f items/s, %.0f ns/item), no events lost%n",
+                             producers, elapsedNanos / 1_000_000, throughput,
+                             (double) elapsedNanos / total);
+        }
+    }
+    
+    /**
+     * Publishes items from several producers into one ring buffer drained by a single
+     * consumer, verifying that every item arrives exactly once.
+     * 
+     * @return elapsed time in nanoseconds until the consumer received every item
+     */
+    private long runRingBufferContention(int producers, int itemsPerProducer) throws Exception {
+        RingBuffer<Long> buffer = new RingBuffer<>(65536);
+        long expectedCount = (long) producers * itemsPerProducer;
+        long expectedSum = 0;
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * itemsPerProducer;
+            expectedSum += itemsPerProducer * base + (long) itemsPerProducer * (itemsPerProducer - 1) / 2;
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean failed = new AtomicBoolean(false);
+        
+        for (int p = 0; p < producers; p++) {
+            final long base = (long) p * itemsPerProducer;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < itemsPerProducer; i++) {
+                        Long item = base + i;
+                        while (!buffer.tryPublish(item)) {
+                            Thread.yield();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    failed.set(true);
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        
+        Long[] batch = new Long[256];
+        long received = 0;
+        long sum = 0;
+        long startTime = System.nanoTime();
+        start.countDown();
+        
+        while (received < expectedCount && !failed.get()) {
+            int consumed = buffer.consumeBatch(batch, batch.length);
+            for (int i = 0; i < consumed; i++) {
+                sum += batch[i];
+            }
+            received += consumed;
+        }
+        
+        long elapsed = System.nanoTime() - startTime;
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        
+        if (received != expectedCount || sum != expectedSum) {
+            throw new AssertionError("Ring buffer lost or duplicated items: received=" + received +
+                                     "/" + expectedCount + ", checksum=" + sum + "/" + expectedSum);
+        }
+        return elapsed;
+    }
+    
     private long benchmarkSyncLogger(Logger logger, int iterations) {
         long startTime = System.currentTimeMillis();
         
@@ -31,8 +31,15 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -365,4 +372,96 @@ public class AsyncCompressionTest {
 
         System.out.println("=== Queue Overflow Test Complete ===\n");
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testPausedCompressionsResumeOldestFirst() throws Exception {
+        AsyncCompressionManager manager = new AsyncCompressionManager(new CompressionManager(), 100, 1, 30000);
+        try {
+            manager.pauseCompression();
+            long now = System.currentTimeMillis();
+            // Rotated newest first; only the first one is taken by the single thread while paused
+            String[] names = {"first.log", "newest.log", "oldest.log", "middle.log"};
+            long[] ages = {0, 1000, 3000, 2000};
+            List<String> completed = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch done = new CountDownLatch(names.length);
+            long totalBytes = 0;
+            for (int i = 0; i < names.length; i++) {
+                File file = tempDir.resolve(names[i]).toFile();
+                Files.write(file.toPath(), ("content of " + names[i] + "\n").getBytes());
+                assertTrue(file.setLastModified(now - ages[i]));
+                totalBytes += file.length();
+                assertTrue(manager.compressFileAsync(file, (original, compressed, success) -> {
+                    completed.add(original.getName());
+                    done.countDown();
+                }));
+                if (i == 0) {
+                    Thread.sleep(100);
+                }
+            }
+            
+            Thread.sleep(200);
+            assertTrue(completed.isEmpty(), "Nothing is compressed while paused");
+            assertTrue(manager.isCompressionPaused());
+            assertEquals(totalBytes, manager.getBacklogBytes());
+            assertEquals(-1, manager.getEstimatedDrainMillis());
+            
+            manager.resumeCompression();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("first.log", "oldest.log", "middle.log", "newest.log"), completed);
+            assertEquals(0, manager.getBacklogBytes());
+            assertEquals(0, manager.getEstimatedDrainMillis());
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    void testFullQueueRunsCompressionOnCaller() throws Exception {
+        // One thread and room for two queued tasks: the fourth file has nowhere to wait
+        AsyncCompressionManager manager = new AsyncCompressionManager(new CompressionManager(), 2, 1, 30000);
+        try {
+            manager.pauseCompression();
+            File[] files = new File[4];
+            for (int i = 0; i < files.length; i++) {
+                files[i] = tempDir.resolve("bounded-" + i + ".log").toFile();
+                Files.write(files[i].toPath(), ("content " + i + "\n").getBytes());
+            }
+            Map<String, Thread> ranOn = new ConcurrentHashMap<>();
+            AtomicInteger accepted = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(files.length);
+            Thread rotator = new Thread(() -> {
+                for (int i = 0; i < files.length; i++) {
+                    if (manager.compressFileAsync(files[i], (original, compressed, success) -> {
+                        ranOn.put(original.getName(), Thread.currentThread());
+                        done.countDown();
+                    })) {
+                        accepted.incrementAndGet();
+                    }
+                    if (i == 0) {
+                        try {
+                            Thread.sleep(100);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+            }, "rotator");
+            rotator.start();
+            
+            Thread.sleep(300);
+            assertTrue(rotator.isAlive(), "The overflow runs on the caller, which waits out the pause");
+            manager.resumeCompression();
+            rotator.join(10000);
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            
+            assertEquals(files.length, accepted.get());
+            assertSame(rotator, ranOn.get("bounded-3.log"));
+            for (int i = 0; i < 3; i++) {
+                assertNotSame(rotator, ranOn.get("bounded-" + i + ".log"));
+            }
+            assertEquals(0, manager.getBacklogBytes());
+        } finally {
+            manager.shutdown();
+        }
+    }
+}
@@ -18,10 +18,15 @@
 package com.log4rich.config;
 
 import com.log4rich.Log4Rich;
+import com.log4rich.appenders.Appender;
+import com.log4rich.appenders.AsyncAppenderWrapper;
 import com.log4rich.appenders.ConsoleAppender;
 import com.log4rich.appenders.RollingFileAppender;
+import com.log4rich.core.AsyncLogger;
 import com.log4rich.core.LogLevel;
+import com.log4rich.core.LogManager;
 import com.log4rich.core.Logger;
+import com.log4rich.util.MutableArgumentPolicy;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,6 +35,7 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -323,4 +329,33 @@ public class ConfigurationManagerTest {
         assertEquals("25M", config.getMaxSize());
         assertEquals(7, config.getMaxBackups());
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testAsyncSettingsWrapConfiguredAppenders() {
+        Properties props = new Properties();
+        props.setProperty("log4rich.console.enabled", "true");
+        props.setProperty("log4rich.file.enabled", "false");
+        props.setProperty("log4rich.file.path", "/tmp/test.log");
+        props.setProperty("log4rich.async.enabled", "true");
+        props.setProperty("log4rich.async.bufferSize", "1024");
+        props.setProperty("log4rich.async.waitStrategy", "YIELD");
+        props.setProperty("log4rich.async.waitStrategy.Console", "BLOCKING");
+        props.setProperty("log4rich.async.mutableArguments", "SNAPSHOT");
+        props.setProperty("log4rich.performance.zeroAllocation", "true");
+        ConfigurationManager.initialize(new Configuration(props));
+        
+        List<Appender> appenders = LogManager.getRootLogger().getAppenders();
+        assertEquals(1, appenders.size());
+        assertTrue(appenders.get(0) instanceof AsyncAppenderWrapper);
+        AsyncAppenderWrapper wrapper = (AsyncAppenderWrapper) appenders.get(0);
+        assertTrue(wrapper.getTargetAppender() instanceof ConsoleAppender);
+        AsyncLogger asyncLogger = wrapper.getAsyncLogger();
+        assertEquals("BLOCKING", asyncLogger.getWaitStrategy().getName(), "The per-appender override applies");
+        assertEquals(MutableArgumentPolicy.SNAPSHOT, asyncLogger.getMutableArgumentPolicy());
+        assertTrue(asyncLogger.isGarbageFree());
+        
+        // Re-applying replaces the wrapped appender instead of adding a second one
+        ConfigurationManager.setConsoleEnabled(true);
+        assertEquals(1, LogManager.getRootLogger().getAppenders().size());
+    }
+}
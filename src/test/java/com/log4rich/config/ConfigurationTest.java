@@ -106,6 +106,21 @@ public class ConfigurationTest {
         assertEquals(2, config.getLoggerLevels().size());
     }
     
+    @Test
+    void testAsyncWaitStrategyPerLogger() {
+        Properties props = new Properties();
+        props.setProperty("log4rich.file.path", "/tmp/test.log"); // Use valid path
+        props.setProperty("log4rich.async.waitStrategy", "BLOCKING");
+        props.setProperty("log4rich.async.waitStrategy.com.example.Hot", "BUSY_SPIN");
+        
+        Configuration config = new Configuration(props);
+        
+        assertEquals("BLOCKING", config.getAsyncWaitStrategy());
+        assertEquals("BUSY_SPIN", config.getAsyncWaitStrategy("com.example.Hot"));
+        assertEquals("BLOCKING", config.getAsyncWaitStrategy("com.example.Other"));
+        assertEquals("BACKOFF", new Configuration().getAsyncWaitStrategy("any"));
+    }
+    
     @Test
     void testLogLevelFallback() {
         Properties props = new Properties();
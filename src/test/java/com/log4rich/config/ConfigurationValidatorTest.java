@@ -151,6 +151,35 @@ public class ConfigurationValidatorTest {
         assertTrue(error.getSuggestion().contains("DROP_OLDEST"));
     }
     
+    @Test
+    public void testInvalidWaitStrategy() {
+        Properties properties = new Properties();
+        properties.setProperty("log4rich.async.waitStrategy", "blocking");
+        properties.setProperty("log4rich.async.waitStrategy.com.example.Hot", "SLEEPY");
+        
+        List<ConfigurationValidator.ConfigurationError> errors = ConfigurationValidator.validate(properties);
+        assertEquals(1, errors.size());
+        
+        ConfigurationValidator.ConfigurationError error = errors.get(0);
+        assertEquals("log4rich.async.waitStrategy.com.example.Hot", error.getPropertyName());
+        assertTrue(error.getErrorMessage().contains("Invalid wait strategy"));
+        assertTrue(error.getSuggestion().contains("BACKOFF"));
+    }
+    
+    @Test
+    public void testInvalidMutableArgumentPolicy() {
+        Properties properties = new Properties();
+        properties.setProperty("log4rich.async.mutableArguments", "REFERENCE");
+        
+        List<ConfigurationValidator.ConfigurationError> errors = ConfigurationValidator.validate(properties);
+        assertEquals(1, errors.size());
+        assertEquals("log4rich.async.mutableArguments", errors.get(0).getPropertyName());
+        assertTrue(errors.get(0).getSuggestion().contains("SNAPSHOT"));
+        
+        properties.setProperty("log4rich.async.mutableArguments", "capture");
+        assertTrue(ConfigurationValidator.validate(properties).isEmpty());
+    }
+    
     @Test
     public void testMultipleErrors() {
         Properties properties = new Properties();
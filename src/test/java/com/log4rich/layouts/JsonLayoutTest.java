@@ -18,6 +18,8 @@
 package com.log4rich.layouts;
 
 import com.log4rich.core.LogLevel;
+import com.log4rich.util.JsonArray;
+import com.log4rich.util.JsonObject;
 import com.log4rich.util.LocationInfo;
 import com.log4rich.util.LoggingEvent;
 import org.junit.jupiter.api.BeforeEach;
@@ -315,6 +317,62 @@ public class JsonLayoutTest {
         assertTrue(json.contains("🌍"));
     }
     
+    @Test
+    public void testStreamingOutputMatchesJsonObjectTree() {
+        LocationInfo location = new LocationInfo("com.example.TestClass", "run", "TestClass.java", 7);
+        Exception error = new RuntimeException("outer \"quoted\"", new IllegalStateException("inner\tcause"));
+        LoggingEvent event = new LoggingEvent(LogLevel.ERROR, "line1\nline2 \\ \u0001 \u00e9", "com.example.TestClass",
+                                              1700000000123L, "worker-1", location, error, null, null);
+        
+        for (boolean pretty : new boolean[] {false, true}) {
+            JsonLayout streaming = new JsonLayout(pretty, true, true, "yyyy-MM-dd HH:mm:ss.SSS");
+            streaming.addAdditionalField("service", "orders");
+            streaming.addAdditionalField("instance", 3);
+            streaming.addAdditionalField("canary", true);
+            
+            JsonObject exception = new JsonObject()
+                .addProperty("class", error.getClass().getName())
+                .addProperty("message", error.getMessage())
+                .add("stackTrace", JsonArray.fromStackTrace(error))
+                .add("cause", new JsonObject()
+                    .addProperty("class", IllegalStateException.class.getName())
+                    .addProperty("message", "inner\tcause"));
+            JsonObject expected = new JsonObject()
+                .addProperty("timestamp", new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS")
+                    .format(new java.util.Date(1700000000123L)))
+                .addProperty("level", "ERROR")
+                .addProperty("logger", "com.example.TestClass")
+                .addProperty("message", event.getMessage())
+                .addProperty("thread", "worker-1")
+                .add("location", new JsonObject()
+                    .addProperty("class", "com.example.TestClass")
+                    .addProperty("method", "run")
+                    .addProperty("file", "TestClass.java")
+                    .addProperty("line", 7))
+                .add("exception", exception)
+                .addProperty("service", "orders")
+                .addProperty("instance", 3)
+                .addProperty("canary", true);
+            
+            String expectedJson = pretty ? expected.toString() : expected.toCompactString();
+            assertEquals(expectedJson, streaming.format(event));
+            // A second call reuses the thread's writer and must not carry state over
+            assertEquals(expectedJson, streaming.format(event));
+        }
+    }
+    
+    @Test
+    public void testAdditionalFieldReplacesCoreField() {
+        layout.addAdditionalField("thread", "fixed");
+        layout.addAdditionalField("exception", "none");
+        
+        String json = layout.format(basicEvent);
+        
+        assertTrue(json.contains("\"message\":\"Test message\",\"thread\":\"fixed\","), json);
+        assertTrue(json.endsWith(",\"exception\":\"none\"}"), json);
+        assertEquals(json.indexOf("\"thread\""), json.lastIndexOf("\"thread\""));
+    }
+    
     @Test
     public void testPerformance() {
         // Simple performance test - formatting should be reasonably fast
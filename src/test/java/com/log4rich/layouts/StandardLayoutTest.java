@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.log4rich.layouts;
+
+import com.log4rich.core.LogLevel;
+import com.log4rich.util.LocationInfo;
+import com.log4rich.util.LoggingEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for StandardLayout pattern formatting.
+ */
+public class StandardLayoutTest {
+
+    private static final String NL = System.lineSeparator();
+
+    private LoggingEvent event;
+    private LoggingEvent eventWithException;
+
+    @BeforeEach
+    public void setUp() {
+        LocationInfo location = new LocationInfo(
+            "com.example.service.OrderService",
+            "placeOrder",
+            "OrderService.java",
+            42
+        );
+        Map<String, String> mdc = new LinkedHashMap<>();
+        mdc.put("requestId", "r-1");
+        mdc.put("user", "alice");
+        event = new LoggingEvent(LogLevel.INFO, "Order placed", "com.example.service.OrderService",
+                                 1700000000123L, "main", location, null,
+                                 mdc, Arrays.asList("outer", "inner"));
+
+        Exception cause = new IllegalStateException("root cause");
+        eventWithException = new LoggingEvent(LogLevel.ERROR, "Failed", "com.example.Test",
+                                              null, new RuntimeException("boom", cause));
+    }
+
+    @Test
+    public void testDefaultPatternPlaceholders() {
+        String result = new StandardLayout().format(event);
+        String date = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(1700000000123L));
+
+        assertEquals("[INFO] " + date + " [main] OrderService.placeOrder:42 - Order placed" + NL, result);
+    }
+
+    @Test
+    public void testDateWithMilliseconds() {
+        String result = new StandardLayout("%date{HH:mm:ss.SSS}").format(event);
+        String expected = new SimpleDateFormat("HH:mm:ss.SSS").format(new Date(1700000000123L));
+
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void testMessageIsNotReinterpreted() {
+        LoggingEvent tricky = new LoggingEvent(LogLevel.WARN, "100%level of %n done", "test", null);
+
+        assertEquals("[WARN] 100%level of %n done", new StandardLayout("[%level] %message").format(tricky));
+    }
+
+    @Test
+    public void testPaddingAndTruncation() {
+        assertEquals("[INFO ]", new StandardLayout("[%-5level]").format(event));
+        assertEquals("[ INFO]", new StandardLayout("[%5level]").format(event));
+        assertEquals("[INFO] [      main]", new StandardLayout("[%level] [%10thread]").format(event));
+        assertEquals("[Service]", new StandardLayout("[%.7logger]").format(event));
+        assertEquals("[com.exa]", new StandardLayout("[%.-7logger]").format(event));
+        assertEquals("[main      ]", new StandardLayout("[%-10.20thread]").format(event));
+    }
+
+    @Test
+    public void testLoggerAbbreviation() {
+        assertEquals("OrderService", new StandardLayout("%logger{1}").format(event));
+        assertEquals("service.OrderService", new StandardLayout("%logger{2}").format(event));
+        assertEquals("com.example.service.OrderService", new StandardLayout("%logger{10}").format(event));
+        assertEquals("com.example.service.OrderService", new StandardLayout("%logger").format(event));
+        assertEquals("service.OrderService", new StandardLayout("%class{2}").format(event));
+    }
+
+    @Test
+    public void testMdcAndNdc() {
+        assertEquals("r-1|", new StandardLayout("%mdc{requestId}|%mdc{missing}").format(event));
+        assertEquals("{requestId=r-1, user=alice}", new StandardLayout("%mdc").format(event));
+        assertEquals("outer inner", new StandardLayout("%ndc").format(event));
+    }
+
+    @Test
+    public void testMessageIncludesThrowableWithoutExConverter() {
+        String result = new StandardLayout("%message").format(eventWithException);
+
+        assertTrue(result.startsWith("Failed" + NL));
+        assertTrue(result.contains("RuntimeException: boom"));
+    }
+
+    @Test
+    public void testExConverterLimitsLines() {
+        String full = new StandardLayout("%message%n%ex").format(eventWithException);
+        assertTrue(full.startsWith("Failed" + NL + "java.lang.RuntimeException: boom" + NL));
+        assertTrue(full.contains("Caused by: java.lang.IllegalStateException: root cause"));
+
+        String limited = new StandardLayout("%message%n%ex{2}").format(eventWithException);
+        String[] lines = limited.split(NL);
+        assertEquals(3, lines.length);
+        assertEquals("Failed", lines[0]);
+        assertEquals("java.lang.RuntimeException: boom", lines[1]);
+        assertTrue(lines[2].trim().startsWith("at "));
+
+        assertEquals("Failed", new StandardLayout("%message%ex{none}").format(eventWithException));
+        assertEquals("Order placed", new StandardLayout("%message%ex").format(event));
+    }
+
+    @Test
+    public void testLiteralsAndUnknownPlaceholders() {
+        assertEquals("100% INFO %bogus", new StandardLayout("100%% %level %bogus").format(event));
+        assertEquals("INFO!", new StandardLayout("%level!").format(event));
+    }
+
+    @Test
+    public void testMissingLocationInfo() {
+        LoggingEvent noLocation = new LoggingEvent(LogLevel.DEBUG, "msg", "test", 0L, "t", null, null,
+                                                   Collections.emptyMap(), Collections.emptyList());
+
+        assertEquals("Unknown.unknown:0 Unknown", new StandardLayout("%class.%method:%line %file").format(noLocation));
+    }
+
+    @Test
+    public void testFormatIsRepeatable() {
+        StandardLayout layout = new StandardLayout("%-5level %logger{1} - %message");
+
+        assertEquals("INFO  OrderService - Order placed", layout.format(event));
+        assertEquals("INFO  OrderService - Order placed", layout.format(event));
+
+        StringBuilder sb = new StringBuilder("prefix:");
+        layout.format(event, sb);
+        assertEquals("prefix:INFO  OrderService - Order placed", sb.toString());
+    }
+
+    @Test
+    public void testEncodeMatchesFormat() {
+        LoggingEvent unicode = new LoggingEvent(LogLevel.WARN, "Grüße € 😀", "test", 0L, "main", null, null,
+                                                Collections.emptyMap(), Collections.emptyList());
+        Layout[] layouts = {
+            new StandardLayout("[%level] %logger - %message%n"),
+            new JsonLayout(),
+            new JsonLayout(true, false, false, "HH:mm:ss")
+        };
+        for (Layout layout : layouts) {
+            for (LoggingEvent e : Arrays.asList(event, eventWithException, unicode)) {
+                // A small buffer with existing content must be grown and kept intact
+                ByteBuffer buffer = ByteBuffer.allocate(8);
+                buffer.put((byte) '>');
+                ByteBuffer encoded = layout.encode(e, buffer);
+                encoded.flip();
+                byte[] bytes = new byte[encoded.remaining()];
+                encoded.get(bytes);
+
+                assertEquals(">" + layout.format(e), new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BackupCatalogueTest {
+
+    private static final String DATE_PATTERN = "yyyy-MM-dd-HH-mm-ss";
+
+    @TempDir
+    Path tempDir;
+
+    private File createFile(String name, int size, long lastModified) throws IOException {
+        File file = tempDir.resolve(name).toFile();
+        byte[] content = new byte[size];
+        Arrays.fill(content, (byte) 'x');
+        Files.write(file.toPath(), content);
+        assertTrue(file.setLastModified(lastModified));
+        return file;
+    }
+
+    @Test
+    public void testScanRecognizesSegmentsOldestFirst() throws IOException {
+        long now = System.currentTimeMillis();
+        createFile("app.log.2026-10-15-12-00-00.gz", 10, now - 3000);
+        createFile("app.log.2026-10-15-11-00-00", 20, now - 4000);
+        createFile("app.log.2026-10-15-12-00-00.1", 30, now - 2000);
+        // Not segments: the main file, the standby file and unrelated names
+        createFile("app.log", 5, now);
+        createFile("app.log.standby", 5, now);
+        createFile("app.log.lck", 5, now);
+        createFile("other.log.2026-10-15-11-00-00", 5, now);
+
+        BackupCatalogue catalogue = BackupCatalogue.scan(tempDir.resolve("app.log").toFile(), DATE_PATTERN);
+
+        assertEquals(3, catalogue.size());
+        assertEquals(60, catalogue.getTotalSize());
+        assertEquals("app.log.2026-10-15-11-00-00", catalogue.getFiles().get(0).getName());
+        assertEquals("app.log.2026-10-15-12-00-00.gz", catalogue.getFiles().get(1).getName());
+        assertEquals("app.log.2026-10-15-12-00-00.1", catalogue.getFiles().get(2).getName());
+    }
+
+    @Test
+    public void testScanUsesDatePattern() throws IOException {
+        long now = System.currentTimeMillis();
+        createFile("app.log.2026-10-15", 10, now);
+        createFile("app.log.2026-10-15-11-00-00", 10, now);
+
+        BackupCatalogue catalogue = BackupCatalogue.scan(tempDir.resolve("app.log").toFile(), "yyyy-MM-dd");
+
+        assertEquals(1, catalogue.size());
+        assertTrue(catalogue.contains("app.log.2026-10-15"));
+    }
+
+    @Test
+    public void testAddAndReplaceKeepOrderAndTotals() throws IOException {
+        long now = System.currentTimeMillis();
+        BackupCatalogue catalogue = new BackupCatalogue(tempDir.resolve("app.log").toFile());
+        File first = createFile("app.log.1", 100, now);
+        File second = createFile("app.log.2", 100, now);
+        catalogue.add(first, now - 2000);
+        catalogue.add(second, now - 1000);
+        catalogue.add(second, now);  // already recorded
+        catalogue.add(tempDir.resolve("app.log.3").toFile(), now);  // pruned before it was recorded
+
+        File compressed = createFile("app.log.1.gz", 10, now);
+        catalogue.replace(first, compressed);
+
+        assertEquals(2, catalogue.size());
+        assertEquals(110, catalogue.getTotalSize());
+        assertEquals(compressed, catalogue.getFiles().get(0));
+        assertFalse(catalogue.contains("app.log.1"));
+        assertTrue(catalogue.contains("app.log.1.gz"));
+    }
+
+    @Test
+    public void testPruneByCountSizeAndAge() throws IOException {
+        long now = System.currentTimeMillis();
+        BackupCatalogue catalogue = new BackupCatalogue(tempDir.resolve("app.log").toFile());
+        File[] files = new File[5];
+        for (int i = 0; i < files.length; i++) {
+            files[i] = createFile("app.log." + i, 100, now);
+            catalogue.add(files[i], now - TimeUnit.DAYS.toMillis(5 - i));
+        }
+
+        // Count: keep the newest four
+        assertEquals(1, catalogue.prune(4, 0, 0, now));
+        assertFalse(files[0].exists());
+
+        // Total size: keep at most 300 bytes
+        assertEquals(1, catalogue.prune(10, 300, 0, now));
+        assertFalse(files[1].exists());
+        assertEquals(300, catalogue.getTotalSize());
+
+        // Age: files[2] is three days old, files[3] two days
+        assertEquals(2, catalogue.prune(10, 0, TimeUnit.DAYS.toMillis(1) + 1000, now));
+        assertFalse(files[2].exists());
+        assertFalse(files[3].exists());
+
+        assertEquals(1, catalogue.size());
+        assertTrue(files[4].exists());
+        assertEquals(0, catalogue.prune(1, 100, TimeUnit.DAYS.toMillis(2), now));
+    }
+}
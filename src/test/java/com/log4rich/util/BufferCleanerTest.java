@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BufferCleanerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testUnmapsMappedBufferAndKeepsItsContent() throws Exception {
+        Path file = tempDir.resolve("mapped.bin");
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, 4096);
+            buffer.put(0, (byte) 42);
+            buffer.force();
+            assertEquals(BufferCleaner.isSupported(), BufferCleaner.clean(buffer));
+        }
+        assertEquals(42, Files.readAllBytes(file)[0]);
+    }
+
+    @Test
+    public void testLeavesViewsAndHeapBuffersAlone() {
+        ByteBuffer direct = ByteBuffer.allocateDirect(64);
+        assertFalse(BufferCleaner.clean(direct.duplicate()));
+        assertFalse(BufferCleaner.clean(ByteBuffer.allocate(64)));
+        assertFalse(BufferCleaner.clean(null));
+        assertEquals(BufferCleaner.isSupported(), BufferCleaner.clean(direct));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.log4rich.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachedDateFormatterTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+
+    @Test
+    public void testMatchesDateTimeFormatter() {
+        String[] patterns = {
+            "yyyy-MM-dd HH:mm:ss",
+            "yyyy-MM-dd HH:mm:ss.SSS",
+            "yyyy-MM-dd'T'HH:mm:ss.SSSZ",
+            "HH:mm:ss,SSS",
+            "SSS ss",
+            "HH:mm:ss.S",
+            "HH:mm:ss.SS",
+            "HH:mm:ss.SSSSSS",
+            "MMM dd HH:mm:ss",
+            "H:mm:ss.SSS",
+            "HH:mm:ss.nnnnnnnnn"
+        };
+        Random random = new Random(42);
+
+        for (String pattern : patterns) {
+            CachedDateFormatter cached = new CachedDateFormatter(pattern, Locale.ENGLISH, ZONE);
+            DateTimeFormatter reference = DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH).withZone(ZONE);
+
+            long time = 1700000000000L;
+            for (int i = 0; i < 2000; i++) {
+                // Mostly small steps within a second, sometimes large jumps
+                time += random.nextInt(10) == 0 ? random.nextInt(100_000_000) : random.nextInt(400);
+                String expected = reference.format(Instant.ofEpochMilli(time));
+                assertEquals(expected, cached.format(time), "pattern " + pattern + " at " + time);
+
+                StringBuilder sb = new StringBuilder(">");
+                cached.formatTo(time, sb);
+                assertEquals(">" + expected, sb.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testDaylightSavingTransition() {
+        CachedDateFormatter cached = new CachedDateFormatter("yyyy-MM-dd HH:mm:ss.SSS Z", Locale.ENGLISH, ZONE);
+        DateTimeFormatter reference = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS Z").withZone(ZONE);
+
+        // 2023-03-26 01:00:00 UTC, when Berlin moves from +0100 to +0200
+        long transition = 1679792400000L;
+        for (long time = transition - 1500; time < transition + 1500; time += 7) {
+            assertEquals(reference.format(Instant.ofEpochMilli(time)), cached.format(time));
+        }
+    }
+
+    @Test
+    public void testTimestampsBeforeEpoch() {
+        CachedDateFormatter cached = new CachedDateFormatter("yyyy-MM-dd HH:mm:ss.SSS", Locale.ENGLISH, ZoneId.of("UTC"));
+
+        assertEquals("1969-12-31 23:59:59.999", cached.format(-1L));
+        assertEquals("1969-12-31 23:59:59.001", cached.format(-999L));
+    }
+
+    @Test
+    public void testInvalidPattern() {
+        assertThrows(IllegalArgumentException.class, () -> new CachedDateFormatter("yyyy-MM-dd {"));
+        assertThrows(IllegalArgumentException.class, () -> new CachedDateFormatter(null));
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        CachedDateFormatter cached = new CachedDateFormatter("HH:mm:ss.SSS", Locale.ENGLISH, ZONE);
+        DateTimeFormatter reference = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZONE);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final long offset = t * 337L;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 20000 && failure.get() == null; i++) {
+                    long time = 1700000000000L + offset + i * 3L;
+                    String expected = reference.format(Instant.ofEpochMilli(time));
+                    String actual = cached.format(time);
+                    if (!expected.equals(actual)) {
+                        failure.set(expected + " != " + actual);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+    }
+}
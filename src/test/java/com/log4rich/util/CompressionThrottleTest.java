@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressionThrottleTest {
+
+    @Test
+    public void testRateLimitSpacesChunksOut() throws InterruptedIOException {
+        CompressionThrottle throttle = new CompressionThrottle(1024 * 1024, 100);
+
+        long start = System.nanoTime();
+        // The first chunk goes at once, the next four each wait for 64KB of the 1MB/s budget
+        for (int i = 0; i < 5; i++) {
+            throttle.pace(64 * 1024, 0);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs >= 240, "Expected about 250ms, took " + elapsedMs + "ms");
+        assertTrue(throttle.getThrottledMillis() >= 200);
+    }
+
+    @Test
+    public void testCpuShareRestsInProportion() throws InterruptedIOException {
+        CompressionThrottle throttle = new CompressionThrottle(0, 25);
+
+        long start = System.nanoTime();
+        // 20ms busy at 25% means resting 60ms
+        throttle.pace(1, TimeUnit.MILLISECONDS.toNanos(20));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMs >= 55, "Expected about 60ms, took " + elapsedMs + "ms");
+        assertTrue(elapsedMs < 1000);
+    }
+
+    @Test
+    public void testPauseHoldsUntilResumed() throws Exception {
+        CompressionThrottle throttle = new CompressionThrottle();
+        throttle.pause();
+        assertTrue(throttle.isPaused());
+
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean passed = new AtomicBoolean();
+        Thread worker = new Thread(() -> {
+            started.countDown();
+            try {
+                throttle.pace(1024, 0);
+                passed.set(true);
+            } catch (InterruptedIOException e) {
+                // The test fails on the assertion below
+            }
+        });
+        worker.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        worker.join(200);
+        assertFalse(passed.get(), "A paused throttle holds the compression");
+
+        throttle.resume();
+        worker.join(5000);
+        assertTrue(passed.get());
+
+        // A released throttle no longer pauses or limits anything
+        throttle.setMaxBytesPerSecond(1);
+        throttle.pause();
+        throttle.release();
+        long start = System.nanoTime();
+        throttle.pace(1024 * 1024, 0);
+        throttle.pace(1024 * 1024, 0);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GroupCommitTest {
+
+    @Test
+    public void testNeverDoesNotSync() throws IOException {
+        AtomicInteger syncs = new AtomicInteger();
+        GroupCommit commit = new GroupCommit(syncs::incrementAndGet, DurabilityMode.NEVER, 0);
+
+        commit.written();
+        commit.endOfBatch();
+
+        assertEquals(0, syncs.get());
+        assertEquals(0, commit.getSyncCount());
+    }
+
+    @Test
+    public void testEventSyncsEachSequentialWrite() throws IOException {
+        AtomicInteger syncs = new AtomicInteger();
+        GroupCommit commit = new GroupCommit(syncs::incrementAndGet, DurabilityMode.EVENT, 1000);
+
+        for (int i = 0; i < 3; i++) {
+            commit.written();
+        }
+
+        assertEquals(3, syncs.get());
+        assertEquals(3, commit.getSyncCount());
+    }
+
+    @Test
+    public void testBatchSyncsAtEndOfBatch() throws IOException {
+        AtomicInteger syncs = new AtomicInteger();
+        GroupCommit commit = new GroupCommit(syncs::incrementAndGet, DurabilityMode.BATCH, 60000);
+
+        for (int i = 0; i < 10; i++) {
+            commit.written();
+        }
+        assertEquals(0, syncs.get());
+
+        commit.endOfBatch();
+        assertEquals(1, syncs.get());
+
+        // Nothing new to make durable
+        commit.endOfBatch();
+        assertEquals(1, syncs.get());
+    }
+
+    @Test
+    public void testIntervalSyncsOnlyAfterInterval() throws Exception {
+        AtomicInteger syncs = new AtomicInteger();
+        GroupCommit commit = new GroupCommit(syncs::incrementAndGet, DurabilityMode.INTERVAL, 50);
+
+        commit.written();
+        assertEquals(0, syncs.get());
+
+        Thread.sleep(80);
+        commit.written();
+        commit.written();
+        assertEquals(1, syncs.get());
+    }
+
+    @Test
+    public void testConcurrentEventWritersShareSyncs() throws Exception {
+        int threads = 8;
+        int writesPerThread = 50;
+        AtomicInteger syncs = new AtomicInteger();
+        GroupCommit commit = new GroupCommit(() -> {
+            syncs.incrementAndGet();
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, DurabilityMode.EVENT, 1000);
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < writesPerThread; i++) {
+                        commit.written();
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join(30000);
+        }
+
+        assertNull(failure.get());
+        assertTrue(syncs.get() > 0);
+        assertTrue(syncs.get() < threads * writesPerThread,
+                   "Expected shared syncs, got " + syncs.get());
+    }
+
+    @Test
+    public void testFailedSyncIsReportedAndRetried() throws IOException {
+        AtomicInteger attempts = new AtomicInteger();
+        GroupCommit commit = new GroupCommit(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("disk full");
+            }
+        }, DurabilityMode.EVENT, 1000);
+
+        assertThrows(IOException.class, commit::written);
+        assertEquals(0, commit.getSyncCount());
+
+        commit.written();
+        assertEquals(2, attempts.get());
+        assertEquals(1, commit.getSyncCount());
+    }
+
+    @Test
+    public void testDurabilityModeFromString() {
+        assertEquals(DurabilityMode.NEVER, DurabilityMode.fromString(null));
+        assertEquals(DurabilityMode.NEVER, DurabilityMode.fromString(""));
+        assertEquals(DurabilityMode.BATCH, DurabilityMode.fromString(" batch "));
+        assertEquals(DurabilityMode.EVENT, DurabilityMode.fromString("EVENT"));
+        assertThrows(IllegalArgumentException.class, () -> DurabilityMode.fromString("sometimes"));
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GzipCompressorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] logContent(int lines) {
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(42);
+        for (int i = 0; i < lines; i++) {
+            text.append("2026-10-15 12:00:00,000 [INFO] worker-").append(i % 8)
+                .append(" com.example.Service - request ").append(random.nextInt(100000)).append('\n');
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(File file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    @Test
+    public void testCompressesLikeGzip() throws IOException {
+        byte[] content = logContent(20000);
+        File source = tempDir.resolve("app.log.2026-10-15-12-00-00").toFile();
+        Files.write(source.toPath(), content);
+        long lastModified = System.currentTimeMillis() - 60000;
+        assertTrue(source.setLastModified(lastModified));
+
+        // A small buffer makes the content pass through it many times
+        File compressed = new GzipCompressor(9, 4096, GzipCompressor.Strategy.FILTERED).compress(source);
+
+        assertEquals("app.log.2026-10-15-12-00-00.gz", compressed.getName());
+        assertFalse(source.exists(), "The source is deleted, as gzip does");
+        assertFalse(new File(compressed.getPath() + ".tmp").exists());
+        assertEquals(lastModified / 1000, compressed.lastModified() / 1000);
+        assertTrue(compressed.length() < content.length / 3);
+        assertArrayEquals(content, gunzip(compressed));
+    }
+
+    @Test
+    public void testReusesStateAcrossFilesAndSettings() throws IOException {
+        GzipCompressor fast = new GzipCompressor(1, GzipCompressor.DEFAULT_BUFFER_SIZE, GzipCompressor.Strategy.DEFAULT);
+        GzipCompressor stored = new GzipCompressor(0, 8192, GzipCompressor.Strategy.HUFFMAN_ONLY);
+        for (int i = 0; i < 3; i++) {
+            byte[] content = logContent(1000 * (i + 1));
+            File source = tempDir.resolve("file" + i + ".log").toFile();
+            Files.write(source.toPath(), content);
+            File compressed = (i % 2 == 0 ? fast : stored).compress(source);
+            assertArrayEquals(content, gunzip(compressed));
+        }
+
+        File empty = tempDir.resolve("empty.log").toFile();
+        Files.write(empty.toPath(), new byte[0]);
+        assertArrayEquals(new byte[0], gunzip(fast.compress(empty)));
+    }
+
+    @Test
+    public void testParallelBlocksFormOneGzipFile() throws IOException {
+        byte[] content = logContent(40000);
+        File source = tempDir.resolve("big.log").toFile();
+        Files.write(source.toPath(), content);
+
+        GzipCompressor parallel = new GzipCompressor(6, 8192, GzipCompressor.Strategy.DEFAULT, 4, 64 * 1024);
+        File compressed = parallel.compress(source);
+
+        // One member per block, read back as a single stream
+        assertArrayEquals(content, gunzip(compressed));
+        byte[] bytes = Files.readAllBytes(compressed.toPath());
+        int members = 0;
+        for (int i = 0; i + 3 < bytes.length; i++) {
+            if ((bytes[i] & 0xff) == 0x1f && (bytes[i + 1] & 0xff) == 0x8b && bytes[i + 2] == 8
+                    && (bytes[i + 3] == 0 || bytes[i + 3] == 8)) {
+                members++;
+            }
+        }
+        int blocks = (content.length + 64 * 1024 - 1) / (64 * 1024);
+        assertTrue(members >= blocks, "Expected a member per block, found " + members);
+
+        // A file no larger than one block is a single member
+        byte[] small = logContent(100);
+        File smallSource = tempDir.resolve("small.log").toFile();
+        Files.write(smallSource.toPath(), small);
+        assertArrayEquals(small, gunzip(parallel.compress(smallSource)));
+    }
+
+    @Test
+    public void testParallelBlocksPaceWithPoolTime() throws IOException {
+        byte[] content = logContent(40000);
+        File source = tempDir.resolve("paced.log").toFile();
+        Files.write(source.toPath(), content);
+        long[] paced = new long[3];  // calls, bytes, busy nanos
+        CompressionThrottle throttle = new CompressionThrottle() {
+            @Override
+            public void pace(long bytes, long busyNanos) throws InterruptedIOException {
+                paced[0]++;
+                paced[1] += bytes;
+                paced[2] += busyNanos;
+                super.pace(bytes, busyNanos);
+            }
+        };
+
+        GzipCompressor parallel = new GzipCompressor(6, 8192, GzipCompressor.Strategy.DEFAULT, 4, 64 * 1024);
+        File compressed = parallel.compress(source, throttle);
+
+        // Each block is paced once, with the time a pool thread spent on it
+        assertArrayEquals(content, gunzip(compressed));
+        assertEquals((content.length + 64 * 1024 - 1) / (64 * 1024), paced[0]);
+        assertEquals(content.length, paced[1]);
+        assertTrue(paced[2] > 0);
+    }
+
+    @Test
+    public void testMissingSourceLeavesNoFiles() {
+        File missing = tempDir.resolve("missing.log").toFile();
+        assertThrows(IOException.class, () -> new GzipCompressor().compress(missing));
+        assertEquals(0, tempDir.toFile().list().length);
+    }
+
+    @Test
+    public void testCompressionManagerRunsGzipInProcess() throws IOException {
+        CompressionManager manager = new CompressionManager("gzip", "-9", 30000);
+        assertNotNull(manager.getGzipCompressor());
+        assertEquals(9, manager.getGzipCompressor().getLevel());
+        assertTrue(manager.isProgramAvailable());
+        assertEquals(1, new CompressionManager("gzip", "--fast", 30000).getGzipCompressor().getLevel());
+        assertNull(new CompressionManager("bzip2", "-9", 30000).getGzipCompressor());
+
+        // An explicit level overrides the arguments
+        CompressionManager tuned = new CompressionManager("gzip", "-9", 30000, 3, 16384,
+                GzipCompressor.Strategy.fromString("huffman-only"));
+        assertEquals(3, tuned.getGzipCompressor().getLevel());
+        assertEquals(16384, tuned.getGzipCompressor().getBufferSize());
+        assertEquals(GzipCompressor.Strategy.HUFFMAN_ONLY, tuned.getGzipCompressor().getStrategy());
+
+        byte[] content = logContent(500);
+        File source = tempDir.resolve("app.log.1").toFile();
+        Files.write(source.toPath(), content);
+        File compressed = tuned.compressFile(source);
+        assertEquals("app.log.1.gz", compressed.getName());
+        assertArrayEquals(content, gunzip(compressed));
+
+        assertThrows(IllegalArgumentException.class, () -> GzipCompressor.Strategy.fromString("fastest"));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import com.log4rich.core.LogLevel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedGzipReaderTest {
+
+    private static final long START = 1792065600000L; // 2026-10-15 12:00:00 UTC
+
+    @TempDir
+    Path tempDir;
+
+    private static String line(int i) {
+        return START + i * 1000L + " [" + level(i) + "] request " + i + " handled\n";
+    }
+
+    private static LogLevel level(int i) {
+        return i % 100 == 0 ? LogLevel.ERROR : i % 10 == 0 ? LogLevel.WARN : LogLevel.INFO;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private File writeIndexed(int events, int blockSize) throws IOException {
+        File file = tempDir.resolve("app.log.gz").toFile();
+        ThreadSafeWriter writer = new ThreadSafeWriter(file, StandardCharsets.UTF_8, 8192, 6, 1000, blockSize);
+        for (int i = 0; i < events; i++) {
+            writer.markEvent(START + i * 1000L, level(i));
+            writer.write(line(i));
+        }
+        writer.close();
+        return file;
+    }
+
+    @Test
+    public void testIndexedFileIsPlainGzip() throws IOException {
+        File file = writeIndexed(5000, 8192);
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            expected.append(line(i));
+        }
+        assertEquals(expected.toString(), read(new GZIPInputStream(Files.newInputStream(file.toPath()))));
+
+        try (IndexedGzipReader reader = new IndexedGzipReader(file)) {
+            assertTrue(reader.hasIndex());
+            List<IndexedGzipReader.Block> blocks = reader.getBlocks();
+            assertTrue(blocks.size() > 10, "Expected many blocks, got " + blocks.size());
+            int events = 0;
+            int errors = 0;
+            StringBuilder content = new StringBuilder();
+            long previousEnd = 0;
+            for (IndexedGzipReader.Block block : blocks) {
+                assertEquals(previousEnd, block.getOffset(), "Blocks follow each other");
+                previousEnd = block.getOffset() + block.getLength();
+                events += block.getEventCount();
+                errors += block.getLevelCount(LogLevel.ERROR);
+                content.append(read(reader.openBlock(block)));
+            }
+            assertEquals(5000, events);
+            assertEquals(50, errors);
+            assertEquals(expected.toString(), content.toString(), "Blocks hold whole events");
+        }
+    }
+
+    @Test
+    public void testTimeWindowReadsOnlyMatchingBlocks() throws IOException {
+        File file = writeIndexed(5000, 8192);
+
+        try (IndexedGzipReader reader = new IndexedGzipReader(file)) {
+            long from = START + 2000 * 1000L;
+            long to = START + 2099 * 1000L;
+            List<IndexedGzipReader.Block> matching = reader.findBlocks(from, to);
+            assertFalse(matching.isEmpty());
+            assertTrue(matching.size() < reader.getBlocks().size() / 4);
+            for (IndexedGzipReader.Block block : matching) {
+                assertTrue(block.getMinTimestamp() <= to && block.getMaxTimestamp() >= from, block.toString());
+                assertTrue(block.hasLevel(LogLevel.INFO));
+            }
+
+            String window = read(reader.openRange(from, to));
+            for (int i = 2000; i < 2100; i++) {
+                assertTrue(window.contains(line(i)), "Missing event " + i);
+            }
+            assertFalse(window.contains(line(0)));
+            assertFalse(window.contains(line(4999)));
+            assertTrue(reader.findBlocks(START - 10000, START - 1).isEmpty());
+        }
+    }
+
+    @Test
+    public void testFileWithoutLocatorHasNoIndex() throws IOException {
+        File plain = tempDir.resolve("plain.log.gz").toFile();
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(plain.toPath()))) {
+            out.write(line(0).getBytes(StandardCharsets.UTF_8));
+        }
+        try (IndexedGzipReader reader = new IndexedGzipReader(plain)) {
+            assertFalse(reader.hasIndex());
+            assertTrue(reader.getBlocks().isEmpty());
+            assertTrue(reader.findBlocks(Long.MIN_VALUE, Long.MAX_VALUE).isEmpty());
+        }
+    }
+}
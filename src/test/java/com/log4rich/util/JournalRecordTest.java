@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import com.log4rich.core.LogLevel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalRecordTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static LoggingEvent sampleEvent() {
+        Map<String, String> mdc = new LinkedHashMap<>();
+        mdc.put("user", "alice");
+        mdc.put("request", "r-42");
+        RuntimeException error = new RuntimeException("outer", new IllegalStateException("inner"));
+        return new LoggingEvent(LogLevel.WARN, "Order {} for {} failed", new Object[]{42, "bob"},
+                "com.example.Orders", 1234567890123L, "worker-1",
+                new LocationInfo("com.example.Orders", "place", "Orders.java", 99),
+                error, mdc, Arrays.asList("outer", "inner"));
+    }
+
+    private static ByteBuffer encode(LoggingEvent event) {
+        ByteBuffer buffer = JournalRecord.encode(event, ByteBuffer.allocate(16));
+        buffer.flip();
+        return buffer;
+    }
+
+    @Test
+    public void testCrc32cKnownValue() {
+        ByteBuffer buffer = ByteBuffer.wrap("123456789".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(0xE3069283, Crc32c.compute(buffer, 0, buffer.limit()));
+        assertEquals(0, buffer.position(), "Computing the checksum must not move the buffer");
+    }
+
+    @Test
+    public void testRoundTrip() {
+        LoggingEvent original = sampleEvent();
+        ByteBuffer record = encode(original);
+
+        int size = JournalRecord.validate(record, 0, record.limit());
+        assertEquals(record.limit(), size);
+
+        record.position(JournalRecord.RECORD_HEADER_SIZE);
+        LoggingEvent decoded = JournalRecord.decode(record);
+        assertEquals(LogLevel.WARN, decoded.getLevel());
+        assertEquals(1234567890123L, decoded.getTimestamp());
+        assertEquals("com.example.Orders", decoded.getLoggerName());
+        assertEquals("worker-1", decoded.getThreadName());
+        assertEquals("Order 42 for bob failed", decoded.getMessage());
+        assertEquals("place", decoded.getLocationInfo().getMethodName());
+        assertEquals(99, decoded.getLocationInfo().getLineNumber());
+        assertEquals(original.getMDC(), decoded.getMDC());
+        assertEquals(original.getNDC(), decoded.getNDC());
+
+        Throwable throwable = decoded.getThrowable();
+        assertEquals("java.lang.RuntimeException: outer", throwable.toString());
+        assertEquals(original.getThrowable().getStackTrace().length, throwable.getStackTrace().length);
+        assertEquals("java.lang.IllegalStateException: inner", throwable.getCause().toString());
+    }
+
+    @Test
+    public void testCorruptionIsDetected() {
+        ByteBuffer record = encode(new LoggingEvent(LogLevel.INFO, "hello", "test", null));
+
+        record.put(record.limit() - 1, (byte) (record.get(record.limit() - 1) ^ 1));
+        assertEquals(-1, JournalRecord.validate(record, 0, record.limit()));
+        record.put(record.limit() - 1, (byte) (record.get(record.limit() - 1) ^ 1));
+
+        // A record cut short by a crash is not mistaken for a complete one
+        assertEquals(-1, JournalRecord.validate(record, 0, record.limit() - 1));
+        assertEquals(record.limit(), JournalRecord.validate(record, 0, record.limit()));
+    }
+
+    @Test
+    public void testFindValidEndStopsAtTornRecord() throws IOException {
+        File journal = tempDir.resolve("app.journal").toFile();
+        File segment = JournalRecord.segmentFile(journal, 7);
+        assertEquals(7, JournalRecord.sequenceOf(journal, segment));
+        assertEquals(-1, JournalRecord.sequenceOf(journal, journal));
+
+        ByteBuffer header = ByteBuffer.allocate(JournalRecord.SEGMENT_HEADER_SIZE);
+        JournalRecord.writeSegmentHeader(header, 7);
+        header.flip();
+        ByteBuffer first = encode(new LoggingEvent(LogLevel.INFO, "first", "test", null));
+        ByteBuffer second = encode(new LoggingEvent(LogLevel.INFO, "second", "test", null));
+        long complete = header.limit() + first.limit();
+
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.getChannel().write(new ByteBuffer[]{header, first});
+            // Only part of the second record reached the disk
+            second.limit(second.limit() / 2);
+            file.getChannel().write(second);
+            file.setLength(4096);
+        }
+
+        assertEquals(complete, JournalReader.findValidEnd(segment));
+        try (JournalReader reader = new JournalReader(segment)) {
+            assertTrue(reader.hasValidHeader());
+            assertEquals(7, reader.getSequence());
+            assertEquals("first", reader.next().getMessage());
+            assertNull(reader.next());
+            assertTrue(reader.hasTrailingData());
+        }
+        assertEquals(Collections.singletonList(segment), JournalReader.listSegments(journal));
+    }
+}
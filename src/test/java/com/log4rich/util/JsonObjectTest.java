@@ -270,4 +270,40 @@ public class JsonObjectTest {
         // Should create and format 1000 objects in reasonable time
         assertTrue(duration < 1000, "JsonObject performance too slow: " + duration + "ms for 1000 objects");
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testJsonWriterEscapingFastPath() {
+        String clean = "plain text without escapes";
+        assertSame(clean, JsonWriter.escape(clean));
+        assertEquals("a\\\"b\\\\c\\n\\u001f\\u0000", JsonWriter.escape("a\"b\\c\n\u001f\u0000"));
+        assertNull(JsonWriter.escape(null));
+        
+        StringBuilder sb = new StringBuilder();
+        JsonWriter.appendEscaped("x\ty", sb);
+        assertEquals("x\\ty", sb.toString());
+    }
+    
+    @Test
+    public void testJsonWriterStreaming() {
+        JsonWriter writer = new JsonWriter(false);
+        writer.beginObject()
+            .name("name").value("test")
+            .encodedName(JsonWriter.encodeName("count")).value(42)
+            .name("list").beginArray().value("a").value(true).endArray()
+            .name("empty").beginObject().endObject()
+            .name("raw").rawValue(JsonWriter.encodeValue(1.5))
+            .name("missing").value((String) null)
+            .endObject();
+        assertEquals("{\"name\":\"test\",\"count\":42,\"list\":[\"a\",true],\"empty\":{},\"raw\":1.5,\"missing\":null}",
+                     writer.getBuffer().toString());
+        
+        JsonWriter pretty = new JsonWriter(true);
+        pretty.beginObject().name("nested").beginObject().name("key").value("value").endObject().endObject();
+        JsonObject expected = new JsonObject().add("nested", new JsonObject().addProperty("key", "value"));
+        assertEquals(expected.toString(), pretty.getBuffer().toString());
+        
+        pretty.reset();
+        pretty.beginArray().endArray();
+        assertEquals("[]", pretty.getBuffer().toString());
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.log4rich.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocationInfoTest {
+
+    @Test
+    public void testInternDistinguishesMethods() {
+        LocationInfo a = LocationInfo.intern("com.example.Foo", "a", "Foo.java", 10);
+        LocationInfo b = LocationInfo.intern("com.example.Foo", "b", "Foo.java", 10);
+
+        assertNotSame(a, b);
+        assertSame(a, LocationInfo.intern(new String("com.example.Foo"), "a", "Foo.java", 10));
+        assertEquals("b", b.getMethodName());
+    }
+
+    @Test
+    public void testLoggingFrames() {
+        assertTrue(LocationInfo.isLoggingFrame("com.log4rich.core.Logger"));
+        assertTrue(LocationInfo.isLoggingFrame("org.slf4j.helpers.AbstractLogger"));
+        assertFalse(LocationInfo.isLoggingFrame("com.example.app.Service"));
+    }
+}
@@ -102,6 +102,42 @@ public class LoggingEventTest {
 
     // ========== Full pipeline tests (Logger → StandardLayout) ==========
 
+    @Test
+    public void parameterizedMessageRendersLazily() {
+        StringBuilder argument = new StringBuilder("first");
+        LoggingEvent event = new LoggingEvent(LogLevel.INFO, "value {}", new Object[]{argument},
+                "test", null, null, null, null);
+        assertEquals("value {}", event.getMessagePattern());
+        assertSame(argument, event.getArguments()[0]);
+
+        // Rendered on first access and cached from then on
+        argument.setLength(0);
+        argument.append("second");
+        assertEquals("value second", event.getMessage());
+        argument.append("!");
+        assertEquals("value second", event.getMessage());
+
+        StringBuilder sb = new StringBuilder();
+        event.appendMessage(sb);
+        assertEquals("value second", sb.toString());
+    }
+
+    @Test
+    public void reusableEventKeepsArgumentsUntilRendered() {
+        ReusableLoggingEvent reusable = new ReusableLoggingEvent();
+        reusable.set(LogLevel.WARN, "{} of {}", new Object[]{3, 5}, "test", null, null, null, null);
+
+        StringBuilder sb = new StringBuilder();
+        reusable.appendMessage(sb);
+        assertEquals("3 of 5", sb.toString());
+
+        LoggingEvent copy = reusable.toImmutable();
+        reusable.clear();
+        assertNull(reusable.getArguments());
+        assertEquals("{} of {}", copy.getMessagePattern());
+        assertEquals("3 of 5", copy.getMessage());
+    }
+
     @Test
     public void loggerWithNullMessageDoesNotThrow() {
         assertDoesNotThrow(() -> logger.log(LogLevel.INFO, null, null));
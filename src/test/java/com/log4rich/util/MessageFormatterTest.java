@@ -152,4 +152,38 @@ public class MessageFormatterTest {
         Throwable extractedThrowable = MessageFormatter.extractThrowable(new Object[]{fileName, e.getMessage(), e});
         assertSame(e, extractedThrowable);
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testFormatTo() {
+        StringBuilder sb = new StringBuilder("> ");
+        MessageFormatter.formatTo(sb, "User {} has {} items", "alice", 3);
+        assertEquals("> User alice has 3 items", sb.toString());
+        
+        MessageFormatter.formatTo(sb, null, "ignored");
+        assertEquals("> User alice has 3 items", sb.toString());
+    }
+    
+    @Test
+    public void testFailingToString() {
+        Object broken = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("broken");
+            }
+        };
+        assertEquals("Value: [FAILED toString()]", MessageFormatter.format("Value: {}", broken));
+    }
+    
+    @Test
+    public void testIsImmutable() {
+        assertTrue(MessageFormatter.isImmutable(null));
+        assertTrue(MessageFormatter.isImmutable("text"));
+        assertTrue(MessageFormatter.isImmutable(42));
+        assertTrue(MessageFormatter.isImmutable(java.time.Instant.EPOCH));
+        assertTrue(MessageFormatter.isImmutable(java.util.concurrent.TimeUnit.SECONDS));
+        
+        assertFalse(MessageFormatter.isImmutable(new StringBuilder("text")));
+        assertFalse(MessageFormatter.isImmutable(new java.util.ArrayList<>()));
+        assertFalse(MessageFormatter.isImmutable(new int[]{1}));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RolloverWorkerTest {
+
+    @Test
+    public void testTasksRunInOrderOnWorkerThread() {
+        RolloverWorker worker = new RolloverWorker("order");
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 5; i++) {
+            final int task = i;
+            assertTrue(worker.submit(() -> executed.add(task + ":" + Thread.currentThread().getName())));
+        }
+        assertTrue(worker.awaitIdle(5000));
+        worker.shutdown(1000);
+
+        assertEquals(5, executed.size());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(executed.get(i).startsWith(i + ":log4Rich-rollover-order-"), executed.get(i));
+        }
+        RolloverWorker.RolloverStatistics stats = worker.getStatistics();
+        assertEquals(5, stats.getTotalSubmitted());
+        assertEquals(5, stats.getTotalCompleted());
+        assertEquals(0, stats.getTotalRanInline());
+    }
+
+    @Test
+    public void testFullQueueRunsTaskOnCaller() throws InterruptedException {
+        RolloverWorker worker = new RolloverWorker("full", 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        worker.submit(() -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // One task fills the queue; the next one runs on this thread
+        assertTrue(worker.submit(() -> { }));
+        String[] ranOn = new String[1];
+        assertFalse(worker.submit(() -> ranOn[0] = Thread.currentThread().getName()));
+        assertEquals(Thread.currentThread().getName(), ranOn[0]);
+
+        Thread.sleep(20);
+        release.countDown();
+        worker.shutdown(5000);
+        RolloverWorker.RolloverStatistics stats = worker.getStatistics();
+        assertEquals(0, stats.getPendingTasks());
+        assertEquals(3, stats.getTotalCompleted());
+        assertEquals(1, stats.getTotalRanInline());
+        assertTrue(stats.getMaxLagMillis() >= 20);
+    }
+
+    @Test
+    public void testFailuresAreCountedAndShutdownDrains() {
+        RolloverWorker worker = new RolloverWorker("drain");
+        worker.submit(() -> {
+            throw new IllegalStateException("rotation failed");
+        });
+        worker.submit(() -> { });
+        worker.shutdown(5000);
+
+        assertTrue(worker.isShutdown());
+        RolloverWorker.RolloverStatistics stats = worker.getStatistics();
+        assertEquals(1, stats.getTotalFailed());
+        assertEquals(1, stats.getTotalCompleted());
+
+        // After shutdown work runs on the caller
+        assertFalse(worker.submit(() -> { }));
+        assertEquals(2, worker.getStatistics().getTotalCompleted());
+    }
+}
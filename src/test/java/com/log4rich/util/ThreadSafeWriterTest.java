@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.log4rich.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThreadSafeWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testFileSizeCountsWrittenBytes() throws IOException {
+        File file = tempDir.resolve("size.log").toFile();
+        Files.write(file.toPath(), "existing\n".getBytes(StandardCharsets.UTF_8));
+
+        ThreadSafeWriter writer = new ThreadSafeWriter(file, StandardCharsets.UTF_8, false, 8192);
+        assertEquals(9, writer.getFileSize());
+
+        writer.write("Grüße\n");
+        writer.write(ByteBuffer.wrap(new byte[]{'a', 'b'}));
+
+        // Still buffered, but already counted
+        assertEquals(9, file.length());
+        assertEquals(9 + 8 + 2, writer.getFileSize());
+
+        writer.close();
+        assertEquals(file.length(), writer.getFileSize());
+    }
+
+    @Test
+    public void testFileSizeWithOtherCharset() throws IOException {
+        File file = tempDir.resolve("utf16.log").toFile();
+        ThreadSafeWriter writer = new ThreadSafeWriter(file, StandardCharsets.UTF_16BE, true, 8192);
+        writer.write("abc");
+        assertEquals(6, writer.getFileSize());
+        writer.close();
+        assertEquals(file.length(), writer.getFileSize());
+    }
+
+    @Test
+    public void testChannelWritesHoldBytesUntilWatermark() throws IOException {
+        File file = tempDir.resolve("channel.log").toFile();
+        ThreadSafeWriter writer = new ThreadSafeWriter(file, StandardCharsets.UTF_8, false, 1024, 4096);
+
+        writer.write("Grüße\n");
+        writer.write(ByteBuffer.wrap(new byte[]{'a', 'b'}));
+        assertEquals(0, file.length());
+        assertEquals(10, writer.getFileSize());
+
+        // Crosses the watermark across several segments
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            line.append('x');
+        }
+        line.append('\n');
+        for (int i = 0; i < 50; i++) {
+            writer.write(line.toString());
+        }
+        assertTrue(file.length() >= 4096);
+
+        writer.close();
+        assertEquals(10 + 50 * 101, file.length());
+        assertEquals(file.length(), writer.getFileSize());
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertTrue(content.startsWith("Grüße\nab" + line));
+    }
+
+    @Test
+    public void testChannelWritesLargeAndNonUtf8Text() throws IOException {
+        File file = tempDir.resolve("channel-large.log").toFile();
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            large.append('€');
+        }
+        ThreadSafeWriter writer = new ThreadSafeWriter(file, StandardCharsets.UTF_8, true, 1024, 1024);
+        writer.write(large.toString());
+        writer.write("end\n");
+        assertEquals(3000 * 3 + 4, file.length());
+        writer.close();
+        assertEquals(large + "end\n", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+
+        File latin = tempDir.resolve("channel-latin.log").toFile();
+        writer = new ThreadSafeWriter(latin, StandardCharsets.ISO_8859_1, false, 1024, 1024);
+        writer.write("Grüße");
+        writer.close();
+        assertEquals("Grüße", new String(Files.readAllBytes(latin.toPath()), StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    public void testChannelWriterReturnsBuffersToPool() throws IOException {
+        int bufferSize = 3072;  // a capacity no other test uses
+        ThreadSafeWriter writer = new ThreadSafeWriter(tempDir.resolve("pool.log").toFile(),
+                StandardCharsets.UTF_8, false, bufferSize, 2 * bufferSize);
+        for (int i = 0; i < 100; i++) {
+            writer.write("Message " + i + "\n");
+        }
+        int idleBefore = DirectBufferPool.getIdleCount(bufferSize);
+        writer.close();
+        assertEquals(idleBefore + 1, DirectBufferPool.getIdleCount(bufferSize));
+
+        writer = new ThreadSafeWriter(tempDir.resolve("pool2.log").toFile(),
+                StandardCharsets.UTF_8, false, bufferSize, bufferSize);
+        writer.write("reuses the pooled buffer\n");
+        assertEquals(idleBefore, DirectBufferPool.getIdleCount(bufferSize));
+        writer.close();
+    }
+
+    /**
+     * Decompresses as much of a gzip file as is readable, as zcat does for
+     * a file still being written.
+     */
+    private static String gunzipReadable(File file) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+        } catch (EOFException e) {
+            // The stream is not finished yet
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testGzipWriterTailIsReadableWhileOpen() throws IOException {
+        File file = tempDir.resolve("live.log.gz").toFile();
+        ThreadSafeWriter writer = new ThreadSafeWriter(file, StandardCharsets.UTF_8, 8192, 6, 0);
+        assertTrue(writer.isGzip());
+        writer.write("first line\n");
+        writer.write(ByteBuffer.wrap("second line\n".getBytes(StandardCharsets.UTF_8)));
+        // Sync-flushed after every write, so both lines can be read before close
+        assertEquals("first line\nsecond line\n", gunzipReadable(file));
+        assertEquals(file.length(), writer.getFileSize());
+        writer.close();
+
+        // Reopening appends a member that reads as a continuation
+        writer = new ThreadSafeWriter(file, StandardCharsets.UTF_8, 8192, 6, 60000);
+        for (int i = 0; i < 1000; i++) {
+            writer.write("repeated line " + (i % 10) + "\n");
+        }
+        writer.flush();
+        String content = gunzipReadable(file);
+        assertTrue(content.endsWith("repeated line 9\n"));
+        writer.close();
+        assertTrue(file.length() < 1000 * 16 / 4, "Repetitive text should compress well");
+        assertEquals(content, gunzipReadable(file));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.log4rich.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TriggeringPolicyTest {
+
+    private static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+    private static long at(int year, int month, int day, int hour, int minute) {
+        return ZonedDateTime.of(year, month, day, hour, minute, 0, 0, ZONE).toInstant().toEpochMilli();
+    }
+
+    @Test
+    public void testSizeBased() {
+        TriggeringPolicy.SizeBased policy = new TriggeringPolicy.SizeBased(100);
+        policy.fileStarted(0);
+        assertFalse(policy.isTriggeringEvent(0, 99));
+        assertTrue(policy.isTriggeringEvent(0, 100));
+
+        policy.setMaxFileSize(200);
+        assertFalse(policy.isTriggeringEvent(0, 100));
+    }
+
+    @Test
+    public void testHourlyBoundary() {
+        TriggeringPolicy.TimeBased policy = new TriggeringPolicy.TimeBased(TriggeringPolicy.Interval.HOURLY, ZONE);
+        assertFalse(policy.isTriggeringEvent(Long.MAX_VALUE - 1, 0));
+
+        policy.fileStarted(at(2026, 10, 15, 9, 30));
+        assertEquals(at(2026, 10, 15, 10, 0), policy.getNextRolloverTime());
+        assertFalse(policy.isTriggeringEvent(at(2026, 10, 15, 10, 0) - 1, 0));
+        assertTrue(policy.isTriggeringEvent(at(2026, 10, 15, 10, 0), 0));
+    }
+
+    @Test
+    public void testDailyBoundaryAcrossDaylightSavingChange() {
+        TriggeringPolicy.TimeBased policy = new TriggeringPolicy.TimeBased(TriggeringPolicy.Interval.DAILY, ZONE);
+
+        // The day DST ends in New York has 25 hours; the boundary stays at midnight
+        policy.fileStarted(at(2026, 11, 1, 0, 30));
+        assertEquals(at(2026, 11, 2, 0, 0), policy.getNextRolloverTime());
+    }
+
+    @Test
+    public void testCompositeTriggersOnEither() {
+        TriggeringPolicy.Composite policy = new TriggeringPolicy.Composite(
+            new TriggeringPolicy.SizeBased(100),
+            new TriggeringPolicy.TimeBased(TriggeringPolicy.Interval.DAILY, ZONE));
+        policy.fileStarted(at(2026, 10, 15, 9, 0));
+
+        assertFalse(policy.isTriggeringEvent(at(2026, 10, 15, 23, 59), 50));
+        assertTrue(policy.isTriggeringEvent(at(2026, 10, 15, 23, 59), 100));
+        assertTrue(policy.isTriggeringEvent(at(2026, 10, 16, 0, 0), 50));
+        assertEquals("SIZE_AND_TIME", policy.getName());
+    }
+
+    @Test
+    public void testFromString() {
+        TriggeringPolicy.SizeBased size = new TriggeringPolicy.SizeBased(100);
+        assertSame(size, TriggeringPolicy.fromString(null, null, size));
+        assertSame(size, TriggeringPolicy.fromString("size", null, size));
+
+        TriggeringPolicy time = TriggeringPolicy.fromString("TIME", "hourly", size);
+        assertEquals("TIME", time.getName());
+        assertEquals(TriggeringPolicy.Interval.HOURLY, ((TriggeringPolicy.TimeBased) time).getInterval());
+
+        assertEquals("SIZE_AND_TIME", TriggeringPolicy.fromString("size-and-time", "DAILY", size).getName());
+        assertThrows(IllegalArgumentException.class, () -> TriggeringPolicy.fromString("WEEKLY", null, size));
+        assertThrows(IllegalArgumentException.class, () -> TriggeringPolicy.fromString("TIME", "WEEKLY", size));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.log4rich.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Utf8EncoderTest {
+
+    private static byte[] encode(CharSequence text, ByteBuffer buffer) {
+        ByteBuffer result = Utf8Encoder.encode(text, buffer);
+        result.flip();
+        byte[] bytes = new byte[result.remaining()];
+        result.get(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void testMatchesGetBytes() {
+        String[] samples = {
+            "",
+            "plain ASCII log line\n",
+            "café über naïve",
+            "€ 100 中文 ￿",
+            "emoji 😀 and 𝄞",
+            "unpaired \ud800 high and \udc00 low",
+            "trailing high \ud83d"
+        };
+        for (String sample : samples) {
+            byte[] expected = sample.getBytes(StandardCharsets.UTF_8);
+            assertArrayEquals(expected, encode(sample, ByteBuffer.allocate(256)), sample);
+            assertArrayEquals(expected, encode(new StringBuilder(sample), ByteBuffer.allocateDirect(256)), sample);
+        }
+    }
+
+    @Test
+    public void testRandomText() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            char[] chars = new char[random.nextInt(200)];
+            for (int j = 0; j < chars.length; j++) {
+                // Mostly ASCII with a mix of two-, three-byte and surrogate chars
+                switch (random.nextInt(6)) {
+                    case 0:
+                        chars[j] = (char) (0x80 + random.nextInt(0x780));
+                        break;
+                    case 1:
+                        chars[j] = (char) (0x800 + random.nextInt(0xF800));
+                        break;
+                    default:
+                        chars[j] = (char) random.nextInt(0x80);
+                        break;
+                }
+            }
+            String text = new String(chars);
+            // A tiny buffer forces growth along the way
+            assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), encode(text, ByteBuffer.allocate(4)));
+        }
+    }
+
+    @Test
+    public void testAppendsAfterExistingContentAndGrows() {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.put((byte) 'x');
+
+        String text = "éééééééé grows";
+        ByteBuffer result = Utf8Encoder.encode(text, buffer);
+
+        assertNotSame(buffer, result);
+        result.flip();
+        byte[] bytes = new byte[result.remaining()];
+        result.get(bytes);
+        assertEquals("x" + text, new String(bytes, StandardCharsets.UTF_8));
+
+        // Large enough buffers are used as they are
+        ByteBuffer big = ByteBuffer.allocate(64);
+        assertSame(big, Utf8Encoder.encode("fits", big));
+        assertEquals(4, big.position());
+
+        // Direct buffers, such as the writer's segments, are filled in place
+        ByteBuffer direct = ByteBuffer.allocateDirect(64);
+        direct.put((byte) 'x');
+        assertSame(direct, Utf8Encoder.encode("ascii then é", direct));
+        assertEquals(1 + "ascii then é".getBytes(StandardCharsets.UTF_8).length, direct.position());
+        direct.flip();
+        byte[] directBytes = new byte[direct.remaining()];
+        direct.get(directBytes);
+        assertEquals("xascii then é", new String(directBytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFormatBufferIsClearedAndReplacedWhenLarge() {
+        StringBuilder sb = Utf8Encoder.getFormatBuffer();
+        sb.append("leftover");
+        assertSame(sb, Utf8Encoder.getFormatBuffer());
+        assertEquals(0, sb.length());
+
+        char[] large = new char[20000];
+        Arrays.fill(large, 'a');
+        sb.append(large);
+        StringBuilder replaced = Utf8Encoder.getFormatBuffer();
+        assertNotSame(sb, replaced);
+        assertEquals(0, replaced.length());
+    }
+}